@@ -0,0 +1,340 @@
+/*******************************************************************************
+ * Copyright 2026 Geoscience Australia
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package au.gov.ga.earthsci.bookmark.ui;
+
+import static org.junit.Assert.*;
+import gov.nasa.worldwind.WorldWindow;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.jmock.Expectations;
+import org.jmock.Mockery;
+import org.junit.Before;
+import org.junit.Test;
+
+import au.gov.ga.earthsci.bookmark.AbstractBookmarkPropertyAnimator;
+import au.gov.ga.earthsci.bookmark.IBookmarkPropertyAnimator;
+import au.gov.ga.earthsci.worldwind.common.render.ExtendedSceneController;
+import au.gov.ga.earthsci.worldwind.common.render.PaintTask;
+
+/**
+ * Unit tests for the {@link BookmarkTransition} class
+ * 
+ * @author James Navin (james.navin@ga.gov.au)
+ */
+public class BookmarkTransitionTest
+{
+	private static final long DURATION = 1000;
+
+	private TestAnimator animator1;
+	private TestAnimator animator2;
+	private List<Boolean> ended;
+	private BookmarkTransition classUnderTest;
+	private long startTime;
+
+	@Before
+	public void setup()
+	{
+		animator1 = new TestAnimator();
+		animator2 = new TestAnimator();
+		ended = new ArrayList<Boolean>();
+		classUnderTest = createTransition(null);
+		startTime = System.currentTimeMillis();
+	}
+
+	private BookmarkTransition createTransition(WorldWindow wwd)
+	{
+		return new BookmarkTransition(wwd, Arrays.<IBookmarkPropertyAnimator> asList(animator1, animator2),
+				DURATION, new BookmarkTransition.Listener()
+				{
+					@Override
+					public void transitionEnded(BookmarkTransition transition, boolean completed)
+					{
+						ended.add(completed);
+					}
+				});
+	}
+
+	@Test
+	public void testFirstFrameInitialisesAnimators()
+	{
+		assertFalse(classUnderTest.applyFrame(startTime));
+
+		assertTrue(animator1.isInitialised());
+		assertTrue(animator2.isInitialised());
+		assertEquals(1, classUnderTest.getFrameCount());
+	}
+
+	@Test
+	public void testAnimatorsAreAppliedAtFrameTime()
+	{
+		classUnderTest.applyFrame(startTime);
+		classUnderTest.applyFrame(startTime + 250);
+
+		assertEquals(Arrays.asList(startTime, startTime + 250), animator1.frameTimes);
+		assertEquals(Arrays.asList(startTime, startTime + 250), animator2.frameTimes);
+	}
+
+	@Test
+	public void testAnimatorsShareTransitionStartTime()
+	{
+		//a slow animator initialisation doesn't give the animators different time bases
+		animator1.initDelay = 50;
+		classUnderTest.applyFrame(startTime);
+		assertEquals(startTime, animator1.startTime);
+		assertEquals(startTime, animator2.startTime);
+
+		assertFalse(classUnderTest.applyFrame(startTime + DURATION / 2));
+		assertEquals(0.5, animator1.getPercent(), 0);
+		assertEquals(0.5, animator2.getPercent(), 0);
+
+		assertTrue(classUnderTest.applyFrame(startTime + DURATION));
+		assertEquals(1, animator1.getPercent(), 0);
+		assertEquals(1, animator2.getPercent(), 0);
+	}
+
+	@Test
+	public void testLastFrameAtEndOfDuration()
+	{
+		assertFalse(classUnderTest.applyFrame(startTime));
+		assertFalse(classUnderTest.applyFrame(startTime + DURATION - 1));
+		assertTrue(classUnderTest.applyFrame(startTime + DURATION));
+	}
+
+	@Test
+	public void testDroppedFramesAreCounted()
+	{
+		classUnderTest.applyFrame(startTime);
+		classUnderTest.applyFrame(startTime + 17);
+		classUnderTest.applyFrame(startTime + 34);
+		assertEquals(0, classUnderTest.getDroppedFrameCount());
+
+		//a 50ms interval spans three frames at 60fps, so two frames were dropped
+		classUnderTest.applyFrame(startTime + 84);
+		assertEquals(2, classUnderTest.getDroppedFrameCount());
+		assertEquals(50, classUnderTest.getMaxFrameInterval());
+		assertEquals(4, classUnderTest.getFrameCount());
+	}
+
+	@Test
+	public void testCancelDisposesAnimatorsAndNotifiesOnce()
+	{
+		classUnderTest.applyFrame(startTime);
+		classUnderTest.cancel();
+		classUnderTest.cancel();
+
+		assertTrue(classUnderTest.isFinished());
+		assertEquals(1, animator1.disposeCount);
+		assertEquals(1, animator2.disposeCount);
+		assertEquals(Arrays.asList(false), ended);
+
+		//frames after cancelling are ignored
+		classUnderTest.run(null);
+		assertEquals(1, animator1.frameTimes.size());
+	}
+
+	@Test
+	public void testCancelTakesEffectOnNextFrame()
+	{
+		TestSceneController sceneController = new TestSceneController();
+		classUnderTest = createTransition(createWorldWindow(sceneController));
+		classUnderTest.start();
+		sceneController.runTasks();
+		assertEquals(1, animator1.frameTimes.size());
+
+		classUnderTest.cancel();
+		assertTrue(classUnderTest.isCancelled());
+		assertFalse(classUnderTest.isFinished());
+		assertEquals(0, animator1.disposeCount);
+		assertTrue(ended.isEmpty());
+
+		sceneController.runTasks();
+		assertTrue(classUnderTest.isFinished());
+		assertEquals(1, animator1.frameTimes.size());
+		assertEquals(1, animator1.disposeCount);
+		assertEquals(1, animator2.disposeCount);
+		assertEquals(Arrays.asList(false), ended);
+		assertTrue(sceneController.tasks.isEmpty());
+	}
+
+	@Test
+	public void testCancelDoesNotBlockWhileFrameIsApplied() throws InterruptedException
+	{
+		TestSceneController sceneController = new TestSceneController();
+		classUnderTest = createTransition(createWorldWindow(sceneController));
+		classUnderTest.start();
+		sceneController.runTasks();
+
+		//the second frame blocks until cancel() returns, like an animator waiting on the UI thread
+		final CountDownLatch applying = new CountDownLatch(1);
+		final CountDownLatch cancelled = new CountDownLatch(1);
+		final boolean[] cancelReturned = new boolean[1];
+		animator1.onApply = new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				applying.countDown();
+				try
+				{
+					cancelReturned[0] = cancelled.await(5, TimeUnit.SECONDS);
+				}
+				catch (InterruptedException e)
+				{
+				}
+			}
+		};
+		final TestSceneController renderer = sceneController;
+		Thread renderThread = new Thread(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				renderer.runTasks();
+			}
+		});
+		renderThread.start();
+
+		assertTrue(applying.await(5, TimeUnit.SECONDS));
+		classUnderTest.cancel();
+		cancelled.countDown();
+		renderThread.join(5000);
+
+		assertTrue(cancelReturned[0]);
+		//animator2 isn't applied once the transition has been cancelled
+		assertEquals(1, animator2.frameTimes.size());
+		assertEquals(Arrays.asList(false), ended);
+	}
+
+	private WorldWindow createWorldWindow(final ExtendedSceneController sceneController)
+	{
+		Mockery mockContext = new Mockery();
+		final WorldWindow wwd = mockContext.mock(WorldWindow.class);
+		mockContext.checking(new Expectations()
+		{
+			{
+				{
+					allowing(wwd).getSceneController();
+					will(returnValue(sceneController));
+					allowing(wwd).redraw();
+				}
+			}
+		});
+		return wwd;
+	}
+
+	/**
+	 * Scene controller that runs its pre-paint tasks on demand, in place of
+	 * the render loop
+	 */
+	private static class TestSceneController extends ExtendedSceneController
+	{
+		private final Queue<PaintTask> tasks = new LinkedList<PaintTask>();
+
+		@Override
+		public void addPrePaintTask(PaintTask r)
+		{
+			synchronized (tasks)
+			{
+				tasks.add(r);
+			}
+		}
+
+		/**
+		 * Run the tasks queued before this frame, as the render loop does
+		 */
+		public void runTasks()
+		{
+			List<PaintTask> frameTasks;
+			synchronized (tasks)
+			{
+				frameTasks = new ArrayList<PaintTask>(tasks);
+				tasks.clear();
+			}
+			for (PaintTask task : frameTasks)
+			{
+				task.run(null);
+			}
+		}
+	}
+
+	private static class TestAnimator extends AbstractBookmarkPropertyAnimator
+	{
+		private final List<Long> frameTimes = new ArrayList<Long>();
+		private boolean initialised = false;
+		private int disposeCount = 0;
+		private long startTime;
+		private long initDelay = 0;
+		private Runnable onApply;
+
+		public TestAnimator()
+		{
+			super(null, null, DURATION);
+		}
+
+		@Override
+		public void init(long startTime)
+		{
+			super.init(startTime);
+			this.startTime = startTime;
+			initialised = true;
+			if (initDelay > 0)
+			{
+				try
+				{
+					Thread.sleep(initDelay);
+				}
+				catch (InterruptedException e)
+				{
+				}
+			}
+		}
+
+		public double getPercent()
+		{
+			return getCurrentTimeAsPercent();
+		}
+
+		@Override
+		public boolean isInitialised()
+		{
+			return initialised;
+		}
+
+		@Override
+		public void applyFrame(long time)
+		{
+			super.applyFrame(time);
+			frameTimes.add(time);
+			if (onApply != null)
+			{
+				onApply.run();
+			}
+		}
+
+		@Override
+		public void dispose()
+		{
+			disposeCount++;
+		}
+	}
+}
@@ -0,0 +1,341 @@
+/*******************************************************************************
+ * Copyright 2026 Geoscience Australia
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package au.gov.ga.earthsci.bookmark.ui;
+
+import gov.nasa.worldwind.SceneController;
+import gov.nasa.worldwind.WorldWindow;
+import gov.nasa.worldwind.render.DrawContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import au.gov.ga.earthsci.bookmark.IBookmarkPropertyAnimator;
+import au.gov.ga.earthsci.worldwind.common.render.ExtendedSceneController;
+import au.gov.ga.earthsci.worldwind.common.render.PaintTask;
+
+/**
+ * An animated transition between the current world state and a bookmark,
+ * driven by the render loop.
+ * <p/>
+ * The transition runs as a pre-paint task of the world window's
+ * {@link ExtendedSceneController}. Each rendered frame, every animator is
+ * applied once at that frame's time, and the transition requeues itself and
+ * requests a redraw until its duration has elapsed. No thread is occupied
+ * while the transition is running.
+ * <p/>
+ * The animators are initialised, applied and disposed on the render thread,
+ * and no lock is held while they are called. Applying an animator can block
+ * on the UI thread (for example, when a layer's opacity changes), so
+ * {@link #cancel()} never blocks: it flags the transition as cancelled, and the
+ * animators are disposed and the listener notified on the next frame.
+ * <p/>
+ * Frame statistics are recorded so that the smoothness of transitions can be
+ * measured: a frame is counted as dropped for each
+ * {@link #TARGET_FRAME_INTERVAL} that passes between frames without a frame
+ * being rendered.
+ * 
+ * @author James Navin (james.navin@ga.gov.au)
+ */
+public class BookmarkTransition implements PaintTask
+{
+	/**
+	 * Interval (in milliseconds) between frames at the target frame rate of
+	 * 60 frames per second, used when counting dropped frames
+	 */
+	public static final double TARGET_FRAME_INTERVAL = 1000d / 60d;
+
+	private static final Logger logger = LoggerFactory.getLogger(BookmarkTransition.class);
+
+	private final WorldWindow wwd;
+	private final List<IBookmarkPropertyAnimator> animators;
+	private final long duration;
+	private final Listener listener;
+
+	private volatile ExtendedSceneController sceneController;
+	private volatile boolean cancelled = false;
+	private volatile boolean finished = false;
+
+	private long startTime;
+	private long lastFrameTime;
+	private volatile int frameCount;
+	private volatile int droppedFrameCount;
+	private volatile long maxFrameInterval;
+
+	/**
+	 * Create a new transition. Call {@link #start()} to start the transition.
+	 * 
+	 * @param wwd
+	 *            World window to render the transition in
+	 * @param animators
+	 *            Animators that animate the properties of the bookmark
+	 * @param duration
+	 *            Duration of the transition, in milliseconds
+	 * @param listener
+	 *            Listener to notify when the transition ends, or
+	 *            <code>null</code>
+	 */
+	public BookmarkTransition(WorldWindow wwd, List<IBookmarkPropertyAnimator> animators, long duration,
+			Listener listener)
+	{
+		this.wwd = wwd;
+		this.animators = new ArrayList<IBookmarkPropertyAnimator>(animators);
+		this.duration = duration;
+		this.listener = listener;
+	}
+
+	/**
+	 * Start the transition, applying its first frame when the world window
+	 * next renders.
+	 * <p/>
+	 * If the world window's scene controller doesn't support pre-paint tasks,
+	 * the final state of the transition is applied immediately.
+	 */
+	public void start()
+	{
+		if (finished)
+		{
+			return;
+		}
+		SceneController sc = wwd.getSceneController();
+		if (!(sc instanceof ExtendedSceneController))
+		{
+			logger.warn("Scene controller does not support paint tasks, applying bookmark without animation"); //$NON-NLS-1$
+			applyFrame(System.currentTimeMillis());
+			applyFrame(startTime + duration);
+			finish(!cancelled);
+			wwd.redraw();
+			return;
+		}
+
+		sceneController = (ExtendedSceneController) sc;
+		sceneController.addPrePaintTask(this);
+		wwd.redraw();
+	}
+
+	/**
+	 * Cancel the transition, leaving the world in its current state. Does
+	 * nothing if the transition has already ended.
+	 * <p/>
+	 * This method doesn't block. If the transition is running in the render
+	 * loop, its animators are disposed and the listener is notified on the
+	 * render thread when the next frame is rendered.
+	 */
+	public void cancel()
+	{
+		if (finished)
+		{
+			return;
+		}
+		cancelled = true;
+		if (sceneController == null)
+		{
+			//not running in the render loop
+			finish(false);
+			return;
+		}
+		wwd.redraw();
+	}
+
+	/**
+	 * @return Whether this transition has ended, either by completing or by a
+	 *         cancellation taking effect
+	 */
+	public boolean isFinished()
+	{
+		return finished;
+	}
+
+	/**
+	 * @return Whether this transition has been cancelled
+	 */
+	public boolean isCancelled()
+	{
+		return cancelled;
+	}
+
+	@Override
+	public void run(DrawContext dc)
+	{
+		if (finished)
+		{
+			return;
+		}
+		boolean last = !cancelled && applyFrame(System.currentTimeMillis());
+		if (cancelled)
+		{
+			finish(false);
+		}
+		else if (last)
+		{
+			finish(true);
+		}
+		else
+		{
+			sceneController.addPrePaintTask(this);
+			wwd.redraw();
+		}
+	}
+
+	/**
+	 * Apply a single frame of the transition. The animators are initialised
+	 * on the first frame, and the first frame's time is used as the start time
+	 * of the transition and of every animator, so that they all share a
+	 * single clock.
+	 * 
+	 * @param time
+	 *            Frame time, in milliseconds
+	 * @return True if this frame was the last frame of the transition
+	 */
+	protected boolean applyFrame(long time)
+	{
+		if (frameCount == 0)
+		{
+			startTime = time;
+			for (IBookmarkPropertyAnimator animator : animators)
+			{
+				try
+				{
+					animator.init(startTime);
+				}
+				catch (Exception e)
+				{
+					logger.error("Error initialising animator", e); //$NON-NLS-1$
+				}
+			}
+		}
+		else
+		{
+			long interval = time - lastFrameTime;
+			maxFrameInterval = Math.max(maxFrameInterval, interval);
+			droppedFrameCount += Math.max(0, (int) Math.round(interval / TARGET_FRAME_INTERVAL) - 1);
+		}
+		lastFrameTime = time;
+		frameCount++;
+
+		for (IBookmarkPropertyAnimator animator : animators)
+		{
+			if (cancelled)
+			{
+				//cancelled while applying the frame
+				break;
+			}
+			try
+			{
+				if (animator.isInitialised())
+				{
+					animator.applyFrame(time);
+				}
+			}
+			catch (Exception e)
+			{
+				logger.error("Error applying animator frame", e); //$NON-NLS-1$
+			}
+		}
+		return time - startTime >= duration;
+	}
+
+	/**
+	 * Dispose the animators and notify the listener, if this transition hasn't
+	 * already finished. No lock is held while the animators and listener are
+	 * called.
+	 */
+	private void finish(boolean completed)
+	{
+		synchronized (this)
+		{
+			if (finished)
+			{
+				return;
+			}
+			finished = true;
+		}
+		for (IBookmarkPropertyAnimator animator : animators)
+		{
+			animator.dispose();
+		}
+		if (completed && logger.isDebugEnabled())
+		{
+			logger.debug("Bookmark transition completed: " + frameCount + " frames, " + droppedFrameCount //$NON-NLS-1$ //$NON-NLS-2$
+					+ " dropped, longest frame interval " + maxFrameInterval + "ms"); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		if (listener != null)
+		{
+			listener.transitionEnded(this, completed);
+		}
+	}
+
+	/**
+	 * @return World window this transition is rendered in
+	 */
+	public WorldWindow getWorldWindow()
+	{
+		return wwd;
+	}
+
+	/**
+	 * @return Duration of this transition, in milliseconds
+	 */
+	public long getDuration()
+	{
+		return duration;
+	}
+
+	/**
+	 * @return Number of frames applied so far
+	 */
+	public int getFrameCount()
+	{
+		return frameCount;
+	}
+
+	/**
+	 * @return Number of frames dropped so far, relative to the
+	 *         {@link #TARGET_FRAME_INTERVAL}
+	 */
+	public int getDroppedFrameCount()
+	{
+		return droppedFrameCount;
+	}
+
+	/**
+	 * @return Longest interval between two frames so far, in milliseconds
+	 */
+	public long getMaxFrameInterval()
+	{
+		return maxFrameInterval;
+	}
+
+	/**
+	 * Listener notified when a {@link BookmarkTransition} ends.
+	 */
+	public static interface Listener
+	{
+		/**
+		 * Called when the transition ends. Can be called on the render
+		 * thread.
+		 * 
+		 * @param transition
+		 *            Transition that ended
+		 * @param completed
+		 *            True if the transition ran to completion, false if it
+		 *            was cancelled
+		 */
+		void transitionEnded(BookmarkTransition transition, boolean completed);
+	}
+}
@@ -17,6 +17,7 @@ package au.gov.ga.earthsci.bookmark.ui;
 
 import static au.gov.ga.earthsci.bookmark.ui.Messages.*;
 import gov.nasa.worldwind.View;
+import gov.nasa.worldwind.WorldWindow;
 
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
@@ -27,10 +28,11 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -84,8 +86,8 @@ public class BookmarksController extends AbstractPropertyChangeBean implements I
 	private BookmarksPart part;
 
 	/**
-	 * A property change listener used to stop the bookmark applicator thread on
-	 * {@link View#VIEW_STOPPED} events.
+	 * A property change listener used to stop the current bookmark transition
+	 * on {@link View#VIEW_STOPPED} events.
 	 */
 	private final PropertyChangeListener viewStopListener = new PropertyChangeListener()
 	{
@@ -100,8 +102,8 @@ public class BookmarksController extends AbstractPropertyChangeBean implements I
 	};
 
 	/**
-	 * A mouse listener used to stop the bookmark applicator thread on mouse
-	 * pressed events
+	 * A mouse listener used to stop the current bookmark transition and
+	 * playlist on mouse pressed events
 	 */
 	private final MouseListener mouseStopListener = new MouseAdapter()
 	{
@@ -113,41 +115,33 @@ public class BookmarksController extends AbstractPropertyChangeBean implements I
 	};
 
 	/**
-	 * An executor service used to execute the application of a single bookmark
-	 * state to the world
+	 * The currently running bookmark transition, animated by the render loop.
+	 * <code>null</code> implies no running transition.
 	 */
-	private final ExecutorService applicatorService = Executors.newSingleThreadExecutor(new ThreadFactory()
-	{
-		@Override
-		public Thread newThread(final Runnable runnable)
-		{
-			return new Thread(runnable, "Bookmark Applicator Thread"); //$NON-NLS-1$
-		}
-	});
+	private volatile BookmarkTransition currentTransition;
+	private final Object currentTransitionLock = new Object();
 
 	/**
-	 * The currently executing bookmark applicator. <code>null</code> implies no
-	 * running application.
+	 * An executor service used to schedule the next bookmark of a playlist once
+	 * the wait between bookmarks has elapsed
 	 */
-	private transient Future<?> currentApplicatorTask;
-
-	/**
-	 * An executor service used to play through a bookmark list
-	 */
-	private final ExecutorService playlistService = Executors.newSingleThreadExecutor(new ThreadFactory()
-	{
-		@Override
-		public Thread newThread(Runnable r)
-		{
-			return new Thread(r, "Bookmark Playlist Thread"); //$NON-NLS-1$
-		}
-	});
+	private final ScheduledExecutorService playlistService = Executors
+			.newSingleThreadScheduledExecutor(new ThreadFactory()
+			{
+				@Override
+				public Thread newThread(Runnable r)
+				{
+					Thread thread = new Thread(r, "Bookmark Playlist Thread"); //$NON-NLS-1$
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
 
 	/**
-	 * The currently executing playlist applicator. <code>null</code> implies no
-	 * running playlist.
+	 * The currently running playlist. <code>null</code> implies no running
+	 * playlist.
 	 */
-	private transient Future<?> currentPlaylistTask;
+	private volatile BookmarkPlaylist currentPlaylist;
 
 	public BookmarksController()
 	{
@@ -180,22 +174,112 @@ public class BookmarksController extends AbstractPropertyChangeBean implements I
 	public void apply(final IBookmark bookmark)
 	{
 		stop();
-		doApply(bookmark);
+		doApply(bookmark, null);
 	}
 
 	/**
-	 * Perform the application of the bookmark to the world, without stopping
-	 * any running animations
+	 * Start a transition from the current world state to the given bookmark,
+	 * without stopping any running playlist
+	 * 
+	 * @param bookmark
+	 *            Bookmark to apply
+	 * @param listener
+	 *            Listener to notify when the transition ends, or
+	 *            <code>null</code>
+	 * @return The started transition, or <code>null</code> if there is no
+	 *         active world window
 	 */
-	private void doApply(final IBookmark bookmark)
+	private BookmarkTransition doApply(final IBookmark bookmark, final BookmarkTransition.Listener listener)
 	{
-		View view = WorldWindowRegistry.INSTANCE.getActiveView();
-		if (view != null)
+		stopCurrentTransition();
+
+		final WorldWindow wwd = WorldWindowRegistry.INSTANCE.getActive();
+		if (wwd == null || wwd.getView() == null)
 		{
-			part.highlight(bookmark);
-			currentApplicatorTask =
-					applicatorService.submit(new BookmarkApplicatorRunnable(view, bookmark, getDuration(bookmark)));
+			return null;
 		}
+		final View view = wwd.getView();
+
+		part.highlight(bookmark);
+
+		view.stopMovement();
+		view.stopAnimations();
+		view.addPropertyChangeListener(View.VIEW_STOPPED, viewStopListener);
+		wwd.getInputHandler().addMouseListener(mouseStopListener);
+
+		long duration = getDuration(bookmark);
+		BookmarkTransition transition =
+				new BookmarkTransition(wwd, createAnimators(bookmark, duration), duration,
+						new BookmarkTransition.Listener()
+						{
+							@Override
+							public void transitionEnded(BookmarkTransition ended, boolean completed)
+							{
+								detachTransition(ended);
+								if (listener != null)
+								{
+									listener.transitionEnded(ended, completed);
+								}
+							}
+						});
+		synchronized (currentTransitionLock)
+		{
+			currentTransition = transition;
+		}
+		transition.start();
+		return transition;
+	}
+
+	/**
+	 * Remove the stop listeners added for the given transition, and clear the
+	 * current transition, if the given transition is still current. Does
+	 * nothing if the transition has already been detached, so that a
+	 * cancelled transition that ends after a new transition has started
+	 * doesn't remove the new transition's listeners.
+	 * 
+	 * @param transition
+	 *            Transition to detach
+	 */
+	private void detachTransition(BookmarkTransition transition)
+	{
+		synchronized (currentTransitionLock)
+		{
+			if (currentTransition != transition)
+			{
+				return;
+			}
+			currentTransition = null;
+		}
+		WorldWindow wwd = transition.getWorldWindow();
+		wwd.getInputHandler().removeMouseListener(mouseStopListener);
+		if (wwd.getView() != null)
+		{
+			wwd.getView().removePropertyChangeListener(View.VIEW_STOPPED, viewStopListener);
+		}
+	}
+
+	/**
+	 * Create the animators used to transition from the current world state to
+	 * the given bookmark
+	 */
+	private List<IBookmarkPropertyAnimator> createAnimators(final IBookmark bookmark, final long duration)
+	{
+		List<IBookmarkPropertyAnimator> animators = new ArrayList<IBookmarkPropertyAnimator>();
+		final IBookmark currentState = BookmarkFactory.createBookmark();
+		for (IBookmarkProperty property : bookmark.getProperties())
+		{
+			final IBookmarkProperty currentProperty = currentState.getProperty(property.getType());
+			final IBookmarkPropertyApplicator applicator = BookmarkPropertyApplicatorRegistry.getApplicator(property);
+			if (applicator != null)
+			{
+				IBookmarkPropertyAnimator animator = applicator.createAnimator(currentProperty, property, duration);
+				if (animator != null)
+				{
+					animators.add(animator);
+				}
+			}
+		}
+		return animators;
 	}
 
 	@Override
@@ -345,29 +429,36 @@ public class BookmarksController extends AbstractPropertyChangeBean implements I
 			return;
 		}
 
-		View wwview = WorldWindowRegistry.INSTANCE.getActiveView();
-		if (wwview == null)
+		WorldWindow wwd = WorldWindowRegistry.INSTANCE.getActive();
+		if (wwd == null || wwd.getView() == null)
 		{
 			logger.debug("No view found. Aborting play."); //$NON-NLS-1$
 			return;
 		}
+		if (list.getBookmarks().isEmpty())
+		{
+			logger.debug("Bookmark list is empty. Aborting play."); //$NON-NLS-1$
+			return;
+		}
 
-		currentPlaylistTask = playlistService.submit(new BookmarkPlaylistRunnable(wwview, list, bookmark));
+		BookmarkPlaylist playlist = new BookmarkPlaylist(wwd, list, bookmark);
+		currentPlaylist = playlist;
+		playlist.applyCurrent();
 	}
 
 	@Override
 	public boolean isPlaying()
 	{
-		return currentPlaylistTask != null;
+		return currentPlaylist != null;
 	}
 
 	@Override
 	public void stop()
 	{
-		if (currentPlaylistTask != null)
+		BookmarkPlaylist playlist = currentPlaylist;
+		if (playlist != null)
 		{
-			currentPlaylistTask.cancel(true);
-			currentPlaylistTask = null;
+			playlist.cancel();
 		}
 		stopCurrentTransition();
 	}
@@ -480,10 +571,13 @@ public class BookmarksController extends AbstractPropertyChangeBean implements I
 	 */
 	public void stopCurrentTransition()
 	{
-		if (currentApplicatorTask != null)
+		BookmarkTransition transition = currentTransition;
+		if (transition != null)
 		{
-			currentApplicatorTask.cancel(true);
-			currentApplicatorTask = null;
+			//the cancellation takes effect on the next rendered frame, so
+			//detach it now rather than when it ends
+			detachTransition(transition);
+			transition.cancel();
 		}
 	}
 
@@ -498,144 +592,104 @@ public class BookmarksController extends AbstractPropertyChangeBean implements I
 	}
 
 	/**
-	 * A {@link Runnable} that triggers the animation between the current world
-	 * state and the selected bookmark.
+	 * Plays through a bookmark list, applying each bookmark in turn. Each
+	 * bookmark's transition is animated by the render loop, and the next
+	 * bookmark is scheduled once the transition has completed and the user
+	 * specified wait time has elapsed.
 	 */
-	private class BookmarkApplicatorRunnable implements Runnable
+	private class BookmarkPlaylist implements BookmarkTransition.Listener
 	{
-		private final long duration;
-		private final View view;
-		private final List<IBookmarkPropertyAnimator> animators;
-
-		private long endTime;
+		private final WorldWindow wwd;
+		private final List<IBookmark> list;
+		private IBookmark currentBookmark;
+		private ScheduledFuture<?> next;
+		private boolean waiting = false;
+		private boolean cancelled = false;
 
-		BookmarkApplicatorRunnable(final View view, final IBookmark bookmark, final long duration)
+		BookmarkPlaylist(WorldWindow wwd, IBookmarkList list, IBookmark bookmark)
 		{
-			this.duration = duration;
-			this.view = view;
+			this.wwd = wwd;
+			this.list = new ArrayList<IBookmark>(list.getBookmarks());
+			this.currentBookmark = this.list.contains(bookmark) ? bookmark : this.list.get(0);
+		}
 
-			this.animators = new ArrayList<IBookmarkPropertyAnimator>();
-			final IBookmark currentState = BookmarkFactory.createBookmark();
-			for (IBookmarkProperty property : bookmark.getProperties())
+		/**
+		 * Start the transition to the current bookmark
+		 */
+		void applyCurrent()
+		{
+			synchronized (this)
 			{
-				final IBookmarkProperty currentProperty = currentState.getProperty(property.getType());
-				final IBookmarkPropertyApplicator applicator =
-						BookmarkPropertyApplicatorRegistry.getApplicator(property);
-				if (applicator != null)
+				if (cancelled)
 				{
-					IBookmarkPropertyAnimator animator = applicator.createAnimator(currentProperty, property, duration);
-					if (animator != null)
-					{
-						animators.add(animator);
-					}
+					return;
 				}
 			}
+			if (doApply(currentBookmark, this) == null)
+			{
+				end();
+			}
 		}
 
 		@Override
-		public void run()
+		public void transitionEnded(BookmarkTransition transition, boolean completed)
 		{
-			view.stopMovement();
-			view.stopAnimations();
-
-			view.addPropertyChangeListener(View.VIEW_STOPPED, viewStopListener);
-			view.getViewInputHandler().getWorldWindow().getInputHandler().addMouseListener(mouseStopListener);
-
-			endTime = System.currentTimeMillis() + duration;
-			while (System.currentTimeMillis() <= endTime)
+			synchronized (this)
 			{
-				if (Thread.interrupted())
+				if (completed && !cancelled)
 				{
-					break;
+					// Wait for user specified time, then proceed to next bookmark
+					wwd.getInputHandler().addMouseListener(mouseStopListener);
+					waiting = true;
+					next = playlistService.schedule(new Runnable()
+					{
+						@Override
+						public void run()
+						{
+							stopWaiting();
+							int nextIndex = (list.indexOf(currentBookmark) + 1) % list.size();
+							currentBookmark = list.get(nextIndex);
+							applyCurrent();
+						}
+					}, preferences.getPlayBookmarksWaitDuration(), TimeUnit.MILLISECONDS);
+					return;
 				}
-				applyAnimators();
 			}
-			applyAnimators();
-
-			view.getViewInputHandler().getWorldWindow().getInputHandler().removeMouseListener(mouseStopListener);
-			view.removePropertyChangeListener(View.VIEW_STOPPED, viewStopListener);
+			end();
 		}
 
-		private void applyAnimators()
+		/**
+		 * Stop the playlist; any running transition is stopped separately
+		 */
+		void cancel()
 		{
-			for (IBookmarkPropertyAnimator animator : animators)
+			synchronized (this)
 			{
-				try
+				cancelled = true;
+				if (next != null)
 				{
-					if (!animator.isInitialised())
-					{
-						animator.init();
-					}
-					animator.applyFrame();
-				}
-				catch (Exception e)
-				{
-					logger.error("Error applying animator frame", e); //$NON-NLS-1$
+					next.cancel(false);
 				}
+				stopWaiting();
 			}
-			view.getViewInputHandler().getWorldWindow().redraw();
+			end();
 		}
-	}
 
-	/**
-	 * A runnable that loops through the provided bookmark list and applies each
-	 * bookmark in turn
-	 */
-	private class BookmarkPlaylistRunnable implements Runnable
-	{
-		private final View view;
-		private final List<IBookmark> list;
-		private IBookmark currentBookmark;
-
-		BookmarkPlaylistRunnable(View view, IBookmarkList list, IBookmark bookmark)
+		private synchronized void stopWaiting()
 		{
-			this.view = view;
-			this.list = new ArrayList<IBookmark>(list.getBookmarks());
-			this.currentBookmark = this.list.contains(bookmark) ? bookmark : this.list.get(0);
+			if (waiting)
+			{
+				wwd.getInputHandler().removeMouseListener(mouseStopListener);
+				waiting = false;
+			}
 		}
 
-		@Override
-		public void run()
+		private void end()
 		{
-			view.stopAnimations();
-			view.stopMovement();
-
-			while (true)
+			if (currentPlaylist == this)
 			{
-				try
-				{
-					// Apply current bookmark and wait for completion
-					doApply(currentBookmark);
-					currentApplicatorTask.get();
-
-					// Wait for user specified time
-					view.getViewInputHandler().getWorldWindow().getInputHandler().addMouseListener(mouseStopListener);
-					Thread.sleep(preferences.getPlayBookmarksWaitDuration());
-					view.getViewInputHandler().getWorldWindow().getInputHandler()
-							.removeMouseListener(mouseStopListener);
-
-					// Proceed to next bookmark
-					int nextIndex = (list.indexOf(currentBookmark) + 1) % list.size();
-					currentBookmark = list.get(nextIndex);
-
-					if (Thread.interrupted())
-					{
-						break;
-					}
-				}
-				catch (InterruptedException e)
-				{
-					// Expected if user cancels playlist during wait phase
-					break;
-				}
-				catch (Exception e)
-				{
-					logger.error("Exception occurred while running playlist.", e); //$NON-NLS-1$
-					break;
-				}
-
+				currentPlaylist = null;
 			}
-			currentPlaylistTask = null;
 		}
 	}
 
@@ -33,6 +33,7 @@ public abstract class AbstractBookmarkPropertyAnimator implements IBookmarkPrope
 
 	private long startTime;
 	private long endTime;
+	private long frameTime;
 
 	public AbstractBookmarkPropertyAnimator(final IBookmarkProperty start, final IBookmarkProperty end,
 			final long duration)
@@ -61,21 +62,33 @@ public abstract class AbstractBookmarkPropertyAnimator implements IBookmarkPrope
 	}
 
 	@Override
-	public void init()
+	public void init(long startTime)
 	{
-		startTime = System.currentTimeMillis();
+		this.startTime = startTime;
 		endTime = startTime + duration;
+		frameTime = startTime;
 	}
 
+	/**
+	 * @return The time of the frame currently being applied, as a percentage
+	 *         of this animator's duration (clamped to [0,1])
+	 */
 	protected double getCurrentTimeAsPercent()
 	{
-		return Util.percentDouble(System.currentTimeMillis(), startTime, endTime);
+		return Util.percentDouble(frameTime, startTime, endTime);
 	}
 
 	@Override
-	public void applyFrame()
+	public final void applyFrame()
 	{
-		// For subclasses to override as needed
+		applyFrame(System.currentTimeMillis());
+	}
+
+	@Override
+	public void applyFrame(long time)
+	{
+		// Subclasses should call super.applyFrame(time) before applying the frame
+		frameTime = time;
 	}
 
 	@Override
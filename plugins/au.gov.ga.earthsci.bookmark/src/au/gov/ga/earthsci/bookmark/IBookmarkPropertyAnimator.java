@@ -21,9 +21,10 @@ import au.gov.ga.earthsci.bookmark.model.IBookmarkProperty;
  * An interface for animators able to animate between two
  * {@link IBookmarkProperty}s of the same type over a given time period.
  * <p/>
- * To use the animator, call {@link #init()} to initialise start- and end-times,
- * and then make repeated calls to {@link #applyFrame()} as appropriate to apply
- * the animated state.
+ * To use the animator, call {@link #init(long)} to initialise start- and
+ * end-times, and then make repeated calls to {@link #applyFrame(long)} as
+ * appropriate to apply the animated state. Animators are usually driven by the render loop,
+ * with a single call to {@link #applyFrame(long)} per rendered frame.
  * <p/>
  * Calling {@link #dispose()} will stop the animator and perform any disposal
  * required. An animator should not be called after {@link #dispose()} is
@@ -53,9 +54,15 @@ public interface IBookmarkPropertyAnimator
 	long getDuration();
 
 	/**
-	 * Start this animator and initialise start and end times.
+	 * Start this animator and initialise start and end times. The same start
+	 * time should be passed to all animators that are applied together, so
+	 * that they share a single clock.
+	 * 
+	 * @param startTime
+	 *            Time the animation starts, in milliseconds, in the same time
+	 *            base as {@link System#currentTimeMillis()}
 	 */
-	void init();
+	void init(long startTime);
 
 	/**
 	 * @return Whether this animator has been initialised correctly
@@ -63,10 +70,23 @@ public interface IBookmarkPropertyAnimator
 	boolean isInitialised();
 
 	/**
-	 * Apply the next frame of the animator, based on the current system time
+	 * Apply the next frame of the animator, based on the current system time.
+	 * Equivalent to calling {@link #applyFrame(long)} with
+	 * {@link System#currentTimeMillis()}.
 	 */
 	void applyFrame();
 
+	/**
+	 * Apply the frame of the animator at the given time. The same frame time
+	 * should be passed to all animators applied in a single rendered frame, so
+	 * that they remain in step.
+	 * 
+	 * @param time
+	 *            Frame time, in milliseconds, in the same time base as
+	 *            {@link System#currentTimeMillis()}
+	 */
+	void applyFrame(long time);
+
 	/**
 	 * Perform any required disposal of this animator
 	 */
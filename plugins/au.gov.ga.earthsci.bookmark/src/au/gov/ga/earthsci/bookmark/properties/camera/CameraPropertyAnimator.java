@@ -49,8 +49,9 @@ public class CameraPropertyAnimator extends AbstractBookmarkPropertyAnimator imp
 	}
 
 	@Override
-	public void init()
+	public void init(long startTime)
 	{
+		super.init(startTime);
 		if (view instanceof OrbitView)
 		{
 			final OrbitViewInputSupport.OrbitViewState startOVS =
@@ -81,14 +82,15 @@ public class CameraPropertyAnimator extends AbstractBookmarkPropertyAnimator imp
 	}
 
 	@Override
-	public void applyFrame()
+	public void applyFrame(long time)
 	{
 		if (animator == null)
 		{
-			throw new IllegalStateException("init() must be called before attempting to apply frames"); //$NON-NLS-1$
+			throw new IllegalStateException("init(long) must be called before attempting to apply frames"); //$NON-NLS-1$
 		}
 
-		animator.next();
+		super.applyFrame(time);
+		animator.set(getCurrentTimeAsPercent());
 	}
 
 	@Override
@@ -42,9 +42,9 @@ public class ExaggerationPropertyAnimator extends AbstractBookmarkPropertyAnimat
 	}
 
 	@Override
-	public void init()
+	public void init(long startTime)
 	{
-		super.init();
+		super.init(startTime);
 		inited = true;
 	}
 
@@ -55,8 +55,9 @@ public class ExaggerationPropertyAnimator extends AbstractBookmarkPropertyAnimat
 	}
 
 	@Override
-	public void applyFrame()
+	public void applyFrame(long time)
 	{
+		super.applyFrame(time);
 		double steps = 50;
 		double percent = Math.round(getCurrentTimeAsPercent() * steps) / steps;
 		double exaggeration = Util.mixDouble(percent, start.getExaggeration(), end.getExaggeration());
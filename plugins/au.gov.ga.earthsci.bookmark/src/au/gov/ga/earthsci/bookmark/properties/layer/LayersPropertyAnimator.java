@@ -94,9 +94,9 @@ public class LayersPropertyAnimator extends AbstractBookmarkPropertyAnimator
 	}
 
 	@Override
-	public void init()
+	public void init(long startTime)
 	{
-		super.init();
+		super.init(startTime);
 
 		animationVectors.clear();
 
@@ -115,14 +115,15 @@ public class LayersPropertyAnimator extends AbstractBookmarkPropertyAnimator
 	}
 
 	@Override
-	public void applyFrame()
+	public void applyFrame(long time)
 	{
-		super.applyFrame();
+		super.applyFrame(time);
 
+		double percent = getCurrentTimeAsPercent();
 		for (Entry<Layer, Vector2> e : animationVectors.entrySet())
 		{
 			Vector2 v = e.getValue();
-			e.getKey().setOpacity(Util.mixDouble(getCurrentTimeAsPercent(), v.x, v.y));
+			e.getKey().setOpacity(Util.mixDouble(percent, v.x, v.y));
 			e.getKey().setEnabled(e.getKey().getOpacity() > DISABLED_OPACITY_THRESHOLD);
 		}
 	}
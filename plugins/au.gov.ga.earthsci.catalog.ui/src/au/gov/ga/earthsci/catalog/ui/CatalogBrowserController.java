@@ -70,6 +70,20 @@ public class CatalogBrowserController implements ICatalogBrowserController
 	public void addToLayerModel(ICatalogTreeNode... nodes)
 	{
 		boolean fullNodePathRequiredOnAdd = isFullNodePathRequiredOnAdd();
+		ILayerTreeNode rootNode = currentLayerModel.getRootNode();
+		rootNode.beginUpdate();
+		try
+		{
+			addToLayerModel(nodes, fullNodePathRequiredOnAdd);
+		}
+		finally
+		{
+			rootNode.endUpdate();
+		}
+	}
+
+	private void addToLayerModel(ICatalogTreeNode[] nodes, boolean fullNodePathRequiredOnAdd)
+	{
 		for (ICatalogTreeNode node : nodes)
 		{
 			//If the node is not a layer load then try loading all of the children it has
@@ -77,7 +91,8 @@ public class CatalogBrowserController implements ICatalogBrowserController
 			{
 				if (node.getChildCount() > 0)
 				{
-					addToLayerModel(node.getChildren().toArray(new ICatalogTreeNode[node.getChildCount()]));
+					addToLayerModel(node.getChildren().toArray(new ICatalogTreeNode[node.getChildCount()]),
+							fullNodePathRequiredOnAdd);
 				}
 			}
 			else
@@ -85,11 +100,6 @@ public class CatalogBrowserController implements ICatalogBrowserController
 				ILayerTreeNode parent =
 						fullNodePathRequiredOnAdd ? createNodePath(node) : currentLayerModel.getRootNode();
 				CatalogLayerHelper.insertIntoLayerModel(parent, node, context);
-				if (node == nodes[nodes.length - 1])
-				{
-					parent.updateLayers();
-				}
-
 			}
 		}
 	}
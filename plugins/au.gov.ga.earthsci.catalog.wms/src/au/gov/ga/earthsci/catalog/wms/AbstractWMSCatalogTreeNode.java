@@ -0,0 +1,134 @@
+/*******************************************************************************
+ * Copyright 2026 Geoscience Australia
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package au.gov.ga.earthsci.catalog.wms;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.List;
+
+import au.gov.ga.earthsci.catalog.AbstractCatalogTreeNode;
+import au.gov.ga.earthsci.catalog.ICatalogTreeNode;
+
+/**
+ * Abstract {@link ICatalogTreeNode} for nodes created from a WMS capabilities
+ * document. Child nodes are created lazily the first time they are requested,
+ * so that only the parts of a (potentially very large) capabilities document
+ * that are expanded in the catalog tree are turned into nodes.
+ * 
+ * @author Michael de Hoog (michael.dehoog@ga.gov.au)
+ */
+public abstract class AbstractWMSCatalogTreeNode extends AbstractCatalogTreeNode
+{
+	private boolean childrenCreated = false;
+
+	public AbstractWMSCatalogTreeNode(URI nodeURI)
+	{
+		super(nodeURI);
+	}
+
+	/**
+	 * Create this node's children. Called at most once, the first time the
+	 * children are requested.
+	 * 
+	 * @return This node's children
+	 */
+	protected abstract List<ICatalogTreeNode> createChildren();
+
+	/**
+	 * Create this node's children if they haven't already been created. No
+	 * children property change is fired, as the children are considered to
+	 * have always existed.
+	 */
+	protected synchronized void ensureChildren()
+	{
+		if (childrenCreated)
+		{
+			return;
+		}
+		childrenCreated = true;
+
+		List<ICatalogTreeNode> created = createChildren();
+		children = Collections.unmodifiableList(created);
+		int i = 0;
+		for (ICatalogTreeNode child : created)
+		{
+			child.setParent(me(), i++);
+		}
+	}
+
+	@Override
+	public List<ICatalogTreeNode> getChildren()
+	{
+		ensureChildren();
+		return super.getChildren();
+	}
+
+	@Override
+	public int getChildCount()
+	{
+		ensureChildren();
+		return super.getChildCount();
+	}
+
+	@Override
+	public ICatalogTreeNode getChild(int index)
+	{
+		ensureChildren();
+		return super.getChild(index);
+	}
+
+	@Override
+	public synchronized void setChildren(List<ICatalogTreeNode> children)
+	{
+		childrenCreated = true;
+		super.setChildren(children);
+	}
+
+	@Override
+	public void addChild(int index, ICatalogTreeNode child)
+	{
+		ensureChildren();
+		super.addChild(index, child);
+	}
+
+	@Override
+	public void moveChild(ICatalogTreeNode child, int newIndex)
+	{
+		ensureChildren();
+		super.moveChild(child, newIndex);
+	}
+
+	@Override
+	public ICatalogTreeNode removeChild(int index)
+	{
+		ensureChildren();
+		return super.removeChild(index);
+	}
+
+	@Override
+	public void clearChildren()
+	{
+		ensureChildren();
+		super.clearChildren();
+	}
+
+	@Override
+	public boolean replaceChild(ICatalogTreeNode child, ICatalogTreeNode newChild)
+	{
+		ensureChildren();
+		return super.replaceChild(child, newChild);
+	}
+}
@@ -0,0 +1,201 @@
+/*******************************************************************************
+ * Copyright 2026 Geoscience Australia
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package au.gov.ga.earthsci.catalog.wms;
+
+import gov.nasa.worldwind.ogc.wms.WMSCapabilities;
+
+import java.io.InputStream;
+import java.net.URL;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import au.gov.ga.earthsci.core.retrieve.IRetrievalData;
+
+/**
+ * Bounded, least-recently-used cache of parsed {@link WMSCapabilities}
+ * documents.
+ * <p/>
+ * Entries are keyed by the capabilities URL, and are only valid for retrieved
+ * data with the same last modified time and content length as the data they
+ * were parsed from. Retrieved data with an unknown last modified time is
+ * always parsed, and never cached.
+ * 
+ * @author Michael de Hoog (michael.dehoog@ga.gov.au)
+ */
+public class WMSCapabilitiesCache
+{
+	public static final int DEFAULT_CAPACITY = 16;
+
+	private static final WMSCapabilitiesCache instance = new WMSCapabilitiesCache();
+
+	private final Map<String, CacheEntry> entries;
+
+	/**
+	 * @return The shared cache instance
+	 */
+	public static WMSCapabilitiesCache getInstance()
+	{
+		return instance;
+	}
+
+	public WMSCapabilitiesCache()
+	{
+		this(DEFAULT_CAPACITY);
+	}
+
+	public WMSCapabilitiesCache(final int capacity)
+	{
+		entries = new LinkedHashMap<String, CacheEntry>(16, 0.75f, true)
+		{
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, CacheEntry> eldest)
+			{
+				return size() > capacity;
+			}
+		};
+	}
+
+	/**
+	 * Get the capabilities for the given retrieved data, parsing the data in a
+	 * single pass from its input stream if it is not already cached.
+	 * 
+	 * @param url
+	 *            URL the data was retrieved from
+	 * @param data
+	 *            Retrieved capabilities document
+	 * @return Parsed capabilities
+	 * @throws Exception
+	 *             If the capabilities document could not be parsed
+	 */
+	public WMSCapabilities getCapabilities(URL url, IRetrievalData data) throws Exception
+	{
+		WMSCapabilities capabilities = get(url, data);
+		if (capabilities != null)
+		{
+			return capabilities;
+		}
+
+		InputStream is = data.getInputStream();
+		try
+		{
+			capabilities = new WMSCapabilities(is).parse();
+		}
+		finally
+		{
+			is.close();
+		}
+		if (capabilities == null)
+		{
+			throw new Exception("Error parsing WMS_Capabilities document from URL: " + url); //$NON-NLS-1$
+		}
+		put(url, data, capabilities);
+		return capabilities;
+	}
+
+	/**
+	 * Get the cached capabilities for the given retrieved data.
+	 * 
+	 * @param url
+	 *            URL the data was retrieved from
+	 * @param data
+	 *            Retrieved capabilities document
+	 * @return Cached capabilities, or null if the capabilities are not cached
+	 *         or the retrieved data has changed since they were cached
+	 */
+	public WMSCapabilities get(URL url, IRetrievalData data)
+	{
+		String version = getVersion(data);
+		if (version == null)
+		{
+			return null;
+		}
+		String key = url.toExternalForm();
+		synchronized (entries)
+		{
+			CacheEntry entry = entries.get(key);
+			if (entry == null)
+			{
+				return null;
+			}
+			if (!entry.version.equals(version))
+			{
+				entries.remove(key);
+				return null;
+			}
+			return entry.capabilities;
+		}
+	}
+
+	/**
+	 * Cache the capabilities parsed from the given retrieved data.
+	 * 
+	 * @param url
+	 *            URL the data was retrieved from
+	 * @param data
+	 *            Retrieved capabilities document
+	 * @param capabilities
+	 *            Capabilities parsed from the data
+	 */
+	public void put(URL url, IRetrievalData data, WMSCapabilities capabilities)
+	{
+		String version = getVersion(data);
+		if (version == null)
+		{
+			return;
+		}
+		synchronized (entries)
+		{
+			entries.put(url.toExternalForm(), new CacheEntry(version, capabilities));
+		}
+	}
+
+	/**
+	 * Remove all entries from this cache.
+	 */
+	public void clear()
+	{
+		synchronized (entries)
+		{
+			entries.clear();
+		}
+	}
+
+	/**
+	 * @return A string identifying the version of the retrieved data, or null
+	 *         if the version cannot be determined
+	 */
+	protected String getVersion(IRetrievalData data)
+	{
+		long lastModified = data.getLastModified();
+		if (lastModified <= 0)
+		{
+			return null;
+		}
+		return lastModified + ":" + data.getContentLength(); //$NON-NLS-1$
+	}
+
+	private static class CacheEntry
+	{
+		public final String version;
+		public final WMSCapabilities capabilities;
+
+		public CacheEntry(String version, WMSCapabilities capabilities)
+		{
+			this.version = version;
+			this.capabilities = capabilities;
+		}
+	}
+}
@@ -20,11 +20,11 @@ import gov.nasa.worldwind.ogc.wms.WMSLayerCapabilities;
 
 import java.net.URI;
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.List;
 
 import org.eclipse.e4.core.contexts.IEclipseContext;
 
-import au.gov.ga.earthsci.catalog.AbstractCatalogTreeNode;
 import au.gov.ga.earthsci.catalog.ErrorCatalogTreeNode;
 import au.gov.ga.earthsci.catalog.ICatalogTreeNode;
 import au.gov.ga.earthsci.common.util.UTF8URLEncoder;
@@ -32,11 +32,12 @@ import au.gov.ga.earthsci.layer.tree.ILayerNode;
 
 /**
  * {@link ICatalogTreeNode} for the root node of a WMS server. Contains the root
- * WMSCapabilities object, and the layers as child nodes.
+ * WMSCapabilities object, and the layers as child nodes, which are created
+ * lazily when first requested.
  * 
  * @author Michael de Hoog (michael.dehoog@ga.gov.au)
  */
-public class WMSCapabilitiesCatalogTreeNode extends AbstractCatalogTreeNode
+public class WMSCapabilitiesCatalogTreeNode extends AbstractWMSCatalogTreeNode
 {
 	protected final WMSCapabilities capabilities;
 
@@ -44,17 +45,18 @@ public class WMSCapabilitiesCatalogTreeNode extends AbstractCatalogTreeNode
 	{
 		super(capabilitiesURI);
 		this.capabilities = capabilities;
-		initChildren();
 	}
 
-	protected void initChildren()
+	@Override
+	protected List<ICatalogTreeNode> createChildren()
 	{
+		List<ICatalogTreeNode> children = new ArrayList<ICatalogTreeNode>();
 		List<WMSLayerCapabilities> layerCapabilitiesList =
 				capabilities.getCapabilityInformation() == null ? null : capabilities.getCapabilityInformation()
 						.getLayerCapabilities();
 		if (layerCapabilitiesList == null || layerCapabilitiesList.isEmpty())
 		{
-			addChild(new ErrorCatalogTreeNode(new Exception("No layers found")));
+			children.add(new ErrorCatalogTreeNode(new Exception("No layers found")));
 		}
 		else
 		{
@@ -63,9 +65,10 @@ public class WMSCapabilitiesCatalogTreeNode extends AbstractCatalogTreeNode
 				URI childURI = WMSHelper.uriSubpath(getURI(), layerCapabilities.getName());
 				WMSLayerCapabilitiesCatalogTreeNode childNode =
 						new WMSLayerCapabilitiesCatalogTreeNode(childURI, getURI(), capabilities, layerCapabilities);
-				addChild(childNode);
+				children.add(childNode);
 			}
 		}
+		return children;
 	}
 
 	@Override
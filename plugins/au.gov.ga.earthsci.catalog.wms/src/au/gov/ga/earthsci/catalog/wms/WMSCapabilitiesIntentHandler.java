@@ -16,29 +16,20 @@
 package au.gov.ga.earthsci.catalog.wms;
 
 import gov.nasa.worldwind.ogc.wms.WMSCapabilities;
-import gov.nasa.worldwind.util.WWXML;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
-import java.io.InputStream;
 import java.net.URL;
 
 import javax.inject.Inject;
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.transform.Result;
-import javax.xml.transform.Source;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
 
 import org.eclipse.e4.core.contexts.IEclipseContext;
-import org.w3c.dom.Document;
 
 import au.gov.ga.earthsci.catalog.CatalogLayerHelper;
 import au.gov.ga.earthsci.catalog.ICatalogTreeNode;
 import au.gov.ga.earthsci.core.intent.AbstractRetrieveIntentHandler;
 import au.gov.ga.earthsci.core.retrieve.IRetrievalData;
+import au.gov.ga.earthsci.core.retrieve.IRetrievalProperties;
+import au.gov.ga.earthsci.core.retrieve.RetrievalPriority;
+import au.gov.ga.earthsci.core.retrieve.RetrievalProperties;
 import au.gov.ga.earthsci.intent.IIntentCallback;
 import au.gov.ga.earthsci.intent.Intent;
 import au.gov.ga.earthsci.layer.tree.FolderNode;
@@ -46,6 +37,9 @@ import au.gov.ga.earthsci.layer.tree.LayerNode;
 
 /**
  * Intent handler that handles WMS capabilities documents.
+ * <p/>
+ * Capabilities documents are parsed in a single streaming pass, and the parsed
+ * capabilities are shared through the {@link WMSCapabilitiesCache}.
  * 
  * @author Michael de Hoog (michael.dehoog@ga.gov.au)
  */
@@ -54,54 +48,35 @@ public class WMSCapabilitiesIntentHandler extends AbstractRetrieveIntentHandler
 	@Inject
 	private IEclipseContext context;
 
+	@Override
+	protected IRetrievalProperties getRetrievalProperties()
+	{
+		//catalog documents are not displayed on the globe, so don't delay the visible tiles
+		RetrievalProperties properties = new RetrievalProperties();
+		properties.setPriority(RetrievalPriority.BACKGROUND);
+		return properties;
+	}
+
 	@Override
 	protected void handle(IRetrievalData data, URL url, Intent intent, final IIntentCallback callback)
 	{
-		InputStream is = null;
 		try
 		{
-			is = data.getInputStream();
-
-			DocumentBuilder builder = WWXML.createDocumentBuilder(true);
-			Document document = builder.parse(is);
-			load(document, url, intent, callback);
+			//parse the capabilities directly from the retrieved stream, or reuse the
+			//capabilities previously parsed from the same version of the document
+			WMSCapabilities wmsCapabilities = WMSCapabilitiesCache.getInstance().getCapabilities(url, data);
+			load(wmsCapabilities, url, intent, callback);
 		}
 		catch (Exception e)
 		{
 			callback.error(e, intent);
 		}
-		finally
-		{
-			try
-			{
-				if (is != null)
-				{
-					is.close();
-				}
-			}
-			catch (IOException e)
-			{
-				// Do nothing
-			}
-		}
 	}
 
-	protected void load(Document document, URL url, Intent intent, IIntentCallback callback)
+	protected void load(WMSCapabilities wmsCapabilities, URL url, Intent intent, IIntentCallback callback)
 	{
 		try
 		{
-			//save the document into a byte array, so we can pass it as an InputStream to the WMSCapabilities constructor
-			ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-			Source xmlSource = new DOMSource(document);
-			Result outputTarget = new StreamResult(outputStream);
-			TransformerFactory.newInstance().newTransformer().transform(xmlSource, outputTarget);
-			InputStream is = new ByteArrayInputStream(outputStream.toByteArray());
-
-			WMSCapabilities wmsCapabilities = new WMSCapabilities(is).parse();
-			if (wmsCapabilities == null)
-			{
-				throw new Exception("Error parsing WMS_Capabilities document from URL: " + url); //$NON-NLS-1$
-			}
 			WMSCapabilitiesCatalogTreeNode catalogTreeNode =
 					new WMSCapabilitiesCatalogTreeNode(intent.getURI(), wmsCapabilities);
 
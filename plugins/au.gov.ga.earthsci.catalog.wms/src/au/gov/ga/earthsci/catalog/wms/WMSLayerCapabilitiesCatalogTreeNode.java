@@ -21,20 +21,22 @@ import gov.nasa.worldwind.ogc.wms.WMSLayerStyle;
 
 import java.net.URI;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.eclipse.e4.core.contexts.IEclipseContext;
 
-import au.gov.ga.earthsci.catalog.AbstractCatalogTreeNode;
 import au.gov.ga.earthsci.catalog.ICatalogTreeNode;
 import au.gov.ga.earthsci.catalog.wms.layer.WMSLayer;
 import au.gov.ga.earthsci.layer.tree.ILayerNode;
 
 /**
- * {@link ICatalogTreeNode} representing layers from a WMS server.
+ * {@link ICatalogTreeNode} representing layers from a WMS server. Child layer
+ * and style nodes are created lazily when first requested.
  * 
  * @author Michael de Hoog (michael.dehoog@ga.gov.au)
  */
-public class WMSLayerCapabilitiesCatalogTreeNode extends AbstractCatalogTreeNode
+public class WMSLayerCapabilitiesCatalogTreeNode extends AbstractWMSCatalogTreeNode
 {
 	protected final URI capabilitiesURI;
 	protected final WMSCapabilities capabilities;
@@ -57,11 +59,12 @@ public class WMSLayerCapabilitiesCatalogTreeNode extends AbstractCatalogTreeNode
 		this.layer = layer;
 		this.style = style;
 		this.useStyleTitleInName = useStyleTitleInName;
-		initChildren();
 	}
 
-	protected void initChildren()
+	@Override
+	protected List<ICatalogTreeNode> createChildren()
 	{
+		List<ICatalogTreeNode> children = new ArrayList<ICatalogTreeNode>();
 		for (WMSLayerCapabilities childLayer : layer.getLayers())
 		{
 			URI childURI = WMSHelper.uriSubpath(getURI(), childLayer.getName());
@@ -76,7 +79,7 @@ public class WMSLayerCapabilitiesCatalogTreeNode extends AbstractCatalogTreeNode
 			WMSLayerCapabilitiesCatalogTreeNode childNode =
 					new WMSLayerCapabilitiesCatalogTreeNode(childURI, capabilitiesURI, capabilities, childLayer, style,
 							false);
-			addChild(childNode);
+			children.add(childNode);
 		}
 
 		//if this layer has multiple styles, add them as children
@@ -88,9 +91,10 @@ public class WMSLayerCapabilitiesCatalogTreeNode extends AbstractCatalogTreeNode
 				WMSLayerCapabilitiesCatalogTreeNode childNode =
 						new WMSLayerCapabilitiesCatalogTreeNode(childURI, capabilitiesURI, capabilities, layer, style,
 								true);
-				addChild(childNode);
+				children.add(childNode);
 			}
 		}
+		return children;
 	}
 
 	@Override
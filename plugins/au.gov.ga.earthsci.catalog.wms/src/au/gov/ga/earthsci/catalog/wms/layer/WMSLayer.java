@@ -32,6 +32,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.w3c.dom.Element;
 
+import au.gov.ga.earthsci.catalog.wms.WMSCapabilitiesCache;
 import au.gov.ga.earthsci.catalog.wms.WMSHelper;
 import au.gov.ga.earthsci.common.util.IInformationed;
 import au.gov.ga.earthsci.common.util.XmlUtil;
@@ -115,7 +116,7 @@ public class WMSLayer extends LayerDelegator implements IPersistentLayer, IInfor
 
 		try
 		{
-			URL url = capabilitiesURI.toURL();
+			final URL url = capabilitiesURI.toURL();
 			IRetrieval retrieval = RetrievalServiceFactory.getServiceInstance().retrieve(this, url);
 			retrieval.addListener(new RetrievalAdapter()
 			{
@@ -130,7 +131,7 @@ public class WMSLayer extends LayerDelegator implements IPersistentLayer, IInfor
 						{
 							throw result.getError();
 						}
-						capabilities = new WMSCapabilities(result.getData().getInputStream()).parse();
+						capabilities = WMSCapabilitiesCache.getInstance().getCapabilities(url, result.getData());
 						recreateLayer();
 					}
 					catch (Exception e)
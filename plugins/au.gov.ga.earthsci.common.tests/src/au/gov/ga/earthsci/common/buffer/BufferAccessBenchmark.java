@@ -0,0 +1,169 @@
+/*******************************************************************************
+ * Copyright 2026 Geoscience Australia
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package au.gov.ga.earthsci.common.buffer;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Benchmark comparing the boxed {@link BufferUtil#getValue} accessor with the
+ * primitive, bulk and view accessors when summing every value of a large
+ * buffer.
+ * <p/>
+ * Not run as part of the unit tests. Usage:
+ * 
+ * <pre>
+ * BufferAccessBenchmark [numberOfValues] [FLOAT|DOUBLE|INT|...]
+ * </pre>
+ * 
+ * The defaults are 100 million values of type FLOAT (400MB of direct memory).
+ * Each accessor is run a number of times to warm up the JIT before the timed
+ * iterations.
+ * 
+ * @author James Navin (james.navin@ga.gov.au)
+ */
+public class BufferAccessBenchmark
+{
+	private static final int WARMUP_ITERATIONS = 3;
+	private static final int TIMED_ITERATIONS = 5;
+	private static final int CHUNK_SIZE = 4096;
+
+	public static void main(String[] args)
+	{
+		int numberOfValues = args.length > 0 ? Integer.parseInt(args[0]) : 100000000;
+		BufferType type = args.length > 1 ? BufferType.valueOf(args[1]) : BufferType.FLOAT;
+
+		ByteBuffer buffer = ByteBuffer.allocateDirect(numberOfValues * type.getNumberOfBytes());
+		buffer.order(ByteOrder.nativeOrder());
+		for (int i = 0; i < numberOfValues; i++)
+		{
+			putValue(buffer, type, i % 1000);
+		}
+		buffer.flip();
+
+		System.out.println("Summing " + numberOfValues + " values of type " + type); //$NON-NLS-1$ //$NON-NLS-2$
+		for (Accessor accessor : Accessor.values())
+		{
+			double result = 0;
+			for (int i = 0; i < WARMUP_ITERATIONS; i++)
+			{
+				result = accessor.sum(buffer.duplicate().order(buffer.order()), type);
+			}
+			long start = System.nanoTime();
+			for (int i = 0; i < TIMED_ITERATIONS; i++)
+			{
+				result = accessor.sum(buffer.duplicate().order(buffer.order()), type);
+			}
+			double nanosPerValue = (System.nanoTime() - start) / ((double) TIMED_ITERATIONS * numberOfValues);
+			System.out.println(String.format("%-10s %8.3f ns/value (sum %.0f)", accessor, nanosPerValue, result)); //$NON-NLS-1$
+		}
+	}
+
+	private static void putValue(ByteBuffer buffer, BufferType type, int value)
+	{
+		switch (type)
+		{
+		case BYTE:
+			buffer.put((byte) value);
+			break;
+		case SHORT:
+		case UNSIGNED_SHORT:
+			buffer.putShort((short) value);
+			break;
+		case INT:
+		case UNSIGNED_INT:
+			buffer.putInt(value);
+			break;
+		case LONG:
+			buffer.putLong(value);
+			break;
+		case FLOAT:
+			buffer.putFloat(value);
+			break;
+		case DOUBLE:
+			buffer.putDouble(value);
+			break;
+		}
+	}
+
+	private static enum Accessor
+	{
+		BOXED
+		{
+			@Override
+			double sum(ByteBuffer buffer, BufferType type)
+			{
+				double sum = 0;
+				while (buffer.hasRemaining())
+				{
+					sum += BufferUtil.getValue(buffer, type).doubleValue();
+				}
+				return sum;
+			}
+		},
+		PRIMITIVE
+		{
+			@Override
+			double sum(ByteBuffer buffer, BufferType type)
+			{
+				double sum = 0;
+				while (buffer.hasRemaining())
+				{
+					sum += BufferUtil.getDouble(buffer, type);
+				}
+				return sum;
+			}
+		},
+		BULK
+		{
+			@Override
+			double sum(ByteBuffer buffer, BufferType type)
+			{
+				double sum = 0;
+				double[] chunk = new double[CHUNK_SIZE];
+				int remaining = buffer.remaining() / type.getNumberOfBytes();
+				while (remaining > 0)
+				{
+					int count = Math.min(remaining, CHUNK_SIZE);
+					BufferUtil.readDoubles(buffer, type, chunk, 0, count);
+					for (int i = 0; i < count; i++)
+					{
+						sum += chunk[i];
+					}
+					remaining -= count;
+				}
+				return sum;
+			}
+		},
+		VIEW
+		{
+			@Override
+			double sum(ByteBuffer buffer, BufferType type)
+			{
+				double sum = 0;
+				BufferView view = new BufferView(buffer, type);
+				int size = view.size();
+				for (int i = 0; i < size; i++)
+				{
+					sum += view.getDouble(i);
+				}
+				return sum;
+			}
+		};
+
+		abstract double sum(ByteBuffer buffer, BufferType type);
+	}
+}
@@ -0,0 +1,138 @@
+/*******************************************************************************
+ * Copyright 2026 Geoscience Australia
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package au.gov.ga.earthsci.common.buffer;
+
+import static org.junit.Assert.*;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for the {@link BufferUtil} class
+ * 
+ * @author James Navin (james.navin@ga.gov.au)
+ */
+public class BufferUtilTest
+{
+	private static final int NUM_VALUES = 64;
+
+	@Test
+	public void testGetDoubleMatchesGetValue()
+	{
+		for (ByteOrder order : new ByteOrder[] { ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN })
+		{
+			for (BufferType type : BufferType.values())
+			{
+				ByteBuffer boxed = createRandomBuffer(type, order);
+				ByteBuffer primitive = boxed.duplicate().order(order);
+				for (int i = 0; i < NUM_VALUES; i++)
+				{
+					int index = primitive.position();
+					double expected = BufferUtil.getValue(boxed, type).doubleValue();
+					assertEquals(type + " " + order, expected, BufferUtil.getDouble(primitive, type), 0); //$NON-NLS-1$
+					assertEquals(type + " " + order, expected, BufferUtil.getDouble(primitive, index, type), 0); //$NON-NLS-1$
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testGetDoubleReadsToEndLikeGetValueFrom()
+	{
+		for (BufferType type : BufferType.values())
+		{
+			ByteBuffer boxed = createRandomBuffer(type, ByteOrder.LITTLE_ENDIAN);
+			ByteBuffer primitive = boxed.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+			int count = 0;
+			while (primitive.hasRemaining())
+			{
+				double expected = type.getValueFrom(boxed).doubleValue();
+				assertEquals(type.toString(), expected, BufferUtil.getDouble(primitive, type), 0);
+				assertEquals(type.toString(), boxed.position(), primitive.position());
+				count++;
+			}
+			assertEquals(type.toString(), NUM_VALUES, count);
+		}
+	}
+
+	@Test
+	public void testGetFloatMatchesGetValue()
+	{
+		for (ByteOrder order : new ByteOrder[] { ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN })
+		{
+			for (BufferType type : BufferType.values())
+			{
+				ByteBuffer boxed = createRandomBuffer(type, order);
+				ByteBuffer primitive = boxed.duplicate().order(order);
+				for (int i = 0; i < NUM_VALUES; i++)
+				{
+					int index = primitive.position();
+					float expected = BufferUtil.getValue(boxed, type).floatValue();
+					assertEquals(type + " " + order, expected, BufferUtil.getFloat(primitive, type), 0); //$NON-NLS-1$
+					assertEquals(type + " " + order, expected, BufferUtil.getFloat(primitive, index, type), 0); //$NON-NLS-1$
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testReadDoublesMatchesGetValue()
+	{
+		for (BufferType type : BufferType.values())
+		{
+			ByteBuffer boxed = createRandomBuffer(type, ByteOrder.LITTLE_ENDIAN);
+			ByteBuffer bulk = boxed.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+			bulk.position(type.getNumberOfBytes());
+			BufferUtil.skipValues(1, boxed, type);
+
+			double[] values = new double[NUM_VALUES + 1];
+			BufferUtil.readDoubles(bulk, type, values, 1, NUM_VALUES - 1);
+
+			assertEquals(type.toString(), 0, values[0], 0);
+			for (int i = 1; i < NUM_VALUES; i++)
+			{
+				assertEquals(type.toString(), BufferUtil.getValue(boxed, type).doubleValue(), values[i], 0);
+			}
+			assertEquals(type.toString(), boxed.position(), bulk.position());
+		}
+	}
+
+	private static ByteBuffer createRandomBuffer(BufferType type, ByteOrder order)
+	{
+		byte[] bytes = new byte[NUM_VALUES * type.getNumberOfBytes()];
+		new Random(type.ordinal()).nextBytes(bytes);
+		ByteBuffer buffer = ByteBuffer.wrap(bytes).order(order);
+		if (type == BufferType.FLOAT || type == BufferType.DOUBLE)
+		{
+			//avoid NaNs, which don't compare equal
+			for (int i = 0; i < NUM_VALUES; i++)
+			{
+				if (type == BufferType.FLOAT)
+				{
+					buffer.putFloat(i * 4, i * 1.5f - 20f);
+				}
+				else
+				{
+					buffer.putDouble(i * 8, i * 1.5 - 20);
+				}
+			}
+		}
+		return buffer;
+	}
+}
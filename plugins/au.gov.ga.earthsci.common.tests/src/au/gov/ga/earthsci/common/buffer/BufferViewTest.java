@@ -0,0 +1,68 @@
+/*******************************************************************************
+ * Copyright 2026 Geoscience Australia
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package au.gov.ga.earthsci.common.buffer;
+
+import static org.junit.Assert.*;
+
+import java.nio.ByteBuffer;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for the {@link BufferView} class
+ * 
+ * @author James Navin (james.navin@ga.gov.au)
+ */
+public class BufferViewTest
+{
+	@Test
+	public void testStridedView()
+	{
+		ByteBuffer buffer = ByteBuffer.allocate(10 * 4);
+		for (int i = 0; i < 10; i++)
+		{
+			buffer.putFloat(i);
+		}
+
+		BufferView view = new BufferView(buffer, BufferType.FLOAT, 2, 3);
+		assertEquals(3, view.size());
+		assertEquals(2f, view.getFloat(0), 0);
+		assertEquals(5f, view.getFloat(1), 0);
+		assertEquals(8.0, view.getDouble(2), 0);
+
+		double[] values = new double[4];
+		view.getDoubles(1, values, 1, 2);
+		assertArrayEquals(new double[] { 0, 5, 8, 0 }, values, 0);
+
+		//view doesn't modify the buffer position
+		assertEquals(40, buffer.position());
+	}
+
+	@Test
+	public void testEmptyView()
+	{
+		ByteBuffer buffer = ByteBuffer.allocate(2 * 8);
+		assertEquals(0, new BufferView(buffer, BufferType.DOUBLE, 2, 1).size());
+		assertEquals(2, new BufferView(buffer, BufferType.DOUBLE).size());
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testGetDoublesPastEnd()
+	{
+		ByteBuffer buffer = ByteBuffer.allocate(4 * 2);
+		new BufferView(buffer, BufferType.SHORT, 1, 2).getDoubles(1, new double[2], 0, 2);
+	}
+}
@@ -7,12 +7,17 @@ import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 import java.awt.Color;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.TreeSet;
 
 import org.junit.Test;
 
 import au.gov.ga.earthsci.common.color.ColorMap.InterpolationMode;
+import au.gov.ga.earthsci.worldwind.common.util.ColorLookupTable;
 
 /**
  * Unit tests for the {@link ColorMap} class
@@ -349,6 +354,126 @@ public class ColorMapTest
 		assertEquals(1.0, classUnderTest.getNearestEntry(value).getKey(), 0.001);
 	}
 
+	@Test
+	public void testLookupTableMatchesGetColorAtSamples()
+	{
+		for (InterpolationMode mode : InterpolationMode.values())
+		{
+			for (boolean percentages : new boolean[] { true, false })
+			{
+				ColorMap classUnderTest = new ColorMap(null, null, PERCENTAGE_ENTRIES, null, mode, percentages);
+				ColorLookupTable lookupTable = classUnderTest.toLookupTable(0, 1, 11);
+
+				for (int i = 0; i <= 10; i++)
+				{
+					double value = i / 10.0;
+					assertEquals(mode + " at " + value, toARGB(classUnderTest.getColor(value, 0, 1)),
+							lookupTable.getColor(value));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testDiscreteLookupTableMatchesGetColorBetweenSamples()
+	{
+		double epsilon = 1e-9;
+		for (InterpolationMode mode : new InterpolationMode[] { InterpolationMode.NEAREST_MATCH,
+				InterpolationMode.EXACT_MATCH })
+		{
+			for (boolean percentages : new boolean[] { true, false })
+			{
+				ColorMap classUnderTest =
+						new ColorMap(null, null, PERCENTAGE_ENTRIES, Color.GRAY, mode, percentages);
+				double min = percentages ? 10 : 0;
+				double max = percentages ? 110 : 1;
+				ColorLookupTable lookupTable = classUnderTest.toLookupTable(min, max, 11);
+
+				List<Double> values = new ArrayList<Double>();
+				for (int i = -10; i <= 1010; i++)
+				{
+					values.add(i / 1000.0);
+				}
+				Double previous = null;
+				for (Double key : new TreeSet<Double>(PERCENTAGE_ENTRIES.keySet()))
+				{
+					values.addAll(Arrays.asList(key - epsilon, key, key + epsilon));
+					if (previous != null)
+					{
+						//the breakpoint between two entries in the nearest match mode
+						double midpoint = (previous + key) / 2;
+						values.addAll(Arrays.asList(midpoint - epsilon, midpoint, midpoint + epsilon));
+					}
+					previous = key;
+				}
+
+				for (double value : values)
+				{
+					double absolute = percentages ? min + value * (max - min) : value;
+					assertEquals(mode + " at " + absolute, toARGB(classUnderTest.getColor(absolute, min, max)),
+							lookupTable.getColor(absolute));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testLookupTableExactMatch()
+	{
+		ColorMap classUnderTest =
+				new ColorMap(null, null, PERCENTAGE_ENTRIES, Color.GRAY, InterpolationMode.EXACT_MATCH, true);
+		ColorLookupTable lookupTable = classUnderTest.toLookupTable(10, 110);
+
+		assertEquals(new Color(1.0f, 0.0f, 0.0f, 0.0f).getRGB(), lookupTable.getColor(10));
+		assertEquals(new Color(0.0f, 0.0f, 1.0f, 0.0f).getRGB(), lookupTable.getColor(80));
+		assertEquals(Color.GRAY.getRGB(), lookupTable.getColor(80.5));
+		assertEquals(Color.GRAY.getRGB(), lookupTable.getColor(-1000));
+	}
+
+	@Test
+	public void testLookupTableOutOfRangeAndNodata()
+	{
+		ColorMap classUnderTest =
+				new ColorMap(null, null, PERCENTAGE_ENTRIES, null, InterpolationMode.INTERPOLATE_RGB, false);
+		ColorLookupTable lookupTable = classUnderTest.toLookupTable(0, 0.5);
+
+		assertEquals(classUnderTest.getColor(0.85).getRGB(), lookupTable.getColor(0.85));
+		assertEquals(classUnderTest.getColor(-5.0).getRGB(), lookupTable.getColor(-5.0));
+		assertEquals(0, new ColorMap(null).toLookupTable(0, 1).getColor(0.5));
+	}
+
+	@Test
+	public void testLookupTableUnaffectedByLaterChanges()
+	{
+		MutableColorMap classUnderTest = new MutableColorMap(new ColorMap(PERCENTAGE_ENTRIES));
+		ColorLookupTable lookupTable = classUnderTest.toLookupTable(0, 1);
+		int before = lookupTable.getColor(2.0);
+
+		classUnderTest.addEntry(2.0, Color.WHITE);
+		assertEquals(before, lookupTable.getColor(2.0));
+	}
+
+	@Test
+	public void testLookupTableBulkMap()
+	{
+		ColorMap classUnderTest =
+				new ColorMap(null, null, PERCENTAGE_ENTRIES, null, InterpolationMode.INTERPOLATE_HUE, true);
+		ColorLookupTable lookupTable = classUnderTest.toLookupTable(0, 100);
+
+		float[] values = { 0, 12.5f, 50, 99.9f, 100, 150, Float.NaN };
+		int[] colors = new int[values.length];
+		lookupTable.map(values, colors);
+		for (int i = 0; i < values.length; i++)
+		{
+			assertEquals(lookupTable.getColor(values[i]), colors[i]);
+		}
+	}
+
+	private static int toARGB(Color color)
+	{
+		return color == null ? 0 : color.getRGB();
+	}
+
 	private static void assertColorsEqual(Color expected, Color actual)
 	{
 		if (expected == null)
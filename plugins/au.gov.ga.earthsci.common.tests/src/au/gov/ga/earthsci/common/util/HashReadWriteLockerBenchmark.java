@@ -0,0 +1,211 @@
+/*******************************************************************************
+ * Copyright 2026 Geoscience Australia
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package au.gov.ga.earthsci.common.util;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Multi-threaded contention benchmark comparing the {@link HashReadWriteLocker}
+ * with the previous implementation, which synchronized every lock and unlock
+ * on a single map.
+ * <p/>
+ * Each thread repeatedly locks a random key (from a fixed set of keys, like
+ * the files of a cache), does a small amount of work, and unlocks it; 1 in 5
+ * operations is a write.
+ * <p/>
+ * Not run as part of the unit tests. Usage:
+ * 
+ * <pre>
+ * HashReadWriteLockerBenchmark [threadCount] [keyCount] [operationsPerThread]
+ * </pre>
+ * 
+ * The defaults are 8 threads, 1000 keys and 1 million operations per thread.
+ * 
+ * @author Michael de Hoog (michael.dehoog@ga.gov.au)
+ */
+public class HashReadWriteLockerBenchmark
+{
+	private static final int WARMUP_ITERATIONS = 2;
+	private static final int TIMED_ITERATIONS = 3;
+
+	private static volatile long sink;
+
+	public static void main(String[] args) throws InterruptedException
+	{
+		int threadCount = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+		int keyCount = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+		int operations = args.length > 2 ? Integer.parseInt(args[2]) : 1000000;
+
+		String[] keys = new String[keyCount];
+		for (int i = 0; i < keyCount; i++)
+		{
+			keys[i] = "/cache/" + i + ".dat"; //$NON-NLS-1$ //$NON-NLS-2$
+		}
+
+		System.out.println(threadCount + " threads, " + keyCount + " keys, " + operations //$NON-NLS-1$ //$NON-NLS-2$
+				+ " operations per thread"); //$NON-NLS-1$
+		for (int i = 0; i < WARMUP_ITERATIONS + TIMED_ITERATIONS; i++)
+		{
+			boolean timed = i >= WARMUP_ITERATIONS;
+			long synchronizedTime = run(new SynchronizedLocker(), keys, threadCount, operations);
+			long stripedTime = run(new StripedLocker(), keys, threadCount, operations);
+			if (timed)
+			{
+				double total = (double) threadCount * operations;
+				System.out.println(String.format("Synchronized map: %8.1f ns/op   Striped: %8.1f ns/op", //$NON-NLS-1$
+						synchronizedTime / total, stripedTime / total));
+			}
+		}
+	}
+
+	private static long run(final Locker locker, final String[] keys, int threadCount, final int operations)
+			throws InterruptedException
+	{
+		final CountDownLatch start = new CountDownLatch(1);
+		Thread[] threads = new Thread[threadCount];
+		for (int t = 0; t < threadCount; t++)
+		{
+			final Random random = new Random(t);
+			threads[t] = new Thread(new Runnable()
+			{
+				@Override
+				public void run()
+				{
+					try
+					{
+						start.await();
+					}
+					catch (InterruptedException e)
+					{
+						return;
+					}
+					long work = 0;
+					for (int i = 0; i < operations; i++)
+					{
+						String key = keys[random.nextInt(keys.length)];
+						boolean write = random.nextInt(5) == 0;
+						if (write)
+						{
+							locker.lockWrite(key);
+						}
+						else
+						{
+							locker.lockRead(key);
+						}
+						work += key.hashCode() * i;
+						if (write)
+						{
+							locker.unlockWrite(key);
+						}
+						else
+						{
+							locker.unlockRead(key);
+						}
+					}
+					sink += work;
+				}
+			});
+			threads[t].start();
+		}
+
+		long startTime = System.nanoTime();
+		start.countDown();
+		for (Thread thread : threads)
+		{
+			thread.join();
+		}
+		return System.nanoTime() - startTime;
+	}
+
+	private static interface Locker
+	{
+		void lockRead(Object key);
+
+		void lockWrite(Object key);
+
+		void unlockRead(Object key);
+
+		void unlockWrite(Object key);
+	}
+
+	private static class StripedLocker extends HashReadWriteLocker implements Locker
+	{
+	}
+
+	/**
+	 * The previous implementation of {@link HashReadWriteLocker}.
+	 */
+	private static class SynchronizedLocker implements Locker
+	{
+		private final Map<Object, ReadWriteLock> locks = new HashMap<Object, ReadWriteLock>();
+		private final Map<Object, Integer> lockCount = new HashMap<Object, Integer>();
+
+		@Override
+		public void lockRead(Object key)
+		{
+			getLock(key, true).readLock().lock();
+		}
+
+		@Override
+		public void lockWrite(Object key)
+		{
+			getLock(key, true).writeLock().lock();
+		}
+
+		@Override
+		public void unlockRead(Object key)
+		{
+			getLock(key, false).readLock().unlock();
+		}
+
+		@Override
+		public void unlockWrite(Object key)
+		{
+			getLock(key, false).writeLock().unlock();
+		}
+
+		private ReadWriteLock getLock(Object key, boolean forAquire)
+		{
+			synchronized (locks)
+			{
+				ReadWriteLock lock = locks.get(key);
+				Integer count = lockCount.get(key);
+				if (lock == null)
+				{
+					lock = new ReentrantReadWriteLock();
+					count = 0;
+					locks.put(key, lock);
+				}
+				count = count + (forAquire ? 1 : -1);
+				if (count == 0)
+				{
+					locks.remove(key);
+					lockCount.remove(key);
+				}
+				else
+				{
+					lockCount.put(key, count);
+				}
+				return lock;
+			}
+		}
+	}
+}
@@ -0,0 +1,195 @@
+/*******************************************************************************
+ * Copyright 2026 Geoscience Australia
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package au.gov.ga.earthsci.common.util;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for the {@link HashReadWriteLocker} class
+ * 
+ * @author Michael de Hoog (michael.dehoog@ga.gov.au)
+ */
+public class HashReadWriteLockerTest
+{
+	private static final long TIMEOUT = 5000;
+
+	@Test
+	public void testLocksRemovedWhenReleased()
+	{
+		HashReadWriteLocker locker = new HashReadWriteLocker();
+		locker.lockRead("a"); //$NON-NLS-1$
+		locker.lockRead("a"); //$NON-NLS-1$
+		locker.lockWrite("b"); //$NON-NLS-1$
+		assertEquals(2, locker.size());
+
+		locker.unlockRead("a"); //$NON-NLS-1$
+		assertEquals(2, locker.size());
+		locker.unlockRead("a"); //$NON-NLS-1$
+		locker.unlockWrite("b"); //$NON-NLS-1$
+		assertEquals(0, locker.size());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testUnlockWithoutLockFails()
+	{
+		new HashReadWriteLocker().unlockRead("a"); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testEqualKeysShareLock()
+	{
+		HashReadWriteLocker locker = new HashReadWriteLocker();
+		locker.lockWrite(new String("key")); //$NON-NLS-1$
+		locker.unlockWrite(new String("key")); //$NON-NLS-1$
+		assertEquals(0, locker.size());
+	}
+
+	@Test
+	public void testNestedLocksOnDifferentKeys()
+	{
+		HashReadWriteLocker locker = new HashReadWriteLocker();
+		locker.lockWrite("partial"); //$NON-NLS-1$
+		locker.lockRead("complete"); //$NON-NLS-1$
+		locker.lockWrite("contentType"); //$NON-NLS-1$
+		locker.unlockWrite("contentType"); //$NON-NLS-1$
+		locker.unlockRead("complete"); //$NON-NLS-1$
+		locker.unlockWrite("partial"); //$NON-NLS-1$
+		assertEquals(0, locker.size());
+	}
+
+	@Test
+	public void testReadersShareLock() throws Exception
+	{
+		final HashReadWriteLocker locker = new HashReadWriteLocker();
+		locker.lockRead("a"); //$NON-NLS-1$
+
+		final CountDownLatch locked = new CountDownLatch(1);
+		Thread thread = new Thread(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				locker.lockRead("a"); //$NON-NLS-1$
+				locked.countDown();
+				locker.unlockRead("a"); //$NON-NLS-1$
+			}
+		});
+		thread.start();
+		assertTrue(locked.await(TIMEOUT, TimeUnit.MILLISECONDS));
+		thread.join(TIMEOUT);
+
+		locker.unlockRead("a"); //$NON-NLS-1$
+		assertEquals(0, locker.size());
+	}
+
+	@Test
+	public void testWriterExcludesOthers() throws Exception
+	{
+		final HashReadWriteLocker locker = new HashReadWriteLocker();
+		locker.lockWrite("a"); //$NON-NLS-1$
+
+		final CountDownLatch started = new CountDownLatch(1);
+		final AtomicBoolean locked = new AtomicBoolean();
+		Thread thread = new Thread(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				started.countDown();
+				locker.lockRead("a"); //$NON-NLS-1$
+				locked.set(true);
+				locker.unlockRead("a"); //$NON-NLS-1$
+			}
+		});
+		thread.start();
+		assertTrue(started.await(TIMEOUT, TimeUnit.MILLISECONDS));
+		Thread.sleep(50);
+		assertFalse(locked.get());
+
+		//other keys aren't affected
+		locker.lockWrite("b"); //$NON-NLS-1$
+		locker.unlockWrite("b"); //$NON-NLS-1$
+
+		locker.unlockWrite("a"); //$NON-NLS-1$
+		thread.join(TIMEOUT);
+		assertTrue(locked.get());
+		assertEquals(0, locker.size());
+	}
+
+	@Test
+	public void testConcurrentWritersAreExclusive() throws Exception
+	{
+		final HashReadWriteLocker locker = new HashReadWriteLocker();
+		final int threadCount = 8;
+		final int iterations = 20000;
+		final int[] counters = new int[4];
+		final AtomicInteger failures = new AtomicInteger();
+
+		Thread[] threads = new Thread[threadCount];
+		for (int t = 0; t < threadCount; t++)
+		{
+			final int seed = t;
+			threads[t] = new Thread(new Runnable()
+			{
+				@Override
+				public void run()
+				{
+					for (int i = 0; i < iterations; i++)
+					{
+						Integer key = (i + seed) % counters.length;
+						locker.lockWrite(key);
+						try
+						{
+							//non-atomic increment; only correct if the write lock is exclusive
+							int value = counters[key];
+							Thread.yield();
+							counters[key] = value + 1;
+						}
+						catch (Throwable e)
+						{
+							failures.incrementAndGet();
+						}
+						finally
+						{
+							locker.unlockWrite(key);
+						}
+					}
+				}
+			});
+			threads[t].start();
+		}
+		for (Thread thread : threads)
+		{
+			thread.join();
+		}
+
+		int total = 0;
+		for (int counter : counters)
+		{
+			total += counter;
+		}
+		assertEquals(0, failures.get());
+		assertEquals(threadCount * iterations, total);
+		assertEquals(0, locker.size());
+	}
+}
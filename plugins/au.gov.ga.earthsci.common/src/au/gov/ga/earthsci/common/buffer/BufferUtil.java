@@ -16,20 +16,24 @@
 package au.gov.ga.earthsci.common.buffer;
 
 import java.nio.ByteBuffer;
-import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
 
 import au.gov.ga.earthsci.common.util.Validate;
 
 /**
  * Utility methods for working with buffers
+ * <p/>
+ * The {@link #getValue(ByteBuffer, BufferType)} method boxes each value read.
+ * For per-element loops over large buffers prefer the primitive
+ * {@link #getDouble(ByteBuffer, BufferType)}/
+ * {@link #getFloat(ByteBuffer, BufferType)} accessors, the bulk
+ * {@link #readDoubles(ByteBuffer, BufferType, double[], int, int)} method, or a
+ * {@link BufferView}.
  * 
  * @author James Navin (james.navin@ga.gov.au)
  */
-/* 
- * TODO: Could these be made more usable by turning them into something like the BufferWrapper that gives
- * access to the correct type from an underlying byte buffer (similar to the typed views in java.nio
- * but with support for all types listed in BufferType)
- */
 public class BufferUtil
 {
 
@@ -73,6 +77,194 @@ public class BufferUtil
 		throw new UnsupportedOperationException("Unsupported buffer type " + bufferType.name()); //$NON-NLS-1$
 	}
 
+	/**
+	 * Return the next value from the buffer of the provided type as a
+	 * primitive double, without boxing.
+	 * <p/>
+	 * Returns the same value as
+	 * <code>getValue(buffer, bufferType).doubleValue()</code>.
+	 * 
+	 * @param buffer
+	 *            The buffer to read from
+	 * @param bufferType
+	 *            The type of value contained in the buffer
+	 * @return The next value from the provided buffer
+	 */
+	public static double getDouble(ByteBuffer buffer, BufferType bufferType)
+	{
+		switch (bufferType)
+		{
+		case BYTE:
+			return buffer.get() & 0xff;
+		case UNSIGNED_SHORT:
+			return getUInt16(buffer.getShort());
+		case SHORT:
+			return buffer.getShort();
+		case UNSIGNED_INT:
+			return getUInt32(buffer.getInt());
+		case INT:
+			return buffer.getInt();
+		case LONG:
+			return buffer.getLong();
+		case FLOAT:
+			return buffer.getFloat();
+		case DOUBLE:
+			return buffer.getDouble();
+		}
+
+		throw new UnsupportedOperationException("Unsupported buffer type " + bufferType.name()); //$NON-NLS-1$
+	}
+
+	/**
+	 * Return the value at the given byte index in the buffer of the provided
+	 * type as a primitive double, without boxing. The buffer's position is not
+	 * changed.
+	 * 
+	 * @param buffer
+	 *            The buffer to read from
+	 * @param index
+	 *            The byte index to read the value from
+	 * @param bufferType
+	 *            The type of value contained in the buffer
+	 * @return The value at the given index
+	 */
+	public static double getDouble(ByteBuffer buffer, int index, BufferType bufferType)
+	{
+		switch (bufferType)
+		{
+		case BYTE:
+			return buffer.get(index) & 0xff;
+		case UNSIGNED_SHORT:
+			return getUInt16(buffer.getShort(index));
+		case SHORT:
+			return buffer.getShort(index);
+		case UNSIGNED_INT:
+			return getUInt32(buffer.getInt(index));
+		case INT:
+			return buffer.getInt(index);
+		case LONG:
+			return buffer.getLong(index);
+		case FLOAT:
+			return buffer.getFloat(index);
+		case DOUBLE:
+			return buffer.getDouble(index);
+		}
+
+		throw new UnsupportedOperationException("Unsupported buffer type " + bufferType.name()); //$NON-NLS-1$
+	}
+
+	/**
+	 * Return the next value from the buffer of the provided type as a
+	 * primitive float, without boxing.
+	 * <p/>
+	 * Returns the same value as
+	 * <code>getValue(buffer, bufferType).floatValue()</code>.
+	 * 
+	 * @param buffer
+	 *            The buffer to read from
+	 * @param bufferType
+	 *            The type of value contained in the buffer
+	 * @return The next value from the provided buffer
+	 */
+	public static float getFloat(ByteBuffer buffer, BufferType bufferType)
+	{
+		switch (bufferType)
+		{
+		case FLOAT:
+			return buffer.getFloat();
+		case LONG:
+			return buffer.getLong();
+		default:
+			return (float) getDouble(buffer, bufferType);
+		}
+	}
+
+	/**
+	 * Return the value at the given byte index in the buffer of the provided
+	 * type as a primitive float, without boxing. The buffer's position is not
+	 * changed.
+	 * 
+	 * @param buffer
+	 *            The buffer to read from
+	 * @param index
+	 *            The byte index to read the value from
+	 * @param bufferType
+	 *            The type of value contained in the buffer
+	 * @return The value at the given index
+	 */
+	public static float getFloat(ByteBuffer buffer, int index, BufferType bufferType)
+	{
+		switch (bufferType)
+		{
+		case FLOAT:
+			return buffer.getFloat(index);
+		case LONG:
+			return buffer.getLong(index);
+		default:
+			return (float) getDouble(buffer, index, bufferType);
+		}
+	}
+
+	/**
+	 * Read the next <code>count</code> values of the provided type from the
+	 * buffer into the given array, starting at <code>offset</code> in the
+	 * array.
+	 * <p/>
+	 * On return, the buffer will be advanced past the values read.
+	 * 
+	 * @param buffer
+	 *            The buffer to read from
+	 * @param bufferType
+	 *            The type of value contained in the buffer
+	 * @param into
+	 *            The array to read the values into
+	 * @param offset
+	 *            The index in the array at which to store the first value
+	 * @param count
+	 *            The number of values to read
+	 */
+	public static void readDoubles(ByteBuffer buffer, BufferType bufferType, double[] into, int offset, int count)
+	{
+		Validate.notNull(bufferType, "A valid buffer type is required"); //$NON-NLS-1$
+
+		int end = offset + count;
+		switch (bufferType)
+		{
+		case DOUBLE:
+			buffer.asDoubleBuffer().get(into, offset, count);
+			break;
+		case FLOAT:
+			FloatBuffer floats = buffer.asFloatBuffer();
+			for (int i = offset, j = 0; i < end; i++, j++)
+			{
+				into[i] = floats.get(j);
+			}
+			break;
+		case INT:
+			IntBuffer ints = buffer.asIntBuffer();
+			for (int i = offset, j = 0; i < end; i++, j++)
+			{
+				into[i] = ints.get(j);
+			}
+			break;
+		case SHORT:
+			ShortBuffer shorts = buffer.asShortBuffer();
+			for (int i = offset, j = 0; i < end; i++, j++)
+			{
+				into[i] = shorts.get(j);
+			}
+			break;
+		default:
+			int position = buffer.position();
+			int numberOfBytes = bufferType.getNumberOfBytes();
+			for (int i = offset; i < end; i++, position += numberOfBytes)
+			{
+				into[i] = getDouble(buffer, position, bufferType);
+			}
+		}
+		buffer.position(buffer.position() + count * bufferType.getNumberOfBytes());
+	}
+
 	/**
 	 * Skip forward in the buffer the given number of values of the given type
 	 * <p/>
@@ -145,32 +337,28 @@ public class BufferUtil
 
 	private static int getUInt16(ByteBuffer buffer)
 	{
-		int first = 0xff & buffer.get();
-		int second = 0xff & buffer.get();
-		if (buffer.order() == ByteOrder.LITTLE_ENDIAN)
-		{
-			return (first << 8 | second);
-		}
-		else
-		{
-			return (first | second << 8);
-		}
+		return getUInt16(buffer.getShort());
 	}
 
 	private static long getUInt32(ByteBuffer buffer)
 	{
-		long first = 0xff & buffer.get();
-		long second = 0xff & buffer.get();
-		long third = 0xff & buffer.get();
-		long fourth = 0xff & buffer.get();
-		if (buffer.order() == ByteOrder.LITTLE_ENDIAN)
-		{
-			return (first << 24l | second << 16l | third << 8l | fourth);
-		}
-		else
-		{
-			return (first | second << 8l | third << 16l | fourth << 24l);
-		}
+		return getUInt32(buffer.getInt());
+	}
+
+	/*
+	 * The unsigned types are read with the opposite byte order to that of the
+	 * buffer; this is the historical behaviour of getValue(), which the
+	 * primitive accessors preserve so that either can be used interchangeably.
+	 */
+
+	private static int getUInt16(short value)
+	{
+		return Short.reverseBytes(value) & 0xffff;
+	}
+
+	private static long getUInt32(int value)
+	{
+		return Integer.reverseBytes(value) & 0xffffffffL;
 	}
 
 }
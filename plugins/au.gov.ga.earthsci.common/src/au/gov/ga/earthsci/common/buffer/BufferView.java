@@ -0,0 +1,170 @@
+/*******************************************************************************
+ * Copyright 2026 Geoscience Australia
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package au.gov.ga.earthsci.common.buffer;
+
+import java.nio.ByteBuffer;
+
+import au.gov.ga.earthsci.common.util.Validate;
+
+/**
+ * A typed, strided, read-only view of the values in a {@link ByteBuffer}.
+ * Supports all of the types listed in {@link BufferType}.
+ * <p/>
+ * Element <code>i</code> of the view is the value at value index
+ * <code>offset + i * stride</code> of the buffer. For example, the elevations
+ * of a buffer of interleaved xyz vertices can be accessed with a view of
+ * offset 2 and stride 3.
+ * <p/>
+ * Values are read using absolute indices, so the view never changes the
+ * position of the underlying buffer, and can be read from multiple threads
+ * concurrently.
+ * 
+ * @author James Navin (james.navin@ga.gov.au)
+ */
+public class BufferView
+{
+	private final ByteBuffer buffer;
+	private final BufferType bufferType;
+	private final int byteOffset;
+	private final int byteStride;
+	private final int size;
+
+	/**
+	 * Create a view over every value in the given buffer, from index 0 to the
+	 * buffer's limit.
+	 * 
+	 * @param buffer
+	 *            Buffer to view
+	 * @param bufferType
+	 *            Type of the values in the buffer
+	 */
+	public BufferView(ByteBuffer buffer, BufferType bufferType)
+	{
+		this(buffer, bufferType, 0, 1);
+	}
+
+	/**
+	 * Create a strided view over the values in the given buffer, from index 0
+	 * to the buffer's limit.
+	 * 
+	 * @param buffer
+	 *            Buffer to view
+	 * @param bufferType
+	 *            Type of the values in the buffer
+	 * @param offset
+	 *            Index of the value (not byte) that is the first element of
+	 *            this view
+	 * @param stride
+	 *            Number of values (not bytes) between consecutive elements of
+	 *            this view
+	 */
+	public BufferView(ByteBuffer buffer, BufferType bufferType, int offset, int stride)
+	{
+		Validate.notNull(buffer, "A buffer is required"); //$NON-NLS-1$
+		Validate.notNull(bufferType, "A valid buffer type is required"); //$NON-NLS-1$
+		Validate.isTrue(offset >= 0, "Offset must not be negative"); //$NON-NLS-1$
+		Validate.isTrue(stride > 0, "Stride must be positive"); //$NON-NLS-1$
+
+		this.buffer = buffer;
+		this.bufferType = bufferType;
+		int numberOfBytes = bufferType.getNumberOfBytes();
+		this.byteOffset = offset * numberOfBytes;
+		this.byteStride = stride * numberOfBytes;
+
+		int numberOfValues = buffer.limit() / numberOfBytes;
+		this.size = numberOfValues > offset ? (numberOfValues - offset - 1) / stride + 1 : 0;
+	}
+
+	/**
+	 * @return The type of the values in this view
+	 */
+	public BufferType getBufferType()
+	{
+		return bufferType;
+	}
+
+	/**
+	 * @return The number of elements in this view
+	 */
+	public int size()
+	{
+		return size;
+	}
+
+	/**
+	 * @param index
+	 *            Element index
+	 * @return The element at the given index, as a double
+	 */
+	public double getDouble(int index)
+	{
+		return BufferUtil.getDouble(buffer, byteOffset + index * byteStride, bufferType);
+	}
+
+	/**
+	 * @param index
+	 *            Element index
+	 * @return The element at the given index, as a float
+	 */
+	public float getFloat(int index)
+	{
+		return BufferUtil.getFloat(buffer, byteOffset + index * byteStride, bufferType);
+	}
+
+	/**
+	 * Read <code>count</code> consecutive elements of this view, starting at
+	 * element <code>index</code>, into the given array.
+	 * 
+	 * @param index
+	 *            Index of the first element to read
+	 * @param into
+	 *            Array to read the elements into
+	 * @param offset
+	 *            Index in the array at which to store the first element
+	 * @param count
+	 *            Number of elements to read
+	 */
+	public void getDoubles(int index, double[] into, int offset, int count)
+	{
+		if (index < 0 || count < 0 || index + count > size)
+		{
+			throw new IndexOutOfBoundsException();
+		}
+
+		int byteIndex = byteOffset + index * byteStride;
+		int end = offset + count;
+		switch (bufferType)
+		{
+		case FLOAT:
+			for (int i = offset; i < end; i++, byteIndex += byteStride)
+			{
+				into[i] = buffer.getFloat(byteIndex);
+			}
+			break;
+		case DOUBLE:
+			for (int i = offset; i < end; i++, byteIndex += byteStride)
+			{
+				into[i] = buffer.getDouble(byteIndex);
+			}
+			break;
+		default:
+			for (int i = offset; i < end; i++, byteIndex += byteStride)
+			{
+				into[i] = BufferUtil.getDouble(buffer, byteIndex, bufferType);
+			}
+		}
+	}
+}
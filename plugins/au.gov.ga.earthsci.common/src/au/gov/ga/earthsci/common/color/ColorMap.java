@@ -17,6 +17,7 @@ package au.gov.ga.earthsci.common.color;
 
 import java.awt.Color;
 import java.util.AbstractMap;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -25,6 +26,8 @@ import java.util.UUID;
 
 import au.gov.ga.earthsci.common.util.IDescribed;
 import au.gov.ga.earthsci.common.util.INamed;
+import au.gov.ga.earthsci.worldwind.common.util.ColorLookupTable;
+import au.gov.ga.earthsci.worldwind.common.util.ColorLookupTable.ColorFunction;
 import au.gov.ga.earthsci.worldwind.common.util.Util;
 
 import com.jhlabs.image.Colormap;
@@ -314,19 +317,126 @@ public class ColorMap implements INamed, IDescribed, Colormap
 	{
 		if (valuesArePercentages)
 		{
-			double percentage;
-			if (min == max)
+			return getColor(toPercentage(absoluteValue, min, max));
+		}
+
+		return getColor(absoluteValue);
+	}
+
+	private static double toPercentage(double absoluteValue, double min, double max)
+	{
+		if (min == max)
+		{
+			return 0;
+		}
+		return (absoluteValue - Math.min(min, max)) / (Math.max(min, max) - Math.min(min, max));
+	}
+
+	/**
+	 * Compile this colour map into a lookup table of
+	 * {@link ColorLookupTable#DEFAULT_SIZE} packed ARGB colours for absolute
+	 * values between {@code min} and {@code max}.
+	 * 
+	 * @see #toLookupTable(double, double, int)
+	 */
+	public ColorLookupTable toLookupTable(double min, double max)
+	{
+		return toLookupTable(min, max, ColorLookupTable.DEFAULT_SIZE);
+	}
+
+	/**
+	 * Compile this colour map into a lookup table of packed ARGB colours for
+	 * absolute values between {@code min} and {@code max}, which maps values
+	 * in the same way as {@link #getColor(double, double, double)} without
+	 * any allocation or boxing.
+	 * <p/>
+	 * For the discrete {@link InterpolationMode#EXACT_MATCH} and
+	 * {@link InterpolationMode#NEAREST_MATCH} modes the entries are compiled
+	 * into a sorted array which is binary searched, instead of being sampled,
+	 * so that values either side of a breakpoint get exactly the same colour as
+	 * {@link #getColor(double, double, double)}. For the interpolated modes
+	 * each value is mapped to the nearest of {@code size} samples between
+	 * {@code min} and {@code max}; values outside of that range are calculated
+	 * directly. NODATA colours of <code>null</code> are mapped to transparent
+	 * black (0).
+	 * <p/>
+	 * The lookup table is unaffected by later changes to this colour map.
+	 * 
+	 * @param min
+	 *            The minimum absolute value in the source data
+	 * @param max
+	 *            The maximum absolute value in the source data
+	 * @param size
+	 *            The number of samples in the lookup table; ignored for the
+	 *            discrete modes
+	 * 
+	 * @return A lookup table for this colour map
+	 */
+	public ColorLookupTable toLookupTable(final double min, final double max, int size)
+	{
+		if (mode == InterpolationMode.EXACT_MATCH || mode == InterpolationMode.NEAREST_MATCH)
+		{
+			final double[] keys = new double[entries.size()];
+			final int[] colors = new int[entries.size()];
+			final int nodata = toARGB(nodataColour);
+			final boolean percentages = valuesArePercentages;
+			final boolean nearest = mode == InterpolationMode.NEAREST_MATCH;
+			int i = 0;
+			for (Entry<Double, Color> entry : entries.entrySet())
 			{
-				percentage = 0;
+				keys[i] = entry.getKey();
+				colors[i++] = toARGB(entry.getValue());
 			}
-			else
+
+			ColorFunction function = new ColorFunction()
 			{
-				percentage = (absoluteValue - Math.min(min, max)) / (Math.max(min, max) - Math.min(min, max));
-			}
-			return getColor(percentage);
+				@Override
+				public int getColor(double value)
+				{
+					double key = percentages ? toPercentage(value, min, max) : value;
+					int index = Arrays.binarySearch(keys, key);
+					if (index >= 0)
+					{
+						return colors[index];
+					}
+					if (!nearest || keys.length == 0)
+					{
+						return nodata;
+					}
+
+					//same tie breaking as NEAREST_MATCH: the ceiling wins when equidistant
+					int ceiling = -index - 1;
+					int floor = ceiling - 1;
+					if (ceiling >= keys.length)
+					{
+						return colors[floor];
+					}
+					if (floor < 0)
+					{
+						return colors[ceiling];
+					}
+					return Math.abs(keys[ceiling] - key) > Math.abs(keys[floor] - key) ? colors[floor]
+							: colors[ceiling];
+				}
+			};
+			return new ColorLookupTable(function, min, max, 0);
 		}
 
-		return getColor(absoluteValue);
+		final ColorMap copy = new ColorMap(name, description, entries, nodataColour, mode, valuesArePercentages);
+		ColorFunction function = new ColorFunction()
+		{
+			@Override
+			public int getColor(double value)
+			{
+				return toARGB(copy.getColor(value, min, max));
+			}
+		};
+		return new ColorLookupTable(function, min, max, size);
+	}
+
+	private static int toARGB(Color color)
+	{
+		return color == null ? 0 : color.getRGB();
 	}
 
 	/**
@@ -17,68 +17,144 @@ package au.gov.ga.earthsci.common.util;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * Provides a ReadWriteLock for objects via their hash. Allows you to lock an
  * object for reading/writing, and any other objects with the same hash will
  * share the lock.
+ * <p/>
+ * Each key gets its own lock, which is reference counted and removed when no
+ * longer held or waited on. The bookkeeping is striped: keys are spread over
+ * a number of segments by hash, and each segment's map of locks is guarded by
+ * its own monitor, so locking different keys rarely contends. Released lock
+ * objects are pooled per segment and reused, so locking a key doesn't
+ * normally allocate.
+ * <p/>
+ * (The locks themselves aren't striped: unrelated keys sharing a lock could
+ * deadlock callers that hold locks on more than one key at a time.)
  * 
  * @author Michael de Hoog (michael.dehoog@ga.gov.au)
  */
 public class HashReadWriteLocker
 {
-	private final Map<Object, ReadWriteLock> locks = new HashMap<Object, ReadWriteLock>();
-	private final Map<Object, Integer> lockCount = new HashMap<Object, Integer>();
+	private static final int SEGMENT_COUNT = 64;
+	private static final int MAX_POOLED_LOCKS_PER_SEGMENT = 8;
+
+	private final Segment[] segments = new Segment[SEGMENT_COUNT];
+
+	public HashReadWriteLocker()
+	{
+		for (int i = 0; i < segments.length; i++)
+		{
+			segments[i] = new Segment();
+		}
+	}
 
 	public void lockRead(Object key)
 	{
-		getLock(key, true).readLock().lock();
+		segmentFor(key).acquire(key).readLock().lock();
 	}
 
 	public void lockWrite(Object key)
 	{
-		getLock(key, true).writeLock().lock();
+		segmentFor(key).acquire(key).writeLock().lock();
 	}
 
 	public void unlockRead(Object key)
 	{
-		getLock(key, false).readLock().unlock();
+		segmentFor(key).release(key, false);
 	}
 
 	public void unlockWrite(Object key)
 	{
-		getLock(key, false).writeLock().unlock();
+		segmentFor(key).release(key, true);
 	}
 
-	private ReadWriteLock getLock(Object key, boolean forAquire)
+	/**
+	 * @return The number of keys that currently have a lock
+	 */
+	int size()
 	{
-		synchronized (locks)
+		int size = 0;
+		for (Segment segment : segments)
 		{
-			ReadWriteLock lock = locks.get(key);
-			Integer count = lockCount.get(key);
+			synchronized (segment)
+			{
+				size += segment.locks.size();
+			}
+		}
+		return size;
+	}
+
+	private Segment segmentFor(Object key)
+	{
+		int hash = key.hashCode();
+		//spread the high bits, as file/URL hashes often only differ in the low bits
+		hash ^= (hash >>> 20) ^ (hash >>> 12);
+		hash ^= (hash >>> 7) ^ (hash >>> 4);
+		return segments[hash & (SEGMENT_COUNT - 1)];
+	}
+
+	/**
+	 * A set of keys' locks, guarded by the segment's monitor.
+	 */
+	private static class Segment
+	{
+		private final Map<Object, KeyLock> locks = new HashMap<Object, KeyLock>();
+		private final KeyLock[] pool = new KeyLock[MAX_POOLED_LOCKS_PER_SEGMENT];
+		private int pooled = 0;
+
+		public synchronized KeyLock acquire(Object key)
+		{
+			KeyLock lock = locks.get(key);
 			if (lock == null)
 			{
-				if (!forAquire)
-				{
-					throw new IllegalStateException("Attempting to unlock a non-existant lock"); //$NON-NLS-1$
-				}
-				lock = new ReentrantReadWriteLock();
-				count = 0;
+				lock = pooled > 0 ? pool[--pooled] : new KeyLock();
+				pool[pooled] = null;
 				locks.put(key, lock);
 			}
-			count = count + (forAquire ? 1 : -1);
-			if (count == 0)
+			lock.references++;
+			return lock;
+		}
+
+		public synchronized void release(Object key, boolean write)
+		{
+			KeyLock lock = locks.get(key);
+			if (lock == null)
 			{
-				locks.remove(key);
-				lockCount.remove(key);
+				throw new IllegalStateException("Attempting to unlock a non-existant lock"); //$NON-NLS-1$
+			}
+
+			//unlocking never blocks, so it is safe to do while holding the segment's monitor
+			if (write)
+			{
+				lock.writeLock().unlock();
 			}
 			else
 			{
-				lockCount.put(key, count);
+				lock.readLock().unlock();
+			}
+
+			if (--lock.references == 0)
+			{
+				//no thread holds or waits on the lock, so it can be reused for another key
+				locks.remove(key);
+				if (pooled < pool.length)
+				{
+					pool[pooled++] = lock;
+				}
 			}
-			return lock;
 		}
 	}
+
+	/**
+	 * {@link ReentrantReadWriteLock} that counts the number of holders (and
+	 * waiters). The count is guarded by the lock's segment.
+	 */
+	@SuppressWarnings("serial")
+	private static class KeyLock extends ReentrantReadWriteLock
+	{
+		private int references = 0;
+	}
 }
@@ -0,0 +1,299 @@
+/*******************************************************************************
+ * Copyright 2026 Geoscience Australia
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package au.gov.ga.earthsci.core.retrieve;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URL;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import au.gov.ga.earthsci.core.retrieve.retriever.HttpRetriever;
+
+/**
+ * Benchmark that reports the requests per second of the {@link HttpRetriever}
+ * against a local keep-alive HTTP server, compared with opening a new
+ * connection for every request.
+ * <p/>
+ * The retriever is run with increasing numbers of threads; the number of
+ * connections opened during each run shows how many connections were reused.
+ * <p/>
+ * Not run as part of the unit tests. Usage:
+ * 
+ * <pre>
+ * HttpRetrieverBenchmark [requestsPerThread] [responseBytes] [maxThreadCount]
+ * </pre>
+ * 
+ * The defaults are 2000 requests per thread, 16384 byte responses and 8
+ * threads.
+ * 
+ * @author Michael de Hoog (michael.dehoog@ga.gov.au)
+ */
+public class HttpRetrieverBenchmark
+{
+	private static final String CHARSET = "ISO-8859-1"; //$NON-NLS-1$
+	private static final AtomicInteger connectionCount = new AtomicInteger();
+
+	public static void main(String[] args) throws Exception
+	{
+		int requestsPerThread = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+		int responseBytes = args.length > 1 ? Integer.parseInt(args[1]) : 16384;
+		int maxThreadCount = args.length > 2 ? Integer.parseInt(args[2]) : 8;
+
+		ServerSocket serverSocket = startServer(new byte[responseBytes]);
+		try
+		{
+			URL url = new URL("http://localhost:" + serverSocket.getLocalPort() + "/tile"); //$NON-NLS-1$ //$NON-NLS-2$
+			RetrievalProperties retrievalProperties = new RetrievalProperties();
+			retrievalProperties.setUseCache(false);
+
+			System.out.println(requestsPerThread + " requests per thread, " + responseBytes //$NON-NLS-1$
+					+ " byte responses"); //$NON-NLS-1$
+
+			//warm up both paths
+			retrieveWithNewConnections(url, requestsPerThread / 10);
+			run(url, retrievalProperties, 1, requestsPerThread / 10);
+
+			connectionCount.set(0);
+			long nanos = retrieveWithNewConnections(url, requestsPerThread);
+			print("Connection: close", 1, requestsPerThread, nanos); //$NON-NLS-1$
+
+			for (int threadCount = 1; threadCount <= maxThreadCount; threadCount *= 2)
+			{
+				connectionCount.set(0);
+				nanos = run(url, retrievalProperties, threadCount, requestsPerThread);
+				print("HttpRetriever", threadCount, requestsPerThread, nanos); //$NON-NLS-1$
+			}
+		}
+		finally
+		{
+			serverSocket.close();
+		}
+	}
+
+	private static void print(String name, int threadCount, int requestsPerThread, long nanos)
+	{
+		double perSecond = threadCount * (double) requestsPerThread / (nanos / 1e9);
+		String format = "%-17s %3d threads: %10.0f requests/sec, %5d connections opened"; //$NON-NLS-1$
+		System.out.println(String.format(format, name, threadCount, perSecond, connectionCount.get()));
+	}
+
+	/**
+	 * Baseline: retrieve the URL without the retriever, asking the server to
+	 * close the connection after every response.
+	 */
+	private static long retrieveWithNewConnections(URL url, int requests) throws IOException
+	{
+		byte[] buffer = new byte[8192];
+		long startTime = System.nanoTime();
+		for (int i = 0; i < requests; i++)
+		{
+			HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+			connection.setRequestProperty("Connection", "close"); //$NON-NLS-1$ //$NON-NLS-2$
+			InputStream is = connection.getInputStream();
+			try
+			{
+				while (is.read(buffer) >= 0)
+				{
+				}
+			}
+			finally
+			{
+				is.close();
+			}
+			connection.disconnect();
+		}
+		return System.nanoTime() - startTime;
+	}
+
+	private static long run(final URL url, final IRetrievalProperties retrievalProperties, int threadCount,
+			final int requestsPerThread) throws InterruptedException
+	{
+		final HttpRetriever retriever = new HttpRetriever();
+		final IRetrieverMonitor monitor = new NullMonitor();
+		final CountDownLatch start = new CountDownLatch(1);
+		Thread[] threads = new Thread[threadCount];
+		for (int t = 0; t < threadCount; t++)
+		{
+			threads[t] = new Thread(new Runnable()
+			{
+				@Override
+				public void run()
+				{
+					try
+					{
+						start.await();
+						for (int i = 0; i < requestsPerThread; i++)
+						{
+							retriever.retrieve(url, monitor, retrievalProperties, null);
+						}
+					}
+					catch (Exception e)
+					{
+						e.printStackTrace();
+					}
+				}
+			});
+			threads[t].start();
+		}
+
+		long startTime = System.nanoTime();
+		start.countDown();
+		for (Thread thread : threads)
+		{
+			thread.join();
+		}
+		return System.nanoTime() - startTime;
+	}
+
+	/**
+	 * Start a minimal HTTP/1.1 server that responds to every request with the
+	 * given body, keeping the connection open unless the client asks for it
+	 * to be closed.
+	 */
+	private static ServerSocket startServer(final byte[] body) throws IOException
+	{
+		final ServerSocket serverSocket = new ServerSocket(0);
+		Thread acceptor = new Thread(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				while (!serverSocket.isClosed())
+				{
+					try
+					{
+						final Socket socket = serverSocket.accept();
+						connectionCount.incrementAndGet();
+						Thread handler = new Thread(new Runnable()
+						{
+							@Override
+							public void run()
+							{
+								serve(socket, body);
+							}
+						});
+						handler.setDaemon(true);
+						handler.start();
+					}
+					catch (IOException e)
+					{
+						//server socket closed
+					}
+				}
+			}
+		});
+		acceptor.setDaemon(true);
+		acceptor.start();
+		return serverSocket;
+	}
+
+	private static void serve(Socket socket, byte[] body)
+	{
+		try
+		{
+			socket.setTcpNoDelay(true);
+			BufferedReader reader =
+					new BufferedReader(new InputStreamReader(socket.getInputStream(), CHARSET));
+			OutputStream os = socket.getOutputStream();
+			String headers = "HTTP/1.1 200 OK\r\nContent-Type: application/octet-stream\r\n" //$NON-NLS-1$
+					+ "Content-Length: " + body.length + "\r\n"; //$NON-NLS-1$ //$NON-NLS-2$
+			while (true)
+			{
+				String line = reader.readLine();
+				if (line == null)
+				{
+					break;
+				}
+				boolean close = false;
+				while (line != null && line.length() > 0)
+				{
+					close |= line.equalsIgnoreCase("Connection: close"); //$NON-NLS-1$
+					line = reader.readLine();
+				}
+				String end = close ? "Connection: close\r\n\r\n" : "\r\n"; //$NON-NLS-1$ //$NON-NLS-2$
+				os.write((headers + end).getBytes(CHARSET));
+				os.write(body);
+				os.flush();
+				if (close)
+				{
+					break;
+				}
+			}
+		}
+		catch (IOException e)
+		{
+			//client closed the connection
+		}
+		finally
+		{
+			try
+			{
+				socket.close();
+			}
+			catch (IOException e)
+			{
+			}
+		}
+	}
+
+	private static class NullMonitor implements IRetrieverMonitor
+	{
+		@Override
+		public void updateStatus(RetrievalStatus status)
+		{
+		}
+
+		@Override
+		public void progress(long amount)
+		{
+		}
+
+		@Override
+		public void setPosition(long position)
+		{
+		}
+
+		@Override
+		public void setLength(long length)
+		{
+		}
+
+		@Override
+		public boolean isCanceled()
+		{
+			return false;
+		}
+
+		@Override
+		public boolean isPaused()
+		{
+			return false;
+		}
+
+		@Override
+		public void setCloseable(Closeable closeable)
+		{
+		}
+	}
+}
@@ -0,0 +1,213 @@
+/*******************************************************************************
+ * Copyright 2026 Geoscience Australia
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package au.gov.ga.earthsci.core.retrieve;
+
+import static org.junit.Assert.*;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for the {@link RetrievalScheduler} class.
+ * 
+ * @author Michael de Hoog (michael.dehoog@ga.gov.au)
+ */
+public class RetrievalSchedulerTest
+{
+	private RetrievalService service;
+	private RetrievalScheduler classUnderTest;
+	private final CountDownLatch release = new CountDownLatch(1);
+	private final List<String> started = Collections.synchronizedList(new ArrayList<String>());
+	private final List<String> startedHosts = Collections.synchronizedList(new ArrayList<String>());
+
+	@Before
+	public void setup()
+	{
+		service = new RetrievalService();
+		service.setRetrieverFactory(new IRetrieverFactory()
+		{
+			private final IRetriever retriever = new IRetriever()
+			{
+				@Override
+				public boolean supports(URL url)
+				{
+					return true;
+				}
+
+				@Override
+				public IRetrievalData checkCache(URL url)
+				{
+					return null;
+				}
+
+				@Override
+				public RetrieverResult retrieve(URL url, IRetrieverMonitor monitor,
+						IRetrievalProperties retrievalProperties, IRetrievalData cachedData) throws Exception
+				{
+					startedHosts.add(url.getHost());
+					started.add(url.getPath());
+					release.await(10, TimeUnit.SECONDS);
+					return null;
+				}
+			};
+
+			@Override
+			public IRetriever getRetriever(URL url)
+			{
+				return retriever;
+			}
+
+			@Override
+			public void registerRetriever(IRetriever retriever)
+			{
+			}
+
+		});
+		classUnderTest = service.getScheduler();
+	}
+
+	@After
+	public void teardown()
+	{
+		release.countDown();
+	}
+
+	private IRetrieval start(String url, RetrievalPriority priority, long staleRequestLimit) throws Exception
+	{
+		RetrievalProperties properties = new RetrievalProperties();
+		properties.setUseCache(false);
+		properties.setPriority(priority);
+		properties.setStaleRequestLimit(staleRequestLimit);
+		IRetrieval retrieval = service.retrieve(this, new URL(url), properties);
+		retrieval.start();
+		return retrieval;
+	}
+
+	private void waitForStarted(int count) throws InterruptedException
+	{
+		long end = System.currentTimeMillis() + 10000;
+		while (started.size() < count && System.currentTimeMillis() < end)
+		{
+			Thread.sleep(5);
+		}
+	}
+
+	@Test
+	public void testHigherPriorityStartsFirst() throws Exception
+	{
+		classUnderTest.setMaximumRunning(1);
+		IRetrieval first = start("http://a.test/first", RetrievalPriority.VISIBLE, -1); //$NON-NLS-1$
+		waitForStarted(1);
+
+		start("http://a.test/background", RetrievalPriority.BACKGROUND, -1); //$NON-NLS-1$
+		start("http://a.test/prefetch", RetrievalPriority.PREFETCH, -1); //$NON-NLS-1$
+		start("http://a.test/visible", RetrievalPriority.VISIBLE, -1); //$NON-NLS-1$
+		assertEquals(3, classUnderTest.getQueuedCount());
+
+		release.countDown();
+		first.waitAndGetResult();
+		waitForStarted(4);
+
+		assertEquals("/first", started.get(0)); //$NON-NLS-1$
+		assertEquals("/visible", started.get(1)); //$NON-NLS-1$
+		assertEquals("/prefetch", started.get(2)); //$NON-NLS-1$
+		assertEquals("/background", started.get(3)); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testReprioritizeQueued() throws Exception
+	{
+		classUnderTest.setMaximumRunning(1);
+		IRetrieval first = start("http://a.test/first", RetrievalPriority.VISIBLE, -1); //$NON-NLS-1$
+		waitForStarted(1);
+
+		start("http://a.test/prefetch", RetrievalPriority.PREFETCH, -1); //$NON-NLS-1$
+		IRetrieval promoted = start("http://a.test/promoted", RetrievalPriority.BACKGROUND, -1); //$NON-NLS-1$
+		promoted.setPriority(RetrievalPriority.VISIBLE);
+
+		release.countDown();
+		first.waitAndGetResult();
+		waitForStarted(3);
+
+		assertEquals("/promoted", started.get(1)); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testBatchIsGroupedByHost() throws Exception
+	{
+		classUnderTest.setMaximumRunning(1);
+		IRetrieval first = start("http://a.test/first", RetrievalPriority.VISIBLE, -1); //$NON-NLS-1$
+		waitForStarted(1);
+
+		List<URL> urls = new ArrayList<URL>();
+		urls.add(new URL("http://b.test/0")); //$NON-NLS-1$
+		urls.add(new URL("http://c.test/0")); //$NON-NLS-1$
+		urls.add(new URL("http://b.test/1")); //$NON-NLS-1$
+		urls.add(new URL("http://c.test/1")); //$NON-NLS-1$
+		IRetrieval[] retrievals = service.retrieve(this, urls, new RetrievalProperties());
+		assertEquals(4, retrievals.length);
+		assertEquals(4, classUnderTest.getQueuedCount());
+
+		release.countDown();
+		first.waitAndGetResult();
+		waitForStarted(5);
+
+		//the retrievals for each host are started together, in the order of each host's first url
+		assertEquals(Arrays.asList("b.test", "b.test", "c.test", "c.test"), startedHosts.subList(1, 5)); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+		assertEquals(Arrays.asList("/0", "/1", "/0", "/1"), started.subList(1, 5)); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
+	}
+
+	@Test
+	public void testPerHostLimit() throws Exception
+	{
+		classUnderTest.setMaximumRunningPerHost(2);
+		for (int i = 0; i < 4; i++)
+		{
+			start("http://a.test/" + i, RetrievalPriority.VISIBLE, -1); //$NON-NLS-1$
+		}
+		start("http://b.test/0", RetrievalPriority.VISIBLE, -1); //$NON-NLS-1$
+		waitForStarted(3);
+
+		assertEquals(3, classUnderTest.getRunningCount());
+		assertEquals(2, classUnderTest.getQueuedCount());
+	}
+
+	@Test
+	public void testStaleRetrievalIsCanceled() throws Exception
+	{
+		classUnderTest.setMaximumRunning(1);
+		IRetrieval first = start("http://a.test/first", RetrievalPriority.VISIBLE, -1); //$NON-NLS-1$
+		waitForStarted(1);
+
+		IRetrieval stale = start("http://a.test/stale", RetrievalPriority.VISIBLE, 10); //$NON-NLS-1$
+		Thread.sleep(50);
+
+		release.countDown();
+		first.waitAndGetResult();
+		assertNull(stale.waitAndGetResult());
+		assertTrue(stale.isCanceled());
+		assertFalse(started.contains("/stale")); //$NON-NLS-1$
+	}
+}
@@ -0,0 +1,102 @@
+/*******************************************************************************
+ * Copyright 2026 Geoscience Australia
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package au.gov.ga.earthsci.core.retrieve;
+
+import java.net.URL;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Multi-threaded benchmark that reports the retrieval registration throughput
+ * of the {@link RetrievalService} for increasing numbers of threads.
+ * <p/>
+ * Each thread registers retrievals for its own set of URLs; the first URLs are
+ * shared by every thread, to exercise duplicate detection. The retrievals are
+ * never started.
+ * <p/>
+ * Not run as part of the unit tests. Usage:
+ * 
+ * <pre>
+ * RetrievalServiceBenchmark [maxThreadCount] [urlsPerThread] [sharedUrls]
+ * </pre>
+ * 
+ * The defaults are twice the number of processors, 20000 URLs per thread and
+ * 1000 shared URLs.
+ * 
+ * @author Michael de Hoog (michael.dehoog@ga.gov.au)
+ */
+public class RetrievalServiceBenchmark
+{
+	public static void main(String[] args) throws Exception
+	{
+		int maxThreadCount =
+				args.length > 0 ? Integer.parseInt(args[0]) : Math.max(2, Runtime.getRuntime()
+						.availableProcessors() * 2);
+		int urlsPerThread = args.length > 1 ? Integer.parseInt(args[1]) : 20000;
+		int sharedUrls = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+
+		System.out.println(urlsPerThread + " urls per thread, " + sharedUrls + " shared urls"); //$NON-NLS-1$ //$NON-NLS-2$
+		for (int threadCount = 1; threadCount <= maxThreadCount; threadCount *= 2)
+		{
+			RetrievalService service = RetrievalServiceTest.createService();
+			long nanos = run(service, threadCount, urlsPerThread, sharedUrls);
+			service.waitForListeners();
+
+			double perSecond = threadCount * (double) urlsPerThread / (nanos / 1e9);
+			System.out.println(String.format("%3d threads: %10.0f retrievals/sec", threadCount, perSecond)); //$NON-NLS-1$
+		}
+	}
+
+	private static long run(final RetrievalService service, int threadCount, final int urlsPerThread,
+			final int sharedUrls) throws InterruptedException
+	{
+		final CountDownLatch start = new CountDownLatch(1);
+		Thread[] threads = new Thread[threadCount];
+		for (int t = 0; t < threadCount; t++)
+		{
+			final int thread = t;
+			threads[t] = new Thread(new Runnable()
+			{
+				@Override
+				public void run()
+				{
+					try
+					{
+						Object caller = new Object();
+						start.await();
+						for (int i = 0; i < urlsPerThread; i++)
+						{
+							String path = i < sharedUrls ? "shared/" + i : thread + "/" + i; //$NON-NLS-1$ //$NON-NLS-2$
+							service.retrieve(caller, new URL("http://localhost/" + path)); //$NON-NLS-1$
+						}
+					}
+					catch (Exception e)
+					{
+						e.printStackTrace();
+					}
+				}
+			});
+			threads[t].start();
+		}
+
+		long startTime = System.nanoTime();
+		start.countDown();
+		for (Thread thread : threads)
+		{
+			thread.join();
+		}
+		return System.nanoTime() - startTime;
+	}
+}
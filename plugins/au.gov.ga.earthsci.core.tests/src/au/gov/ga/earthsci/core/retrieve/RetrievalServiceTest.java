@@ -0,0 +1,323 @@
+/*******************************************************************************
+ * Copyright 2026 Geoscience Australia
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package au.gov.ga.earthsci.core.retrieve;
+
+import static org.junit.Assert.*;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for the {@link RetrievalService} class
+ * 
+ * @author Michael de Hoog (michael.dehoog@ga.gov.au)
+ */
+public class RetrievalServiceTest
+{
+	private static final int CONCURRENT_THREADS = 4;
+	private static final int CONCURRENT_URLS_PER_THREAD = 500;
+	private static final int CONCURRENT_SHARED_URLS = 100;
+
+	private RetrievalService classUnderTest;
+
+	@Before
+	public void setup()
+	{
+		classUnderTest = createService();
+	}
+
+	/**
+	 * @return A retrieval service with a retriever that supports every URL but
+	 *         never retrieves anything
+	 */
+	static RetrievalService createService()
+	{
+		RetrievalService service = new RetrievalService();
+		service.setRetrieverFactory(new IRetrieverFactory()
+		{
+			private final IRetriever retriever = new IRetriever()
+			{
+				@Override
+				public boolean supports(URL url)
+				{
+					return true;
+				}
+
+				@Override
+				public IRetrievalData checkCache(URL url)
+				{
+					return null;
+				}
+
+				@Override
+				public RetrieverResult retrieve(URL url, IRetrieverMonitor monitor,
+						IRetrievalProperties retrievalProperties, IRetrievalData cachedData) throws Exception
+				{
+					return null;
+				}
+			};
+
+			@Override
+			public IRetriever getRetriever(URL url)
+			{
+				return retriever;
+			}
+
+			@Override
+			public void registerRetriever(IRetriever retriever)
+			{
+			}
+		});
+		return service;
+	}
+
+	@Test
+	public void testDuplicateRetrievalsAreShared() throws Exception
+	{
+		Object caller1 = new Object();
+		Object caller2 = new Object();
+		URL url = new URL("http://localhost/test"); //$NON-NLS-1$
+
+		IRetrieval retrieval1 = classUnderTest.retrieve(caller1, url);
+		IRetrieval retrieval2 = classUnderTest.retrieve(caller2, url);
+
+		assertSame(retrieval1, retrieval2);
+		assertSame(retrieval1, classUnderTest.getRetrieval(url));
+		assertEquals(2, retrieval1.getCallers().length);
+		assertEquals(1, classUnderTest.getRetrievals(caller1).length);
+		assertEquals(1, classUnderTest.getRetrievals(caller2).length);
+	}
+
+	@Test
+	public void testIgnoreDuplicatesCreatesNewRetrieval() throws Exception
+	{
+		Object caller = new Object();
+		URL url = new URL("http://localhost/test"); //$NON-NLS-1$
+
+		IRetrieval retrieval1 = classUnderTest.retrieve(caller, url);
+		IRetrieval retrieval2 = classUnderTest.retrieve(caller, url, new RetrievalProperties(), true);
+
+		assertNotSame(retrieval1, retrieval2);
+		assertSame(retrieval1, classUnderTest.getRetrieval(url));
+		assertEquals(2, classUnderTest.getRetrievals(caller).length);
+	}
+
+	@Test
+	public void testListenersAreNotifiedInOrder() throws Exception
+	{
+		final List<IRetrieval> added = Collections.synchronizedList(new ArrayList<IRetrieval>());
+		final Object caller = new Object();
+		final List<IRetrieval> callerAdded = Collections.synchronizedList(new ArrayList<IRetrieval>());
+
+		IRetrieval existing = classUnderTest.retrieve(caller, new URL("http://localhost/0")); //$NON-NLS-1$
+		classUnderTest.addListener(new RecordingListener(added));
+		classUnderTest.addListener(new RecordingListener(callerAdded), caller);
+
+		List<IRetrieval> expected = new ArrayList<IRetrieval>();
+		expected.add(existing);
+		for (int i = 1; i <= 10; i++)
+		{
+			expected.add(classUnderTest.retrieve(caller, new URL("http://localhost/" + i))); //$NON-NLS-1$
+		}
+		classUnderTest.waitForListeners();
+
+		assertEquals(expected, added);
+		assertEquals(expected, callerAdded);
+	}
+
+	@Test
+	public void testConcurrentRetrieve() throws Exception
+	{
+		AtomicInteger listenerCount = new AtomicInteger();
+		classUnderTest.addListener(new CountingListener(listenerCount));
+
+		final Object[] callers = new Object[CONCURRENT_THREADS];
+		final CountDownLatch start = new CountDownLatch(1);
+		final CountDownLatch done = new CountDownLatch(CONCURRENT_THREADS);
+		final List<Throwable> errors = Collections.synchronizedList(new ArrayList<Throwable>());
+		for (int t = 0; t < CONCURRENT_THREADS; t++)
+		{
+			final int thread = t;
+			callers[t] = new Object();
+			new Thread(new Runnable()
+			{
+				@Override
+				public void run()
+				{
+					try
+					{
+						start.await();
+						for (int i = 0; i < CONCURRENT_URLS_PER_THREAD; i++)
+						{
+							classUnderTest.retrieve(callers[thread], url(thread, i));
+						}
+					}
+					catch (Throwable e)
+					{
+						errors.add(e);
+					}
+					finally
+					{
+						done.countDown();
+					}
+				}
+			}).start();
+		}
+		start.countDown();
+		done.await();
+		if (!errors.isEmpty())
+		{
+			throw new AssertionError(errors.get(0));
+		}
+
+		classUnderTest.waitForListeners();
+		int expectedRetrievals =
+				CONCURRENT_THREADS * (CONCURRENT_URLS_PER_THREAD - CONCURRENT_SHARED_URLS) + CONCURRENT_SHARED_URLS;
+		assertEquals(expectedRetrievals, listenerCount.get());
+
+		for (int t = 0; t < CONCURRENT_THREADS; t++)
+		{
+			assertEquals(CONCURRENT_URLS_PER_THREAD, classUnderTest.getRetrievals(callers[t]).length);
+		}
+		for (int i = 0; i < CONCURRENT_SHARED_URLS; i++)
+		{
+			//every thread shares the same retrieval for the shared urls
+			IRetrieval retrieval = classUnderTest.getRetrieval(url(0, i));
+			assertEquals(CONCURRENT_THREADS, retrieval.getCallers().length);
+		}
+		assertEquals(1, classUnderTest.getRetrieval(url(1, CONCURRENT_SHARED_URLS)).getCallers().length);
+	}
+
+	@Test
+	public void testRetrievalCompletedByAnotherCallerIsRemoved() throws Exception
+	{
+		final URL[] urls = new URL[CONCURRENT_URLS_PER_THREAD];
+		for (int i = 0; i < urls.length; i++)
+		{
+			urls[i] = url(0, CONCURRENT_SHARED_URLS + i);
+		}
+
+		//another caller cancels each retrieval as soon as it becomes visible
+		final Semaphore watching = new Semaphore(0);
+		final List<Throwable> errors = Collections.synchronizedList(new ArrayList<Throwable>());
+		Thread canceller = new Thread(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				try
+				{
+					for (URL url : urls)
+					{
+						IRetrieval retrieval;
+						watching.release();
+						do
+						{
+							retrieval = classUnderTest.getRetrieval(url);
+						}
+						while (retrieval == null);
+						((Retrieval) retrieval).cancelQueued();
+					}
+				}
+				catch (Throwable e)
+				{
+					errors.add(e);
+				}
+			}
+		});
+		canceller.start();
+
+		Object caller = new Object();
+		//a caller listener widens the window between publishing and returning the retrieval
+		classUnderTest.addListener(new CountingListener(new AtomicInteger()), caller);
+		for (URL url : urls)
+		{
+			watching.acquire();
+			classUnderTest.retrieve(caller, url);
+		}
+		canceller.join();
+		if (!errors.isEmpty())
+		{
+			throw new AssertionError(errors.get(0));
+		}
+
+		for (URL url : urls)
+		{
+			assertNull(classUnderTest.getRetrieval(url));
+		}
+		assertEquals(0, classUnderTest.getRetrievals(caller).length);
+	}
+
+	private static URL url(int thread, int i) throws MalformedURLException
+	{
+		//the first urls are shared by every thread, to exercise duplicate detection
+		String path = i < CONCURRENT_SHARED_URLS ? "shared/" + i : thread + "/" + i; //$NON-NLS-1$ //$NON-NLS-2$
+		return new URL("http://localhost/" + path); //$NON-NLS-1$
+	}
+
+	private static class RecordingListener implements IRetrievalServiceListener
+	{
+		private final List<IRetrieval> added;
+
+		public RecordingListener(List<IRetrieval> added)
+		{
+			this.added = added;
+		}
+
+		@Override
+		public void retrievalAdded(IRetrieval retrieval)
+		{
+			added.add(retrieval);
+		}
+
+		@Override
+		public void retrievalRemoved(IRetrieval retrieval)
+		{
+			added.remove(retrieval);
+		}
+	}
+
+	private static class CountingListener implements IRetrievalServiceListener
+	{
+		private final AtomicInteger count;
+
+		public CountingListener(AtomicInteger count)
+		{
+			this.count = count;
+		}
+
+		@Override
+		public void retrievalAdded(IRetrieval retrieval)
+		{
+			count.incrementAndGet();
+		}
+
+		@Override
+		public void retrievalRemoved(IRetrieval retrieval)
+		{
+			count.decrementAndGet();
+		}
+	}
+}
@@ -0,0 +1,168 @@
+/*******************************************************************************
+ * Copyright 2026 Geoscience Australia
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package au.gov.ga.earthsci.core.retrieve.cache;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Properties;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for the {@link FileURLCacheIndex} class
+ * 
+ * @author Michael de Hoog (michael.dehoog@ga.gov.au)
+ */
+public class FileURLCacheIndexTest
+{
+	private static final String HASH_DIRECTORY = "host" + File.separator + "123"; //$NON-NLS-1$ //$NON-NLS-2$
+
+	private File directory;
+
+	@Before
+	public void setup() throws IOException
+	{
+		directory = File.createTempFile("urlcache", ""); //$NON-NLS-1$ //$NON-NLS-2$
+		directory.delete();
+		directory.mkdirs();
+	}
+
+	@After
+	public void tearDown()
+	{
+		delete(directory);
+	}
+
+	@Test
+	public void testAssignsSequentialFilenames()
+	{
+		FileURLCacheIndex index = new FileURLCacheIndex(directory);
+		assertEquals("0.png", index.getFilename(HASH_DIRECTORY, "http://a/1.png", ".png")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		assertEquals("1.png", index.getFilename(HASH_DIRECTORY, "http://a/2.png", ".png")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		assertEquals("0.png", index.getFilename(HASH_DIRECTORY, "http://a/1.png", ".png")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+	}
+
+	@Test
+	public void testLookupDoesNotAssign()
+	{
+		FileURLCacheIndex index = new FileURLCacheIndex(directory);
+		assertNull(index.lookupFilename(HASH_DIRECTORY, "http://a/1.png")); //$NON-NLS-1$
+		assertFalse(new File(directory, HASH_DIRECTORY + File.separator + FileURLCacheIndex.JOURNAL_FILENAME).exists());
+	}
+
+	@Test
+	public void testMappingsPersistBetweenInstances()
+	{
+		FileURLCacheIndex index = new FileURLCacheIndex(directory);
+		index.getFilename(HASH_DIRECTORY, "http://a/1.png", ".png"); //$NON-NLS-1$ //$NON-NLS-2$
+		index.getFilename(HASH_DIRECTORY, "http://a/2.png", ".png"); //$NON-NLS-1$ //$NON-NLS-2$
+		index.remove(HASH_DIRECTORY, "http://a/1.png"); //$NON-NLS-1$
+
+		FileURLCacheIndex reloaded = new FileURLCacheIndex(directory);
+		assertNull(reloaded.lookupFilename(HASH_DIRECTORY, "http://a/1.png")); //$NON-NLS-1$
+		assertEquals("1.png", reloaded.lookupFilename(HASH_DIRECTORY, "http://a/2.png")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertEquals("2.png", reloaded.getFilename(HASH_DIRECTORY, "http://a/3.png", ".png")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+	}
+
+	@Test
+	public void testLongURLPersistsBetweenInstances()
+	{
+		//longer than the 65535 bytes supported by DataOutputStream.writeUTF
+		StringBuilder sb = new StringBuilder("http://a/wms?layers="); //$NON-NLS-1$
+		while (sb.length() < 70000)
+		{
+			sb.append("layer\u00e9,"); //$NON-NLS-1$
+		}
+		String url = sb.toString();
+
+		FileURLCacheIndex index = new FileURLCacheIndex(directory);
+		assertEquals("0.png", index.getFilename(HASH_DIRECTORY, url, ".png")); //$NON-NLS-1$ //$NON-NLS-2$
+		index.getFilename(HASH_DIRECTORY, "http://a/2.png", ".png"); //$NON-NLS-1$ //$NON-NLS-2$
+
+		FileURLCacheIndex reloaded = new FileURLCacheIndex(directory);
+		assertEquals("0.png", reloaded.lookupFilename(HASH_DIRECTORY, url)); //$NON-NLS-1$
+		assertEquals("1.png", reloaded.lookupFilename(HASH_DIRECTORY, "http://a/2.png")); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	@Test
+	public void testMigratesLegacyProperties() throws IOException
+	{
+		File bucket = new File(directory, HASH_DIRECTORY);
+		bucket.mkdirs();
+		Properties properties = new Properties();
+		properties.setProperty("http://a/1.png", "0.png"); //$NON-NLS-1$ //$NON-NLS-2$
+		properties.setProperty("http://a/2.png", "1.png"); //$NON-NLS-1$ //$NON-NLS-2$
+		File legacy = new File(bucket, FileURLCacheIndex.LEGACY_PROPERTIES_FILENAME);
+		FileOutputStream fos = new FileOutputStream(legacy);
+		try
+		{
+			properties.store(fos, null);
+		}
+		finally
+		{
+			fos.close();
+		}
+
+		FileURLCacheIndex index = new FileURLCacheIndex(directory);
+		Map<String, String> mappings = index.getMappings(HASH_DIRECTORY);
+		assertEquals(2, mappings.size());
+		assertEquals("1.png", mappings.get("http://a/2.png")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertFalse(legacy.exists());
+		assertTrue(new File(bucket, FileURLCacheIndex.JOURNAL_FILENAME).isFile());
+		assertEquals("2.png", index.getFilename(HASH_DIRECTORY, "http://a/3.png", ".png")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+	}
+
+	@Test
+	public void testTruncatedJournalIsRecovered() throws IOException
+	{
+		FileURLCacheIndex index = new FileURLCacheIndex(directory);
+		index.getFilename(HASH_DIRECTORY, "http://a/1.png", ".png"); //$NON-NLS-1$ //$NON-NLS-2$
+
+		File journal = new File(directory, HASH_DIRECTORY + File.separator + FileURLCacheIndex.JOURNAL_FILENAME);
+		FileOutputStream fos = new FileOutputStream(journal, true);
+		try
+		{
+			fos.write(new byte[] { 1, 0, 10, 'h' });
+		}
+		finally
+		{
+			fos.close();
+		}
+
+		FileURLCacheIndex reloaded = new FileURLCacheIndex(directory);
+		assertEquals(1, reloaded.getMappings(HASH_DIRECTORY).size());
+		assertEquals("0.png", reloaded.lookupFilename(HASH_DIRECTORY, "http://a/1.png")); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	private static void delete(File file)
+	{
+		File[] children = file.listFiles();
+		if (children != null)
+		{
+			for (File child : children)
+			{
+				delete(child);
+			}
+		}
+		file.delete();
+	}
+}
@@ -0,0 +1,311 @@
+/*******************************************************************************
+ * Copyright 2026 Geoscience Australia
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package au.gov.ga.earthsci.core.retrieve.cache;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for the {@link FileURLCache} class
+ * 
+ * @author Michael de Hoog (michael.dehoog@ga.gov.au)
+ */
+public class FileURLCacheTest
+{
+	private File directory;
+	private FileURLCache classUnderTest;
+	private File[] files;
+
+	@Before
+	public void setup() throws IOException
+	{
+		directory = File.createTempFile("urlcache", ""); //$NON-NLS-1$ //$NON-NLS-2$
+		directory.delete();
+		directory.mkdirs();
+		classUnderTest = new FileURLCache(directory);
+	}
+
+	@After
+	public void tearDown()
+	{
+		delete(directory);
+	}
+
+	@Test
+	public void testProbingUncachedURLDoesNotWriteIndex() throws IOException
+	{
+		URL url = new URL("http://host/uncached.png"); //$NON-NLS-1$
+		assertFalse(classUnderTest.isComplete(url));
+		assertFalse(classUnderTest.isPartial(url));
+		assertEquals(0, classUnderTest.getLength(url));
+		assertEquals(0, classUnderTest.getLastModified(url));
+		assertEquals(0, classUnderTest.getPartialLength(url));
+		assertNull(classUnderTest.getContentType(url));
+		assertNull(classUnderTest.getFile(url));
+
+		assertEquals(0, countFiles(directory));
+	}
+
+	@Test(expected = FileNotFoundException.class)
+	public void testReadUncachedURL() throws IOException
+	{
+		classUnderTest.read(new URL("http://host/uncached.png")); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testWriteAndRead() throws IOException
+	{
+		URL url = new URL("http://host/cached.png"); //$NON-NLS-1$
+		write(url, 10);
+
+		assertTrue(classUnderTest.isComplete(url));
+		assertFalse(classUnderTest.isPartial(url));
+		assertEquals(10, classUnderTest.getLength(url));
+		assertEquals("image/png", classUnderTest.getContentType(url)); //$NON-NLS-1$
+		assertTrue(classUnderTest.getFile(url).isFile());
+
+		InputStream is = classUnderTest.read(url);
+		try
+		{
+			assertEquals(10, is.read(new byte[20]));
+		}
+		finally
+		{
+			is.close();
+		}
+	}
+
+	@Test
+	public void testEntryLimitEvictsLeastRecentlyUsed() throws IOException, InterruptedException
+	{
+		URL[] urls = writeEntries(5, 10);
+		//access the oldest entry so that it becomes the most recently used
+		assertTrue(classUnderTest.isComplete(urls[0]));
+
+		classUnderTest.setLimits(0, 4);
+		classUnderTest.evict();
+
+		//evicted to 90% of the entry limit
+		assertCached(urls, true, false, false, true, true);
+		assertFilesExist( true, false, false, true, true);
+	}
+
+	@Test
+	public void testEntryBeingWrittenIsNotEvicted() throws IOException, InterruptedException
+	{
+		URL[] urls = writeEntries(5, 10);
+		OutputStream os = classUnderTest.writePartial(urls[0], 0);
+		try
+		{
+			os.write(new byte[20]);
+		}
+		finally
+		{
+			os.close();
+		}
+		//access the other entries so that the entry being written is the least recently used
+		for (int i = 1; i < urls.length; i++)
+		{
+			Thread.sleep(10);
+			assertTrue(classUnderTest.isComplete(urls[i]));
+		}
+
+		classUnderTest.setLimits(0, 4);
+		classUnderTest.evict();
+
+		//the entry with a partial file is skipped, and the next entry is evicted instead
+		assertFilesExist( true, false, false, true, true);
+		assertTrue(classUnderTest.writeComplete(urls[0], 0, "image/png")); //$NON-NLS-1$
+		assertEquals(20, classUnderTest.getLength(urls[0]));
+		assertEquals(3, classUnderTest.getStatistics().getEntryCount());
+		assertEquals(40, classUnderTest.getStatistics().getSize());
+	}
+
+	@Test
+	public void testSizeLimitEvictsLeastRecentlyUsed() throws IOException, InterruptedException
+	{
+		URL[] urls = writeEntries(4, 100);
+		assertTrue(classUnderTest.isComplete(urls[1]));
+
+		classUnderTest.setLimits(250, 0);
+		classUnderTest.evict();
+
+		assertCached(urls, false, true, false, true);
+		assertFilesExist( false, true, false, true);
+		assertEquals(200, classUnderTest.getStatistics().getSize());
+	}
+
+	@Test
+	public void testNothingEvictedWithinLimits() throws IOException, InterruptedException
+	{
+		URL[] urls = writeEntries(3, 100);
+
+		classUnderTest.setLimits(300, 3);
+		classUnderTest.evict();
+
+		assertCached(urls, true, true, true);
+		assertEquals(0, classUnderTest.getStatistics().getEvictionCount());
+	}
+
+	@Test
+	public void testRecentlyAccessedEntriesAreNotEvicted() throws IOException, InterruptedException
+	{
+		URL[] urls = writeEntries(3, 10);
+		classUnderTest.setEvictionMinimumAge(60 * 60 * 1000);
+
+		classUnderTest.setLimits(0, 1);
+		classUnderTest.evict();
+
+		assertCached(urls, true, true, true);
+	}
+
+	@Test
+	public void testAccessTimesSurviveReload() throws IOException, InterruptedException
+	{
+		URL[] urls = writeEntries(3, 10);
+		assertTrue(classUnderTest.isComplete(urls[0]));
+		//flushes the access times to the journal
+		classUnderTest.evict();
+
+		FileURLCache reloaded = new FileURLCache(directory);
+		reloaded.setEvictionMinimumAge(0);
+		reloaded.setLimits(0, 2);
+		reloaded.evict();
+
+		assertEquals(1, reloaded.getStatistics().getEntryCount());
+		assertTrue(reloaded.isComplete(urls[0]));
+		assertFalse(reloaded.isComplete(urls[1]));
+		assertFalse(reloaded.isComplete(urls[2]));
+	}
+
+	@Test
+	public void testStatistics() throws IOException, InterruptedException
+	{
+		URLCacheStatistics statistics = classUnderTest.getStatistics();
+		assertEquals(-1, statistics.getSize());
+		assertEquals(-1, statistics.getEntryCount());
+
+		URL[] urls = writeEntries(5, 10);
+		assertTrue(classUnderTest.isComplete(urls[4]));
+		assertTrue(classUnderTest.isComplete(urls[3]));
+		assertFalse(classUnderTest.isComplete(new URL("http://host/uncached.png"))); //$NON-NLS-1$
+
+		classUnderTest.setLimits(1000, 3);
+		classUnderTest.evict();
+
+		statistics = classUnderTest.getStatistics();
+		assertEquals(20, statistics.getSize());
+		assertEquals(2, statistics.getEntryCount());
+		assertEquals(1000, statistics.getMaximumSize());
+		assertEquals(3, statistics.getMaximumEntries());
+		assertEquals(2, statistics.getHitCount());
+		assertEquals(1, statistics.getMissCount());
+		assertEquals(3, statistics.getEvictionCount());
+
+		//writes are counted without rescanning the cache
+		write(new URL("http://host/new.png"), 10); //$NON-NLS-1$
+		statistics = classUnderTest.getStatistics();
+		assertEquals(30, statistics.getSize());
+		assertEquals(3, statistics.getEntryCount());
+	}
+
+	/**
+	 * Write entries with increasing access times, each with a distinct hash
+	 * directory, storing their cache files in {@link #files}.
+	 */
+	private URL[] writeEntries(int count, int length) throws IOException, InterruptedException
+	{
+		classUnderTest.setEvictionMinimumAge(0);
+		URL[] urls = new URL[count];
+		files = new File[count];
+		for (int i = 0; i < count; i++)
+		{
+			urls[i] = new URL("http://host/" + i + ".png"); //$NON-NLS-1$ //$NON-NLS-2$
+			write(urls[i], length);
+			files[i] = classUnderTest.getFile(urls[i]);
+			Thread.sleep(10);
+		}
+		return urls;
+	}
+
+	private void assertCached(URL[] urls, boolean... cached)
+	{
+		for (int i = 0; i < urls.length; i++)
+		{
+			assertEquals(urls[i].toString(), cached[i], classUnderTest.isComplete(urls[i]));
+		}
+	}
+
+	private void assertFilesExist(boolean... exist)
+	{
+		for (int i = 0; i < files.length; i++)
+		{
+			assertEquals(files[i].toString(), exist[i], files[i].exists());
+		}
+	}
+
+	private void write(URL url, int length) throws IOException
+	{
+		OutputStream os = classUnderTest.writePartial(url, 0);
+		try
+		{
+			os.write(new byte[length]);
+		}
+		finally
+		{
+			os.close();
+		}
+		assertTrue(classUnderTest.writeComplete(url, 0, "image/png")); //$NON-NLS-1$
+	}
+
+	private static int countFiles(File file)
+	{
+		File[] children = file.listFiles();
+		if (children == null)
+		{
+			return 1;
+		}
+		int count = 0;
+		for (File child : children)
+		{
+			count += countFiles(child);
+		}
+		return count;
+	}
+
+	private static void delete(File file)
+	{
+		File[] children = file.listFiles();
+		if (children != null)
+		{
+			for (File child : children)
+			{
+				delete(child);
+			}
+		}
+		file.delete();
+	}
+}
@@ -26,6 +26,9 @@ import java.lang.reflect.Proxy;
 import java.net.InetSocketAddress;
 import java.net.ServerSocket;
 import java.net.URL;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
 
 import org.jmock.Expectations;
 import org.jmock.Mockery;
@@ -182,6 +185,26 @@ public class HTTPRetrieverTest
 		classUnderTest.retrieve(url, monitor, createRetrievalProperties(), null);
 	}
 
+	@Test
+	public void testRetrieveReusesConnections() throws Exception
+	{
+		Assume.assumeTrue(httpServerIsAvailable());
+
+		final int requests = 20;
+		setServerResponse("/tile", 200, "tile", false);
+		URL url = createHttpURL("/tile");
+		IRetrievalProperties retrievalProperties = createRetrievalProperties();
+
+		connectionPorts.clear();
+		for (int i = 0; i < requests; i++)
+		{
+			classUnderTest.retrieve(url, monitor, retrievalProperties, null);
+		}
+
+		//requests are sequential, so each fully consumed response frees its connection for the next request
+		assertTrue(connectionPorts.size() < requests);
+	}
+
 	private static IRetrievalProperties createRetrievalProperties()
 	{
 		RetrievalProperties retrievalProperties = new RetrievalProperties();
@@ -194,6 +217,7 @@ public class HTTPRetrieverTest
 	private static InetSocketAddress serverAddress;
 	private static Class<?> serverClass;
 	private static Object serverInstance;
+	private static final Set<Integer> connectionPorts = Collections.synchronizedSet(new HashSet<Integer>());
 
 	private static URL createHttpURL(String relativePath) throws Exception
 	{
@@ -313,6 +337,10 @@ public class HTTPRetrieverTest
 										}
 
 										Object httpExchange = args[0];
+										InetSocketAddress remoteAddress =
+												(InetSocketAddress) exchangeClass.getMethod("getRemoteAddress").invoke(
+														httpExchange);
+										connectionPorts.add(remoteAddress.getPort());
 
 										// Send headers
 										long responseLength =
@@ -15,15 +15,24 @@
  ******************************************************************************/
 package au.gov.ga.earthsci.core.temporal;
 
+import static org.junit.Assert.*;
+
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Executor;
 
 import org.jmock.Expectations;
 import org.jmock.Mockery;
 import org.junit.Before;
 import org.junit.Test;
 
+import au.gov.ga.earthsci.common.util.Range;
+
 /**
  * Unit tests for the {@link Chronos} class
  * 
@@ -37,16 +46,40 @@ public class ChronosTest
 
 	private Mockery mockContext;
 
+	private Queue<Runnable> executorTasks;
+
 	@Before
 	public void setup()
 	{
-		classUnderTest = new Chronos();
+		executorTasks = new LinkedList<Runnable>();
+		classUnderTest = new Chronos(new Executor()
+		{
+			@Override
+			public void execute(Runnable command)
+			{
+				executorTasks.add(command);
+			}
+		});
 
 		mockContext = new Mockery();
 
 		temporal = mockContext.mock(ITemporal.class);
 		pcl = mockContext.mock(PropertyChangeListener.class);
 
+		mockContext.checking(new Expectations()
+		{
+			{
+				{
+					allowing(temporal).getRange();
+					will(returnValue(null));
+					allowing(temporal).getResolution();
+					will(returnValue(null));
+					allowing(temporal).isApplicableAt(with(any(BigTime.class)));
+					will(returnValue(true));
+				}
+			}
+		});
+
 		classUnderTest.addPropertyChangeListener(pcl);
 		classUnderTest.addTemporal(temporal);
 	}
@@ -85,13 +118,28 @@ public class ChronosTest
 		});
 
 		classUnderTest.setCurrentTime(currentTime);
+		runExecutorTasks();
+
+		mockContext.assertIsSatisfied();
 	}
 
 	@Test
 	public void testSetCurrentTimeWithSameTime()
 	{
 		final BigTime currentTime = new BigTime(BigInteger.valueOf(1000));
+
+		mockContext.checking(new Expectations()
+		{
+			{
+				{
+					oneOf(temporal).apply(with(currentTime));
+					oneOf(pcl).propertyChange(with(any(PropertyChangeEvent.class)));
+				}
+			}
+		});
+
 		classUnderTest.setCurrentTime(currentTime);
+		runExecutorTasks();
 
 		mockContext.checking(new Expectations()
 		{
@@ -105,5 +153,195 @@ public class ChronosTest
 
 		final BigTime newTime = new BigTime(BigInteger.valueOf(1000));
 		classUnderTest.setCurrentTime(newTime);
+		assertTrue(executorTasks.isEmpty());
+
+		mockContext.assertIsSatisfied();
+	}
+
+	@Test
+	public void testTimeIsAppliedAsynchronously()
+	{
+		final BigTime currentTime = new BigTime(BigInteger.valueOf(1000));
+
+		mockContext.checking(new Expectations()
+		{
+			{
+				{
+					never(temporal).apply(with(any(BigTime.class)));
+					never(pcl).propertyChange(with(any(PropertyChangeEvent.class)));
+				}
+			}
+		});
+
+		classUnderTest.setCurrentTime(currentTime);
+
+		assertEquals(currentTime, classUnderTest.getCurrentTime());
+		assertEquals(1, executorTasks.size());
+	}
+
+	@Test
+	public void testSetCurrentTimeCoalescesToLatestTime()
+	{
+		final BigTime latestTime = new BigTime(BigInteger.valueOf(3000));
+
+		mockContext.checking(new Expectations()
+		{
+			{
+				{
+					oneOf(temporal).apply(with(latestTime));
+					oneOf(pcl).propertyChange(with(any(PropertyChangeEvent.class)));
+				}
+			}
+		});
+
+		classUnderTest.setCurrentTime(new BigTime(BigInteger.valueOf(1000)));
+		classUnderTest.setCurrentTime(new BigTime(BigInteger.valueOf(2000)));
+		classUnderTest.setCurrentTime(latestTime);
+		assertEquals(1, executorTasks.size());
+		runExecutorTasks();
+
+		mockContext.assertIsSatisfied();
+	}
+
+	@Test
+	public void testOnlyTemporalsWithChangedStateAreApplied()
+	{
+		classUnderTest.removeTemporal(temporal);
+		classUnderTest.removePropertyChangeListener(pcl);
+
+		TestTemporal early = new TestTemporal(0, 1000, BigTime.NANOSECOND_RESOLUTION);
+		TestTemporal late = new TestTemporal(2000, 3000, BigTime.NANOSECOND_RESOLUTION);
+		TestTemporal coarse = new TestTemporal(0, 3000, BigInteger.valueOf(1000));
+		classUnderTest.addTemporal(early);
+		classUnderTest.addTemporal(late);
+		classUnderTest.addTemporal(coarse);
+
+		setTime(500);
+		setTime(600);
+		setTime(2500);
+
+		assertEquals(times(500, 600), early.appliedTimes);
+		assertEquals(times(2500), late.appliedTimes);
+		//600 is the same as 500 at the coarse temporal's resolution
+		assertEquals(times(500, 2500), coarse.appliedTimes);
+
+		classUnderTest.removeTemporal(late);
+		setTime(2600);
+		assertEquals(times(2500), late.appliedTimes);
+	}
+
+	@Test
+	public void testReturningToTimeDuringApplicationReappliesIt()
+	{
+		classUnderTest.removeTemporal(temporal);
+		classUnderTest.removePropertyChangeListener(pcl);
+
+		final BigTime a = new BigTime(BigInteger.valueOf(1000));
+		final BigTime b = new BigTime(BigInteger.valueOf(2000));
+		final boolean[] returned = new boolean[1];
+		Runnable returnToA = new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				//simulates another thread setting the time back to A while B is being applied
+				if (!returned[0])
+				{
+					returned[0] = true;
+					classUnderTest.setCurrentTime(a);
+				}
+			}
+		};
+		TestTemporal first = new TestTemporal(0, 3000, BigTime.NANOSECOND_RESOLUTION);
+		TestTemporal second = new TestTemporal(0, 3000, BigTime.NANOSECOND_RESOLUTION);
+		classUnderTest.addTemporal(first);
+		classUnderTest.addTemporal(second);
+
+		setTime(1000);
+		first.onApply(b, returnToA);
+		second.onApply(b, returnToA);
+		setTime(2000);
+
+		assertEquals(a, classUnderTest.getCurrentTime());
+		assertEquals(a, first.appliedTimes.get(first.appliedTimes.size() - 1));
+		assertEquals(a, second.appliedTimes.get(second.appliedTimes.size() - 1));
+		//only the temporal interrupted at B is returned to A
+		assertEquals(4, first.appliedTimes.size() + second.appliedTimes.size());
+	}
+
+	private void setTime(long nanos)
+	{
+		classUnderTest.setCurrentTime(new BigTime(BigInteger.valueOf(nanos)));
+		runExecutorTasks();
+	}
+
+	private void runExecutorTasks()
+	{
+		while (!executorTasks.isEmpty())
+		{
+			executorTasks.remove().run();
+		}
+	}
+
+	private static List<BigTime> times(long... nanos)
+	{
+		List<BigTime> times = new ArrayList<BigTime>();
+		for (long n : nanos)
+		{
+			times.add(new BigTime(BigInteger.valueOf(n)));
+		}
+		return times;
+	}
+
+	private static class TestTemporal implements ITemporal
+	{
+		private final Range<BigTime> range;
+		private final BigInteger resolution;
+		private final List<BigTime> appliedTimes = new ArrayList<BigTime>();
+		private BigTime callbackTime;
+		private Runnable callback;
+
+		public TestTemporal(long min, long max, BigInteger resolution)
+		{
+			this.range = new Range<BigTime>(new BigTime(BigInteger.valueOf(min)), new BigTime(BigInteger.valueOf(max)));
+			this.resolution = resolution;
+		}
+
+		@Override
+		public Range<BigTime> getRange()
+		{
+			return range;
+		}
+
+		@Override
+		public BigInteger getResolution()
+		{
+			return resolution;
+		}
+
+		@Override
+		public boolean isApplicableAt(BigTime time)
+		{
+			return range.contains(time);
+		}
+
+		@Override
+		public void apply(BigTime time)
+		{
+			appliedTimes.add(time);
+			if (time.equals(callbackTime))
+			{
+				callback.run();
+			}
+		}
+
+		/**
+		 * Run the callback after this temporal is applied at the given time
+		 */
+		public void onApply(BigTime time, Runnable callback)
+		{
+			this.callbackTime = time;
+			this.callback = callback;
+		}
 	}
 }
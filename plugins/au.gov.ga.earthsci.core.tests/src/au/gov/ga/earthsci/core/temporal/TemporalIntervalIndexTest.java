@@ -0,0 +1,206 @@
+/*******************************************************************************
+ * Copyright 2026 Geoscience Australia
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package au.gov.ga.earthsci.core.temporal;
+
+import static org.junit.Assert.*;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import au.gov.ga.earthsci.common.util.Range;
+
+/**
+ * Unit tests for the {@link TemporalIntervalIndex} class
+ * 
+ * @author James Navin (james.navin@ga.gov.au)
+ */
+public class TemporalIntervalIndexTest
+{
+	private TemporalIntervalIndex classUnderTest;
+
+	@Before
+	public void setup()
+	{
+		classUnderTest = new TemporalIntervalIndex();
+	}
+
+	@Test
+	public void testEmptyIndex()
+	{
+		assertTrue(classUnderTest.query(time(0)).isEmpty());
+	}
+
+	@Test
+	public void testQueryReturnsContainingRangesInOrderAdded()
+	{
+		TestTemporal t1 = new TestTemporal(100L, 200L);
+		TestTemporal t2 = new TestTemporal(0L, 150L);
+		TestTemporal t3 = new TestTemporal(300L, 400L);
+		classUnderTest.add(t1);
+		classUnderTest.add(t2);
+		classUnderTest.add(t3);
+
+		assertEquals(Arrays.asList(t1, t2), classUnderTest.query(time(120)));
+		assertEquals(Arrays.asList(t1), classUnderTest.query(time(180)));
+		assertEquals(Arrays.asList(t3), classUnderTest.query(time(350)));
+		assertTrue(classUnderTest.query(time(250)).isEmpty());
+	}
+
+	@Test
+	public void testOpenRanges()
+	{
+		TestTemporal before = new TestTemporal(null, 100L);
+		TestTemporal after = new TestTemporal(200L, null);
+		TestTemporal always = new TestTemporal(null, null);
+		TestTemporal noRange = new TestTemporal();
+		classUnderTest.add(before);
+		classUnderTest.add(after);
+		classUnderTest.add(always);
+		classUnderTest.add(noRange);
+
+		assertEquals(Arrays.asList(before, always, noRange), classUnderTest.query(time(-1000000)));
+		assertEquals(Arrays.asList(always, noRange), classUnderTest.query(time(150)));
+		assertEquals(Arrays.asList(after, always, noRange), classUnderTest.query(time(1000000)));
+	}
+
+	@Test
+	public void testRemove()
+	{
+		TestTemporal t1 = new TestTemporal(0L, 100L);
+		TestTemporal t2 = new TestTemporal(0L, 100L);
+		classUnderTest.add(t1);
+		classUnderTest.add(t2);
+		assertEquals(Arrays.asList(t1, t2), classUnderTest.query(time(50)));
+
+		assertTrue(classUnderTest.remove(t1));
+		assertFalse(classUnderTest.remove(t1));
+		assertEquals(Arrays.asList(t2), classUnderTest.query(time(50)));
+		assertFalse(classUnderTest.contains(t1));
+		assertEquals(1, classUnderTest.size());
+	}
+
+	@Test
+	public void testAddAgainUpdatesRangeAndKeepsOrder()
+	{
+		TestTemporal t1 = new TestTemporal(0L, 100L);
+		TestTemporal t2 = new TestTemporal(0L, 100L);
+		assertTrue(classUnderTest.add(t1));
+		assertTrue(classUnderTest.add(t2));
+		assertTrue(classUnderTest.query(time(500)).isEmpty());
+
+		t1.range = range(400L, 600L);
+		t2.range = range(400L, 600L);
+		assertFalse(classUnderTest.add(t2));
+		assertFalse(classUnderTest.add(t1));
+
+		assertEquals(Arrays.asList(t1, t2), classUnderTest.query(time(500)));
+		assertTrue(classUnderTest.query(time(50)).isEmpty());
+	}
+
+	@Test
+	public void testQueryMatchesLinearSearch()
+	{
+		Random random = new Random(0);
+		List<TestTemporal> temporals = new ArrayList<TestTemporal>();
+		for (int i = 0; i < 500; i++)
+		{
+			Long min = random.nextInt(20) == 0 ? null : Long.valueOf(random.nextInt(10000));
+			Long max = random.nextInt(20) == 0 ? null : Long.valueOf((min == null ? 0 : min) + random.nextInt(1000));
+			TestTemporal t = new TestTemporal(min, max);
+			temporals.add(t);
+			classUnderTest.add(t);
+		}
+		Collections.shuffle(temporals, random);
+		for (TestTemporal t : temporals.subList(0, 100))
+		{
+			classUnderTest.remove(t);
+		}
+		temporals = temporals.subList(100, temporals.size());
+
+		for (int i = 0; i < 1000; i++)
+		{
+			BigTime time = time(random.nextInt(12000) - 1000);
+			List<ITemporal> found = classUnderTest.query(time);
+			for (TestTemporal t : temporals)
+			{
+				if (t.getRange().contains(time))
+				{
+					assertTrue(found.contains(t));
+				}
+				else if (found.contains(t))
+				{
+					//ranges are widened by their resolution
+					assertTrue(t.getRange().contains(time(time.getNansecondsSinceEpoch().longValue() - 1))
+							|| t.getRange().contains(time(time.getNansecondsSinceEpoch().longValue() + 1)));
+				}
+			}
+		}
+	}
+
+	private static BigTime time(long nanos)
+	{
+		return new BigTime(BigInteger.valueOf(nanos));
+	}
+
+	private static Range<BigTime> range(Long min, Long max)
+	{
+		return new Range<BigTime>(min == null ? null : time(min), max == null ? null : time(max));
+	}
+
+	private static class TestTemporal implements ITemporal
+	{
+		private Range<BigTime> range;
+
+		public TestTemporal()
+		{
+		}
+
+		public TestTemporal(Long min, Long max)
+		{
+			this.range = range(min, max);
+		}
+
+		@Override
+		public Range<BigTime> getRange()
+		{
+			return range;
+		}
+
+		@Override
+		public BigInteger getResolution()
+		{
+			return BigTime.NANOSECOND_RESOLUTION;
+		}
+
+		@Override
+		public boolean isApplicableAt(BigTime time)
+		{
+			return range == null || range.contains(time);
+		}
+
+		@Override
+		public void apply(BigTime time)
+		{
+		}
+	}
+}
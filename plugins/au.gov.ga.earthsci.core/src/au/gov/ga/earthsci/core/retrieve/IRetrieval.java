@@ -85,10 +85,28 @@ public interface IRetrieval extends IPropertyChangeBean
 
 	/**
 	 * Start this retrieval, or resume from a paused state. No effect if this
-	 * retrieval is already running.
+	 * retrieval is already running or queued.
+	 * <p/>
+	 * The retrieval may be queued by the service's scheduler before it
+	 * actually begins, depending on its priority and the number of other
+	 * active retrievals.
 	 */
 	void start();
 
+	/**
+	 * @return The priority class used when scheduling this retrieval
+	 */
+	RetrievalPriority getPriority();
+
+	/**
+	 * Change the priority class of this retrieval. If the retrieval is queued,
+	 * it is repositioned in the queue.
+	 * 
+	 * @param priority
+	 *            New priority class
+	 */
+	void setPriority(RetrievalPriority priority);
+
 	/**
 	 * Pause this retrieval. The {@link IRetriever} performing the retrieval
 	 * must support pausing for this to have any effect. To resume, call
@@ -39,6 +39,14 @@ public interface IRetrievalData
 	 */
 	String getContentType();
 
+	/**
+	 * @return The last modified time of the retrieved resource, or 0 if this
+	 *         is unknown. For resources retrieved into the URL cache, this is
+	 *         the last modified time of the cached resource, which changes
+	 *         whenever an updated resource is retrieved.
+	 */
+	long getLastModified();
+
 	/**
 	 * Create an InputStream for reading the retrieved resource. The caller must
 	 * close the returned InputStream once reading is complete.
@@ -66,4 +66,19 @@ public interface IRetrievalProperties
 	 * @return Should the retriever save the result to a file?
 	 */
 	boolean isFileRequired();
+
+	/**
+	 * @return The priority class used when scheduling the retrieval
+	 */
+	RetrievalPriority getPriority();
+
+	/**
+	 * The maximum time in milliseconds that a retrieval can wait in the
+	 * scheduler's queue before being started. Retrievals that have waited
+	 * longer are canceled, as the caller is assumed to no longer require them.
+	 * 
+	 * @return The stale request limit in milliseconds, or a negative value if
+	 *         the retrieval should never be considered stale
+	 */
+	long getStaleRequestLimit();
 }
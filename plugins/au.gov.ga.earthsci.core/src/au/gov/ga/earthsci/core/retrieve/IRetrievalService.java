@@ -16,6 +16,7 @@
 package au.gov.ga.earthsci.core.retrieve;
 
 import java.net.URL;
+import java.util.Collection;
 
 /**
  * A service for retrieving resources.
@@ -78,6 +79,24 @@ public interface IRetrievalService
 	 */
 	IRetrieval retrieve(Object caller, URL url, IRetrievalProperties retrievalProperties, boolean ignoreDuplicates);
 
+	/**
+	 * Retrieve a batch of URLs. Each URL is registered as if by
+	 * {@link #retrieve(Object, URL, IRetrievalProperties)}, but unlike the
+	 * single URL variants the returned retrievals are started, and are queued
+	 * together grouped by host so that requests to the same server run back to
+	 * back over its persistent connections.
+	 * 
+	 * @param caller
+	 *            Object requesting the retrievals
+	 * @param urls
+	 *            URLs to retrieve
+	 * @param retrievalProperties
+	 *            Properties to use when retrieving the URLs
+	 * @return {@link IRetrieval}s used to retrieve the resources, in the same
+	 *         order as the URLs; entries are null for unsupported URLs
+	 */
+	IRetrieval[] retrieve(Object caller, Collection<URL> urls, IRetrievalProperties retrievalProperties);
+
 	/**
 	 * Get the {@link IRetrieval} that is currently retrieving the given URL, if
 	 * it exists.
@@ -141,4 +160,16 @@ public interface IRetrievalService
 	 *            Caller that was being listened for
 	 */
 	void removeListener(IRetrievalServiceListener listener, Object caller);
+
+	/**
+	 * Set the priority class of the given caller. Retrievals requested by the
+	 * caller, including those currently queued, are scheduled with the highest
+	 * priority of any of their callers.
+	 * 
+	 * @param caller
+	 *            Caller whose priority has changed
+	 * @param priority
+	 *            New priority class for the caller's retrievals
+	 */
+	void setPriority(Object caller, RetrievalPriority priority);
 }
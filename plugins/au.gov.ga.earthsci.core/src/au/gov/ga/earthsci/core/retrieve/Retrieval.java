@@ -36,6 +36,10 @@ public class Retrieval extends AbstractPropertyChangeBean implements IRetrieval,
 	private final URL url;
 	private final IRetrievalProperties retrievalProperties;
 	private final IRetriever retriever;
+	private final RetrievalScheduler scheduler;
+	private volatile RetrievalPriority priority;
+	private long queueSequence;
+	private long queueTime;
 
 	private RetrievalStatus status = RetrievalStatus.NOT_STARTED;
 	private long position = 0;
@@ -45,6 +49,7 @@ public class Retrieval extends AbstractPropertyChangeBean implements IRetrieval,
 
 	private final Object jobSemaphore = new Object();
 	private RetrievalJob job;
+	private boolean queued = false;
 	private boolean canceled = false;
 	private boolean paused = false;
 	private final Object pausedSemaphore = new Object();
@@ -53,11 +58,36 @@ public class Retrieval extends AbstractPropertyChangeBean implements IRetrieval,
 	private IRetrievalResult result;
 
 	public Retrieval(Object caller, URL url, IRetrievalProperties retrievalProperties, IRetriever retriever)
+	{
+		this(caller, url, retrievalProperties, retriever, null);
+	}
+
+	/**
+	 * Create a new retrieval.
+	 * 
+	 * @param caller
+	 *            Object requesting the retrieval
+	 * @param url
+	 *            URL to retrieve
+	 * @param retrievalProperties
+	 *            Properties of the retrieval
+	 * @param retriever
+	 *            Retriever that performs the retrieval
+	 * @param scheduler
+	 *            Scheduler used to queue the retrieval when started; if null,
+	 *            the retrieval's job is scheduled immediately
+	 */
+	public Retrieval(Object caller, URL url, IRetrievalProperties retrievalProperties, IRetriever retriever,
+			RetrievalScheduler scheduler)
 	{
 		addCaller(caller);
 		this.url = url;
 		this.retrievalProperties = retrievalProperties;
 		this.retriever = retriever;
+		this.scheduler = scheduler;
+		this.priority =
+				retrievalProperties.getPriority() != null ? retrievalProperties.getPriority()
+						: RetrievalPriority.VISIBLE;
 	}
 
 	void addCaller(Object caller)
@@ -86,6 +116,59 @@ public class Retrieval extends AbstractPropertyChangeBean implements IRetrieval,
 		return retriever.retrieve(url, monitor, retrievalProperties, cachedData);
 	}
 
+	IRetrievalProperties getRetrievalProperties()
+	{
+		return retrievalProperties;
+	}
+
+	@Override
+	public RetrievalPriority getPriority()
+	{
+		return priority;
+	}
+
+	@Override
+	public void setPriority(RetrievalPriority priority)
+	{
+		if (priority == null || priority == this.priority)
+		{
+			return;
+		}
+		if (scheduler != null)
+		{
+			scheduler.reprioritize(this, priority);
+		}
+		else
+		{
+			setPriorityField(priority);
+		}
+	}
+
+	/**
+	 * Set the priority field; called by the scheduler while the retrieval is
+	 * removed from its queue.
+	 */
+	void setPriorityField(RetrievalPriority priority)
+	{
+		this.priority = priority;
+	}
+
+	long getQueueSequence()
+	{
+		return queueSequence;
+	}
+
+	long getQueueTime()
+	{
+		return queueTime;
+	}
+
+	void setQueued(long queueSequence, long queueTime)
+	{
+		this.queueSequence = queueSequence;
+		this.queueTime = queueTime;
+	}
+
 	@Override
 	public Object[] getCallers()
 	{
@@ -154,9 +237,63 @@ public class Retrieval extends AbstractPropertyChangeBean implements IRetrieval,
 
 	@Override
 	public void start()
+	{
+		if (!markStarting())
+		{
+			return;
+		}
+		if (scheduler != null)
+		{
+			//the scheduler calls startJob when this retrieval reaches the front of its queue
+			scheduler.submit(this);
+		}
+		else if (!startJob())
+		{
+			cancelQueued();
+		}
+	}
+
+	/**
+	 * Mark this retrieval as queued in the scheduler (if there is one), unless
+	 * it has already been started or queued.
+	 * 
+	 * @return True if the caller should now submit this retrieval to the
+	 *         scheduler (or start its job if there is no scheduler)
+	 */
+	boolean markStarting()
 	{
 		synchronized (jobSemaphore)
 		{
+			if (job != null || queued)
+			{
+				return false;
+			}
+			if (scheduler != null)
+			{
+				queued = true;
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * Create and schedule the job that performs this retrieval. Called by the
+	 * scheduler (while holding its lock), or by {@link #start()} if there is
+	 * no scheduler.
+	 * <p/>
+	 * If the job cannot be scheduled because the job manager has been shut
+	 * down, the caller must release any resources it reserved for this
+	 * retrieval and complete it with {@link #cancelQueued()}; this isn't done
+	 * here, as the scheduler's lock is held.
+	 * 
+	 * @return False if the job could not be scheduled
+	 */
+	boolean startJob()
+	{
+		synchronized (jobSemaphore)
+		{
+			queued = false;
+			jobSemaphore.notifyAll();
 			if (job == null)
 			{
 				job = new RetrievalJob(this);
@@ -180,6 +317,10 @@ public class Retrieval extends AbstractPropertyChangeBean implements IRetrieval,
 							job.removeJobChangeListener(this);
 							job = null;
 						}
+						if (scheduler != null)
+						{
+							scheduler.finished(Retrieval.this);
+						}
 
 						synchronized (listenersMutex)
 						{
@@ -201,9 +342,12 @@ public class Retrieval extends AbstractPropertyChangeBean implements IRetrieval,
 				}
 				catch (IllegalStateException e)
 				{
-					//job manager shutdown, ignore
+					//job manager shutdown; the done listener will never be called
+					job = null;
+					return false;
 				}
 			}
+			return true;
 		}
 	}
 
@@ -241,15 +385,56 @@ public class Retrieval extends AbstractPropertyChangeBean implements IRetrieval,
 	@Override
 	public void cancel()
 	{
+		boolean wasQueued;
 		synchronized (jobSemaphore)
 		{
-			//can only cancel a currently running job
+			wasQueued = queued;
+			//can only cancel a currently running or queued job
 			if (job != null)
 			{
 				setCanceled(true);
 				job.cancel();
 			}
 		}
+		if (wasQueued)
+		{
+			//the scheduler lock must not be acquired while holding the job semaphore
+			if (scheduler.remove(this))
+			{
+				cancelQueued();
+			}
+			else
+			{
+				//the scheduler started the job in the meantime
+				synchronized (jobSemaphore)
+				{
+					if (job != null)
+					{
+						setCanceled(true);
+						job.cancel();
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Complete this retrieval as canceled without running it. Called after the
+	 * retrieval has been removed from the scheduler's queue.
+	 */
+	void cancelQueued()
+	{
+		synchronized (jobSemaphore)
+		{
+			queued = false;
+			setCanceled(true);
+			jobSemaphore.notifyAll();
+		}
+		synchronized (listenersMutex)
+		{
+			result = null;
+			listeners.complete(this);
+		}
 	}
 
 	@Override
@@ -308,6 +493,10 @@ public class Retrieval extends AbstractPropertyChangeBean implements IRetrieval,
 		RetrievalJob job;
 		synchronized (jobSemaphore)
 		{
+			while (queued)
+			{
+				jobSemaphore.wait();
+			}
 			job = this.job;
 		}
 		if (job != null)
@@ -40,6 +40,7 @@ public class RetrievalJob extends Job
 	{
 		super("Retrieving " + retrieval.getURL()); //$NON-NLS-1$
 		this.retrieval = retrieval;
+		setPriority(getJobPriority(retrieval.getPriority()));
 	}
 
 	@Override
@@ -119,6 +120,19 @@ public class RetrievalJob extends Job
 		return JobStatus.OK_STATUS;
 	}
 
+	private static int getJobPriority(RetrievalPriority priority)
+	{
+		switch (priority)
+		{
+		case VISIBLE:
+			return Job.INTERACTIVE;
+		case PREFETCH:
+			return Job.LONG;
+		default:
+			return Job.DECORATE;
+		}
+	}
+
 	public RetrieverResult getRetrievalResult()
 	{
 		return result;
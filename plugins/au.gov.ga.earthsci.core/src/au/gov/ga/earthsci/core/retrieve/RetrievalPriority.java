@@ -1,5 +1,5 @@
 /*******************************************************************************
- * Copyright 2012 Geoscience Australia
+ * Copyright 2016 Geoscience Australia
  * 
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -13,28 +13,31 @@
  * See the License for the specific language governing permissions and
  * limitations under the License.
  ******************************************************************************/
-package au.gov.ga.earthsci.worldwind.common.render.fastshape;
+package au.gov.ga.earthsci.core.retrieve;
 
 /**
- * Helper class that stores a vertex index and it's distance from the eye, used
- * for sorting triangles.
+ * The scheduling priority class of a Retrieval. Queued retrievals with a
+ * higher priority class are always started before those with a lower one.
  * 
  * @author Michael de Hoog (michael.dehoog@ga.gov.au)
  */
-public class IndexAndDistance implements Comparable<IndexAndDistance>
+public enum RetrievalPriority
 {
-	public final double distance;
-	public final int index;
+	/** Resource is required to display something currently on screen */
+	VISIBLE,
 
-	public IndexAndDistance(double distance, int index)
-	{
-		this.distance = distance;
-		this.index = index;
-	}
+	/** Resource is likely to be required soon, such as a neighbouring tile */
+	PREFETCH,
+
+	/** Resource is not required by the user immediately, such as a crawl */
+	BACKGROUND;
 
-	@Override
-	public int compareTo(IndexAndDistance o)
+	/**
+	 * @return True if this priority class is more important than the given
+	 *         priority class
+	 */
+	public boolean isHigherThan(RetrievalPriority other)
 	{
-		return -Double.compare(distance, o.distance);
+		return ordinal() < other.ordinal();
 	}
 }
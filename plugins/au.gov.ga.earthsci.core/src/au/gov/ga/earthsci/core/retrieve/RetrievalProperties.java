@@ -27,6 +27,8 @@ public class RetrievalProperties implements IRetrievalProperties
 	private int connectTimeout = 30000; //30 seconds
 	private int readTimeout = 30000; //30 seconds
 	private boolean fileRequired = false;
+	private RetrievalPriority priority = RetrievalPriority.VISIBLE;
+	private long staleRequestLimit = -1;
 
 	@Override
 	public boolean isUseCache()
@@ -82,4 +84,26 @@ public class RetrievalProperties implements IRetrievalProperties
 	{
 		this.fileRequired = fileRequired;
 	}
+
+	@Override
+	public RetrievalPriority getPriority()
+	{
+		return priority;
+	}
+
+	public void setPriority(RetrievalPriority priority)
+	{
+		this.priority = priority;
+	}
+
+	@Override
+	public long getStaleRequestLimit()
+	{
+		return staleRequestLimit;
+	}
+
+	public void setStaleRequestLimit(long staleRequestLimit)
+	{
+		this.staleRequestLimit = staleRequestLimit;
+	}
 }
@@ -0,0 +1,323 @@
+/*******************************************************************************
+ * Copyright 2026 Geoscience Australia
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package au.gov.ga.earthsci.core.retrieve;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Schedules the execution of {@link Retrieval}s, limiting the total number of
+ * concurrently running retrievals and the number running against each host.
+ * <p/>
+ * Queued retrievals are started in order of their {@link RetrievalPriority},
+ * and most recently queued first within a priority class, as the latest
+ * requests generally reflect what the user is currently looking at. Queued
+ * retrievals that have waited longer than their stale request limit are
+ * canceled instead of being started.
+ * 
+ * @author Michael de Hoog (michael.dehoog@ga.gov.au)
+ */
+public class RetrievalScheduler
+{
+	public final static int DEFAULT_MAXIMUM_RUNNING = 10;
+	public final static int DEFAULT_MAXIMUM_RUNNING_PER_HOST = 6;
+
+	private final TreeSet<Retrieval> queue = new TreeSet<Retrieval>(new Comparator<Retrieval>()
+	{
+		@Override
+		public int compare(Retrieval o1, Retrieval o2)
+		{
+			int c = o1.getPriority().compareTo(o2.getPriority());
+			if (c != 0)
+			{
+				return c;
+			}
+			long s1 = o1.getQueueSequence(), s2 = o2.getQueueSequence();
+			return s1 > s2 ? -1 : s1 == s2 ? 0 : 1;
+		}
+	});
+	private final Map<String, Integer> runningPerHost = new HashMap<String, Integer>();
+	private int running = 0;
+	private long sequence = 0;
+
+	private int maximumRunning = DEFAULT_MAXIMUM_RUNNING;
+	private int maximumRunningPerHost = DEFAULT_MAXIMUM_RUNNING_PER_HOST;
+
+	/**
+	 * @return The maximum number of retrievals that can run concurrently
+	 */
+	public synchronized int getMaximumRunning()
+	{
+		return maximumRunning;
+	}
+
+	/**
+	 * Set the maximum number of retrievals that can run concurrently.
+	 * 
+	 * @param maximumRunning
+	 */
+	public void setMaximumRunning(int maximumRunning)
+	{
+		List<Retrieval> stale;
+		synchronized (this)
+		{
+			this.maximumRunning = Math.max(1, maximumRunning);
+			stale = dispatch();
+		}
+		cancelStale(stale);
+	}
+
+	/**
+	 * @return The maximum number of retrievals that can run concurrently
+	 *         against a single host
+	 */
+	public synchronized int getMaximumRunningPerHost()
+	{
+		return maximumRunningPerHost;
+	}
+
+	/**
+	 * Set the maximum number of retrievals that can run concurrently against a
+	 * single host.
+	 * 
+	 * @param maximumRunningPerHost
+	 */
+	public void setMaximumRunningPerHost(int maximumRunningPerHost)
+	{
+		List<Retrieval> stale;
+		synchronized (this)
+		{
+			this.maximumRunningPerHost = Math.max(1, maximumRunningPerHost);
+			stale = dispatch();
+		}
+		cancelStale(stale);
+	}
+
+	/**
+	 * @return The number of retrievals waiting to be started
+	 */
+	public synchronized int getQueuedCount()
+	{
+		return queue.size();
+	}
+
+	/**
+	 * @return The number of retrievals currently running
+	 */
+	public synchronized int getRunningCount()
+	{
+		return running;
+	}
+
+	/**
+	 * Queue the given retrieval, starting it immediately if there is capacity.
+	 * 
+	 * @param retrieval
+	 */
+	void submit(Retrieval retrieval)
+	{
+		List<Retrieval> stale;
+		synchronized (this)
+		{
+			retrieval.setQueued(sequence++, System.currentTimeMillis());
+			queue.add(retrieval);
+			stale = dispatch();
+		}
+		cancelStale(stale);
+	}
+
+	/**
+	 * Queue a batch of retrievals under a single acquisition of the scheduler
+	 * lock. Retrievals are grouped by host, and within a priority class the
+	 * batch is started in the order given, so that requests to the same host
+	 * run back to back and can reuse that host's persistent connections.
+	 * 
+	 * @param retrievals
+	 */
+	void submitAll(List<Retrieval> retrievals)
+	{
+		Map<String, List<Retrieval>> byHost = new LinkedHashMap<String, List<Retrieval>>();
+		for (Retrieval retrieval : retrievals)
+		{
+			String host = getHost(retrieval);
+			List<Retrieval> list = byHost.get(host);
+			if (list == null)
+			{
+				list = new ArrayList<Retrieval>();
+				byHost.put(host, list);
+			}
+			list.add(retrieval);
+		}
+		List<Retrieval> ordered = new ArrayList<Retrieval>(retrievals.size());
+		for (List<Retrieval> list : byHost.values())
+		{
+			ordered.addAll(list);
+		}
+
+		List<Retrieval> stale;
+		synchronized (this)
+		{
+			//the queue starts the newest retrievals first, so queue the batch in reverse
+			long time = System.currentTimeMillis();
+			for (int i = ordered.size() - 1; i >= 0; i--)
+			{
+				Retrieval retrieval = ordered.get(i);
+				retrieval.setQueued(sequence++, time);
+				queue.add(retrieval);
+			}
+			stale = dispatch();
+		}
+		cancelStale(stale);
+	}
+
+	/**
+	 * Change the priority of a retrieval, repositioning it in the queue if it
+	 * is queued.
+	 * 
+	 * @param retrieval
+	 * @param priority
+	 */
+	synchronized void reprioritize(Retrieval retrieval, RetrievalPriority priority)
+	{
+		boolean queued = queue.remove(retrieval);
+		retrieval.setPriorityField(priority);
+		if (queued)
+		{
+			queue.add(retrieval);
+		}
+	}
+
+	/**
+	 * Remove a retrieval from the queue.
+	 * 
+	 * @param retrieval
+	 * @return True if the retrieval was queued
+	 */
+	synchronized boolean remove(Retrieval retrieval)
+	{
+		return queue.remove(retrieval);
+	}
+
+	/**
+	 * Notify the scheduler that a retrieval that it started has finished,
+	 * freeing its slot for the next queued retrieval.
+	 * 
+	 * @param retrieval
+	 */
+	void finished(Retrieval retrieval)
+	{
+		List<Retrieval> stale;
+		synchronized (this)
+		{
+			release(retrieval);
+			stale = dispatch();
+		}
+		cancelStale(stale);
+	}
+
+	/**
+	 * Free the running slot held by the given retrieval. Must be called while
+	 * synchronized on this scheduler.
+	 */
+	private void release(Retrieval retrieval)
+	{
+		running--;
+		String host = getHost(retrieval);
+		Integer count = runningPerHost.get(host);
+		if (count != null && count > 1)
+		{
+			runningPerHost.put(host, count - 1);
+		}
+		else
+		{
+			runningPerHost.remove(host);
+		}
+	}
+
+	/**
+	 * Start as many queued retrievals as the limits allow. Must be called while
+	 * synchronized on this scheduler.
+	 * 
+	 * @return Stale retrievals that were removed from the queue, and
+	 *         retrievals whose job could not be scheduled, which should be
+	 *         canceled after releasing the lock
+	 */
+	private List<Retrieval> dispatch()
+	{
+		List<Retrieval> stale = null;
+		long now = System.currentTimeMillis();
+		Iterator<Retrieval> iterator = queue.iterator();
+		while (running < maximumRunning && iterator.hasNext())
+		{
+			Retrieval retrieval = iterator.next();
+			long staleLimit = retrieval.getRetrievalProperties().getStaleRequestLimit();
+			if (staleLimit >= 0 && now - retrieval.getQueueTime() > staleLimit)
+			{
+				iterator.remove();
+				if (stale == null)
+				{
+					stale = new ArrayList<Retrieval>();
+				}
+				stale.add(retrieval);
+				continue;
+			}
+
+			String host = getHost(retrieval);
+			Integer count = runningPerHost.get(host);
+			if (count != null && count >= maximumRunningPerHost)
+			{
+				continue;
+			}
+			iterator.remove();
+			runningPerHost.put(host, count == null ? 1 : count + 1);
+			running++;
+			if (!retrieval.startJob())
+			{
+				//job manager shutdown
+				release(retrieval);
+				if (stale == null)
+				{
+					stale = new ArrayList<Retrieval>();
+				}
+				stale.add(retrieval);
+			}
+		}
+		return stale;
+	}
+
+	private void cancelStale(List<Retrieval> stale)
+	{
+		if (stale != null)
+		{
+			for (Retrieval retrieval : stale)
+			{
+				retrieval.cancelQueued();
+			}
+		}
+	}
+
+	private static String getHost(Retrieval retrieval)
+	{
+		String host = retrieval.getURL().getHost();
+		return host == null ? "" : host.toLowerCase(); //$NON-NLS-1$
+	}
+}
@@ -18,9 +18,18 @@ package au.gov.ga.earthsci.core.retrieve;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import javax.annotation.PreDestroy;
 import javax.inject.Inject;
@@ -30,15 +39,27 @@ import org.eclipse.e4.core.di.annotations.Creatable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import au.gov.ga.earthsci.common.collection.ArrayListHashMap;
 import au.gov.ga.earthsci.common.collection.HashSetAndArray;
 import au.gov.ga.earthsci.common.collection.HashSetAndArrayHashMap;
-import au.gov.ga.earthsci.common.collection.ListMap;
 import au.gov.ga.earthsci.common.collection.SetAndArray;
 import au.gov.ga.earthsci.common.collection.SetAndArrayMap;
+import au.gov.ga.earthsci.worldwind.common.util.DaemonThreadFactory;
 
 /**
  * Basic implementation of {@link IRetrievalService}.
+ * <p/>
+ * Retrievals are registered in concurrent structures so that callers
+ * requesting retrievals on different threads don't block each other: the
+ * duplicate detection map is a {@link ConcurrentHashMap}, and the caller index
+ * is split into lock stripes by caller hash.
+ * <p/>
+ * Started retrievals are queued by a {@link RetrievalScheduler}, which starts
+ * them in priority order while limiting the number of concurrent retrievals in
+ * total and per host.
+ * <p/>
+ * Listeners are notified asynchronously, in the order in which the events
+ * occurred, on a single dispatcher thread. Listeners must therefore not assume
+ * that they are notified on the thread that requested the retrieval.
  * 
  * @author Michael de Hoog (michael.dehoog@ga.gov.au)
  */
@@ -47,29 +68,52 @@ import au.gov.ga.earthsci.common.collection.SetAndArrayMap;
 public class RetrievalService implements IRetrievalService
 {
 	private final static Logger logger = LoggerFactory.getLogger(RetrievalService.class);
+	private final static int CALLER_STRIPES = 32;
 
 	@Inject
 	private IRetrieverFactory retrieverFactory;
 
-	private final Map<URL, Retrieval> urlToRetrieval = new HashMap<URL, Retrieval>();
-	private final SetAndArrayMap<Object, IRetrieval> callerToRetrievals =
-			new HashSetAndArrayHashMap<Object, IRetrieval>();
+	/**
+	 * Retrievals keyed by URL external form; {@link URL#equals(Object)} and
+	 * {@link URL#hashCode()} perform blocking host name resolution.
+	 */
+	private final ConcurrentMap<String, Retrieval> urlToRetrieval = new ConcurrentHashMap<String, Retrieval>();
+	private final List<SetAndArrayMap<Object, IRetrieval>> callerToRetrievals =
+			new ArrayList<SetAndArrayMap<Object, IRetrieval>>(CALLER_STRIPES);
 	private final SetAndArray<IRetrieval> EMPTY_RETRIEVAL_COLLECTION = new HashSetAndArray<IRetrieval>();
 
-	private final List<IRetrievalServiceListener> listeners = new ArrayList<IRetrievalServiceListener>();
-	private final ListMap<Object, IRetrievalServiceListener> callerListeners =
-			new ArrayListHashMap<Object, IRetrievalServiceListener>();
+	private final List<IRetrievalServiceListener> listeners = new CopyOnWriteArrayList<IRetrievalServiceListener>();
+	private final ConcurrentMap<Object, List<IRetrievalServiceListener>> callerListeners =
+			new ConcurrentHashMap<Object, List<IRetrievalServiceListener>>();
+
+	/**
+	 * Lock that orders registry changes against listener registration. Registry
+	 * changes (and the queuing of their events) share the read lock, so only
+	 * the rare listener registration is exclusive.
+	 */
+	private final ReadWriteLock listenerLock = new ReentrantReadWriteLock();
+	private final RetrievalScheduler scheduler = new RetrievalScheduler();
+	private final Map<Object, RetrievalPriority> callerPriorities = Collections
+			.synchronizedMap(new WeakHashMap<Object, RetrievalPriority>());
+
+	private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(new DaemonThreadFactory(
+			"Retrieval Service Listener Dispatcher")); //$NON-NLS-1$
+
+	public RetrievalService()
+	{
+		for (int i = 0; i < CALLER_STRIPES; i++)
+		{
+			callerToRetrievals.add(new HashSetAndArrayHashMap<Object, IRetrieval>());
+		}
+	}
 
 	@PreDestroy
 	public void cancelAll()
 	{
-		synchronized (urlToRetrieval)
+		Collection<Retrieval> retrievals = urlToRetrieval.values();
+		for (Retrieval retrieval : retrievals)
 		{
-			Collection<Retrieval> retrievals = urlToRetrieval.values();
-			for (Retrieval retrieval : retrievals)
-			{
-				retrieval.cancel();
-			}
+			retrieval.cancel();
 		}
 	}
 
@@ -94,78 +138,189 @@ public class RetrievalService implements IRetrievalService
 			throw new NullPointerException("Retrieval URL is null"); //$NON-NLS-1$
 		}
 
-		synchronized (urlToRetrieval)
+		String key = url.toExternalForm();
+		Retrieval retrieval = ignoreDuplicates ? null : urlToRetrieval.get(key);
+		if (retrieval != null && addCaller(retrieval, caller))
 		{
-			Retrieval retrieval = ignoreDuplicates ? null : urlToRetrieval.get(url);
-			if (retrieval == null)
-			{
-				//create a retriever to retrieve the url
-				IRetriever retriever = retrieverFactory.getRetriever(url);
-				if (retriever == null)
-				{
-					logger.error("Unsupported retrieval URL: " + url); //$NON-NLS-1$
-					return null;
-				}
+			return retrieval;
+		}
 
-				//create a retrieval object
-				retrieval = new Retrieval(caller, url, retrievalProperties, retriever);
-				if (!ignoreDuplicates)
-				{
-					urlToRetrieval.put(url, retrieval);
-				}
-				fireRetrievalAdded(retrieval);
+		//create a retriever to retrieve the url
+		IRetriever retriever = retrieverFactory.getRetriever(url);
+		if (retriever == null)
+		{
+			logger.error("Unsupported retrieval URL: " + url); //$NON-NLS-1$
+			return null;
+		}
 
-				//add a listener to remove the retrieval after it's complete
-				retrieval.addListener(new RetrievalAdapter()
+		//create a retrieval object
+		Retrieval newRetrieval = new Retrieval(caller, url, retrievalProperties, retriever, scheduler);
+		RetrievalPriority callerPriority = callerPriorities.get(caller);
+		if (callerPriority != null)
+		{
+			newRetrieval.setPriority(callerPriority);
+		}
+		//add a listener to remove the retrieval after it's complete; this must be
+		//attached before the retrieval is visible to other callers, who could
+		//otherwise complete it before the listener is added
+		newRetrieval.addListener(new RetrievalAdapter()
+		{
+			@Override
+			public void complete(IRetrieval retrieval)
+			{
+				retrieval.removeListener(this);
+				removeRetrieval(retrieval);
+			}
+		});
+		while (true)
+		{
+			listenerLock.readLock().lock();
+			try
+			{
+				//synchronize on the new retrieval so that it can't be removed before its caller is added
+				synchronized (newRetrieval)
 				{
-					@Override
-					public void complete(IRetrieval retrieval)
+					retrieval = ignoreDuplicates ? null : urlToRetrieval.putIfAbsent(key, newRetrieval);
+					if (retrieval == null)
 					{
-						retrieval.removeListener(this);
-						removeRetrieval(retrieval);
+						fireRetrievalAdded(newRetrieval);
+						putCaller(caller, newRetrieval);
+						break;
 					}
-				});
+				}
+			}
+			finally
+			{
+				listenerLock.readLock().unlock();
+			}
+
+			//another thread registered a retrieval for the same url first
+			if (addCaller(retrieval, caller))
+			{
+				return retrieval;
+			}
+		}
+
+		return newRetrieval;
+	}
+
+	@Override
+	public IRetrieval[] retrieve(Object caller, Collection<URL> urls, IRetrievalProperties retrievalProperties)
+	{
+		IRetrieval[] retrievals = new IRetrieval[urls.size()];
+		List<Retrieval> toStart = new ArrayList<Retrieval>(retrievals.length);
+		int i = 0;
+		for (URL url : urls)
+		{
+			IRetrieval retrieval = retrieve(caller, url, retrievalProperties);
+			retrievals[i++] = retrieval;
+			if (retrieval instanceof Retrieval && ((Retrieval) retrieval).markStarting())
+			{
+				toStart.add((Retrieval) retrieval);
 			}
-			else
+		}
+		if (!toStart.isEmpty())
+		{
+			scheduler.submitAll(toStart);
+		}
+		return retrievals;
+	}
+
+	/**
+	 * Add a caller to an existing registered retrieval.
+	 * 
+	 * @return False if the retrieval has been removed from the service, and
+	 *         should not be reused
+	 */
+	private boolean addCaller(Retrieval retrieval, Object caller)
+	{
+		listenerLock.readLock().lock();
+		try
+		{
+			//synchronize on the retrieval so that it can't be removed between the check and the add
+			synchronized (retrieval)
 			{
+				String key = retrieval.getURL().toExternalForm();
+				if (urlToRetrieval.get(key) != retrieval)
+				{
+					return false;
+				}
 				retrieval.addCaller(caller);
+				putCaller(caller, retrieval);
+				RetrievalPriority callerPriority = callerPriorities.get(caller);
+				if (callerPriority != null && callerPriority.isHigherThan(retrieval.getPriority()))
+				{
+					retrieval.setPriority(callerPriority);
+				}
+				return true;
 			}
-			callerToRetrievals.putSingle(caller, retrieval);
-			fireRetrievalAdded(caller, retrieval);
-			return retrieval;
+		}
+		finally
+		{
+			listenerLock.readLock().unlock();
 		}
 	}
 
+	private void putCaller(Object caller, IRetrieval retrieval)
+	{
+		SetAndArrayMap<Object, IRetrieval> stripe = getCallerStripe(caller);
+		synchronized (stripe)
+		{
+			stripe.putSingle(caller, retrieval);
+		}
+		fireRetrievalAdded(caller, retrieval);
+	}
+
 	private void removeRetrieval(IRetrieval retrieval)
 	{
-		synchronized (urlToRetrieval)
+		listenerLock.readLock().lock();
+		try
 		{
-			urlToRetrieval.remove(retrieval.getURL());
+			Object[] callers;
+			synchronized (retrieval)
+			{
+				//retrievals that ignored duplicates aren't in the map, so the result is ignored
+				urlToRetrieval.remove(retrieval.getURL().toExternalForm(), retrieval);
+				callers = retrieval.getCallers();
+			}
 			fireRetrievalRemoved(retrieval);
-			Object[] callers = retrieval.getCallers();
 			for (Object caller : callers)
 			{
-				callerToRetrievals.removeSingle(caller, retrieval);
+				SetAndArrayMap<Object, IRetrieval> stripe = getCallerStripe(caller);
+				synchronized (stripe)
+				{
+					stripe.removeSingle(caller, retrieval);
+				}
 				fireRetrievalRemoved(caller, retrieval);
 			}
 		}
+		finally
+		{
+			listenerLock.readLock().unlock();
+		}
+	}
+
+	private SetAndArrayMap<Object, IRetrieval> getCallerStripe(Object caller)
+	{
+		int hash = caller == null ? 0 : caller.hashCode();
+		hash ^= (hash >>> 20) ^ (hash >>> 12);
+		hash ^= (hash >>> 7) ^ (hash >>> 4);
+		return callerToRetrievals.get((hash & 0x7fffffff) % CALLER_STRIPES);
 	}
 
 	@Override
 	public IRetrieval getRetrieval(URL url)
 	{
-		synchronized (urlToRetrieval)
-		{
-			return urlToRetrieval.get(url);
-		}
+		return urlToRetrieval.get(url.toExternalForm());
 	}
 
 	@Override
 	public IRetrieval[] getRetrievals(Object caller)
 	{
-		synchronized (urlToRetrieval)
+		SetAndArrayMap<Object, IRetrieval> stripe = getCallerStripe(caller);
+		synchronized (stripe)
 		{
-			SetAndArray<IRetrieval> retrievals = callerToRetrievals.get(caller);
+			SetAndArray<IRetrieval> retrievals = stripe.get(caller);
 			if (retrievals == null)
 			{
 				retrievals = EMPTY_RETRIEVAL_COLLECTION;
@@ -175,117 +330,248 @@ public class RetrievalService implements IRetrievalService
 	}
 
 	@Override
-	public void addListener(IRetrievalServiceListener listener)
+	public void addListener(final IRetrievalServiceListener listener)
 	{
-		Collection<Retrieval> currentRetrievals;
-		synchronized (listeners)
+		listenerLock.writeLock().lock();
+		try
 		{
-			synchronized (urlToRetrieval)
+			listeners.add(listener);
+
+			//notify the newly added listener of all current retrievals:
+			final Collection<Retrieval> currentRetrievals = new ArrayList<Retrieval>(urlToRetrieval.values());
+			dispatch(new Runnable()
 			{
-				listeners.add(listener);
-				currentRetrievals = new ArrayList<Retrieval>(urlToRetrieval.values());
-			}
+				@Override
+				public void run()
+				{
+					for (Retrieval retrieval : currentRetrievals)
+					{
+						listener.retrievalAdded(retrieval);
+					}
+				}
+			});
 		}
-
-		//notify the newly added listener of all current retrievals:
-		for (Retrieval retrieval : currentRetrievals)
+		finally
 		{
-			listener.retrievalAdded(retrieval);
+			listenerLock.writeLock().unlock();
 		}
 	}
 
 	@Override
-	public void addListener(IRetrievalServiceListener listener, Object caller)
+	public void addListener(final IRetrievalServiceListener listener, final Object caller)
 	{
-		synchronized (callerListeners)
+		listenerLock.writeLock().lock();
+		try
 		{
-			synchronized (urlToRetrieval)
+			List<IRetrievalServiceListener> list = callerListeners.get(caller);
+			if (list == null)
 			{
-				callerListeners.putSingle(caller, listener);
+				list = new CopyOnWriteArrayList<IRetrievalServiceListener>();
+				callerListeners.put(caller, list);
+			}
+			list.add(listener);
 
-				//notify the newly added listener of all current retrievals for this caller:
-				for (Retrieval retrieval : urlToRetrieval.values())
+			//notify the newly added listener of all current retrievals for this caller:
+			final IRetrieval[] currentRetrievals = getRetrievals(caller);
+			dispatch(new Runnable()
+			{
+				@Override
+				public void run()
 				{
-					for (Object retrievalCaller : retrieval.getCallers())
+					for (IRetrieval retrieval : currentRetrievals)
 					{
-						if (retrievalCaller.equals(caller))
-						{
-							listener.retrievalAdded(retrieval);
-							break;
-						}
+						listener.retrievalAdded(retrieval);
 					}
 				}
-			}
+			});
+		}
+		finally
+		{
+			listenerLock.writeLock().unlock();
 		}
 	}
 
 	@Override
 	public void removeListener(IRetrievalServiceListener listener)
 	{
-		synchronized (listeners)
-		{
-			listeners.remove(listener);
-		}
+		listeners.remove(listener);
 	}
 
 	@Override
 	public void removeListener(IRetrievalServiceListener listener, Object caller)
 	{
-		synchronized (callerListeners)
+		listenerLock.writeLock().lock();
+		try
+		{
+			List<IRetrievalServiceListener> list = callerListeners.get(caller);
+			if (list != null)
+			{
+				list.remove(listener);
+				if (list.isEmpty())
+				{
+					callerListeners.remove(caller);
+				}
+			}
+		}
+		finally
 		{
-			callerListeners.removeSingle(caller, listener);
+			listenerLock.writeLock().unlock();
 		}
 	}
 
-	private void fireRetrievalAdded(IRetrieval retrieval)
+	@Override
+	public void setPriority(Object caller, RetrievalPriority priority)
 	{
-		synchronized (listeners)
+		callerPriorities.put(caller, priority);
+		for (IRetrieval retrieval : getRetrievals(caller))
 		{
-			for (int i = listeners.size() - 1; i >= 0; i--)
+			//use the highest priority of all the retrieval's callers
+			RetrievalPriority highest = priority;
+			for (Object otherCaller : retrieval.getCallers())
 			{
-				listeners.get(i).retrievalAdded(retrieval);
+				RetrievalPriority other = callerPriorities.get(otherCaller);
+				if (other != null && other.isHigherThan(highest))
+				{
+					highest = other;
+				}
 			}
+			retrieval.setPriority(highest);
 		}
 	}
 
-	private void fireRetrievalAdded(Object caller, IRetrieval retrieval)
+	/**
+	 * @return The scheduler used to queue this service's retrievals
+	 */
+	public RetrievalScheduler getScheduler()
 	{
-		synchronized (callerListeners)
+		return scheduler;
+	}
+
+	/**
+	 * Wait until all listener notifications queued before this call have been
+	 * delivered.
+	 */
+	void waitForListeners() throws InterruptedException
+	{
+		try
 		{
-			List<IRetrievalServiceListener> listeners = callerListeners.get(caller);
-			if (listeners != null)
+			dispatcher.submit(new Runnable()
 			{
-				for (int i = listeners.size() - 1; i >= 0; i--)
+				@Override
+				public void run()
 				{
-					listeners.get(i).retrievalAdded(retrieval);
 				}
-			}
+			}).get();
+		}
+		catch (ExecutionException e)
+		{
+			//no-op task cannot fail
 		}
 	}
 
-	private void fireRetrievalRemoved(IRetrieval retrieval)
+	void setRetrieverFactory(IRetrieverFactory retrieverFactory)
+	{
+		this.retrieverFactory = retrieverFactory;
+	}
+
+	private void dispatch(final Runnable runnable)
 	{
-		synchronized (listeners)
+		dispatcher.execute(new Runnable()
 		{
-			for (int i = listeners.size() - 1; i >= 0; i--)
+			@Override
+			public void run()
 			{
-				listeners.get(i).retrievalRemoved(retrieval);
+				try
+				{
+					runnable.run();
+				}
+				catch (Exception e)
+				{
+					logger.error("Error notifying retrieval service listener", e); //$NON-NLS-1$
+				}
 			}
+		});
+	}
+
+	private void fireRetrievalAdded(final IRetrieval retrieval)
+	{
+		if (listeners.isEmpty())
+		{
+			return;
+		}
+		final Object[] snapshot = listeners.toArray();
+		dispatch(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				for (int i = snapshot.length - 1; i >= 0; i--)
+				{
+					((IRetrievalServiceListener) snapshot[i]).retrievalAdded(retrieval);
+				}
+			}
+		});
+	}
+
+	private void fireRetrievalAdded(Object caller, final IRetrieval retrieval)
+	{
+		List<IRetrievalServiceListener> list = callerListeners.get(caller);
+		if (list == null || list.isEmpty())
+		{
+			return;
 		}
+		final Object[] snapshot = list.toArray();
+		dispatch(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				for (int i = snapshot.length - 1; i >= 0; i--)
+				{
+					((IRetrievalServiceListener) snapshot[i]).retrievalAdded(retrieval);
+				}
+			}
+		});
 	}
 
-	private void fireRetrievalRemoved(Object caller, IRetrieval retrieval)
+	private void fireRetrievalRemoved(final IRetrieval retrieval)
 	{
-		synchronized (callerListeners)
+		if (listeners.isEmpty())
+		{
+			return;
+		}
+		final Object[] snapshot = listeners.toArray();
+		dispatch(new Runnable()
 		{
-			List<IRetrievalServiceListener> listeners = callerListeners.get(caller);
-			if (listeners != null)
+			@Override
+			public void run()
 			{
-				for (int i = listeners.size() - 1; i >= 0; i--)
+				for (int i = snapshot.length - 1; i >= 0; i--)
 				{
-					listeners.get(i).retrievalRemoved(retrieval);
+					((IRetrievalServiceListener) snapshot[i]).retrievalRemoved(retrieval);
 				}
 			}
+		});
+	}
+
+	private void fireRetrievalRemoved(Object caller, final IRetrieval retrieval)
+	{
+		List<IRetrievalServiceListener> list = callerListeners.get(caller);
+		if (list == null || list.isEmpty())
+		{
+			return;
 		}
+		final Object[] snapshot = list.toArray();
+		dispatch(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				for (int i = snapshot.length - 1; i >= 0; i--)
+				{
+					((IRetrievalServiceListener) snapshot[i]).retrievalRemoved(retrieval);
+				}
+			}
+		});
 	}
 }
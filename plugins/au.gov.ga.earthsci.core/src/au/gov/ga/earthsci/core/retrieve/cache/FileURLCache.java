@@ -19,6 +19,7 @@ import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.FilterInputStream;
 import java.io.FilterOutputStream;
@@ -32,17 +33,33 @@ import java.nio.channels.Channels;
 import java.nio.channels.FileChannel;
 import java.security.DigestInputStream;
 import java.security.MessageDigest;
-import java.util.Properties;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import au.gov.ga.earthsci.common.util.HashReadWriteLocker;
+import au.gov.ga.earthsci.core.retrieve.cache.FileURLCacheIndex.IndexEntry;
+import au.gov.ga.earthsci.worldwind.common.util.DaemonThreadFactory;
 import au.gov.ga.earthsci.worldwind.common.util.Util;
 
 /**
  * {@link IURLCache} implementation that uses a directory in a file system for
  * caching data.
+ * <p/>
+ * If limits are set using {@link #setLimits(long, int)}, a background thread
+ * periodically scans the cache and evicts the least recently used resources
+ * until the cache is below 90% of its limits.
  * 
  * @author Michael de Hoog (michael.dehoog@ga.gov.au)
  */
@@ -52,9 +69,39 @@ public class FileURLCache implements IURLCache
 
 	private final File directory;
 	private final HashReadWriteLocker locker = new HashReadWriteLocker();
+	private final FileURLCacheIndex index;
 	private final static String PARTIAL_SUFFIX = ".partial"; //$NON-NLS-1$
 	private final static String CONTENT_TYPE_SUFFIX = ".contenttype"; //$NON-NLS-1$
-	private final static String URLS_PROPERTIES_FILENAME = "urls.properties"; //$NON-NLS-1$
+
+	private final static long EVICTION_INITIAL_DELAY = 30 * 1000;
+	private final static long EVICTION_PERIOD = 5 * 60 * 1000;
+	private final static long EVICTION_MINIMUM_AGE = 60 * 1000;
+	private final static double EVICTION_LOW_WATERMARK = 0.9;
+
+	private final ScheduledExecutorService evictor = Executors
+			.newSingleThreadScheduledExecutor(new DaemonThreadFactory("URL Cache Evictor")); //$NON-NLS-1$
+	private final AtomicBoolean evictionPending = new AtomicBoolean(false);
+	private final Runnable evictionRunnable = new Runnable()
+	{
+		@Override
+		public void run()
+		{
+			evictionPending.set(false);
+			evict();
+		}
+	};
+	private ScheduledFuture<?> evictionTask;
+	private boolean indexLoaded = false;
+
+	private volatile long evictionMinimumAge = EVICTION_MINIMUM_AGE;
+	private volatile long maximumSize = 0;
+	private volatile int maximumEntries = 0;
+	private volatile boolean scanned = false;
+	private final AtomicLong size = new AtomicLong();
+	private final AtomicInteger entryCount = new AtomicInteger();
+	private final AtomicLong hitCount = new AtomicLong();
+	private final AtomicLong missCount = new AtomicLong();
+	private final AtomicLong evictionCount = new AtomicLong();
 
 	public FileURLCache(File directory)
 	{
@@ -63,30 +110,31 @@ public class FileURLCache implements IURLCache
 			throw new NullPointerException("Directory cannot be null"); //$NON-NLS-1$
 		}
 		this.directory = directory;
+		this.index = new FileURLCacheIndex(directory);
 	}
 
 	@Override
 	public boolean isPartial(URL url)
 	{
-		return isFileLocked(getPartialFile(url));
+		return isFileLocked(getPartialFile(url, false));
 	}
 
 	@Override
 	public long getPartialLength(URL url)
 	{
-		return lengthLocked(getPartialFile(url));
+		return lengthLocked(getPartialFile(url, false));
 	}
 
 	@Override
 	public long getPartialLastModified(URL url)
 	{
-		return lastModifiedLocked(getPartialFile(url));
+		return lastModifiedLocked(getPartialFile(url, false));
 	}
 
 	@Override
 	public OutputStream writePartial(URL url, long offset) throws IOException
 	{
-		final File partialFile = getPartialFile(url);
+		final File partialFile = getPartialFile(url, true);
 		locker.lockWrite(partialFile);
 		RandomAccessFile raf = null;
 		try
@@ -135,8 +183,8 @@ public class FileURLCache implements IURLCache
 	@Override
 	public boolean writeComplete(URL url, long lastModified, String contentType)
 	{
-		File partialFile = getPartialFile(url);
-		File completeFile = getCompleteFile(url);
+		File partialFile = getPartialFile(url, true);
+		File completeFile = getCompleteFile(url, true);
 
 		locker.lockWrite(partialFile);
 		try
@@ -158,7 +206,19 @@ public class FileURLCache implements IURLCache
 			locker.lockWrite(completeFile);
 			try
 			{
-				partialFile.renameTo(completeFile);
+				boolean existed = completeFile.isFile();
+				long previousLength = completeFile.length();
+				if (!partialFile.renameTo(completeFile))
+				{
+					//the cache is unchanged, so leave the statistics as they are
+					logger.warn("Error completing cached file for url: " + url); //$NON-NLS-1$
+					return false;
+				}
+				size.addAndGet(completeFile.length() - previousLength);
+				if (!existed)
+				{
+					entryCount.incrementAndGet();
+				}
 				if (lastModified > 0)
 				{
 					completeFile.setLastModified(lastModified);
@@ -174,6 +234,10 @@ public class FileURLCache implements IURLCache
 		{
 			locker.unlockWrite(partialFile);
 		}
+		if (isOverLimits(size.get(), entryCount.get()))
+		{
+			requestEviction();
+		}
 		return true;
 	}
 
@@ -240,25 +304,31 @@ public class FileURLCache implements IURLCache
 	@Override
 	public boolean isComplete(URL url)
 	{
-		return isFileLocked(getCompleteFile(url));
+		boolean complete = isFileLocked(getCompleteFile(url, false));
+		(complete ? hitCount : missCount).incrementAndGet();
+		return complete;
 	}
 
 	@Override
 	public long getLength(URL url)
 	{
-		return lengthLocked(getCompleteFile(url));
+		return lengthLocked(getCompleteFile(url, false));
 	}
 
 	@Override
 	public long getLastModified(URL url)
 	{
-		return lastModifiedLocked(getCompleteFile(url));
+		return lastModifiedLocked(getCompleteFile(url, false));
 	}
 
 	@Override
 	public String getContentType(URL url)
 	{
-		File contentTypeFile = getContentTypeFile(url);
+		File contentTypeFile = getContentTypeFile(url, false);
+		if (contentTypeFile == null)
+		{
+			return null;
+		}
 		try
 		{
 			locker.lockRead(contentTypeFile);
@@ -279,7 +349,7 @@ public class FileURLCache implements IURLCache
 			}
 			else
 			{
-				File completeFile = getCompleteFile(url);
+				File completeFile = getCompleteFile(url, false);
 				return URLConnection.guessContentTypeFromName(completeFile.getName());
 			}
 		}
@@ -303,7 +373,7 @@ public class FileURLCache implements IURLCache
 			return;
 		}
 
-		File contentTypeFile = getContentTypeFile(url);
+		File contentTypeFile = getContentTypeFile(url, true);
 		try
 		{
 			writeTextFile(contentTypeFile, contentType);
@@ -316,6 +386,10 @@ public class FileURLCache implements IURLCache
 
 	protected boolean isFileLocked(File file)
 	{
+		if (file == null)
+		{
+			return false;
+		}
 		try
 		{
 			locker.lockRead(file);
@@ -329,6 +403,10 @@ public class FileURLCache implements IURLCache
 
 	protected long lengthLocked(File file)
 	{
+		if (file == null)
+		{
+			return 0;
+		}
 		try
 		{
 			locker.lockRead(file);
@@ -342,6 +420,10 @@ public class FileURLCache implements IURLCache
 
 	protected long lastModifiedLocked(File file)
 	{
+		if (file == null)
+		{
+			return 0;
+		}
 		try
 		{
 			locker.lockRead(file);
@@ -418,7 +500,11 @@ public class FileURLCache implements IURLCache
 	@Override
 	public InputStream read(URL url) throws IOException
 	{
-		final File completeFile = getCompleteFile(url);
+		final File completeFile = getCompleteFile(url, false);
+		if (completeFile == null)
+		{
+			throw new FileNotFoundException("Resource not cached: " + url); //$NON-NLS-1$
+		}
 		locker.lockRead(completeFile);
 		try
 		{
@@ -454,75 +540,240 @@ public class FileURLCache implements IURLCache
 	@Override
 	public File getFile(URL url)
 	{
-		return getCompleteFile(url);
+		return getCompleteFile(url, false);
 	}
 
-	private File getCompleteFile(URL url)
+	@Override
+	public synchronized void setLimits(long maximumSize, int maximumEntries)
 	{
-		return fileForURL(url, ""); //$NON-NLS-1$
+		this.maximumSize = Math.max(0, maximumSize);
+		this.maximumEntries = Math.max(0, maximumEntries);
+		if (evictionTask == null)
+		{
+			evictionTask = evictor.scheduleWithFixedDelay(evictionRunnable, EVICTION_INITIAL_DELAY,
+					EVICTION_PERIOD, TimeUnit.MILLISECONDS);
+		}
+		else if (scanned)
+		{
+			requestEviction();
+		}
 	}
 
-	private File getPartialFile(URL url)
+	@Override
+	public URLCacheStatistics getStatistics()
 	{
-		return fileForURL(url, PARTIAL_SUFFIX);
+		return new URLCacheStatistics(scanned ? size.get() : -1, scanned ? entryCount.get() : -1, maximumSize,
+				maximumEntries, hitCount.get(), missCount.get(), evictionCount.get());
 	}
 
-	private File getContentTypeFile(URL url)
+	private boolean isOverLimits(long size, int entryCount)
 	{
-		return fileForURL(url, CONTENT_TYPE_SUFFIX);
+		return (maximumSize > 0 && size > maximumSize) || (maximumEntries > 0 && entryCount > maximumEntries);
 	}
 
-	private File fileForURL(URL url, String suffix)
+	private void requestEviction()
 	{
-		String hashDirectory = !Util.isBlank(url.getHost()) ? url.getHost() + File.separator : ""; //$NON-NLS-1$
-		hashDirectory += getHashDirectory(url);
-
-		String extension = au.gov.ga.earthsci.common.util.Util.getExtension(url.getPath());
-		if (extension == null || extension.length() > 30)
+		if (evictionPending.compareAndSet(false, true))
 		{
-			//probably not an extension
-			extension = ""; //$NON-NLS-1$
+			evictor.execute(evictionRunnable);
 		}
+	}
 
-		File propertiesFile = new File(directory, hashDirectory + File.separator + URLS_PROPERTIES_FILENAME);
-		locker.lockWrite(propertiesFile);
+	/**
+	 * Scan the cache, updating the size statistics, and evict the least
+	 * recently used resources if the cache is over its limits. Called on the
+	 * evictor thread.
+	 */
+	protected void evict()
+	{
 		try
 		{
-			Properties properties = new Properties();
-			if (propertiesFile.exists())
+			if (!indexLoaded)
 			{
-				try
+				index.loadAll();
+				indexLoaded = true;
+			}
+			index.flushAccessTimes();
+
+			List<IndexEntry> entries = index.getEntries();
+			final long[] lengths = new long[entries.size()];
+			List<Integer> order = new ArrayList<Integer>(entries.size());
+			long totalSize = 0;
+			for (int i = 0; i < lengths.length; i++)
+			{
+				lengths[i] = getEntryFile(entries.get(i), "").length(); //$NON-NLS-1$
+				totalSize += lengths[i];
+				order.add(i);
+			}
+			int totalCount = entries.size();
+			size.set(totalSize);
+			entryCount.set(totalCount);
+			scanned = true;
+
+			if (!isOverLimits(totalSize, totalCount))
+			{
+				return;
+			}
+
+			final List<IndexEntry> finalEntries = entries;
+			Collections.sort(order, new Comparator<Integer>()
+			{
+				@Override
+				public int compare(Integer o1, Integer o2)
+				{
+					long a1 = finalEntries.get(o1).lastAccess;
+					long a2 = finalEntries.get(o2).lastAccess;
+					return a1 < a2 ? -1 : a1 == a2 ? 0 : 1;
+				}
+			});
+
+			long targetSize = (long) (maximumSize * EVICTION_LOW_WATERMARK);
+			int targetCount = (int) (maximumEntries * EVICTION_LOW_WATERMARK);
+			long minimumAge = System.currentTimeMillis() - evictionMinimumAge;
+			for (Integer i : order)
+			{
+				boolean sizeOk = maximumSize <= 0 || totalSize <= targetSize;
+				boolean countOk = maximumEntries <= 0 || totalCount <= targetCount;
+				if ((sizeOk && countOk) || entries.get(i).lastAccess > minimumAge)
 				{
-					loadProperties(properties, propertiesFile);
+					break;
 				}
-				catch (IOException e)
+				if (!remove(entries.get(i)))
 				{
-					logger.error("Error reading url properties file", e); //$NON-NLS-1$
+					//the resource is currently being retrieved
+					continue;
 				}
+				totalSize -= lengths[i];
+				totalCount--;
+				size.addAndGet(-lengths[i]);
+				entryCount.decrementAndGet();
+				evictionCount.incrementAndGet();
 			}
-			String filename = properties.getProperty(url.toString());
-			if (filename == null)
+			logger.debug("Evicted cache entries: " + getStatistics()); //$NON-NLS-1$
+		}
+		catch (Exception e)
+		{
+			logger.error("Error evicting cache entries", e); //$NON-NLS-1$
+		}
+	}
+
+	/**
+	 * Set the minimum time since a resource was last accessed before it can be
+	 * evicted; used for testing.
+	 */
+	void setEvictionMinimumAge(long evictionMinimumAge)
+	{
+		this.evictionMinimumAge = evictionMinimumAge;
+	}
+
+	/**
+	 * Remove the files for the given entry from the cache, unless the entry
+	 * has a partial file, which means that the resource is being written
+	 * between {@link #writePartial(URL, long)} and
+	 * {@link #writeComplete(URL, long, String)}, or that a partial retrieval
+	 * can be resumed.
+	 * 
+	 * @return True if the entry was removed
+	 */
+	private boolean remove(IndexEntry entry)
+	{
+		File partialFile = getEntryFile(entry, PARTIAL_SUFFIX);
+		File completeFile = getEntryFile(entry, ""); //$NON-NLS-1$
+		File contentTypeFile = getEntryFile(entry, CONTENT_TYPE_SUFFIX);
+		locker.lockWrite(partialFile);
+		try
+		{
+			if (partialFile.exists())
 			{
-				filename = properties.size() + extension;
+				return false;
 			}
-			properties.setProperty(url.toString(), filename);
-			propertiesFile.getParentFile().mkdirs();
+			locker.lockWrite(completeFile);
 			try
 			{
-				saveProperties(properties, propertiesFile);
+				locker.lockWrite(contentTypeFile);
+				try
+				{
+					completeFile.delete();
+					contentTypeFile.delete();
+					index.remove(entry.hashDirectory, entry.url);
+					return true;
+				}
+				finally
+				{
+					locker.unlockWrite(contentTypeFile);
+				}
 			}
-			catch (IOException e)
+			finally
 			{
-				logger.error("Error writing url properties file", e); //$NON-NLS-1$
+				locker.unlockWrite(completeFile);
 			}
-			return new File(directory, hashDirectory + File.separator + filename + suffix);
 		}
 		finally
 		{
-			locker.unlockWrite(propertiesFile);
+			locker.unlockWrite(partialFile);
 		}
 	}
 
+	private File getEntryFile(IndexEntry entry, String suffix)
+	{
+		return new File(directory, entry.hashDirectory + File.separator + entry.filename + suffix);
+	}
+
+	private File getCompleteFile(URL url, boolean assign)
+	{
+		return fileForURL(url, "", assign); //$NON-NLS-1$
+	}
+
+	private File getPartialFile(URL url, boolean assign)
+	{
+		return fileForURL(url, PARTIAL_SUFFIX, assign);
+	}
+
+	private File getContentTypeFile(URL url, boolean assign)
+	{
+		return fileForURL(url, CONTENT_TYPE_SUFFIX, assign);
+	}
+
+	/**
+	 * Get the file in the cache for the given URL.
+	 * 
+	 * @param url
+	 *            URL to get the file for
+	 * @param suffix
+	 *            Suffix to append to the URL's filename
+	 * @param assign
+	 *            Whether to assign a filename to the URL if it hasn't been
+	 *            cached; only paths that write to the cache should assign
+	 * @return File for the URL, or null if <code>assign</code> is false and
+	 *         the URL has not been cached
+	 */
+	private File fileForURL(URL url, String suffix, boolean assign)
+	{
+		String hashDirectory = !Util.isBlank(url.getHost()) ? url.getHost() + File.separator : ""; //$NON-NLS-1$
+		hashDirectory += getHashDirectory(url);
+
+		String filename;
+		if (assign)
+		{
+			String extension = au.gov.ga.earthsci.common.util.Util.getExtension(url.getPath());
+			if (extension == null || extension.length() > 30)
+			{
+				//probably not an extension
+				extension = ""; //$NON-NLS-1$
+			}
+			filename = index.getFilename(hashDirectory, url.toString(), extension);
+		}
+		else
+		{
+			filename = index.lookupFilename(hashDirectory, url.toString());
+			if (filename == null)
+			{
+				return null;
+			}
+		}
+		return new File(directory, hashDirectory + File.separator + filename + suffix);
+	}
+
 	private static String getHashDirectory(URL url)
 	{
 		String hashCode = String.valueOf(url.toString().hashCode());
@@ -543,38 +794,4 @@ public class FileURLCache implements IURLCache
 		directory.append(hashCode.substring(6));
 		return directory.toString();
 	}
-
-	private static void loadProperties(Properties properties, File file) throws IOException
-	{
-		FileInputStream fis = null;
-		try
-		{
-			fis = new FileInputStream(file);
-			properties.load(fis);
-		}
-		finally
-		{
-			if (fis != null)
-			{
-				fis.close();
-			}
-		}
-	}
-
-	private static void saveProperties(Properties properties, File file) throws IOException
-	{
-		FileOutputStream fos = null;
-		try
-		{
-			fos = new FileOutputStream(file);
-			properties.store(fos, null);
-		}
-		finally
-		{
-			if (fos != null)
-			{
-				fos.close();
-			}
-		}
-	}
 }
@@ -0,0 +1,676 @@
+/*******************************************************************************
+ * Copyright 2026 Geoscience Australia
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package au.gov.ga.earthsci.core.retrieve.cache;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Index used by the {@link FileURLCache} to map URLs to filenames within the
+ * cache's hash directories.
+ * <p/>
+ * Each hash directory has an append-only journal file containing the URL to
+ * filename mappings for that directory. A directory's journal is read the first
+ * time the directory is accessed, after which all lookups are resolved from
+ * memory. New mappings and removals are appended to the journal, and the
+ * journal is compacted when it is loaded if it contains more stale records than
+ * live ones (or a partially written record from an interrupted write).
+ * <p/>
+ * The index also tracks the last access time of each mapping, which is used by
+ * the cache for least-recently-used eviction. Access times are kept in memory
+ * and only written to the journal when {@link #flushAccessTimes()} is called.
+ * <p/>
+ * Directories written by previous versions of the cache contain a
+ * <code>urls.properties</code> file instead of a journal. These are migrated
+ * to a journal the first time the directory is accessed.
+ * <p/>
+ * The in-memory state is per-instance, so a cache directory should only be
+ * accessed through a single index instance.
+ * 
+ * @author Michael de Hoog (michael.dehoog@ga.gov.au)
+ */
+public class FileURLCacheIndex
+{
+	private static final Logger logger = LoggerFactory.getLogger(FileURLCacheIndex.class);
+
+	public final static String JOURNAL_FILENAME = "urls.journal"; //$NON-NLS-1$
+	public final static String LEGACY_PROPERTIES_FILENAME = "urls.properties"; //$NON-NLS-1$
+
+	private final static byte RECORD_PUT = 1;
+	private final static byte RECORD_REMOVE = 2;
+	private final static byte RECORD_ACCESS = 3;
+	private final static int COMPACTION_MINIMUM_STALE_RECORDS = 64;
+	private final static Charset UTF8 = Charset.forName("UTF-8"); //$NON-NLS-1$
+
+	private final File directory;
+	private final ConcurrentMap<String, Bucket> buckets = new ConcurrentHashMap<String, Bucket>();
+
+	public FileURLCacheIndex(File directory)
+	{
+		if (directory == null)
+		{
+			throw new NullPointerException("Directory cannot be null"); //$NON-NLS-1$
+		}
+		this.directory = directory;
+	}
+
+	/**
+	 * Get the filename mapped to the given URL within the given hash
+	 * directory, assigning (and persisting) a new filename if the URL has not
+	 * been seen before.
+	 * 
+	 * @param hashDirectory
+	 *            Directory relative to the cache directory that contains the
+	 *            URL's files
+	 * @param url
+	 *            URL string to get the filename for
+	 * @param extension
+	 *            Extension to append to newly assigned filenames
+	 * @return Filename for the URL, relative to the hash directory
+	 */
+	public String getFilename(String hashDirectory, String url, String extension)
+	{
+		return getBucket(hashDirectory).getOrAssign(url, extension);
+	}
+
+	/**
+	 * Get the filename mapped to the given URL within the given hash
+	 * directory, without assigning a new filename if the URL is unknown. If
+	 * the URL has a mapping, its access time is updated.
+	 * 
+	 * @param hashDirectory
+	 *            Directory relative to the cache directory that contains the
+	 *            URL's files
+	 * @param url
+	 *            URL string to get the filename for
+	 * @return Filename for the URL, or null if the URL has no mapping
+	 */
+	public String lookupFilename(String hashDirectory, String url)
+	{
+		return getBucket(hashDirectory).lookup(url);
+	}
+
+	/**
+	 * Remove the mapping for the given URL from the index.
+	 * 
+	 * @param hashDirectory
+	 *            Directory relative to the cache directory that contains the
+	 *            URL's files
+	 * @param url
+	 *            URL string to remove
+	 * @return The filename that was mapped to the URL, or null if there was no
+	 *         mapping
+	 */
+	public String remove(String hashDirectory, String url)
+	{
+		return getBucket(hashDirectory).remove(url);
+	}
+
+	/**
+	 * Load the index for every hash directory that exists in the cache
+	 * directory. This reads every journal in the cache, so should not be
+	 * called from a time critical thread.
+	 */
+	public void loadAll()
+	{
+		loadAll(directory, directory.getPath().length() + 1);
+	}
+
+	private void loadAll(File dir, int prefixLength)
+	{
+		File[] children = dir.listFiles();
+		if (children == null)
+		{
+			return;
+		}
+		for (File child : children)
+		{
+			if (child.isDirectory())
+			{
+				loadAll(child, prefixLength);
+			}
+			else if (child.getName().equals(JOURNAL_FILENAME)
+					|| child.getName().equals(LEGACY_PROPERTIES_FILENAME))
+			{
+				if (dir.getPath().length() > prefixLength)
+				{
+					getBucket(dir.getPath().substring(prefixLength)).ensureLoaded();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Append the access times of any mappings accessed since the last flush
+	 * to their journals.
+	 */
+	public void flushAccessTimes()
+	{
+		for (Bucket bucket : buckets.values())
+		{
+			bucket.flushAccessTimes();
+		}
+	}
+
+	/**
+	 * @return A snapshot of the mappings for all loaded hash directories
+	 * @see #loadAll()
+	 */
+	public List<IndexEntry> getEntries()
+	{
+		List<IndexEntry> entries = new ArrayList<IndexEntry>();
+		for (Entry<String, Bucket> bucket : buckets.entrySet())
+		{
+			bucket.getValue().addEntries(bucket.getKey(), entries);
+		}
+		return entries;
+	}
+
+	private Bucket getBucket(String hashDirectory)
+	{
+		Bucket bucket = buckets.get(hashDirectory);
+		if (bucket == null)
+		{
+			bucket = new Bucket(new File(directory, hashDirectory));
+			Bucket existing = buckets.putIfAbsent(hashDirectory, bucket);
+			if (existing != null)
+			{
+				bucket = existing;
+			}
+		}
+		return bucket;
+	}
+
+	/**
+	 * Snapshot of a single URL mapping in the index.
+	 */
+	public static class IndexEntry
+	{
+		public final String hashDirectory;
+		public final String url;
+		public final String filename;
+		public final long lastAccess;
+
+		public IndexEntry(String hashDirectory, String url, String filename, long lastAccess)
+		{
+			this.hashDirectory = hashDirectory;
+			this.url = url;
+			this.filename = filename;
+			this.lastAccess = lastAccess;
+		}
+	}
+
+	/**
+	 * Mutable state of a mapping within a {@link Bucket}.
+	 */
+	private static class Mapping
+	{
+		private final String filename;
+		private volatile long lastAccess;
+		private volatile boolean accessed;
+
+		public Mapping(String filename, long lastAccess)
+		{
+			this.filename = filename;
+			this.lastAccess = lastAccess;
+		}
+
+		public void touch()
+		{
+			lastAccess = System.currentTimeMillis();
+			accessed = true;
+		}
+	}
+
+	/**
+	 * Index state for a single hash directory.
+	 */
+	private static class Bucket
+	{
+		private final File directory;
+		private final Map<String, Mapping> urlToMapping = new ConcurrentHashMap<String, Mapping>();
+		private volatile boolean loaded = false;
+		private int nextId = 0;
+
+		public Bucket(File directory)
+		{
+			this.directory = directory;
+		}
+
+		public String lookup(String url)
+		{
+			ensureLoaded();
+			Mapping mapping = urlToMapping.get(url);
+			if (mapping == null)
+			{
+				return null;
+			}
+			mapping.touch();
+			return mapping.filename;
+		}
+
+		public String getOrAssign(String url, String extension)
+		{
+			ensureLoaded();
+			Mapping mapping = urlToMapping.get(url);
+			if (mapping == null)
+			{
+				synchronized (this)
+				{
+					mapping = urlToMapping.get(url);
+					if (mapping == null)
+					{
+						String filename = (nextId++) + extension;
+						mapping = new Mapping(filename, System.currentTimeMillis());
+						urlToMapping.put(url, mapping);
+						append(RECORD_PUT, url, filename, 0);
+					}
+				}
+			}
+			mapping.touch();
+			return mapping.filename;
+		}
+
+		public String remove(String url)
+		{
+			ensureLoaded();
+			synchronized (this)
+			{
+				Mapping mapping = urlToMapping.remove(url);
+				if (mapping == null)
+				{
+					return null;
+				}
+				append(RECORD_REMOVE, url, null, 0);
+				return mapping.filename;
+			}
+		}
+
+		public void addEntries(String hashDirectory, List<IndexEntry> entries)
+		{
+			if (!loaded)
+			{
+				return;
+			}
+			for (Entry<String, Mapping> entry : urlToMapping.entrySet())
+			{
+				Mapping mapping = entry.getValue();
+				entries.add(new IndexEntry(hashDirectory, entry.getKey(), mapping.filename, mapping.lastAccess));
+			}
+		}
+
+		public synchronized void flushAccessTimes()
+		{
+			if (!loaded)
+			{
+				return;
+			}
+			ByteArrayOutputStream records = new ByteArrayOutputStream();
+			DataOutputStream dos = new DataOutputStream(records);
+			try
+			{
+				for (Entry<String, Mapping> entry : urlToMapping.entrySet())
+				{
+					Mapping mapping = entry.getValue();
+					if (mapping.accessed)
+					{
+						mapping.accessed = false;
+						writeRecord(dos, RECORD_ACCESS, entry.getKey(), null, mapping.lastAccess);
+					}
+				}
+			}
+			catch (IOException e)
+			{
+				logger.error("Error writing url access times", e); //$NON-NLS-1$
+				return;
+			}
+			if (records.size() > 0)
+			{
+				append(records);
+			}
+		}
+
+		private void ensureLoaded()
+		{
+			if (loaded)
+			{
+				return;
+			}
+			synchronized (this)
+			{
+				if (!loaded)
+				{
+					load();
+					loaded = true;
+				}
+			}
+		}
+
+		private void load()
+		{
+			File journal = new File(directory, JOURNAL_FILENAME);
+			File legacy = new File(directory, LEGACY_PROPERTIES_FILENAME);
+			if (journal.isFile())
+			{
+				int staleRecords = readJournal(journal);
+				if (staleRecords > urlToMapping.size() && staleRecords >= COMPACTION_MINIMUM_STALE_RECORDS
+						|| staleRecords < 0)
+				{
+					compact();
+				}
+			}
+			else if (legacy.isFile())
+			{
+				migrate(legacy);
+			}
+			nextId = calculateNextId();
+		}
+
+		/**
+		 * Read the records in the journal into the map.
+		 * 
+		 * @return Number of stale records in the journal, or -1 if the journal
+		 *         is truncated or corrupt and should be rewritten
+		 */
+		private int readJournal(File journal)
+		{
+			int records = 0;
+			long defaultAccess = journal.lastModified();
+			long journalLength = journal.length();
+			Set<String> accessed = new HashSet<String>();
+			DataInputStream dis = null;
+			try
+			{
+				dis = new DataInputStream(new BufferedInputStream(new FileInputStream(journal)));
+				while (true)
+				{
+					int type = dis.read();
+					if (type < 0)
+					{
+						break;
+					}
+					String url = readString(dis, journalLength);
+					if (type == RECORD_PUT)
+					{
+						urlToMapping.put(url, new Mapping(readString(dis, journalLength), defaultAccess));
+					}
+					else if (type == RECORD_REMOVE)
+					{
+						urlToMapping.remove(url);
+					}
+					else if (type == RECORD_ACCESS)
+					{
+						long lastAccess = dis.readLong();
+						Mapping mapping = urlToMapping.get(url);
+						if (mapping != null)
+						{
+							mapping.lastAccess = lastAccess;
+							accessed.add(url);
+						}
+					}
+					else
+					{
+						throw new IOException("Unknown record type: " + type); //$NON-NLS-1$
+					}
+					records++;
+				}
+				//each live mapping has a put record, and its latest access record
+				accessed.retainAll(urlToMapping.keySet());
+				return records - urlToMapping.size() - accessed.size();
+			}
+			catch (EOFException e)
+			{
+				logger.warn("Truncated url journal: " + journal); //$NON-NLS-1$
+				return -1;
+			}
+			catch (IOException e)
+			{
+				logger.error("Error reading url journal: " + journal, e); //$NON-NLS-1$
+				return -1;
+			}
+			finally
+			{
+				closeQuietly(dis);
+			}
+		}
+
+		private void migrate(File legacy)
+		{
+			Properties properties = new Properties();
+			FileInputStream fis = null;
+			try
+			{
+				fis = new FileInputStream(legacy);
+				properties.load(fis);
+			}
+			catch (IOException e)
+			{
+				logger.error("Error reading url properties file: " + legacy, e); //$NON-NLS-1$
+				return;
+			}
+			finally
+			{
+				closeQuietly(fis);
+			}
+
+			long defaultAccess = legacy.lastModified();
+			for (Entry<Object, Object> entry : properties.entrySet())
+			{
+				urlToMapping.put((String) entry.getKey(), new Mapping((String) entry.getValue(), defaultAccess));
+			}
+			if (compact())
+			{
+				legacy.delete();
+			}
+		}
+
+		/**
+		 * Rewrite the journal so that it only contains the live mappings.
+		 * 
+		 * @return True if the journal was successfully rewritten
+		 */
+		private boolean compact()
+		{
+			File journal = new File(directory, JOURNAL_FILENAME);
+			File temp = new File(directory, JOURNAL_FILENAME + ".tmp"); //$NON-NLS-1$
+			DataOutputStream dos = null;
+			try
+			{
+				directory.mkdirs();
+				dos = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)));
+				for (Entry<String, Mapping> entry : urlToMapping.entrySet())
+				{
+					Mapping mapping = entry.getValue();
+					writeRecord(dos, RECORD_PUT, entry.getKey(), mapping.filename, 0);
+					writeRecord(dos, RECORD_ACCESS, entry.getKey(), null, mapping.lastAccess);
+				}
+				dos.close();
+				dos = null;
+				journal.delete();
+				if (!temp.renameTo(journal))
+				{
+					throw new IOException("Could not rename " + temp + " to " + journal); //$NON-NLS-1$ //$NON-NLS-2$
+				}
+				return true;
+			}
+			catch (IOException e)
+			{
+				logger.error("Error compacting url journal: " + journal, e); //$NON-NLS-1$
+				return false;
+			}
+			finally
+			{
+				closeQuietly(dos);
+			}
+		}
+
+		private void append(byte type, String url, String filename, long lastAccess)
+		{
+			//serialize the record first so that a failure doesn't leave a partial record in the journal
+			ByteArrayOutputStream record = new ByteArrayOutputStream();
+			try
+			{
+				writeRecord(new DataOutputStream(record), type, url, filename, lastAccess);
+			}
+			catch (IOException e)
+			{
+				logger.error("Error writing url journal record for: " + url, e); //$NON-NLS-1$
+				return;
+			}
+			append(record);
+		}
+
+		private void append(ByteArrayOutputStream records)
+		{
+			File journal = new File(directory, JOURNAL_FILENAME);
+			FileOutputStream fos = null;
+			try
+			{
+				directory.mkdirs();
+				fos = new FileOutputStream(journal, true);
+				records.writeTo(fos);
+			}
+			catch (IOException e)
+			{
+				logger.error("Error writing url journal: " + journal, e); //$NON-NLS-1$
+			}
+			finally
+			{
+				closeQuietly(fos);
+			}
+		}
+
+		private int calculateNextId()
+		{
+			int next = 0;
+			for (Mapping mapping : urlToMapping.values())
+			{
+				String filename = mapping.filename;
+				int end = 0;
+				while (end < filename.length() && Character.isDigit(filename.charAt(end)))
+				{
+					end++;
+				}
+				if (end > 0 && end < 10)
+				{
+					next = Math.max(next, Integer.parseInt(filename.substring(0, end)) + 1);
+				}
+			}
+			return next;
+		}
+	}
+
+	private static void writeRecord(DataOutputStream dos, byte type, String url, String filename, long lastAccess)
+			throws IOException
+	{
+		dos.writeByte(type);
+		writeString(dos, url);
+		if (type == RECORD_PUT)
+		{
+			writeString(dos, filename);
+		}
+		else if (type == RECORD_ACCESS)
+		{
+			dos.writeLong(lastAccess);
+		}
+	}
+
+	/**
+	 * Write a string as its UTF-8 length and bytes. Unlike
+	 * {@link DataOutputStream#writeUTF(String)}, this is not limited to
+	 * strings with an encoded length of 65535 bytes, which long URLs (such as
+	 * those with WMS query parameters) can exceed.
+	 */
+	private static void writeString(DataOutputStream dos, String s) throws IOException
+	{
+		byte[] bytes = s.getBytes(UTF8);
+		dos.writeInt(bytes.length);
+		dos.write(bytes);
+	}
+
+	/**
+	 * Read a string written by {@link #writeString(DataOutputStream, String)}.
+	 * 
+	 * @param maximumLength
+	 *            Maximum valid length of the string in bytes; longer lengths
+	 *            are treated as a corrupt journal
+	 */
+	private static String readString(DataInputStream dis, long maximumLength) throws IOException
+	{
+		int length = dis.readInt();
+		if (length < 0 || length > maximumLength)
+		{
+			throw new IOException("Invalid string length: " + length); //$NON-NLS-1$
+		}
+		byte[] bytes = new byte[length];
+		dis.readFully(bytes);
+		return new String(bytes, UTF8);
+	}
+
+	private static void closeQuietly(Closeable closeable)
+	{
+		if (closeable != null)
+		{
+			try
+			{
+				closeable.close();
+			}
+			catch (IOException e)
+			{
+				//ignore
+			}
+		}
+	}
+
+	/**
+	 * @return A snapshot of the mappings for the given hash directory; used
+	 *         for testing
+	 */
+	Map<String, String> getMappings(String hashDirectory)
+	{
+		Bucket bucket = getBucket(hashDirectory);
+		bucket.ensureLoaded();
+		Map<String, String> mappings = new HashMap<String, String>();
+		for (Entry<String, Mapping> entry : bucket.urlToMapping.entrySet())
+		{
+			mappings.put(entry.getKey(), entry.getValue().filename);
+		}
+		return mappings;
+	}
+}
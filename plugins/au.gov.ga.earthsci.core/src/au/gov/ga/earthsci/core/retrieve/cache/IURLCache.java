@@ -165,7 +165,26 @@ public interface IURLCache
 	 * 
 	 * @param url
 	 *            URL to get the File for
-	 * @return File containing the retrieved resource
+	 * @return File containing the retrieved resource, or null if the resource
+	 *         has not been cached
 	 */
 	File getFile(URL url);
+
+	/**
+	 * Set the limits on the size of this cache. When a limit is exceeded, the
+	 * least recently used resources are evicted from the cache in the
+	 * background until the cache is back within its limits.
+	 * 
+	 * @param maximumSize
+	 *            Maximum total size of the cached resources in bytes; 0 for no
+	 *            limit
+	 * @param maximumEntries
+	 *            Maximum number of cached resources; 0 for no limit
+	 */
+	void setLimits(long maximumSize, int maximumEntries);
+
+	/**
+	 * @return A snapshot of the usage statistics of this cache
+	 */
+	URLCacheStatistics getStatistics();
 }
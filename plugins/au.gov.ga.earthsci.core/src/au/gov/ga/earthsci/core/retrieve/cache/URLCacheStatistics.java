@@ -0,0 +1,108 @@
+/*******************************************************************************
+ * Copyright 2026 Geoscience Australia
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package au.gov.ga.earthsci.core.retrieve.cache;
+
+/**
+ * Immutable snapshot of the usage statistics of an {@link IURLCache}.
+ * 
+ * @author Michael de Hoog (michael.dehoog@ga.gov.au)
+ */
+public class URLCacheStatistics
+{
+	private final long size;
+	private final int entryCount;
+	private final long maximumSize;
+	private final int maximumEntries;
+	private final long hitCount;
+	private final long missCount;
+	private final long evictionCount;
+
+	public URLCacheStatistics(long size, int entryCount, long maximumSize, int maximumEntries, long hitCount,
+			long missCount, long evictionCount)
+	{
+		this.size = size;
+		this.entryCount = entryCount;
+		this.maximumSize = maximumSize;
+		this.maximumEntries = maximumEntries;
+		this.hitCount = hitCount;
+		this.missCount = missCount;
+		this.evictionCount = evictionCount;
+	}
+
+	/**
+	 * @return Total size of the cached resources in bytes, or -1 if unknown
+	 */
+	public long getSize()
+	{
+		return size;
+	}
+
+	/**
+	 * @return Number of resources in the cache, or -1 if unknown
+	 */
+	public int getEntryCount()
+	{
+		return entryCount;
+	}
+
+	/**
+	 * @return Maximum size of the cache in bytes, or 0 if unlimited
+	 */
+	public long getMaximumSize()
+	{
+		return maximumSize;
+	}
+
+	/**
+	 * @return Maximum number of resources in the cache, or 0 if unlimited
+	 */
+	public int getMaximumEntries()
+	{
+		return maximumEntries;
+	}
+
+	/**
+	 * @return Number of lookups that found a complete resource in the cache
+	 */
+	public long getHitCount()
+	{
+		return hitCount;
+	}
+
+	/**
+	 * @return Number of lookups that didn't find a complete resource in the
+	 *         cache
+	 */
+	public long getMissCount()
+	{
+		return missCount;
+	}
+
+	/**
+	 * @return Number of resources that have been evicted from the cache
+	 */
+	public long getEvictionCount()
+	{
+		return evictionCount;
+	}
+
+	@Override
+	public String toString()
+	{
+		return "size=" + size + "/" + maximumSize + ", entries=" + entryCount + "/" + maximumEntries + ", hits=" //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$ //$NON-NLS-5$
+				+ hitCount + ", misses=" + missCount + ", evictions=" + evictionCount; //$NON-NLS-1$ //$NON-NLS-2$
+	}
+}
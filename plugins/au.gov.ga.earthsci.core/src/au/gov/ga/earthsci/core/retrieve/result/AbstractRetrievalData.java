@@ -59,6 +59,22 @@ public abstract class AbstractRetrievalData implements IRetrievalData
 		return contentType;
 	}
 
+	@Override
+	public long getLastModified()
+	{
+		if ("file".equalsIgnoreCase(url.getProtocol())) //$NON-NLS-1$
+		{
+			try
+			{
+				return new File(url.toURI()).lastModified();
+			}
+			catch (URISyntaxException e)
+			{
+			}
+		}
+		return 0;
+	}
+
 	@Override
 	public File getFile()
 	{
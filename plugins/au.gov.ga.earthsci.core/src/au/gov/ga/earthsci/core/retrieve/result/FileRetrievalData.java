@@ -54,6 +54,12 @@ public class FileRetrievalData implements IRetrievalData
 		return contentType;
 	}
 
+	@Override
+	public long getLastModified()
+	{
+		return file.lastModified();
+	}
+
 	@Override
 	public InputStream getInputStream() throws IOException
 	{
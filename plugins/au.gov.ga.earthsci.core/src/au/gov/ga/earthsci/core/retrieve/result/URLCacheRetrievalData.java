@@ -55,6 +55,12 @@ public class URLCacheRetrievalData implements IRetrievalData
 		return cache.getContentType(url);
 	}
 
+	@Override
+	public long getLastModified()
+	{
+		return cache.getLastModified(url);
+	}
+
 	@Override
 	public InputStream getInputStream() throws IOException
 	{
@@ -37,6 +37,7 @@ import au.gov.ga.earthsci.core.retrieve.IRetrievalProperties;
 import au.gov.ga.earthsci.core.retrieve.IRetrievalResult;
 import au.gov.ga.earthsci.core.retrieve.IRetriever;
 import au.gov.ga.earthsci.core.retrieve.IRetrieverMonitor;
+import au.gov.ga.earthsci.core.retrieve.RetrievalScheduler;
 import au.gov.ga.earthsci.core.retrieve.RetrievalStatus;
 import au.gov.ga.earthsci.core.retrieve.RetrieverResult;
 import au.gov.ga.earthsci.core.retrieve.RetrieverResultStatus;
@@ -49,6 +50,13 @@ import au.gov.ga.earthsci.core.retrieve.result.URLCacheRetrievalData;
 
 /**
  * {@link IRetriever} implementation used for retrieving HTTP URLs.
+ * <p/>
+ * Responses are fully consumed where possible so that HttpURLConnection can
+ * return their connections to the JDK's keep-alive cache for reuse. The
+ * cache only keeps 5 idle connections per host by default; the product sets
+ * the <code>http.maxConnections</code> system property to match
+ * {@link RetrievalScheduler#DEFAULT_MAXIMUM_RUNNING_PER_HOST}, as it must be
+ * set before the first HTTP connection is opened.
  * 
  * @author Michael de Hoog (michael.dehoog@ga.gov.au)
  */
@@ -57,6 +65,7 @@ public class HttpRetriever implements IRetriever
 	private final static Logger logger = LoggerFactory.getLogger(HttpRetriever.class);
 	private final static IURLCache urlCache;
 	private final static int REDOWNLOAD_BYTES = 1024;
+	private final static int MAXIMUM_DRAIN_BYTES = 64 * 1024;
 
 	static
 	{
@@ -74,6 +83,15 @@ public class HttpRetriever implements IRetriever
 		urlCache = cacheDir == null ? null : new FileURLCache(cacheDir);
 	}
 
+	/**
+	 * @return The cache used to store resources retrieved over HTTP, or null
+	 *         if the cache directory could not be initialized
+	 */
+	public static IURLCache getURLCache()
+	{
+		return urlCache;
+	}
+
 	@Override
 	public boolean supports(URL url)
 	{
@@ -97,6 +115,7 @@ public class HttpRetriever implements IRetriever
 		monitor.updateStatus(RetrievalStatus.STARTED);
 
 		HttpURLConnection connection = null;
+		boolean reusable = false;
 		try
 		{
 			connection = (HttpURLConnection) url.openConnection();
@@ -197,11 +216,13 @@ public class HttpRetriever implements IRetriever
 
 			if (responseCode == HttpURLConnection.HTTP_NOT_MODIFIED)
 			{
+				reusable = drain(connection, false);
 				return new RetrieverResult(new BasicRetrievalResult(cachedData, true), RetrieverResultStatus.COMPLETE);
 			}
 			else if (responseCode != HttpURLConnection.HTTP_OK && responseCode != HttpURLConnection.HTTP_PARTIAL)
 			{
 				// response not ok
+				reusable = drain(connection, true);
 				throw new IOException("Received " + responseCode + " " + connection.getResponseMessage() //$NON-NLS-1$ //$NON-NLS-2$
 						+ " when requesting url: " + url); //$NON-NLS-1$
 			}
@@ -247,6 +268,7 @@ public class HttpRetriever implements IRetriever
 							os.close();
 						}
 					}
+					reusable = true;
 					boolean updated = urlCache.writeComplete(url, lastModified, contentType);
 					if (!updated)
 					{
@@ -264,11 +286,13 @@ public class HttpRetriever implements IRetriever
 					String suffix = Util.getExtension(url.getPath());
 					suffix = suffix != null ? suffix : ""; //$NON-NLS-1$
 					File file = Util.writeInputStreamToTemporaryFile(is, prefix, suffix);
+					reusable = true;
 					retrievedData = new FileRetrievalData(file, contentType);
 				}
 				else
 				{
 					ByteBuffer buffer = WWIO.readStreamToBuffer(is);
+					reusable = true;
 					retrievedData = new ByteBufferRetrievalData(url, buffer, contentType);
 				}
 				IRetrievalResult result = new BasicRetrievalResult(retrievedData, false);
@@ -289,7 +313,64 @@ public class HttpRetriever implements IRetriever
 		}
 		finally
 		{
-			connection.disconnect();
+			//only disconnect if the response wasn't completely consumed; otherwise the
+			//underlying socket is returned to the keep-alive cache for the next request
+			if (!reusable && connection != null)
+			{
+				connection.disconnect();
+			}
+		}
+	}
+
+	/**
+	 * Read and discard the remaining response body of the given connection, so
+	 * that its socket can be reused by subsequent requests to the same host.
+	 * 
+	 * @param connection
+	 *            Connection to drain
+	 * @param error
+	 *            Read the error stream instead of the input stream
+	 * @return True if the response was completely consumed
+	 */
+	private static boolean drain(HttpURLConnection connection, boolean error)
+	{
+		InputStream is = null;
+		try
+		{
+			is = error ? connection.getErrorStream() : connection.getInputStream();
+			if (is == null)
+			{
+				return true;
+			}
+			byte[] buffer = new byte[4096];
+			int total = 0, read;
+			while ((read = is.read(buffer)) >= 0)
+			{
+				total += read;
+				if (total > MAXIMUM_DRAIN_BYTES)
+				{
+					//cheaper to open a new connection than read a large unwanted response
+					return false;
+				}
+			}
+			return true;
+		}
+		catch (IOException e)
+		{
+			return false;
+		}
+		finally
+		{
+			if (is != null)
+			{
+				try
+				{
+					is.close();
+				}
+				catch (IOException e)
+				{
+				}
+			}
 		}
 	}
 
@@ -0,0 +1,62 @@
+/*******************************************************************************
+ * Copyright 2026 Geoscience Australia
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package au.gov.ga.earthsci.core.retrieve.retriever;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+import org.eclipse.core.runtime.preferences.AbstractPreferenceInitializer;
+import org.eclipse.core.runtime.preferences.DefaultScope;
+import org.eclipse.e4.core.di.annotations.Creatable;
+import org.eclipse.e4.core.di.extensions.Preference;
+import org.eclipse.jface.preference.IPreferenceStore;
+
+import au.gov.ga.earthsci.core.preferences.PreferenceConstants;
+import au.gov.ga.earthsci.core.preferences.ScopedPreferenceStore;
+import au.gov.ga.earthsci.core.retrieve.cache.IURLCache;
+
+/**
+ * Contains the preferences for the {@link HttpRetriever}'s cache.
+ * 
+ * @author Michael de Hoog (michael.dehoog@ga.gov.au)
+ */
+@Creatable
+@Singleton
+public class HttpRetrieverPreferences extends AbstractPreferenceInitializer
+{
+	public static final String CACHE_MAXIMUM_SIZE_MB = "httpRetrieverCacheMaximumSize"; //$NON-NLS-1$
+	public static final String CACHE_MAXIMUM_ENTRIES = "httpRetrieverCacheMaximumEntries"; //$NON-NLS-1$
+
+	@Override
+	public void initializeDefaultPreferences()
+	{
+		IPreferenceStore store = new ScopedPreferenceStore(DefaultScope.INSTANCE, PreferenceConstants.QUALIFIER_ID);
+		store.setDefault(CACHE_MAXIMUM_SIZE_MB, 10240);
+		store.setDefault(CACHE_MAXIMUM_ENTRIES, 0);
+	}
+
+	@Inject
+	public void preferencesChanged(
+			@Preference(nodePath = PreferenceConstants.QUALIFIER_ID, value = CACHE_MAXIMUM_SIZE_MB) int maximumSizeMB,
+			@Preference(nodePath = PreferenceConstants.QUALIFIER_ID, value = CACHE_MAXIMUM_ENTRIES) int maximumEntries)
+	{
+		IURLCache cache = HttpRetriever.getURLCache();
+		if (cache != null)
+		{
+			cache.setLimits(maximumSizeMB * 1024L * 1024L, maximumEntries);
+		}
+	}
+}
@@ -15,14 +15,22 @@
  ******************************************************************************/
 package au.gov.ga.earthsci.core.temporal;
 
-import java.util.LinkedHashSet;
-import java.util.concurrent.locks.ReadWriteLock;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 
 import javax.inject.Singleton;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import au.gov.ga.earthsci.common.util.AbstractPropertyChangeBean;
 import au.gov.ga.earthsci.common.util.Validate;
-import au.gov.ga.earthsci.worldwind.common.util.LenientReadWriteLock;
+import au.gov.ga.earthsci.worldwind.common.util.DaemonThreadFactory;
 
 /**
  * The central time keeper/server in the EarthSci platform.
@@ -36,6 +44,18 @@ import au.gov.ga.earthsci.worldwind.common.util.LenientReadWriteLock;
  * objects will be notified of changes to current time <em>before</em> other
  * listeners that have been registered via the property change mechanism.
  * <p/>
+ * Changes to the current time are applied asynchronously on a background
+ * executor, so setting the time never blocks on the temporal objects. If the
+ * time is changed again while a change is being applied, intermediate times
+ * are skipped and only the latest time is applied. Property change events are
+ * fired on the executor thread once a time has been applied to all temporal
+ * objects.
+ * <p/>
+ * Temporal objects are indexed by their range (see
+ * {@link TemporalIntervalIndex}), and are only notified of a time that they
+ * are applicable at and that differs, at their resolution, from the last time
+ * they were notified of.
+ * <p/>
  * This class is intended to be used as singleton via the DI mechanism - there
  * should only exist one instance per application. All public methods are
  * threadsafe and can be executed concurrently with well defined behaviour.
@@ -49,14 +69,51 @@ public class Chronos extends AbstractPropertyChangeBean
 	/** The name of the property event issued when the current time is changed */
 	public static final String CURRENT_TIME_PROPERTY_NAME = "currentTime"; //$NON-NLS-1$
 
-	private LinkedHashSet<ITemporal> temporalObjects = new LinkedHashSet<ITemporal>();
-	private ReadWriteLock temporalObjectsLock = new LenientReadWriteLock();
+	private static final Logger logger = LoggerFactory.getLogger(Chronos.class);
+
+	private final TemporalIntervalIndex temporalObjects = new TemporalIntervalIndex();
+	/** The time each temporal object was last applied at; guarded by temporalObjects */
+	private final Map<ITemporal, BigTime> appliedTimes = new HashMap<ITemporal, BigTime>();
+
+	private final Executor executor;
+	private final Runnable applyRunnable = new Runnable()
+	{
+		@Override
+		public void run()
+		{
+			applyCurrentTime();
+		}
+	};
 
 	private BigTime currentTime = BigTime.now();
+	private boolean applyPending = false;
+
+	/** The last time fully applied and fired to listeners; only accessed by the executor */
+	private BigTime appliedTime = currentTime;
+
+	public Chronos()
+	{
+		this(Executors.newSingleThreadExecutor(new DaemonThreadFactory("Chronos"))); //$NON-NLS-1$
+	}
+
+	/**
+	 * Create a new instance that applies time changes using the given
+	 * executor. The executor must run tasks one at a time, in order.
+	 * 
+	 * @param executor
+	 *            Executor used to apply changes to the current time
+	 */
+	public Chronos(Executor executor)
+	{
+		this.executor = executor;
+	}
 
 	/**
 	 * Add the provided temporal object to the central time server. The object
 	 * will receive future notifications about changes to the current time.
+	 * <p/>
+	 * The range of the temporal object is read when it is added; if the range
+	 * changes, the object should be added again to update it.
 	 * 
 	 * @param t
 	 *            The temporal object to add
@@ -67,15 +124,10 @@ public class Chronos extends AbstractPropertyChangeBean
 		{
 			return;
 		}
-		try
+		synchronized (temporalObjects)
 		{
-			temporalObjectsLock.writeLock().lock();
 			temporalObjects.add(t);
 		}
-		finally
-		{
-			temporalObjectsLock.writeLock().unlock();
-		}
 	}
 
 	/**
@@ -88,36 +140,39 @@ public class Chronos extends AbstractPropertyChangeBean
 	 */
 	public void removeTemporal(ITemporal t)
 	{
-		try
+		synchronized (temporalObjects)
 		{
-			temporalObjectsLock.writeLock().lock();
 			temporalObjects.remove(t);
-		}
-		finally
-		{
-			temporalObjectsLock.writeLock().unlock();
+			appliedTimes.remove(t);
 		}
 	}
 
 	/**
 	 * Set the current application time. All registered temporal objects and
-	 * listeners will be notified of the change in time.
+	 * listeners will be notified of the change in time asynchronously.
 	 * 
 	 * @param currentTime
 	 *            the currentTime to set
 	 */
-	public synchronized void setCurrentTime(BigTime currentTime)
+	public void setCurrentTime(BigTime currentTime)
 	{
 		Validate.notNull(currentTime, "A time instant is required"); //$NON-NLS-1$
 
-		BigTime oldTime = currentTime;
-		this.currentTime = currentTime;
-
-		if (!oldTime.equals(currentTime))
+		synchronized (this)
 		{
-			notifyTemporalObjectsOfChangedTime();
-			firePropertyChange(CURRENT_TIME_PROPERTY_NAME, oldTime, currentTime);
+			if (this.currentTime.equals(currentTime))
+			{
+				return;
+			}
+			this.currentTime = currentTime;
+			if (applyPending)
+			{
+				//the pending application will apply the latest time
+				return;
+			}
+			applyPending = true;
 		}
+		executor.execute(applyRunnable);
 	}
 
 	/**
@@ -128,19 +183,102 @@ public class Chronos extends AbstractPropertyChangeBean
 		return currentTime;
 	}
 
-	private void notifyTemporalObjectsOfChangedTime()
+	/**
+	 * Apply the latest current time to the temporal objects whose state
+	 * changes, and notify listeners. Called on the executor.
+	 */
+	private void applyCurrentTime()
+	{
+		BigTime time;
+		synchronized (this)
+		{
+			time = currentTime;
+			applyPending = false;
+		}
+
+		//even if the time equals the last time fired, objects may have been
+		//left at an intermediate time by an interrupted application (A->B->A),
+		//so the per-object applied times decide what needs to be applied
+		List<ITemporal> candidates;
+		Map<ITemporal, BigTime> lastTimes = new HashMap<ITemporal, BigTime>();
+		synchronized (temporalObjects)
+		{
+			candidates = temporalObjects.query(time);
+			for (ITemporal t : candidates)
+			{
+				lastTimes.put(t, appliedTimes.get(t));
+			}
+		}
+
+		List<ITemporal> applied = new ArrayList<ITemporal>();
+		for (ITemporal t : candidates)
+		{
+			if (isApplyPending())
+			{
+				//a newer time has been set; skip straight to it
+				recordAppliedTimes(applied, time);
+				return;
+			}
+			try
+			{
+				if (isSameTime(lastTimes.get(t), time, t.getResolution()) || !t.isApplicableAt(time))
+				{
+					continue;
+				}
+				t.apply(time);
+				applied.add(t);
+			}
+			catch (Exception e)
+			{
+				logger.error("Error applying time to temporal object", e); //$NON-NLS-1$
+			}
+		}
+		recordAppliedTimes(applied, time);
+
+		BigTime oldTime = appliedTime;
+		if (time.equals(oldTime))
+		{
+			return;
+		}
+		appliedTime = time;
+		firePropertyChange(CURRENT_TIME_PROPERTY_NAME, oldTime, time);
+	}
+
+	private synchronized boolean isApplyPending()
+	{
+		return applyPending;
+	}
+
+	private void recordAppliedTimes(List<ITemporal> applied, BigTime time)
 	{
-		try
+		synchronized (temporalObjects)
 		{
-			temporalObjectsLock.readLock().lock();
-			for (ITemporal t : temporalObjects)
+			for (ITemporal t : applied)
 			{
-				t.apply(currentTime);
+				//don't record objects removed while applying
+				if (temporalObjects.contains(t))
+				{
+					appliedTimes.put(t, time);
+				}
 			}
 		}
-		finally
+	}
+
+	/**
+	 * @return Whether the two times represent the same instant at the given
+	 *         resolution
+	 */
+	private static boolean isSameTime(BigTime lastTime, BigTime time, BigInteger resolution)
+	{
+		if (lastTime == null)
+		{
+			return false;
+		}
+		if (resolution == null)
 		{
-			temporalObjectsLock.readLock().unlock();
+			return lastTime.equals(time);
 		}
+		return new BigTime(lastTime.getNansecondsSinceEpoch(), resolution).compareTo(new BigTime(time
+				.getNansecondsSinceEpoch(), resolution)) == 0;
 	}
 }
@@ -0,0 +1,308 @@
+/*******************************************************************************
+ * Copyright 2026 Geoscience Australia
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package au.gov.ga.earthsci.core.temporal;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import au.gov.ga.earthsci.common.util.Range;
+
+/**
+ * An index of {@link ITemporal} objects by the range of time over which they
+ * are meaningful, used to find the temporal objects that may be applicable at
+ * a given time instant without testing every object.
+ * <p/>
+ * The index is a centered interval tree, which is rebuilt lazily after
+ * temporal objects are added or removed. Open ended ranges are supported, and
+ * temporal objects without a range are treated as meaningful at all times.
+ * <p/>
+ * Ranges are read when a temporal object is added; if the range of a temporal
+ * object changes, it must be added again to update the index. Range end points
+ * are widened by their resolution, so the index is conservative: clients
+ * should use {@link ITemporal#isApplicableAt(BigTime)} to test the returned
+ * objects.
+ * <p/>
+ * This class is not threadsafe.
+ * 
+ * @author James Navin (james.navin@ga.gov.au)
+ */
+public class TemporalIntervalIndex
+{
+	private final Map<ITemporal, Entry> entries = new LinkedHashMap<ITemporal, Entry>();
+	private long nextSequence = 0;
+	private Node root;
+	private boolean dirty = false;
+
+	/**
+	 * Add a temporal object to this index, or update the indexed range of a
+	 * temporal object that has already been added.
+	 * 
+	 * @param t
+	 *            Temporal object to add
+	 * @return <code>true</code> if the object was not already in this index
+	 */
+	public boolean add(ITemporal t)
+	{
+		Entry existing = entries.get(t);
+		long sequence = existing != null ? existing.sequence : nextSequence++;
+		entries.put(t, new Entry(t, sequence));
+		dirty = true;
+		return existing == null;
+	}
+
+	/**
+	 * Remove a temporal object from this index.
+	 * 
+	 * @param t
+	 *            Temporal object to remove
+	 * @return <code>true</code> if the object was in this index
+	 */
+	public boolean remove(ITemporal t)
+	{
+		if (entries.remove(t) == null)
+		{
+			return false;
+		}
+		dirty = true;
+		return true;
+	}
+
+	/**
+	 * @return Whether the given temporal object is in this index
+	 */
+	public boolean contains(ITemporal t)
+	{
+		return entries.containsKey(t);
+	}
+
+	/**
+	 * @return The number of temporal objects in this index
+	 */
+	public int size()
+	{
+		return entries.size();
+	}
+
+	/**
+	 * @return All temporal objects in this index, in the order they were added
+	 */
+	public List<ITemporal> getAll()
+	{
+		return new ArrayList<ITemporal>(entries.keySet());
+	}
+
+	/**
+	 * Find the temporal objects whose range may contain the given time
+	 * instant.
+	 * 
+	 * @param time
+	 *            Time instant to search for
+	 * @return Temporal objects whose range may contain the given time, in the
+	 *         order they were added
+	 */
+	public List<ITemporal> query(BigTime time)
+	{
+		if (dirty)
+		{
+			root = build(new ArrayList<Entry>(entries.values()));
+			dirty = false;
+		}
+
+		BigInteger nanos = time.getNansecondsSinceEpoch();
+		List<Entry> found = new ArrayList<Entry>();
+		Node node = root;
+		while (node != null)
+		{
+			int c = nanos.compareTo(node.center);
+			if (c < 0)
+			{
+				//all entries in this node end after the time; find those that start before it
+				for (Entry e : node.byMin)
+				{
+					if (e.min != null && e.min.compareTo(nanos) > 0)
+					{
+						break;
+					}
+					found.add(e);
+				}
+				node = node.left;
+			}
+			else if (c > 0)
+			{
+				//all entries in this node start before the time; find those that end after it
+				for (Entry e : node.byMax)
+				{
+					if (e.max != null && e.max.compareTo(nanos) < 0)
+					{
+						break;
+					}
+					found.add(e);
+				}
+				node = node.right;
+			}
+			else
+			{
+				found.addAll(node.byMin);
+				break;
+			}
+		}
+
+		Collections.sort(found, SEQUENCE_COMPARATOR);
+		List<ITemporal> result = new ArrayList<ITemporal>(found.size());
+		for (Entry e : found)
+		{
+			result.add(e.temporal);
+		}
+		return result;
+	}
+
+	private static Node build(List<Entry> entries)
+	{
+		if (entries.isEmpty())
+		{
+			return null;
+		}
+
+		//use the median of the finite end points as the center, which is contained by at least one entry
+		List<BigInteger> points = new ArrayList<BigInteger>(entries.size() * 2);
+		for (Entry e : entries)
+		{
+			if (e.min != null)
+			{
+				points.add(e.min);
+			}
+			if (e.max != null)
+			{
+				points.add(e.max);
+			}
+		}
+		Node node = new Node();
+		if (points.isEmpty())
+		{
+			node.center = BigInteger.ZERO;
+		}
+		else
+		{
+			Collections.sort(points);
+			node.center = points.get(points.size() / 2);
+		}
+
+		List<Entry> left = new ArrayList<Entry>();
+		List<Entry> right = new ArrayList<Entry>();
+		List<Entry> overlapping = new ArrayList<Entry>();
+		for (Entry e : entries)
+		{
+			if (e.max != null && e.max.compareTo(node.center) < 0)
+			{
+				left.add(e);
+			}
+			else if (e.min != null && e.min.compareTo(node.center) > 0)
+			{
+				right.add(e);
+			}
+			else
+			{
+				overlapping.add(e);
+			}
+		}
+
+		node.byMin = new ArrayList<Entry>(overlapping);
+		Collections.sort(node.byMin, MIN_COMPARATOR);
+		node.byMax = overlapping;
+		Collections.sort(node.byMax, MAX_COMPARATOR);
+		node.left = build(left);
+		node.right = build(right);
+		return node;
+	}
+
+	/**
+	 * Orders entries by ascending start, with open starts first
+	 */
+	private static final Comparator<Entry> MIN_COMPARATOR = new Comparator<Entry>()
+	{
+		@Override
+		public int compare(Entry e1, Entry e2)
+		{
+			if (e1.min == null || e2.min == null)
+			{
+				return e1.min == e2.min ? 0 : e1.min == null ? -1 : 1;
+			}
+			return e1.min.compareTo(e2.min);
+		}
+	};
+
+	/**
+	 * Orders entries by descending end, with open ends first
+	 */
+	private static final Comparator<Entry> MAX_COMPARATOR = new Comparator<Entry>()
+	{
+		@Override
+		public int compare(Entry e1, Entry e2)
+		{
+			if (e1.max == null || e2.max == null)
+			{
+				return e1.max == e2.max ? 0 : e1.max == null ? -1 : 1;
+			}
+			return e2.max.compareTo(e1.max);
+		}
+	};
+
+	private static final Comparator<Entry> SEQUENCE_COMPARATOR = new Comparator<Entry>()
+	{
+		@Override
+		public int compare(Entry e1, Entry e2)
+		{
+			return e1.sequence < e2.sequence ? -1 : e1.sequence == e2.sequence ? 0 : 1;
+		}
+	};
+
+	private static class Entry
+	{
+		public final ITemporal temporal;
+		public final long sequence;
+		/** Start of the range in nanoseconds, or null if open */
+		public final BigInteger min;
+		/** End of the range in nanoseconds, or null if open */
+		public final BigInteger max;
+
+		public Entry(ITemporal temporal, long sequence)
+		{
+			this.temporal = temporal;
+			this.sequence = sequence;
+
+			Range<BigTime> range = temporal.getRange();
+			BigTime minTime = range == null ? null : range.getMinValue();
+			BigTime maxTime = range == null ? null : range.getMaxValue();
+			this.min =
+					minTime == null ? null : minTime.getNansecondsSinceEpoch().subtract(minTime.getResolution());
+			this.max = maxTime == null ? null : maxTime.getNansecondsSinceEpoch().add(maxTime.getResolution());
+		}
+	}
+
+	private static class Node
+	{
+		public BigInteger center;
+		public List<Entry> byMin;
+		public List<Entry> byMax;
+		public Node left;
+		public Node right;
+	}
+}
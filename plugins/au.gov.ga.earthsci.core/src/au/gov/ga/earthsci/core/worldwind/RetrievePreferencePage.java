@@ -22,6 +22,7 @@ import org.eclipse.jface.preference.IntegerFieldEditor;
 import au.gov.ga.earthsci.common.ui.preferences.FieldEditorPreferencePage;
 import au.gov.ga.earthsci.core.preferences.PreferenceConstants;
 import au.gov.ga.earthsci.core.preferences.ScopedPreferenceStore;
+import au.gov.ga.earthsci.core.retrieve.retriever.HttpRetrieverPreferences;
 
 /**
  * Preferences page for editing retrieval preferences.
@@ -43,5 +44,9 @@ public class RetrievePreferencePage extends FieldEditorPreferencePage
 	{
 		addField(new IntegerFieldEditor(WorldWindRetrievalServicePreferences.POOL_SIZE, "&Simultaneous connections",
 				getFieldEditorParent()));
+		addField(new IntegerFieldEditor(HttpRetrieverPreferences.CACHE_MAXIMUM_SIZE_MB,
+				"Maximum cache size in &MB (0 for unlimited)", getFieldEditorParent()));
+		addField(new IntegerFieldEditor(HttpRetrieverPreferences.CACHE_MAXIMUM_ENTRIES,
+				"Maximum cached &files (0 for unlimited)", getFieldEditorParent()));
 	}
 }
@@ -32,6 +32,7 @@ import au.gov.ga.earthsci.core.retrieve.IRetrieval;
 import au.gov.ga.earthsci.core.retrieve.IRetrievalData;
 import au.gov.ga.earthsci.core.retrieve.IRetrievalResult;
 import au.gov.ga.earthsci.core.retrieve.IRetrievalService;
+import au.gov.ga.earthsci.core.retrieve.RetrievalPriority;
 import au.gov.ga.earthsci.core.retrieve.RetrievalProperties;
 import au.gov.ga.earthsci.core.retrieve.RetrievalServiceFactory;
 import au.gov.ga.earthsci.worldwind.common.retrieve.RetrievalListenerHelper;
@@ -84,6 +85,9 @@ public class URLRetrieverWrapper extends JarRetriever
 		retrievalProperties.setConnectTimeout(getConnectTimeout());
 		retrievalProperties.setReadTimeout(getReadTimeout());
 		retrievalProperties.setUseCache(false);
+		//the world wind retrieval service has already queued this request and applied its stale limit,
+		//so submit it at the highest priority without a stale limit of its own
+		retrievalProperties.setPriority(RetrievalPriority.VISIBLE);
 		IRetrieval retrieval = service.retrieve(caller, getUrl(), retrievalProperties);
 		retrieval.start();
 		IRetrievalResult result = retrieval.waitAndGetResult();
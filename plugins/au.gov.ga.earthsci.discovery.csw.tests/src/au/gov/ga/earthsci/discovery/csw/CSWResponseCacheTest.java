@@ -0,0 +1,119 @@
+/*******************************************************************************
+ * Copyright 2026 Geoscience Australia
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package au.gov.ga.earthsci.discovery.csw;
+
+import static org.junit.Assert.*;
+
+import java.net.URL;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for the {@link CSWResponseCache} class
+ * 
+ * @author Michael de Hoog (michael.dehoog@ga.gov.au)
+ */
+public class CSWResponseCacheTest
+{
+	private URL url;
+	private CSWResponseCache classUnderTest;
+
+	@Before
+	public void setup() throws Exception
+	{
+		url = new URL("http://example.com/csw"); //$NON-NLS-1$
+		classUnderTest = new CSWResponseCache(3, 60 * 60 * 1000);
+	}
+
+	@Test
+	public void testEqualPayloadsShareEntry()
+	{
+		byte[] response = bytes("response"); //$NON-NLS-1$
+		classUnderTest.put(url, bytes("request"), response); //$NON-NLS-1$
+
+		//a different array instance with the same contents
+		assertSame(response, classUnderTest.get(url, bytes("request"))); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testDifferentPayloadMisses()
+	{
+		classUnderTest.put(url, bytes("request 1"), bytes("response")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertNull(classUnderTest.get(url, bytes("request 2"))); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testDifferentURLMisses() throws Exception
+	{
+		classUnderTest.put(url, bytes("request"), bytes("response")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertNull(classUnderTest.get(new URL("http://example.com/other"), bytes("request"))); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	@Test
+	public void testPutReplacesEntry()
+	{
+		byte[] response = bytes("response 2"); //$NON-NLS-1$
+		classUnderTest.put(url, bytes("request"), bytes("response 1")); //$NON-NLS-1$ //$NON-NLS-2$
+		classUnderTest.put(url, bytes("request"), response); //$NON-NLS-1$
+		assertSame(response, classUnderTest.get(url, bytes("request"))); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testRemove()
+	{
+		classUnderTest.put(url, bytes("request"), bytes("response")); //$NON-NLS-1$ //$NON-NLS-2$
+		classUnderTest.remove(url, bytes("request")); //$NON-NLS-1$
+		assertNull(classUnderTest.get(url, bytes("request"))); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testCapacityEvictsLeastRecentlyUsed()
+	{
+		classUnderTest.put(url, bytes("0"), bytes("response 0")); //$NON-NLS-1$ //$NON-NLS-2$
+		classUnderTest.put(url, bytes("1"), bytes("response 1")); //$NON-NLS-1$ //$NON-NLS-2$
+		classUnderTest.put(url, bytes("2"), bytes("response 2")); //$NON-NLS-1$ //$NON-NLS-2$
+		//access the oldest entry so that it becomes the most recently used
+		assertNotNull(classUnderTest.get(url, bytes("0"))); //$NON-NLS-1$
+
+		classUnderTest.put(url, bytes("3"), bytes("response 3")); //$NON-NLS-1$ //$NON-NLS-2$
+
+		assertNotNull(classUnderTest.get(url, bytes("0"))); //$NON-NLS-1$
+		assertNull(classUnderTest.get(url, bytes("1"))); //$NON-NLS-1$
+		assertNotNull(classUnderTest.get(url, bytes("2"))); //$NON-NLS-1$
+		assertNotNull(classUnderTest.get(url, bytes("3"))); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testExpiredEntryIsNotReturned() throws InterruptedException
+	{
+		classUnderTest = new CSWResponseCache(3, 50);
+		classUnderTest.put(url, bytes("request"), bytes("response")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertNotNull(classUnderTest.get(url, bytes("request"))); //$NON-NLS-1$
+
+		Thread.sleep(100);
+		assertNull(classUnderTest.get(url, bytes("request"))); //$NON-NLS-1$
+
+		//a new response is cached again after expiry
+		classUnderTest.put(url, bytes("request"), bytes("response")); //$NON-NLS-1$ //$NON-NLS-2$
+		assertNotNull(classUnderTest.get(url, bytes("request"))); //$NON-NLS-1$
+	}
+
+	private static byte[] bytes(String s)
+	{
+		return s.getBytes();
+	}
+}
@@ -0,0 +1,159 @@
+/*******************************************************************************
+ * Copyright 2026 Geoscience Australia
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package au.gov.ga.earthsci.discovery.csw;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.util.List;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.transform.stream.StreamResult;
+import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathFactory;
+
+import org.junit.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+/**
+ * Unit tests for the {@link CSWResponse} class
+ * 
+ * @author Michael de Hoog (michael.dehoog@ga.gov.au)
+ */
+public class CSWResponseTest
+{
+	private static final String NESTED_RECORDS = "<GetRecordsResponse>" //$NON-NLS-1$
+			+ "<numberOfRecordsMatched>12</numberOfRecordsMatched>" //$NON-NLS-1$
+			+ "<numberOfRecordsReturned>2</numberOfRecordsReturned>" //$NON-NLS-1$
+			+ "<Record><title>first</title><description>one</description>" //$NON-NLS-1$
+			+ "<identifier><Record><title>nested in record</title></Record></identifier>" //$NON-NLS-1$
+			+ "<numberOfRecordsReturned>5</numberOfRecordsReturned>" //$NON-NLS-1$
+			+ "<reference>http://example.com/not/in/references</reference>" //$NON-NLS-1$
+			+ "<references><reference scheme=\"WWW:LINK\">http://example.com/1</reference>" //$NON-NLS-1$
+			+ "<group><reference>http://example.com/nested</reference></group></references>" //$NON-NLS-1$
+			+ "<lowerCorner>1 1</lowerCorner>" //$NON-NLS-1$
+			+ "<boundingBox><lowerCorner>-10 100</lowerCorner><upperCorner>0 110</upperCorner></boundingBox>" //$NON-NLS-1$
+			+ "</Record>" //$NON-NLS-1$
+			+ "<results><Record><title>nested in results</title></Record></results>" //$NON-NLS-1$
+			+ "<Record><title>second</title></Record>" //$NON-NLS-1$
+			+ "</GetRecordsResponse>"; //$NON-NLS-1$
+
+	@Test
+	public void testTransformedResponseMatchesXPath() throws Exception
+	{
+		ByteArrayOutputStream transformed = new ByteArrayOutputStream();
+		InputStream is = getClass().getResourceAsStream("getrecordsresponse.xml"); //$NON-NLS-1$
+		try
+		{
+			CSWFormat.GEONETWORK2.transformResponse(is, new StreamResult(transformed));
+		}
+		finally
+		{
+			is.close();
+		}
+
+		CSWResponse response = assertMatchesXPath(transformed.toByteArray());
+		assertEquals(42, response.getNumberOfRecordsMatched());
+		assertEquals(3, response.getNumberOfRecordsReturned());
+		assertEquals(3, response.getRecords().size());
+		assertEquals("Bathymetry <250m>", response.getRecords().get(2).getTitle()); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testOnlyTopLevelRecordsAreRead() throws Exception
+	{
+		CSWResponse response = assertMatchesXPath(NESTED_RECORDS.getBytes("UTF-8")); //$NON-NLS-1$
+		assertEquals(12, response.getNumberOfRecordsMatched());
+		assertEquals(2, response.getNumberOfRecordsReturned());
+
+		List<CSWResponse.Record> records = response.getRecords();
+		assertEquals(2, records.size());
+		assertEquals("first", records.get(0).getTitle()); //$NON-NLS-1$
+		assertEquals(1, records.get(0).getReferences().size());
+		assertEquals("-10 100", records.get(0).getLowerCorner()); //$NON-NLS-1$
+		assertEquals("second", records.get(1).getTitle()); //$NON-NLS-1$
+		assertEquals("", records.get(1).getDescription()); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testOtherRootElementHasNoRecords() throws Exception
+	{
+		String document = "<Response>" + NESTED_RECORDS + "</Response>"; //$NON-NLS-1$ //$NON-NLS-2$
+		CSWResponse response = assertMatchesXPath(document.getBytes("UTF-8")); //$NON-NLS-1$
+		assertEquals(-1, response.getNumberOfRecordsMatched());
+		assertEquals(-1, response.getNumberOfRecordsReturned());
+		assertTrue(response.getRecords().isEmpty());
+	}
+
+	/**
+	 * Parse the document with {@link CSWResponse}, and assert that the parsed
+	 * values are the same as those read from a DOM using the XPath
+	 * expressions that were previously used to read the response.
+	 */
+	private static CSWResponse assertMatchesXPath(byte[] document) throws Exception
+	{
+		CSWResponse response = CSWResponse.parse(new ByteArrayInputStream(document));
+
+		Document dom =
+				DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(new ByteArrayInputStream(document));
+		XPath xpath = XPathFactory.newInstance().newXPath();
+
+		Double matched = (Double) xpath.evaluate("/GetRecordsResponse/numberOfRecordsMatched", dom, //$NON-NLS-1$
+				XPathConstants.NUMBER);
+		Double returned = (Double) xpath.evaluate("/GetRecordsResponse/numberOfRecordsReturned", dom, //$NON-NLS-1$
+				XPathConstants.NUMBER);
+		assertEquals(matched.isNaN() ? -1 : matched.intValue(), response.getNumberOfRecordsMatched());
+		assertEquals(returned.isNaN() ? -1 : returned.intValue(), response.getNumberOfRecordsReturned());
+
+		NodeList recordElements =
+				(NodeList) xpath.evaluate("/GetRecordsResponse/Record", dom, XPathConstants.NODESET); //$NON-NLS-1$
+		List<CSWResponse.Record> records = response.getRecords();
+		assertEquals(recordElements.getLength(), records.size());
+		for (int i = 0; i < records.size(); i++)
+		{
+			Element element = (Element) recordElements.item(i);
+			CSWResponse.Record record = records.get(i);
+
+			assertEquals(xpath.evaluate("title/text()", element), record.getTitle()); //$NON-NLS-1$
+			assertEquals(xpath.evaluate("description/text()", element), record.getDescription()); //$NON-NLS-1$
+			assertEquals(xpath.evaluate("boundingBox/lowerCorner/text()", element), //$NON-NLS-1$
+					nullToEmpty(record.getLowerCorner()));
+			assertEquals(xpath.evaluate("boundingBox/upperCorner/text()", element), //$NON-NLS-1$
+					nullToEmpty(record.getUpperCorner()));
+
+			NodeList referenceElements =
+					(NodeList) xpath.evaluate("references/reference", element, XPathConstants.NODESET); //$NON-NLS-1$
+			assertEquals(referenceElements.getLength(), record.getReferences().size());
+			for (int j = 0; j < referenceElements.getLength(); j++)
+			{
+				Element referenceElement = (Element) referenceElements.item(j);
+				assertEquals(referenceElement.getTextContent(), record.getReferences().get(j));
+				assertEquals(referenceElement.getAttribute("scheme"), record.getReferenceSchemes().get(j)); //$NON-NLS-1$
+			}
+		}
+		return response;
+	}
+
+	private static String nullToEmpty(String s)
+	{
+		return s == null ? "" : s; //$NON-NLS-1$
+	}
+}
@@ -15,29 +15,26 @@
  ******************************************************************************/
 package au.gov.ga.earthsci.discovery.csw;
 
-import gov.nasa.worldwind.util.WWXML;
-
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.StringReader;
 import java.io.UnsupportedEncodingException;
+import java.net.URL;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.xpath.XPath;
-import javax.xml.xpath.XPathConstants;
-
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.NodeList;
-import org.xml.sax.InputSource;
+import javax.xml.transform.stream.StreamResult;
 
+import au.gov.ga.earthsci.common.util.Util;
 import au.gov.ga.earthsci.core.retrieve.IRetrieval;
 import au.gov.ga.earthsci.core.retrieve.IRetrievalListener;
 import au.gov.ga.earthsci.core.retrieve.RetrievalAdapter;
+import au.gov.ga.earthsci.core.retrieve.RetrievalPriority;
 import au.gov.ga.earthsci.core.retrieve.RetrievalServiceFactory;
 import au.gov.ga.earthsci.core.retrieve.retriever.HttpRetrievalProperties;
 import au.gov.ga.earthsci.discovery.AbstractDiscovery;
@@ -49,18 +46,35 @@ import au.gov.ga.earthsci.discovery.IDiscoveryResultLabelProvider;
 
 /**
  * {@link IDiscovery} implementation for a CSW service.
+ * <p/>
+ * Pages of results are retrieved as they are requested, and the pages
+ * following the requested page are prefetched, so that scrolling through the
+ * results doesn't wait on the server. Responses are stored in the
+ * {@link CSWResponseCache}, so pages that have already been retrieved are not
+ * requested from the server again.
  * 
  * @author Michael de Hoog (michael.dehoog@ga.gov.au)
  */
 public class CSWDiscovery extends AbstractDiscovery<CSWDiscoveryService, IDiscoveryParameters>
 {
+	/**
+	 * Number of pages after the requested page to prefetch
+	 */
+	public static final int PREFETCH_PAGES = 2;
+
 	private final IDiscoveryResultLabelProvider labelProvider = new CSWDiscoveryResultLabelProvider();
 	private final Map<Integer, CSWDiscoveryResult> results = new HashMap<Integer, CSWDiscoveryResult>();
 
 	private final Map<IRetrieval, String> retrievals = new HashMap<IRetrieval, String>();
 	private final Map<IRetrieval, Integer> retrievalStarts = new HashMap<IRetrieval, Integer>();
+	private final Map<IRetrieval, byte[]> retrievalPayloads = new HashMap<IRetrieval, byte[]>();
 	private final Set<String> retrievalIds = new HashSet<String>();
 
+	private final CSWResponseCache responseCache = CSWResponseCache.getInstance();
+
+	private final List<CSWDiscoveryResult> pendingResults = new ArrayList<CSWDiscoveryResult>();
+	private boolean pendingResultCountChanged = false;
+
 	public CSWDiscovery(CSWDiscoveryService service, IDiscoveryParameters parameters)
 	{
 		super(service, parameters);
@@ -75,7 +89,7 @@ public class CSWDiscovery extends AbstractDiscovery<CSWDiscoveryService, IDiscov
 	@Override
 	public void start()
 	{
-		retrieve(0, 0);
+		retrieve(0, 0, RetrievalPriority.VISIBLE);
 	}
 
 	@Override
@@ -90,6 +104,7 @@ public class CSWDiscovery extends AbstractDiscovery<CSWDiscoveryService, IDiscov
 			retrievals.clear();
 			retrievalIds.clear();
 			retrievalStarts.clear();
+			retrievalPayloads.clear();
 		}
 	}
 
@@ -97,6 +112,7 @@ public class CSWDiscovery extends AbstractDiscovery<CSWDiscoveryService, IDiscov
 	public CSWDiscoveryResult getResult(int index) throws DiscoveryResultNotFoundException,
 			DiscoveryIndexOutOfBoundsException
 	{
+		CSWDiscoveryResult result;
 		synchronized (retrievals)
 		{
 			if (index < 0 || (resultCount != null && index >= resultCount))
@@ -104,17 +120,19 @@ public class CSWDiscovery extends AbstractDiscovery<CSWDiscoveryService, IDiscov
 				throw new DiscoveryIndexOutOfBoundsException();
 			}
 
-			if (results.containsKey(index))
-			{
-				return results.get(index);
-			}
-
 			int pageSize = getPageSize();
 			int start = (index / pageSize) * pageSize;
-			retrieve(start, pageSize);
+			if (!results.containsKey(index))
+			{
+				//if the page is cached, this will add the result immediately
+				retrieve(start, pageSize, RetrievalPriority.VISIBLE);
+			}
+			prefetch(start + pageSize, pageSize);
 
-			return null;
+			result = results.get(index);
 		}
+		firePendingEvents();
+		return result;
 	}
 
 	@Override
@@ -123,7 +141,49 @@ public class CSWDiscovery extends AbstractDiscovery<CSWDiscoveryService, IDiscov
 		return true;
 	}
 
-	protected void retrieve(int start, int length)
+	/**
+	 * Retrieve the {@link #PREFETCH_PAGES} pages starting at the given index,
+	 * if they haven't already been retrieved. The pages are retrieved with the
+	 * {@link RetrievalPriority#PREFETCH} priority, so they don't delay the
+	 * retrieval of pages that are being displayed.
+	 * 
+	 * @param start
+	 *            Index of the first result in the first page to prefetch
+	 * @param pageSize
+	 *            Number of results in each page
+	 */
+	protected void prefetch(int start, int pageSize)
+	{
+		synchronized (retrievals)
+		{
+			if (resultCount == null)
+			{
+				return;
+			}
+			for (int i = 0; i < PREFETCH_PAGES; i++)
+			{
+				int pageStart = start + i * pageSize;
+				if (pageStart >= resultCount)
+				{
+					break;
+				}
+				if (!results.containsKey(pageStart))
+				{
+					retrieve(pageStart, pageSize, RetrievalPriority.PREFETCH);
+				}
+			}
+		}
+		firePendingEvents();
+	}
+
+	protected void retrieve(int start, int length, RetrievalPriority priority)
+	{
+		startRetrieval(start, length, priority);
+		//fires the results read from a cached response
+		firePendingEvents();
+	}
+
+	private void startRetrieval(int start, int length, RetrievalPriority priority)
 	{
 		synchronized (retrievals)
 		{
@@ -131,11 +191,20 @@ public class CSWDiscovery extends AbstractDiscovery<CSWDiscoveryService, IDiscov
 
 			if (retrievalIds.contains(id))
 			{
-				//already retrieving this range
+				//already retrieving this range, possibly as a prefetch, so raise its priority if required
+				for (Map.Entry<IRetrieval, String> entry : retrievals.entrySet())
+				{
+					IRetrieval retrieval = entry.getKey();
+					if (id.equals(entry.getValue()) && priority.isHigherThan(retrieval.getPriority()))
+					{
+						retrieval.setPriority(priority);
+					}
+				}
 				return;
 			}
 
 			HttpRetrievalProperties retrievalProperties = new HttpRetrievalProperties();
+			retrievalProperties.setPriority(priority);
 			retrievalProperties.setRequestMethod("POST"); //$NON-NLS-1$
 			retrievalProperties.setUseCache(false);
 			retrievalProperties.setContentType("text/xml"); //$NON-NLS-1$
@@ -144,9 +213,10 @@ public class CSWDiscovery extends AbstractDiscovery<CSWDiscoveryService, IDiscov
 			requestParameters.any = parameters.getQuery();
 			String query = service.getFormat().generateRequest(requestParameters, start + 1, length);
 
+			byte[] payload = null;
 			try
 			{
-				byte[] payload = query.getBytes("UTF-8"); //$NON-NLS-1$
+				payload = query.getBytes("UTF-8"); //$NON-NLS-1$
 				retrievalProperties.setRequestPayload(payload);
 			}
 			catch (UnsupportedEncodingException e)
@@ -154,18 +224,123 @@ public class CSWDiscovery extends AbstractDiscovery<CSWDiscoveryService, IDiscov
 				e.printStackTrace();
 			}
 
-			IRetrieval retrieval =
-					RetrievalServiceFactory.getServiceInstance().retrieve(this, service.getServiceURL(),
-							retrievalProperties, true);
+			URL url = service.getServiceURL();
+			if (payload != null)
+			{
+				byte[] cached = responseCache.get(url, payload);
+				if (cached != null)
+				{
+					try
+					{
+						readResponse(cached, start);
+						return;
+					}
+					catch (Exception e)
+					{
+						//cached response is unusable, so retrieve it again
+						responseCache.remove(url, payload);
+					}
+				}
+			}
+
+			IRetrieval retrieval = RetrievalServiceFactory.getServiceInstance().retrieve(this, url,
+					retrievalProperties, true);
 			retrievalIds.add(id);
 			retrievals.put(retrieval, id);
 			retrievalStarts.put(retrieval, start);
+			retrievalPayloads.put(retrieval, payload);
 			retrieval.addListener(retrievalListener);
 			retrieval.start();
 			loading = true;
 		}
 	}
 
+	/**
+	 * Read the results from a GetRecordsResponse. The response is transformed
+	 * to the common XML document by the service's {@link CSWFormat}, and the
+	 * transformed document is read by a {@link CSWResponse} stream parser.
+	 * <p/>
+	 * Must be called while holding the retrievals lock. The listeners are not
+	 * notified until {@link #firePendingEvents()} is called.
+	 * 
+	 * @param response
+	 *            Response from the CSW server
+	 * @param startIndex
+	 *            Index of the first result in the response
+	 * @throws Exception
+	 *             If the response could not be read
+	 */
+	protected void readResponse(byte[] response, int startIndex) throws Exception
+	{
+		ByteArrayOutputStream transformed = new ByteArrayOutputStream();
+		service.getFormat().transformResponse(new ByteArrayInputStream(response), new StreamResult(transformed));
+		CSWResponse parsed = CSWResponse.parse(new ByteArrayInputStream(transformed.toByteArray()));
+
+		int totalRecordCount = parsed.getNumberOfRecordsMatched();
+		if (totalRecordCount >= 0)
+		{
+			if (resultCount == null || resultCount != totalRecordCount)
+			{
+				resultCount = totalRecordCount;
+				pendingResultCountChanged = true;
+			}
+		}
+
+		int count = parsed.getNumberOfRecordsReturned();
+		if (count > 0)
+		{
+			List<CSWResponse.Record> records = parsed.getRecords();
+			if (records.size() != count)
+			{
+				throw new Exception(
+						"Number of record elements in the CSW response doesn't match the number of records attribute"); //$NON-NLS-1$
+			}
+			for (int i = 0; i < count; i++)
+			{
+				int index = startIndex + i;
+				CSWDiscoveryResult result = new CSWDiscoveryResult(this, index, records.get(i));
+				results.put(index, result);
+				pendingResults.add(result);
+			}
+		}
+	}
+
+	/**
+	 * Notify the listeners of the result count change and results added by
+	 * {@link #readResponse(byte[], int)}. Listeners are not called while the
+	 * retrievals lock is held, so that they can call back into this discovery
+	 * from another thread without deadlocking; if the calling thread holds the
+	 * lock, the events are left for the outermost caller to fire.
+	 */
+	protected void firePendingEvents()
+	{
+		if (Thread.holdsLock(retrievals))
+		{
+			return;
+		}
+		boolean resultCountChanged;
+		List<CSWDiscoveryResult> added;
+		synchronized (retrievals)
+		{
+			resultCountChanged = pendingResultCountChanged;
+			pendingResultCountChanged = false;
+			if (!resultCountChanged && pendingResults.isEmpty())
+			{
+				return;
+			}
+			added = new ArrayList<CSWDiscoveryResult>(pendingResults);
+			pendingResults.clear();
+		}
+		if (resultCountChanged)
+		{
+			listeners.resultCountChanged(this);
+		}
+		for (CSWDiscoveryResult result : added)
+		{
+			listeners.resultAdded(this, result);
+		}
+	}
+
 	private IRetrievalListener retrievalListener = new RetrievalAdapter()
 	{
 		@Override
@@ -180,6 +355,7 @@ public class CSWDiscovery extends AbstractDiscovery<CSWDiscoveryService, IDiscov
 				}
 				retrievalIds.remove(id);
 				int startIndex = retrievalStarts.remove(retrieval);
+				byte[] payload = retrievalPayloads.remove(retrieval);
 				loading = !retrievals.isEmpty();
 
 				if (retrieval.getResult().isSuccessful())
@@ -188,50 +364,14 @@ public class CSWDiscovery extends AbstractDiscovery<CSWDiscoveryService, IDiscov
 					try
 					{
 						is = retrieval.getData().getInputStream();
-						String transformed = service.getFormat().transformResponse(is);
+						ByteArrayOutputStream baos = new ByteArrayOutputStream();
+						Util.writeInputStreamToOutputStream(is, baos);
+						byte[] response = baos.toByteArray();
 
-						if (transformed != null)
+						readResponse(response, startIndex);
+						if (payload != null)
 						{
-							DocumentBuilder builder = WWXML.createDocumentBuilder(false);
-							Document document = builder.parse(new InputSource(new StringReader(transformed)));
-
-							XPath xpath = WWXML.makeXPath();
-							Double totalRecordCount =
-									(Double) xpath.compile("/GetRecordsResponse/numberOfRecordsMatched") //$NON-NLS-1$
-											.evaluate(document, XPathConstants.NUMBER);
-							Double numberOfRecordsReturned =
-									(Double) xpath.compile("/GetRecordsResponse/numberOfRecordsReturned") //$NON-NLS-1$
-											.evaluate(document, XPathConstants.NUMBER);
-							if (!Double.isNaN(totalRecordCount))
-							{
-								int newResultCount = totalRecordCount.intValue();
-								if (resultCount == null || resultCount != newResultCount)
-								{
-									resultCount = newResultCount;
-									listeners.resultCountChanged(CSWDiscovery.this);
-								}
-							}
-							if (!Double.isNaN(numberOfRecordsReturned) && numberOfRecordsReturned > 0)
-							{
-								int count = numberOfRecordsReturned.intValue();
-								NodeList recordElements =
-										(NodeList) xpath.compile("/GetRecordsResponse/Record").evaluate( //$NON-NLS-1$
-												document, XPathConstants.NODESET);
-								if (recordElements.getLength() != count)
-								{
-									throw new Exception(
-											"Number of record elements in the CSW response doesn't match the number of records attribute"); //$NON-NLS-1$
-								}
-								for (int i = 0; i < count; i++)
-								{
-									Element recordElement = (Element) recordElements.item(i);
-									int index = startIndex + i;
-									CSWDiscoveryResult result =
-											new CSWDiscoveryResult(CSWDiscovery.this, index, recordElement);
-									results.put(index, result);
-									listeners.resultAdded(CSWDiscovery.this, result);
-								}
-							}
+							responseCache.put(service.getServiceURL(), payload, response);
 						}
 					}
 					catch (Exception e)
@@ -258,6 +398,7 @@ public class CSWDiscovery extends AbstractDiscovery<CSWDiscoveryService, IDiscov
 					error = retrieval.getResult().getError();
 				}
 			}
+			firePendingEvents();
 		}
 	};
 }
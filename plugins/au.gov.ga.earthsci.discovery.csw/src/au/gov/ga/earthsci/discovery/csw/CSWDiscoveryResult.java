@@ -16,7 +16,6 @@
 package au.gov.ga.earthsci.discovery.csw;
 
 import gov.nasa.worldwind.geom.Sector;
-import gov.nasa.worldwind.util.WWXML;
 
 import java.net.MalformedURLException;
 import java.net.URL;
@@ -25,13 +24,7 @@ import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
-import javax.xml.xpath.XPath;
-import javax.xml.xpath.XPathConstants;
-import javax.xml.xpath.XPathExpressionException;
-
 import org.apache.commons.lang3.StringEscapeUtils;
-import org.w3c.dom.Element;
-import org.w3c.dom.NodeList;
 
 import au.gov.ga.earthsci.discovery.AbstractDiscoveryResult;
 import au.gov.ga.earthsci.discovery.IDiscoveryResult;
@@ -106,25 +99,22 @@ public class CSWDiscoveryResult extends AbstractDiscoveryResult<CSWDiscovery>
 	</Record>	
 	 */
 
+	private static final String DOUBLE_GROUP = "([-+]?(?:\\d*\\.?\\d+)|(?:\\d+\\.))"; //$NON-NLS-1$
+	private static final Pattern CORNER_PATTERN = Pattern.compile("\\s*" + DOUBLE_GROUP + "\\s+" + DOUBLE_GROUP //$NON-NLS-1$ //$NON-NLS-2$
+			+ "\\s*"); //$NON-NLS-1$
+
 	private final String title;
 	private final String description;
 	private final List<URL> references = new ArrayList<URL>();
 	private final List<String> referenceSchemes = new ArrayList<String>();
 	private final Bounds bounds;
 
-	public CSWDiscoveryResult(CSWDiscovery discovery, int index, Element cswRecordElement)
-			throws XPathExpressionException
+	public CSWDiscoveryResult(CSWDiscovery discovery, int index, CSWResponse.Record record)
 	{
 		super(discovery, index);
 
-		XPath xpath = WWXML.makeXPath();
-
-		String title = (String) xpath.compile("title/text()").evaluate(cswRecordElement, XPathConstants.STRING); //$NON-NLS-1$
-		title = StringEscapeUtils.unescapeXml(title);
-
-		String description =
-				(String) xpath.compile("description/text()").evaluate(cswRecordElement, XPathConstants.STRING); //$NON-NLS-1$
-		description = StringEscapeUtils.unescapeXml(description);
+		String title = StringEscapeUtils.unescapeXml(record.getTitle());
+		String description = StringEscapeUtils.unescapeXml(record.getDescription());
 
 		//normalize newlines
 		description = description.replace("\r\n", "\n").replace("\r", "\n"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$ //$NON-NLS-4$
@@ -133,17 +123,13 @@ public class CSWDiscoveryResult extends AbstractDiscoveryResult<CSWDiscovery>
 		this.description = description;
 
 
-		NodeList referenceElements =
-				(NodeList) xpath.compile("references/reference").evaluate(cswRecordElement, XPathConstants.NODESET); //$NON-NLS-1$
-		for (int i = 0; i < referenceElements.getLength(); i++)
+		for (int i = 0; i < record.getReferences().size(); i++)
 		{
-			Element referenceElement = (Element) referenceElements.item(i);
-			String scheme = referenceElement.getAttribute("scheme"); //$NON-NLS-1$
 			try
 			{
-				URL url = new URL(referenceElement.getTextContent());
+				URL url = new URL(record.getReferences().get(i));
 				references.add(url);
-				referenceSchemes.add(scheme);
+				referenceSchemes.add(record.getReferenceSchemes().get(i));
 			}
 			catch (MalformedURLException e)
 			{
@@ -151,20 +137,14 @@ public class CSWDiscoveryResult extends AbstractDiscoveryResult<CSWDiscovery>
 		}
 
 		Sector bounds = null;
-		String min =
-				(String) xpath
-						.compile("boundingBox/lowerCorner/text()").evaluate(cswRecordElement, XPathConstants.STRING); //$NON-NLS-1$
-		String max =
-				(String) xpath
-						.compile("boundingBox/upperCorner/text()").evaluate(cswRecordElement, XPathConstants.STRING); //$NON-NLS-1$
+		String min = record.getLowerCorner();
+		String max = record.getUpperCorner();
 		if (!Util.isBlank(min) && !Util.isBlank(max))
 		{
 			min = StringEscapeUtils.unescapeXml(min);
 			max = StringEscapeUtils.unescapeXml(max);
-			String doubleGroup = "([-+]?(?:\\d*\\.?\\d+)|(?:\\d+\\.))"; //$NON-NLS-1$
-			Pattern pattern = Pattern.compile("\\s*" + doubleGroup + "\\s+" + doubleGroup + "\\s*"); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
-			Matcher minMatcher = pattern.matcher(min);
-			Matcher maxMatcher = pattern.matcher(max);
+			Matcher minMatcher = CORNER_PATTERN.matcher(min);
+			Matcher maxMatcher = CORNER_PATTERN.matcher(max);
 			if (minMatcher.matches() && maxMatcher.matches())
 			{
 				double minLon = Double.parseDouble(minMatcher.group(1));
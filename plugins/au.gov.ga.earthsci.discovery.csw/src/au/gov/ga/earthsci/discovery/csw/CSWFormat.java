@@ -20,7 +20,7 @@ import java.io.InputStream;
 import java.io.StringWriter;
 
 import javax.xml.transform.Result;
-import javax.xml.transform.Source;
+import javax.xml.transform.Templates;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerException;
 import javax.xml.transform.TransformerFactory;
@@ -100,6 +100,8 @@ public enum CSWFormat
 	public final String version;
 	public final String label;
 
+	private Templates responseTemplates;
+
 	private CSWFormat(String directory, String version, String label)
 	{
 		this.directory = directory;
@@ -270,35 +272,64 @@ public enum CSWFormat
 	 */
 	public String transformResponse(InputStream response)
 	{
-		String filename = "catalogs/" + directory + "/" + version + "/response.xsl";
-		InputStream xslis = getClass().getResourceAsStream(filename);
-		Source xslSource = new StreamSource(xslis);
-
-		Source xmlSource = new StreamSource(response);
-
 		StringWriter stringWriter = new StringWriter();
-		Result result = new StreamResult(stringWriter);
-
 		try
 		{
-			TransformerFactory transformerFactory = TransformerFactory.newInstance();
-			Transformer transformer = transformerFactory.newTransformer(xslSource);
-			transformer.transform(xmlSource, result);
+			transformResponse(response, new StreamResult(stringWriter));
 		}
 		catch (TransformerException e)
 		{
 			e.printStackTrace();
 		}
-		finally
+		return stringWriter.toString();
+	}
+
+	/**
+	 * Transform the CSW response to a common XML document using this format's
+	 * XSLT transform, writing the transformed document to the given result.
+	 * 
+	 * @param response
+	 *            Response to transform
+	 * @param result
+	 *            Result to write the transformed response to
+	 * @throws TransformerException
+	 *             If the response could not be transformed
+	 * @see CSWResponse#parse(InputStream)
+	 */
+	public void transformResponse(InputStream response, Result result) throws TransformerException
+	{
+		Transformer transformer = getResponseTemplates().newTransformer();
+		transformer.transform(new StreamSource(response), result);
+	}
+
+	/**
+	 * @return The compiled XSLT transform for this format's responses; the
+	 *         stylesheet is only compiled the first time this is called
+	 * @throws TransformerException
+	 *             If the stylesheet could not be compiled
+	 */
+	private synchronized Templates getResponseTemplates() throws TransformerException
+	{
+		if (responseTemplates == null)
 		{
+			String filename = "catalogs/" + directory + "/" + version + "/response.xsl";
+			InputStream xslis = getClass().getResourceAsStream(filename);
 			try
 			{
-				xslis.close();
+				TransformerFactory transformerFactory = TransformerFactory.newInstance();
+				responseTemplates = transformerFactory.newTemplates(new StreamSource(xslis));
 			}
-			catch (IOException e)
+			finally
 			{
+				try
+				{
+					xslis.close();
+				}
+				catch (IOException e)
+				{
+				}
 			}
 		}
-		return stringWriter.toString();
+		return responseTemplates;
 	}
 }
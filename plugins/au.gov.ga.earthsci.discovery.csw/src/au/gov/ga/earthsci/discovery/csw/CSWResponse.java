@@ -0,0 +1,318 @@
+/*******************************************************************************
+ * Copyright 2026 Geoscience Australia
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package au.gov.ga.earthsci.discovery.csw;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * A GetRecordsResponse, after it has been transformed to the common XML
+ * document by {@link CSWFormat#transformResponse(InputStream)}.
+ * <p/>
+ * The document is read in a single pass using a StAX stream reader; no DOM is
+ * built, and no XPath expressions are evaluated. Only the elements at the
+ * expected paths are read: the counts and records are the
+ * children of the <code>/GetRecordsResponse</code> root element, so elements
+ * with the same names nested elsewhere in the document are ignored.
+ * 
+ * @author Michael de Hoog (michael.dehoog@ga.gov.au)
+ */
+public class CSWResponse
+{
+	private static final XMLInputFactory inputFactory = XMLInputFactory.newInstance();
+
+	private int numberOfRecordsMatched = -1;
+	private int numberOfRecordsReturned = -1;
+	private final List<Record> records = new ArrayList<Record>();
+
+	/**
+	 * Parse a transformed GetRecordsResponse document.
+	 * 
+	 * @param is
+	 *            Transformed response document
+	 * @return Parsed response
+	 * @throws XMLStreamException
+	 *             If the document could not be parsed
+	 */
+	public static CSWResponse parse(InputStream is) throws XMLStreamException
+	{
+		CSWResponse response = new CSWResponse();
+		XMLStreamReader reader;
+		synchronized (inputFactory)
+		{
+			reader = inputFactory.createXMLStreamReader(is);
+		}
+		try
+		{
+			//only the children of the /GetRecordsResponse root element are read
+			if (!nextChild(reader) || !"GetRecordsResponse".equals(reader.getLocalName())) //$NON-NLS-1$
+			{
+				return response;
+			}
+			while (nextChild(reader))
+			{
+				String name = reader.getLocalName();
+				if ("Record".equals(name)) //$NON-NLS-1$
+				{
+					response.records.add(parseRecord(reader));
+				}
+				else if ("numberOfRecordsMatched".equals(name)) //$NON-NLS-1$
+				{
+					response.numberOfRecordsMatched = parseCount(readText(reader));
+				}
+				else if ("numberOfRecordsReturned".equals(name)) //$NON-NLS-1$
+				{
+					response.numberOfRecordsReturned = parseCount(readText(reader));
+				}
+				else
+				{
+					skipElement(reader);
+				}
+			}
+		}
+		finally
+		{
+			reader.close();
+		}
+		return response;
+	}
+
+	/**
+	 * Read the <code>title</code>, <code>description</code>,
+	 * <code>references/reference</code> and
+	 * <code>boundingBox/lowerCorner|upperCorner</code> paths relative to a
+	 * &lt;Record&gt; element. The first matching element is used for the
+	 * single valued paths.
+	 */
+	private static Record parseRecord(XMLStreamReader reader) throws XMLStreamException
+	{
+		Record record = new Record();
+		while (nextChild(reader))
+		{
+			String name = reader.getLocalName();
+			if ("title".equals(name)) //$NON-NLS-1$
+			{
+				String title = readText(reader);
+				record.title = record.title == null ? title : record.title;
+			}
+			else if ("description".equals(name)) //$NON-NLS-1$
+			{
+				String description = readText(reader);
+				record.description = record.description == null ? description : record.description;
+			}
+			else if ("references".equals(name)) //$NON-NLS-1$
+			{
+				while (nextChild(reader))
+				{
+					if ("reference".equals(reader.getLocalName())) //$NON-NLS-1$
+					{
+						String scheme = reader.getAttributeValue(null, "scheme"); //$NON-NLS-1$
+						record.references.add(readText(reader));
+						record.referenceSchemes.add(scheme == null ? "" : scheme); //$NON-NLS-1$
+					}
+					else
+					{
+						skipElement(reader);
+					}
+				}
+			}
+			else if ("boundingBox".equals(name)) //$NON-NLS-1$
+			{
+				while (nextChild(reader))
+				{
+					String cornerName = reader.getLocalName();
+					if ("lowerCorner".equals(cornerName) && record.lowerCorner == null) //$NON-NLS-1$
+					{
+						record.lowerCorner = readText(reader);
+					}
+					else if ("upperCorner".equals(cornerName) && record.upperCorner == null) //$NON-NLS-1$
+					{
+						record.upperCorner = readText(reader);
+					}
+					else
+					{
+						skipElement(reader);
+					}
+				}
+			}
+			else
+			{
+				skipElement(reader);
+			}
+		}
+		return record;
+	}
+
+	/**
+	 * Move to the next child element of the current element, skipping any
+	 * text.
+	 * 
+	 * @return True if the reader is positioned at the start of a child
+	 *         element, false if it is positioned at the end of the current
+	 *         element
+	 */
+	private static boolean nextChild(XMLStreamReader reader) throws XMLStreamException
+	{
+		while (true)
+		{
+			int event = reader.next();
+			if (event == XMLStreamConstants.START_ELEMENT)
+			{
+				return true;
+			}
+			if (event == XMLStreamConstants.END_ELEMENT)
+			{
+				return false;
+			}
+		}
+	}
+
+	/**
+	 * Read the text content of the current element, including the text of any
+	 * descendant elements, leaving the reader positioned at its end element.
+	 */
+	private static String readText(XMLStreamReader reader) throws XMLStreamException
+	{
+		StringBuilder sb = new StringBuilder();
+		int depth = 1;
+		while (depth > 0)
+		{
+			int event = reader.next();
+			if (event == XMLStreamConstants.START_ELEMENT)
+			{
+				depth++;
+			}
+			else if (event == XMLStreamConstants.END_ELEMENT)
+			{
+				depth--;
+			}
+			else if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA
+					|| event == XMLStreamConstants.SPACE)
+			{
+				sb.append(reader.getText());
+			}
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Skip the current element and its descendants, leaving the reader
+	 * positioned at its end element.
+	 */
+	private static void skipElement(XMLStreamReader reader) throws XMLStreamException
+	{
+		int depth = 1;
+		while (depth > 0)
+		{
+			int event = reader.next();
+			if (event == XMLStreamConstants.START_ELEMENT)
+			{
+				depth++;
+			}
+			else if (event == XMLStreamConstants.END_ELEMENT)
+			{
+				depth--;
+			}
+		}
+	}
+
+	private static int parseCount(String text)
+	{
+		try
+		{
+			return (int) Double.parseDouble(text.trim());
+		}
+		catch (NumberFormatException e)
+		{
+			return -1;
+		}
+	}
+
+	/**
+	 * @return The total number of records matching the query, or -1 if unknown
+	 */
+	public int getNumberOfRecordsMatched()
+	{
+		return numberOfRecordsMatched;
+	}
+
+	/**
+	 * @return The number of records returned in this response, or -1 if
+	 *         unknown
+	 */
+	public int getNumberOfRecordsReturned()
+	{
+		return numberOfRecordsReturned;
+	}
+
+	/**
+	 * @return The records in this response
+	 */
+	public List<Record> getRecords()
+	{
+		return Collections.unmodifiableList(records);
+	}
+
+	/**
+	 * A single &lt;Record&gt; element from the transformed response.
+	 */
+	public static class Record
+	{
+		private String title;
+		private String description;
+		private final List<String> references = new ArrayList<String>();
+		private final List<String> referenceSchemes = new ArrayList<String>();
+		private String lowerCorner;
+		private String upperCorner;
+
+		public String getTitle()
+		{
+			return title == null ? "" : title; //$NON-NLS-1$
+		}
+
+		public String getDescription()
+		{
+			return description == null ? "" : description; //$NON-NLS-1$
+		}
+
+		public List<String> getReferences()
+		{
+			return references;
+		}
+
+		public List<String> getReferenceSchemes()
+		{
+			return referenceSchemes;
+		}
+
+		public String getLowerCorner()
+		{
+			return lowerCorner;
+		}
+
+		public String getUpperCorner()
+		{
+			return upperCorner;
+		}
+	}
+}
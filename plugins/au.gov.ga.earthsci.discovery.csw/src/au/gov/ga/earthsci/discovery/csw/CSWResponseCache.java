@@ -0,0 +1,193 @@
+/*******************************************************************************
+ * Copyright 2026 Geoscience Australia
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package au.gov.ga.earthsci.discovery.csw;
+
+import java.net.URL;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded, least-recently-used cache of CSW GetRecords responses, keyed by the
+ * service URL and the POST request payload.
+ * <p/>
+ * CSW queries are sent as POST requests, which the retrieval service doesn't
+ * cache, as its cache is keyed by URL only. This cache allows pages that have
+ * already been retrieved to be reused when the user pages back and forth
+ * through the results, or repeats a search.
+ * 
+ * @author Michael de Hoog (michael.dehoog@ga.gov.au)
+ */
+public class CSWResponseCache
+{
+	public static final int DEFAULT_CAPACITY = 64;
+	public static final long DEFAULT_EXPIRY = 10 * 60 * 1000;
+
+	private static final CSWResponseCache instance = new CSWResponseCache();
+
+	private final Map<Key, CacheEntry> entries;
+	private final long expiry;
+
+	/**
+	 * @return The shared cache instance
+	 */
+	public static CSWResponseCache getInstance()
+	{
+		return instance;
+	}
+
+	public CSWResponseCache()
+	{
+		this(DEFAULT_CAPACITY, DEFAULT_EXPIRY);
+	}
+
+	/**
+	 * @param capacity
+	 *            Maximum number of responses to cache
+	 * @param expiry
+	 *            Time in milliseconds after which a cached response is no
+	 *            longer used
+	 */
+	public CSWResponseCache(final int capacity, long expiry)
+	{
+		this.expiry = expiry;
+		entries = new LinkedHashMap<Key, CacheEntry>(16, 0.75f, true)
+		{
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, CacheEntry> eldest)
+			{
+				return size() > capacity;
+			}
+		};
+	}
+
+	/**
+	 * Get the cached response for the given request.
+	 * 
+	 * @param url
+	 *            Service URL the request was sent to
+	 * @param payload
+	 *            Request payload
+	 * @return Cached response, or null if there is no unexpired response
+	 *         cached
+	 */
+	public byte[] get(URL url, byte[] payload)
+	{
+		Key key = new Key(url, payload);
+		synchronized (entries)
+		{
+			CacheEntry entry = entries.get(key);
+			if (entry == null)
+			{
+				return null;
+			}
+			if (System.currentTimeMillis() - entry.time > expiry)
+			{
+				entries.remove(key);
+				return null;
+			}
+			return entry.response;
+		}
+	}
+
+	/**
+	 * Cache the response for the given request.
+	 * 
+	 * @param url
+	 *            Service URL the request was sent to
+	 * @param payload
+	 *            Request payload
+	 * @param response
+	 *            Response to cache
+	 */
+	public void put(URL url, byte[] payload, byte[] response)
+	{
+		synchronized (entries)
+		{
+			entries.put(new Key(url, payload), new CacheEntry(System.currentTimeMillis(), response));
+		}
+	}
+
+	/**
+	 * Remove the cached response for the given request.
+	 * 
+	 * @param url
+	 *            Service URL the request was sent to
+	 * @param payload
+	 *            Request payload
+	 */
+	public void remove(URL url, byte[] payload)
+	{
+		synchronized (entries)
+		{
+			entries.remove(new Key(url, payload));
+		}
+	}
+
+	/**
+	 * Remove all entries from this cache.
+	 */
+	public void clear()
+	{
+		synchronized (entries)
+		{
+			entries.clear();
+		}
+	}
+
+	private static class Key
+	{
+		private final String url;
+		private final byte[] payload;
+		private final int hashCode;
+
+		public Key(URL url, byte[] payload)
+		{
+			this.url = url.toExternalForm();
+			this.payload = payload;
+			this.hashCode = 31 * this.url.hashCode() + Arrays.hashCode(payload);
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return hashCode;
+		}
+
+		@Override
+		public boolean equals(Object obj)
+		{
+			if (!(obj instanceof Key))
+			{
+				return false;
+			}
+			Key other = (Key) obj;
+			return hashCode == other.hashCode && url.equals(other.url) && Arrays.equals(payload, other.payload);
+		}
+	}
+
+	private static class CacheEntry
+	{
+		public final long time;
+		public final byte[] response;
+
+		public CacheEntry(long time, byte[] response)
+		{
+			this.time = time;
+			this.response = response;
+		}
+	}
+}
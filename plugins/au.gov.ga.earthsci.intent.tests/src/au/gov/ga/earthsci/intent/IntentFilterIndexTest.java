@@ -0,0 +1,232 @@
+/*******************************************************************************
+ * Copyright 2026 Geoscience Australia
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package au.gov.ga.earthsci.intent;
+
+import static org.junit.Assert.*;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.core.runtime.content.IContentType;
+import org.jmock.Expectations;
+import org.jmock.Mockery;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for the {@link IntentFilterIndex} class
+ * 
+ * @author Michael de Hoog (michael.dehoog@ga.gov.au)
+ */
+public class IntentFilterIndexTest
+{
+	private Mockery mockContext;
+	private final Map<IContentType, IContentType> baseTypes = new HashMap<IContentType, IContentType>();
+	private IContentType text;
+	private IContentType xml;
+	private IContentType kml;
+	private IContentType binary;
+
+	private IntentFilterIndex classUnderTest;
+	private List<IntentFilter> filters;
+
+	@Before
+	public void setup()
+	{
+		mockContext = new Mockery();
+		text = mockContentType("text", null); //$NON-NLS-1$
+		xml = mockContentType("xml", text); //$NON-NLS-1$
+		kml = mockContentType("kml", xml); //$NON-NLS-1$
+		binary = mockContentType("binary", null); //$NON-NLS-1$
+		mockKindOf();
+
+		classUnderTest = new IntentFilterIndex();
+		filters = new ArrayList<IntentFilter>();
+		for (IContentType contentType : contentTypes())
+		{
+			for (URIFilter uriFilter : uriFilters())
+			{
+				IntentFilter filter = new IntentFilter();
+				if (contentType != null)
+				{
+					filter.addContentType(contentType);
+				}
+				if (uriFilter != null)
+				{
+					filter.addURIFilter(uriFilter);
+				}
+				filters.add(filter);
+				classUnderTest.add(filter);
+			}
+		}
+		//filters with more than one content type and URI filter
+		IntentFilter filter = new IntentFilter().addContentType(kml).addContentType(binary);
+		filter.addURIFilter(new URIFilter().setScheme("file")); //$NON-NLS-1$
+		filter.addURIFilter(new URIFilter().setScheme("*").setAuthority("*").setPath("*.xml")); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+		filters.add(filter);
+		classUnderTest.add(filter);
+	}
+
+	@Test
+	public void testCandidatesMatchLinearScan() throws Exception
+	{
+		for (Intent intent : intents())
+		{
+			assertEquals(intent.toString(), linearScan(filters, intent), matching(classUnderTest, intent));
+		}
+	}
+
+	@Test
+	public void testCandidatesMatchLinearScanAfterRemove() throws Exception
+	{
+		for (int i = filters.size() - 1; i >= 0; i -= 3)
+		{
+			classUnderTest.remove(filters.remove(i));
+		}
+		for (Intent intent : intents())
+		{
+			assertEquals(intent.toString(), linearScan(filters, intent), matching(classUnderTest, intent));
+		}
+	}
+
+	@Test
+	public void testCandidatesAreInRegistrationOrder() throws Exception
+	{
+		Intent intent = new Intent().setContentType(kml).setURI(new URI("http://host/a.kml")); //$NON-NLS-1$
+		List<IntentFilter> candidates = classUnderTest.getCandidates(intent);
+		assertFalse(candidates.isEmpty());
+		for (int i = 1; i < candidates.size(); i++)
+		{
+			assertTrue(filters.indexOf(candidates.get(i - 1)) < filters.indexOf(candidates.get(i)));
+		}
+	}
+
+	@Test
+	public void testCandidatesExcludeOtherContentTypes() throws Exception
+	{
+		Intent intent = new Intent().setContentType(binary).setURI(new URI("http://host/a.kml")); //$NON-NLS-1$
+		for (IntentFilter filter : classUnderTest.getCandidates(intent))
+		{
+			assertTrue(filter.getContentTypes().contains(binary));
+		}
+	}
+
+	private static List<IntentFilter> linearScan(List<IntentFilter> filters, Intent intent)
+	{
+		List<IntentFilter> result = new ArrayList<IntentFilter>();
+		for (IntentFilter filter : filters)
+		{
+			if (filter.matches(intent))
+			{
+				result.add(filter);
+			}
+		}
+		return result;
+	}
+
+	private static List<IntentFilter> matching(IntentFilterIndex index, Intent intent)
+	{
+		List<IntentFilter> result = new ArrayList<IntentFilter>();
+		for (IntentFilter filter : index.getCandidates(intent))
+		{
+			if (filter.matches(intent))
+			{
+				result.add(filter);
+			}
+		}
+		return result;
+	}
+
+	private IContentType[] contentTypes()
+	{
+		return new IContentType[] { null, text, xml, kml, binary };
+	}
+
+	private static URIFilter[] uriFilters()
+	{
+		return new URIFilter[] {
+				null,
+				new URIFilter().setScheme("http"), //$NON-NLS-1$
+				new URIFilter().setScheme("file"), //$NON-NLS-1$
+				new URIFilter().setScheme("http").setAuthority("host").setPath("/a*"), //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				new URIFilter().setScheme("*").setAuthority("*").setPath("*.kml"), //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				new URIFilter().setScheme("*").setAuthority("*").setPath("*/dir/*"), //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+				new URIFilter().setScheme("*"), //$NON-NLS-1$
+				new URIFilter().setScheme("ht*"), //$NON-NLS-1$
+				new URIFilter().setScheme("*").setPath("*.kml"), //$NON-NLS-1$ //$NON-NLS-2$
+				new URIFilter().setAuthority("host") //$NON-NLS-1$
+		};
+	}
+
+	private List<Intent> intents() throws Exception
+	{
+		URI[] uris =
+				new URI[] { null, new URI("http://host/a.kml"), new URI("https://other/dir/b.KML"), //$NON-NLS-1$ //$NON-NLS-2$
+						new URI("file:/tmp/c.xml"), new URI("ftp://host/dir.kml/d"), new URI("mailto:a@b.c"), //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+						new URI("http://host/e") }; //$NON-NLS-1$
+		List<Intent> intents = new ArrayList<Intent>();
+		for (IContentType contentType : contentTypes())
+		{
+			for (URI uri : uris)
+			{
+				intents.add(new Intent().setContentType(contentType).setURI(uri));
+			}
+		}
+		return intents;
+	}
+
+	private IContentType mockContentType(final String id, final IContentType baseType)
+	{
+		final IContentType contentType = mockContext.mock(IContentType.class, id);
+		baseTypes.put(contentType, baseType);
+		mockContext.checking(new Expectations()
+		{
+			{
+				allowing(contentType).getId();
+				will(returnValue(id));
+				allowing(contentType).getBaseType();
+				will(returnValue(baseType));
+			}
+		});
+		return contentType;
+	}
+
+	private void mockKindOf()
+	{
+		for (final IContentType contentType : baseTypes.keySet())
+		{
+			for (final IContentType other : baseTypes.keySet())
+			{
+				boolean kindOf = false;
+				for (IContentType type = contentType; type != null; type = baseTypes.get(type))
+				{
+					kindOf |= type == other;
+				}
+				final boolean result = kindOf;
+				mockContext.checking(new Expectations()
+				{
+					{
+						allowing(contentType).isKindOf(other);
+						will(returnValue(result));
+					}
+				});
+			}
+		}
+	}
+}
@@ -0,0 +1,131 @@
+/*******************************************************************************
+ * Copyright 2026 Geoscience Australia
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package au.gov.ga.earthsci.intent.resolver;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+
+import org.eclipse.core.runtime.content.IContentType;
+import org.jmock.Mockery;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for the {@link ContentTypeCache} class
+ * 
+ * @author Michael de Hoog (michael.dehoog@ga.gov.au)
+ */
+public class ContentTypeCacheTest
+{
+	private Mockery mockContext;
+	private IContentType text;
+	private IContentType xml;
+	private File file;
+
+	@Before
+	public void setup() throws IOException
+	{
+		mockContext = new Mockery();
+		text = mockContext.mock(IContentType.class, "text"); //$NON-NLS-1$
+		xml = mockContext.mock(IContentType.class, "xml"); //$NON-NLS-1$
+		file = File.createTempFile("contenttype", ".txt"); //$NON-NLS-1$ //$NON-NLS-2$
+	}
+
+	@After
+	public void tearDown()
+	{
+		file.delete();
+	}
+
+	@Test
+	public void testGetUncachedURL() throws IOException
+	{
+		ContentTypeCache classUnderTest = new ContentTypeCache();
+		assertNull(classUnderTest.get(new URL("http://host/a.txt"))); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testPutAndGet() throws IOException
+	{
+		ContentTypeCache classUnderTest = new ContentTypeCache();
+		URL url = new URL("http://host/a.txt"); //$NON-NLS-1$
+		classUnderTest.put(url, text);
+
+		assertSame(text, classUnderTest.get(url));
+		assertSame(text, classUnderTest.get(new URL("http://host/a.txt"))); //$NON-NLS-1$
+		assertNull(classUnderTest.get(new URL("http://host/b.txt"))); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testLeastRecentlyUsedEntryIsEvicted() throws IOException
+	{
+		ContentTypeCache classUnderTest = new ContentTypeCache(2);
+		URL a = new URL("http://host/a.txt"); //$NON-NLS-1$
+		URL b = new URL("http://host/b.txt"); //$NON-NLS-1$
+		URL c = new URL("http://host/c.xml"); //$NON-NLS-1$
+		classUnderTest.put(a, text);
+		classUnderTest.put(b, text);
+		//access a, so that b is the least recently used
+		assertSame(text, classUnderTest.get(a));
+		classUnderTest.put(c, xml);
+
+		assertSame(text, classUnderTest.get(a));
+		assertNull(classUnderTest.get(b));
+		assertSame(xml, classUnderTest.get(c));
+	}
+
+	@Test
+	public void testModifiedFileIsInvalidated() throws IOException
+	{
+		ContentTypeCache classUnderTest = new ContentTypeCache();
+		URL url = file.toURI().toURL();
+		classUnderTest.put(url, text);
+		assertSame(text, classUnderTest.get(url));
+
+		assertTrue(file.setLastModified(file.lastModified() - 10000));
+		assertNull(classUnderTest.get(url));
+
+		//the invalidated entry is removed, even if the file's modification time is restored
+		assertTrue(file.setLastModified(file.lastModified() + 10000));
+		assertNull(classUnderTest.get(url));
+	}
+
+	@Test
+	public void testDeletedFileIsInvalidated() throws IOException
+	{
+		ContentTypeCache classUnderTest = new ContentTypeCache();
+		URL url = file.toURI().toURL();
+		classUnderTest.put(url, text);
+
+		assertTrue(file.delete());
+		assertNull(classUnderTest.get(url));
+	}
+
+	@Test
+	public void testClear() throws IOException
+	{
+		ContentTypeCache classUnderTest = new ContentTypeCache();
+		URL url = new URL("http://host/a.txt"); //$NON-NLS-1$
+		classUnderTest.put(url, text);
+		classUnderTest.clear();
+
+		assertNull(classUnderTest.get(url));
+	}
+}
@@ -0,0 +1,254 @@
+/*******************************************************************************
+ * Copyright 2026 Geoscience Australia
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package au.gov.ga.earthsci.intent;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.runtime.content.IContentType;
+
+/**
+ * Index of registered {@link IntentFilter}s, used to quickly find the filters
+ * that could match an {@link Intent} without testing every filter.
+ * <p/>
+ * Filters are indexed by the ids of their content types, and by their
+ * {@link URIFilter}s: filters with a literal URI scheme are indexed by scheme,
+ * and filters with a wildcard scheme and a path of the form
+ * <code>*.ext</code> are indexed by extension. The candidates returned by
+ * {@link #getCandidates(Intent)} are a superset of the matching filters, so
+ * each must still be checked with {@link IntentFilter#matches(Intent)}.
+ * <p/>
+ * Filters are indexed when they are added, so they should not be modified
+ * after being added to the index.
+ * 
+ * @author Michael de Hoog (michael.dehoog@ga.gov.au)
+ */
+class IntentFilterIndex
+{
+	private final Map<IntentFilter, Integer> order = new HashMap<IntentFilter, Integer>();
+	private int nextOrder = 0;
+
+	private final Map<String, Set<IntentFilter>> contentTypeFilters = new HashMap<String, Set<IntentFilter>>();
+	private final Set<IntentFilter> noContentTypeFilters = new LinkedHashSet<IntentFilter>();
+
+	private final Map<String, Set<IntentFilter>> schemeFilters = new HashMap<String, Set<IntentFilter>>();
+	private final Map<String, Set<IntentFilter>> extensionFilters = new HashMap<String, Set<IntentFilter>>();
+	private final Set<IntentFilter> anyURIFilters = new HashSet<IntentFilter>();
+	private final Set<IntentFilter> noURIFilters = new HashSet<IntentFilter>();
+
+	private final Comparator<IntentFilter> orderComparator = new Comparator<IntentFilter>()
+	{
+		@Override
+		public int compare(IntentFilter o1, IntentFilter o2)
+		{
+			return order.get(o1).compareTo(order.get(o2));
+		}
+	};
+
+	/**
+	 * Add a filter to this index.
+	 * 
+	 * @param filter
+	 */
+	public synchronized void add(IntentFilter filter)
+	{
+		if (order.containsKey(filter))
+		{
+			return;
+		}
+		order.put(filter, nextOrder++);
+
+		if (filter.getContentTypes().isEmpty())
+		{
+			noContentTypeFilters.add(filter);
+		}
+		for (IContentType contentType : filter.getContentTypes())
+		{
+			addToMap(contentTypeFilters, contentType.getId(), filter);
+		}
+
+		if (filter.getURIFilters().isEmpty())
+		{
+			noURIFilters.add(filter);
+		}
+		for (URIFilter uriFilter : filter.getURIFilters())
+		{
+			String scheme = uriFilter.getScheme();
+			String extension = getPatternExtension(uriFilter.getPath());
+			if (isEmpty(scheme))
+			{
+				//URI filters without a scheme never match
+				continue;
+			}
+			if (scheme.indexOf('*') < 0)
+			{
+				addToMap(schemeFilters, scheme, filter);
+			}
+			else if (extension != null && !isEmpty(uriFilter.getAuthority()))
+			{
+				addToMap(extensionFilters, extension, filter);
+			}
+			else
+			{
+				anyURIFilters.add(filter);
+			}
+		}
+	}
+
+	/**
+	 * Remove a filter from this index.
+	 * 
+	 * @param filter
+	 */
+	public synchronized void remove(IntentFilter filter)
+	{
+		if (order.remove(filter) == null)
+		{
+			return;
+		}
+		noContentTypeFilters.remove(filter);
+		removeFromMap(contentTypeFilters, filter);
+		noURIFilters.remove(filter);
+		anyURIFilters.remove(filter);
+		removeFromMap(schemeFilters, filter);
+		removeFromMap(extensionFilters, filter);
+	}
+
+	/**
+	 * Find the filters that could match the given intent, in the order that
+	 * they were added to this index.
+	 * 
+	 * @param intent
+	 * @return Filters that could match the intent
+	 */
+	public synchronized List<IntentFilter> getCandidates(Intent intent)
+	{
+		Collection<IntentFilter> candidates;
+		IContentType contentType = intent.getContentType();
+		if (contentType == null)
+		{
+			candidates = noContentTypeFilters;
+		}
+		else
+		{
+			//filters match any content type that is a kind of one of their content types
+			candidates = new LinkedHashSet<IntentFilter>();
+			for (IContentType type = contentType; type != null; type = type.getBaseType())
+			{
+				Set<IntentFilter> filters = contentTypeFilters.get(type.getId());
+				if (filters != null)
+				{
+					candidates.addAll(filters);
+				}
+			}
+		}
+
+		URI uri = intent.getURI();
+		Set<IntentFilter> schemeMatches = null, extensionMatches = null;
+		if (uri != null)
+		{
+			schemeMatches = schemeFilters.get(uri.getScheme());
+			extensionMatches = extensionFilters.get(getExtension(uri.getPath()));
+		}
+
+		List<IntentFilter> result = new ArrayList<IntentFilter>();
+		for (IntentFilter filter : candidates)
+		{
+			if (noURIFilters.contains(filter) || (uri != null && anyURIFilters.contains(filter))
+					|| contains(schemeMatches, filter) || contains(extensionMatches, filter))
+			{
+				result.add(filter);
+			}
+		}
+		Collections.sort(result, orderComparator);
+		return result;
+	}
+
+	private static boolean contains(Set<IntentFilter> set, IntentFilter filter)
+	{
+		return set != null && set.contains(filter);
+	}
+
+	private static void addToMap(Map<String, Set<IntentFilter>> map, String key, IntentFilter filter)
+	{
+		Set<IntentFilter> set = map.get(key);
+		if (set == null)
+		{
+			set = new HashSet<IntentFilter>();
+			map.put(key, set);
+		}
+		set.add(filter);
+	}
+
+	private static void removeFromMap(Map<String, Set<IntentFilter>> map, IntentFilter filter)
+	{
+		for (Set<IntentFilter> set : map.values())
+		{
+			set.remove(filter);
+		}
+	}
+
+	/**
+	 * @return The extension of a URI filter path pattern of the form
+	 *         <code>*.ext</code>, or null if the path is not of that form
+	 */
+	private static String getPatternExtension(String path)
+	{
+		if (path == null || !path.startsWith("*.")) //$NON-NLS-1$
+		{
+			return null;
+		}
+		String extension = path.substring(2);
+		if (extension.isEmpty() || extension.indexOf('*') >= 0 || extension.indexOf('/') >= 0
+				|| extension.indexOf('.') >= 0)
+		{
+			return null;
+		}
+		return extension;
+	}
+
+	/**
+	 * @return The extension of the last segment of a URI path, or null if it
+	 *         has none
+	 */
+	private static String getExtension(String path)
+	{
+		if (path == null)
+		{
+			return null;
+		}
+		int dot = path.lastIndexOf('.');
+		if (dot < 0 || dot < path.lastIndexOf('/'))
+		{
+			return null;
+		}
+		return path.substring(dot + 1);
+	}
+
+	private static boolean isEmpty(String s)
+	{
+		return s == null || s.isEmpty();
+	}
+}
@@ -16,7 +16,6 @@
 package au.gov.ga.earthsci.intent;
 
 import java.io.IOException;
-import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.ArrayList;
@@ -26,10 +25,13 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.core.runtime.IConfigurationElement;
@@ -41,18 +43,32 @@ import org.eclipse.swt.widgets.Display;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import au.gov.ga.earthsci.intent.resolver.ContentTypeCache;
 import au.gov.ga.earthsci.intent.resolver.ContentTypeResolverManager;
 import au.gov.ga.earthsci.intent.util.ContextInjectionFactoryThreadSafe;
 
 /**
  * Injectable {@link Intent} manager, used for starting intents. Contains a
  * collection of the registered intent filters, and their associated handler.
+ * <p/>
+ * Intents are started on a bounded pool of threads. The number of threads and
+ * the number of intents that can be queued for them can be configured using
+ * the {@value #THREAD_COUNT_PROPERTY} and {@value #QUEUE_SIZE_PROPERTY} system
+ * properties. When the queue is full, threads starting intents block until
+ * there is space, except for the UI thread and the intent threads themselves,
+ * whose intents are held until the queue has space (blocking them could
+ * deadlock intents waiting on the UI thread or on other intents). Held intents
+ * may start after intents that were started later.
  * 
  * @author Michael de Hoog (michael.dehoog@ga.gov.au)
  */
 public class IntentManager implements IIntentManager
 {
 	private static final String INTENT_FILTERS_ID = "au.gov.ga.earthsci.intent.filters"; //$NON-NLS-1$
+	public static final String THREAD_COUNT_PROPERTY = "au.gov.ga.earthsci.intent.threads"; //$NON-NLS-1$
+	public static final String QUEUE_SIZE_PROPERTY = "au.gov.ga.earthsci.intent.queueSize"; //$NON-NLS-1$
+	private static final int DEFAULT_THREAD_COUNT = 10;
+	private static final int DEFAULT_QUEUE_SIZE = 100;
 	private static final Logger logger = LoggerFactory.getLogger(IntentManager.class);
 	private static IIntentManager instance = new IntentManager();
 
@@ -75,10 +91,15 @@ public class IntentManager implements IIntentManager
 		IntentManager.instance = instance;
 	}
 
-	private final List<IntentFilter> filters = new ArrayList<IntentFilter>();
+	private final IntentFilterIndex filters = new IntentFilterIndex();
+	private final ContentTypeCache contentTypeCache = new ContentTypeCache();
 
-	private final LinkedBlockingQueue<Runnable> executorQueue = new LinkedBlockingQueue<Runnable>();
-	private ExecutorService executor;
+	//intents started before execution begins
+	private final List<Runnable> pendingQueue = new ArrayList<Runnable>();
+	//intents rejected by the full executor that couldn't be queued without blocking
+	private final ConcurrentLinkedQueue<Runnable> executorQueue = new ConcurrentLinkedQueue<Runnable>();
+	private final ThreadLocal<Boolean> intentThread = new ThreadLocal<Boolean>();
+	private ThreadPoolExecutor executor;
 
 	private IntentManager()
 	{
@@ -104,27 +125,98 @@ public class IntentManager implements IIntentManager
 	@Override
 	public void beginExecution()
 	{
-		synchronized (executorQueue)
+		synchronized (pendingQueue)
 		{
 			if (executor == null)
 			{
-				executor = Executors.newFixedThreadPool(10, new ThreadFactory()
-				{
-					private int count = 0;
+				int threadCount = Math.max(1, Integer.getInteger(THREAD_COUNT_PROPERTY, DEFAULT_THREAD_COUNT));
+				int queueSize = Math.max(1, Integer.getInteger(QUEUE_SIZE_PROPERTY, DEFAULT_QUEUE_SIZE));
+				executor =
+						new ThreadPoolExecutor(threadCount, threadCount, 0L, TimeUnit.MILLISECONDS,
+								new ArrayBlockingQueue<Runnable>(queueSize), new ThreadFactory()
+								{
+									private int count = 0;
 
-					@Override
-					public Thread newThread(Runnable r)
-					{
-						Thread thread = new Thread(r);
-						thread.setName("Intent thread " + (++count)); //$NON-NLS-1$
-						return thread;
-					}
-				});
-				for (Runnable runnable : executorQueue)
+									@Override
+									public Thread newThread(Runnable r)
+									{
+										Thread thread = new Thread(r);
+										thread.setName("Intent thread " + (++count)); //$NON-NLS-1$
+										return thread;
+									}
+								}, new RejectedExecutionHandler()
+								{
+									@Override
+									public void rejectedExecution(Runnable r, ThreadPoolExecutor executor)
+									{
+										enqueue(r, executor);
+									}
+								})
+						{
+							@Override
+							protected void beforeExecute(Thread t, Runnable r)
+							{
+								intentThread.set(Boolean.TRUE);
+							}
+
+							@Override
+							protected void afterExecute(Runnable r, Throwable t)
+							{
+								drainExecutorQueue(this);
+							}
+						};
+				executor.prestartAllCoreThreads();
+				for (Runnable runnable : pendingQueue)
 				{
 					executor.execute(runnable);
 				}
-				executorQueue.clear();
+				pendingQueue.clear();
+			}
+		}
+	}
+
+	/**
+	 * Queue a runnable that the executor rejected because its queue is full.
+	 * Blocks until there is space in the queue, unless called from the UI
+	 * thread or an intent thread.
+	 */
+	private void enqueue(Runnable runnable, ThreadPoolExecutor executor)
+	{
+		if (executor.isShutdown())
+		{
+			throw new RejectedExecutionException("Intent executor has been shut down"); //$NON-NLS-1$
+		}
+		if (Display.getCurrent() != null || intentThread.get() != null)
+		{
+			executorQueue.add(runnable);
+			//the executor may have emptied its queue since rejecting the runnable
+			drainExecutorQueue(executor);
+			return;
+		}
+		try
+		{
+			executor.getQueue().put(runnable);
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new RejectedExecutionException(e);
+		}
+	}
+
+	/**
+	 * Move runnables waiting in the executor queue to the executor, while it
+	 * has space for them.
+	 */
+	private void drainExecutorQueue(ThreadPoolExecutor executor)
+	{
+		synchronized (executorQueue)
+		{
+			//offer directly to the work queue, so that runnables are never rejected back into the executor queue
+			Runnable runnable;
+			while ((runnable = executorQueue.peek()) != null && executor.getQueue().offer(runnable))
+			{
+				executorQueue.poll();
 			}
 		}
 	}
@@ -139,94 +231,95 @@ public class IntentManager implements IIntentManager
 	public void start(final Intent intent, final IIntentFilterSelectionPolicy selectionPolicy,
 			final boolean showProgress, final IIntentCallback callback, final IEclipseContext context)
 	{
-		synchronized (executorQueue)
+		Runnable runnable = new Runnable()
 		{
-			Runnable runnable = new Runnable()
+			@Override
+			public void run()
 			{
-				@Override
-				public void run()
-				{
-					//TODO add progress monitor if show progress is true
+				//TODO add progress monitor if show progress is true
 
-					try
+				try
+				{
+					IntentFilter filter = null;
+					Class<? extends IIntentHandler> handlerClass = intent.getHandler();
+					if (handlerClass == null)
 					{
-						IntentFilter filter = null;
-						Class<? extends IIntentHandler> handlerClass = intent.getHandler();
-						if (handlerClass == null)
+						//if intent has no content type, try to determine it
+						if (intent.getContentType() == null && intent.isDetermineContentType())
 						{
-							//if intent has no content type, try to determine it
-							if (intent.getContentType() == null && intent.isDetermineContentType())
-							{
-								IContentType contentType = determineContentType(intent, showProgress, context);
-								intent.setContentType(contentType);
-							}
+							IContentType contentType = determineContentType(intent, showProgress, context);
+							intent.setContentType(contentType);
+						}
 
-							//search through all registered filters for those that can handle the intent
-							List<IntentFilter> filters = findFilters(intent);
-							if (selectionPolicy != null)
+						//search through all registered filters for those that can handle the intent
+						List<IntentFilter> filters = findFilters(intent);
+						if (selectionPolicy != null)
+						{
+							//remove any filters that the selection filter disallows
+							Iterator<IntentFilter> iterator = filters.iterator();
+							while (iterator.hasNext())
 							{
-								//remove any filters that the selection filter disallows
-								Iterator<IntentFilter> iterator = filters.iterator();
-								while (iterator.hasNext())
+								if (!selectionPolicy.allowed(intent, iterator.next()))
 								{
-									if (!selectionPolicy.allowed(intent, iterator.next()))
-									{
-										iterator.remove();
-									}
+									iterator.remove();
 								}
 							}
-							if (!callback.filters(filters, intent))
-							{
-								return;
-							}
-							if (filters.isEmpty())
-							{
-								throw new Exception("Could not find filter to handle intent: " + intent); //$NON-NLS-1$
-							}
-
-							//select the filter to use to handle the intent
-							filter = selectFilter(filters, intent, context);
-							if (filter == null)
-							{
-								callback.aborted(intent);
-								return;
-							}
-							handlerClass = filter.getHandler();
-							if (handlerClass == null)
-							{
-								throw new Exception("Selected intent filter has no handler registered"); //$NON-NLS-1$
-							}
 						}
-
-						//create the handler, and notify the callback
-						IEclipseContext activeLeaf = context.getActiveLeaf();
-						IEclipseContext child = activeLeaf.createChild();
-						IIntentHandler handler = ContextInjectionFactoryThreadSafe.make(handlerClass, child);
-						if (!callback.starting(filter, handler, intent))
+						if (!callback.filters(filters, intent))
 						{
 							return;
 						}
+						if (filters.isEmpty())
+						{
+							throw new Exception("Could not find filter to handle intent: " + intent); //$NON-NLS-1$
+						}
 
-						//handle the intent
-						handler.handle(intent, callback);
+						//select the filter to use to handle the intent
+						filter = selectFilter(filters, intent, context);
+						if (filter == null)
+						{
+							callback.aborted(intent);
+							return;
+						}
+						handlerClass = filter.getHandler();
+						if (handlerClass == null)
+						{
+							throw new Exception("Selected intent filter has no handler registered"); //$NON-NLS-1$
+						}
 					}
-					catch (Exception e)
+
+					//create the handler, and notify the callback
+					IEclipseContext activeLeaf = context.getActiveLeaf();
+					IEclipseContext child = activeLeaf.createChild();
+					IIntentHandler handler = ContextInjectionFactoryThreadSafe.make(handlerClass, child);
+					if (!callback.starting(filter, handler, intent))
 					{
-						callback.error(e, intent);
+						return;
 					}
+
+					//handle the intent
+					handler.handle(intent, callback);
+				}
+				catch (Exception e)
+				{
+					callback.error(e, intent);
 				}
-			};
+			}
+		};
 
+		ThreadPoolExecutor executor;
+		synchronized (pendingQueue)
+		{
+			executor = this.executor;
 			if (executor == null)
 			{
-				executorQueue.add(runnable);
-			}
-			else
-			{
-				executor.execute(runnable);
+				//submitted in the order they were started when execution begins
+				pendingQueue.add(runnable);
+				return;
 			}
 		}
-
+		//if the executor's queue is full, the rejection handler blocks or holds the intent
+		executor.execute(runnable);
 	}
 
 	protected IContentType determineContentType(final Intent intent, boolean showProgress, IEclipseContext context)
@@ -245,21 +338,16 @@ public class IntentManager implements IIntentManager
 			return null;
 		}
 
-		InputStream is = new LazyURLInputStream(url);
-		try
-		{
-			return ContentTypeResolverManager.resolveContentType(url, intent);
-		}
-		finally
+		IContentType contentType = contentTypeCache.get(url);
+		if (contentType == null)
 		{
-			try
-			{
-				is.close();
-			}
-			catch (IOException e)
+			contentType = ContentTypeResolverManager.resolveContentType(url, intent);
+			if (contentType != null)
 			{
+				contentTypeCache.put(url, contentType);
 			}
 		}
+		return contentType;
 	}
 
 	protected IntentFilter selectFilter(final List<IntentFilter> filters, final Intent intent, IEclipseContext context)
@@ -324,7 +412,7 @@ public class IntentManager implements IIntentManager
 		//add matching filters to a list, prioritising any that have a matching return type
 		List<IntentFilter> matches = new ArrayList<IntentFilter>();
 		int matchExpectedReturnTypeIndex = 0;
-		for (IntentFilter filter : filters)
+		for (IntentFilter filter : filters.getCandidates(intent))
 		{
 			if (filter.matches(intent))
 			{
@@ -31,6 +31,10 @@ public class URIFilter
 	private String authority;
 	private String path;
 
+	public URIFilter()
+	{
+	}
+
 	public URIFilter(IConfigurationElement element)
 	{
 		scheme = element.getAttribute("scheme"); //$NON-NLS-1$
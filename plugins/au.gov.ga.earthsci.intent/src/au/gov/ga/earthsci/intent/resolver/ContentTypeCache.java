@@ -0,0 +1,147 @@
+/*******************************************************************************
+ * Copyright 2026 Geoscience Australia
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package au.gov.ga.earthsci.intent.resolver;
+
+import java.io.File;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.core.runtime.content.IContentType;
+
+/**
+ * Bounded, least-recently-used cache of the content types resolved for URLs.
+ * <p/>
+ * Entries are keyed by the URL and its last-modified time. The last-modified
+ * time is only known for file URLs (which are checked each time the cache is
+ * read, so modified files are resolved again); entries for other URLs remain
+ * valid until they are evicted.
+ * 
+ * @author Michael de Hoog (michael.dehoog@ga.gov.au)
+ */
+public class ContentTypeCache
+{
+	public static final int DEFAULT_CAPACITY = 1000;
+
+	private final Map<String, CacheEntry> entries;
+
+	public ContentTypeCache()
+	{
+		this(DEFAULT_CAPACITY);
+	}
+
+	public ContentTypeCache(final int capacity)
+	{
+		entries = new LinkedHashMap<String, CacheEntry>(16, 0.75f, true)
+		{
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, CacheEntry> eldest)
+			{
+				return size() > capacity;
+			}
+		};
+	}
+
+	/**
+	 * Get the cached content type for the given URL.
+	 * 
+	 * @param url
+	 * @return Cached content type, or null if the URL's content type is not
+	 *         cached, or the URL has been modified since it was cached
+	 */
+	public IContentType get(URL url)
+	{
+		String key = url.toExternalForm();
+		long lastModified = getLastModified(url);
+		synchronized (entries)
+		{
+			CacheEntry entry = entries.get(key);
+			if (entry == null)
+			{
+				return null;
+			}
+			if (entry.lastModified != lastModified)
+			{
+				entries.remove(key);
+				return null;
+			}
+			return entry.contentType;
+		}
+	}
+
+	/**
+	 * Cache the content type resolved for the given URL.
+	 * 
+	 * @param url
+	 * @param contentType
+	 */
+	public void put(URL url, IContentType contentType)
+	{
+		String key = url.toExternalForm();
+		long lastModified = getLastModified(url);
+		synchronized (entries)
+		{
+			entries.put(key, new CacheEntry(contentType, lastModified));
+		}
+	}
+
+	/**
+	 * Remove all entries from this cache.
+	 */
+	public void clear()
+	{
+		synchronized (entries)
+		{
+			entries.clear();
+		}
+	}
+
+	/**
+	 * @return The last-modified time of the given URL, or 0 if it is unknown
+	 */
+	protected long getLastModified(URL url)
+	{
+		if (!"file".equalsIgnoreCase(url.getProtocol())) //$NON-NLS-1$
+		{
+			return 0;
+		}
+		try
+		{
+			return new File(url.toURI()).lastModified();
+		}
+		catch (URISyntaxException e)
+		{
+			return new File(url.getPath()).lastModified();
+		}
+		catch (IllegalArgumentException e)
+		{
+			return 0;
+		}
+	}
+
+	private static class CacheEntry
+	{
+		public final IContentType contentType;
+		public final long lastModified;
+
+		public CacheEntry(IContentType contentType, long lastModified)
+		{
+			this.contentType = contentType;
+			this.lastModified = lastModified;
+		}
+	}
+}
@@ -0,0 +1,152 @@
+/*******************************************************************************
+ * Copyright 2026 Geoscience Australia
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package au.gov.ga.earthsci.layer.tree;
+
+import static org.junit.Assert.*;
+import gov.nasa.worldwind.layers.Layer;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for the incrementally maintained collections of the
+ * {@link AbstractLayerTreeNode} class
+ * 
+ * @author Michael de Hoog (michael.dehoog@ga.gov.au)
+ */
+public class AbstractLayerTreeNodeTest
+{
+	private FolderNode root;
+	private FolderNode folder;
+
+	@Before
+	public void setup()
+	{
+		root = new FolderNode();
+		folder = new FolderNode();
+		root.addChild(folder);
+		root.getLayers();
+		folder.getLayers();
+	}
+
+	@Test
+	public void testLayersAreSortedByDrawOrderThenTreeOrder()
+	{
+		LayerNode a = createLayer(10);
+		LayerNode b = createLayer(0);
+		LayerNode c = createLayer(10);
+		folder.addChild(a);
+		root.addChild(b);
+		folder.addChild(0, c);
+
+		assertLayers(root, b, c, a);
+		assertLayers(folder, c, a);
+	}
+
+	@Test
+	public void testDrawOrderChangeResortsAncestors()
+	{
+		LayerNode a = createLayer(0);
+		LayerNode b = createLayer(10);
+		folder.addChild(a);
+		folder.addChild(b);
+
+		a.setDrawOrder(20);
+		assertLayers(root, b, a);
+		assertLayers(folder, b, a);
+	}
+
+	@Test
+	public void testMoveAndRemoveUpdateAncestors()
+	{
+		LayerNode a = createLayer(0);
+		LayerNode b = createLayer(0);
+		folder.addChild(a);
+		folder.addChild(b);
+
+		folder.moveChild(b, 0);
+		assertLayers(root, b, a);
+
+		a.removeFromParent();
+		assertLayers(root, b);
+		assertLayers(folder, b);
+
+		root.addChild(a);
+		assertLayers(root, b, a);
+		assertLayers(folder, b);
+	}
+
+	@Test
+	public void testLayersArePublishedAtEndOfBatch()
+	{
+		root.beginUpdate();
+		LayerNode a = createLayer(0);
+		folder.addChild(a);
+		assertLayers(root);
+		root.beginUpdate();
+		folder.addChild(createLayer(0));
+		root.endUpdate();
+		assertLayers(root);
+		root.endUpdate();
+
+		assertEquals(2, root.getLayers().size());
+		assertEquals(2, folder.getLayers().size());
+		assertSame(a, root.getLayers().get(0));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testUnbalancedEndUpdate()
+	{
+		root.endUpdate();
+	}
+
+	@Test
+	public void testCatalogURIIndex()
+	{
+		URI uri = URI.create("test:layer");
+		assertNull(root.getNodeForCatalogURI(uri));
+
+		LayerNode a = createLayer(0);
+		a.setCatalogURI(uri);
+		folder.addChild(a);
+		assertSame(a, root.getNodeForCatalogURI(uri));
+		assertSame(a, folder.getNodeForCatalogURI(uri));
+
+		a.setCatalogURI(URI.create("test:other"));
+		assertNull(root.getNodeForCatalogURI(uri));
+
+		a.setCatalogURI(uri);
+		a.removeFromParent();
+		assertNull(root.getNodeForCatalogURI(uri));
+	}
+
+	private static LayerNode createLayer(int drawOrder)
+	{
+		LayerNode layer = new LayerNode();
+		layer.setDrawOrder(drawOrder);
+		return layer;
+	}
+
+	private static void assertLayers(ILayerTreeNode node, Layer... expected)
+	{
+		List<Layer> actual = node.getLayers();
+		assertEquals(Arrays.asList(expected), actual);
+	}
+}
@@ -0,0 +1,147 @@
+/*******************************************************************************
+ * Copyright 2026 Geoscience Australia
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package au.gov.ga.earthsci.layer.tree;
+
+import java.net.URI;
+
+/**
+ * Benchmark of building and modifying a large layer tree whose layer list,
+ * elevation models and catalog URI index have already been requested, as is
+ * the case for the root node of the layer model.
+ * <p/>
+ * A tree of folders, each containing a number of layer nodes with a mixture of
+ * draw orders, is added to the root node one node at a time, both with and
+ * without wrapping the additions in a {@link ILayerTreeNode#beginUpdate()} /
+ * {@link ILayerTreeNode#endUpdate()} batch. The draw order of every tenth
+ * layer is then changed, and finally the folders are removed.
+ * <p/>
+ * Not run as part of the unit tests. Usage:
+ * 
+ * <pre>
+ * LayerTreeBenchmark [nodeCount] [layersPerFolder]
+ * </pre>
+ * 
+ * The defaults are 10000 nodes, with 9 layers per folder.
+ * 
+ * @author Michael de Hoog (michael.dehoog@ga.gov.au)
+ */
+public class LayerTreeBenchmark
+{
+	private static final int WARMUP_ITERATIONS = 1;
+	private static final int TIMED_ITERATIONS = 3;
+
+	public static void main(String[] args)
+	{
+		int nodeCount = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+		int layersPerFolder = args.length > 1 ? Integer.parseInt(args[1]) : 9;
+		int folderCount = Math.max(1, nodeCount / (layersPerFolder + 1));
+
+		System.out.println(folderCount + " folders of " + layersPerFolder + " layers ("
+				+ (folderCount * (layersPerFolder + 1)) + " nodes)");
+		for (int i = 0; i < WARMUP_ITERATIONS + TIMED_ITERATIONS; i++)
+		{
+			boolean timed = i >= WARMUP_ITERATIONS;
+			long[] unbatched = run(folderCount, layersPerFolder, false);
+			long[] batched = run(folderCount, layersPerFolder, true);
+			if (timed)
+			{
+				System.out.println(String.format(
+						"Unbatched: build %6d ms, reorder %6d ms, remove %6d ms   "
+								+ "Batched: build %6d ms, reorder %6d ms, remove %6d ms", unbatched[0] / 1000000,
+						unbatched[1] / 1000000, unbatched[2] / 1000000, batched[0] / 1000000,
+						batched[1] / 1000000, batched[2] / 1000000));
+			}
+		}
+	}
+
+	private static long[] run(int folderCount, int layersPerFolder, boolean batched)
+	{
+		FolderNode root = new FolderNode();
+		root.getLayers();
+		root.getElevationModels();
+		root.getNodeForCatalogURI(URI.create("benchmark:0"));
+
+		long[] times = new long[3];
+		FolderNode[] folders = new FolderNode[folderCount];
+		LayerNode[] layers = new LayerNode[folderCount * layersPerFolder];
+
+		long startTime = System.nanoTime();
+		begin(root, batched);
+		for (int f = 0; f < folderCount; f++)
+		{
+			FolderNode folder = new FolderNode();
+			folder.setCatalogURI(URI.create("benchmark:folder/" + f));
+			root.addChild(folder);
+			folders[f] = folder;
+			for (int l = 0; l < layersPerFolder; l++)
+			{
+				LayerNode layer = new LayerNode();
+				layer.setDrawOrder((l % 3) * 10);
+				folder.addChild(layer);
+				layers[f * layersPerFolder + l] = layer;
+			}
+		}
+		end(root, batched);
+		times[0] = System.nanoTime() - startTime;
+		assertLayerCount(root, layers.length);
+
+		startTime = System.nanoTime();
+		begin(root, batched);
+		for (int i = 0; i < layers.length; i += 10)
+		{
+			layers[i].setDrawOrder(layers[i].getDrawOrder() + 5);
+		}
+		end(root, batched);
+		times[1] = System.nanoTime() - startTime;
+		assertLayerCount(root, layers.length);
+
+		startTime = System.nanoTime();
+		begin(root, batched);
+		for (FolderNode folder : folders)
+		{
+			folder.removeFromParent();
+		}
+		end(root, batched);
+		times[2] = System.nanoTime() - startTime;
+		assertLayerCount(root, 0);
+
+		return times;
+	}
+
+	private static void begin(ILayerTreeNode root, boolean batched)
+	{
+		if (batched)
+		{
+			root.beginUpdate();
+		}
+	}
+
+	private static void end(ILayerTreeNode root, boolean batched)
+	{
+		if (batched)
+		{
+			root.endUpdate();
+		}
+	}
+
+	private static void assertLayerCount(ILayerTreeNode root, int expected)
+	{
+		if (root.getLayers().size() != expected)
+		{
+			throw new IllegalStateException("Expected " + expected + " layers, found " + root.getLayers().size());
+		}
+	}
+}
@@ -26,7 +26,12 @@ import java.net.URI;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 import au.gov.ga.earthsci.common.collection.ArrayListHashMap;
@@ -44,6 +49,11 @@ import au.gov.ga.earthsci.worldwind.common.layers.Bounds;
 
 /**
  * Abstract implementation of the {@link ILayerTreeNode} interface.
+ * <p/>
+ * The layer list, compound elevation model and catalog URI index are created
+ * lazily, and are then maintained incrementally from the nodes added to and
+ * removed from the tree below this node, rather than being rebuilt from the
+ * whole subtree on each change.
  * 
  * @author Michael de Hoog (michael.dehoog@ga.gov.au)
  */
@@ -54,8 +64,8 @@ public abstract class AbstractLayerTreeNode extends AbstractTreeNode<ILayerTreeN
 	private String name;
 	private LayerList layerList;
 	private List<Layer> unsortedLayers;
-	private List<Layer> sortedLayers;
 	private WorldWindCompoundElevationModel elevationModels;
+	private Map<ILayerNode, ElevationModel> nodeElevationModels;
 	private ListMap<URI, ILayerTreeNode> catalogUriMap;
 	private boolean lastAnyChildrenEnabled, lastAllChildrenEnabled;
 	private String label;
@@ -67,6 +77,11 @@ public abstract class AbstractLayerTreeNode extends AbstractTreeNode<ILayerTreeN
 	private final Object semaphore = new Object();
 	private IModelStatus status = ModelStatus.ok(null);
 
+	private static final Object updateLock = new Object();
+	private int updateDepth = 0;
+	private Set<AbstractLayerTreeNode> pendingUpdateNodes;
+	private boolean layersPending, enabledPending;
+
 	protected AbstractLayerTreeNode()
 	{
 		super(ILayerTreeNode.class);
@@ -139,7 +154,20 @@ public abstract class AbstractLayerTreeNode extends AbstractTreeNode<ILayerTreeN
 	@Override
 	public void setCatalogURI(URI catalogURI)
 	{
-		firePropertyChange("catalogURI", getCatalogURI(), this.catalogURI = catalogURI); //$NON-NLS-1$
+		URI oldValue = getCatalogURI();
+		this.catalogURI = catalogURI;
+
+		//update the catalog URI index (if it exists) at this node and each parent
+		ILayerTreeNode node = this;
+		while (node != null)
+		{
+			if (node instanceof AbstractLayerTreeNode)
+			{
+				((AbstractLayerTreeNode) node).catalogURIChanged(this, oldValue, catalogURI);
+			}
+			node = node.getParent();
+		}
+		firePropertyChange("catalogURI", oldValue, catalogURI); //$NON-NLS-1$
 	}
 
 	/**
@@ -297,8 +325,8 @@ public abstract class AbstractLayerTreeNode extends AbstractTreeNode<ILayerTreeN
 			{
 				layerList = new LayerList();
 				unsortedLayers = new ArrayList<Layer>();
-				sortedLayers = new ArrayList<Layer>();
-				updateLayers();
+				addLayerNodesToList(this, unsortedLayers);
+				publishLayers();
 			}
 			return layerList;
 		}
@@ -311,13 +339,7 @@ public abstract class AbstractLayerTreeNode extends AbstractTreeNode<ILayerTreeN
 		{
 			if (layerList != null)
 			{
-				layerList.removeAll();
-				unsortedLayers.clear();
-				sortedLayers.clear();
-				addLayerNodesToList(this, unsortedLayers);
-				DrawOrder.sortLayers(unsortedLayers, sortedLayers);
-				layerList.addAll(sortedLayers);
-				firePropertyChange("layers", null, layerList); //$NON-NLS-1$
+				layersChanged();
 			}
 		}
 		if (!isRoot())
@@ -326,6 +348,51 @@ public abstract class AbstractLayerTreeNode extends AbstractTreeNode<ILayerTreeN
 		}
 	}
 
+	/**
+	 * Publish the layer list, or defer publishing it until the current batch
+	 * of updates has ended. Must be called while holding the semaphore.
+	 */
+	private void layersChanged()
+	{
+		if (!deferUpdate(true, false))
+		{
+			publishLayers();
+		}
+	}
+
+	/**
+	 * Sort the unsorted layers by draw order, and if the order differs from the
+	 * layer list, update the layer list. Must be called while holding the
+	 * semaphore.
+	 */
+	private void publishLayers()
+	{
+		List<Layer> sortedLayers = new ArrayList<Layer>(unsortedLayers.size());
+		DrawOrder.sortLayers(unsortedLayers, sortedLayers);
+		if (!isSameLayers(layerList, sortedLayers))
+		{
+			layerList.removeAll();
+			layerList.addAll(sortedLayers);
+			firePropertyChange("layers", null, layerList); //$NON-NLS-1$
+		}
+	}
+
+	private static boolean isSameLayers(List<Layer> list1, List<Layer> list2)
+	{
+		if (list1.size() != list2.size())
+		{
+			return false;
+		}
+		for (int i = 0; i < list1.size(); i++)
+		{
+			if (list1.get(i) != list2.get(i))
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
 	private static void addLayerNodesToList(ILayerTreeNode node, List<Layer> list)
 	{
 		if (node instanceof Layer)
@@ -338,6 +405,127 @@ public abstract class AbstractLayerTreeNode extends AbstractTreeNode<ILayerTreeN
 		}
 	}
 
+	/**
+	 * Remove the layers in the given subtrees from the unsorted layers. Must be
+	 * called while holding the semaphore.
+	 */
+	private void removeLayerNodesFromList(List<ILayerTreeNode> nodes)
+	{
+		List<Layer> removed = new ArrayList<Layer>();
+		for (ILayerTreeNode node : nodes)
+		{
+			addLayerNodesToList(node, removed);
+		}
+		if (removed.isEmpty())
+		{
+			return;
+		}
+		Set<Layer> removedSet = Collections.newSetFromMap(new IdentityHashMap<Layer, Boolean>());
+		removedSet.addAll(removed);
+		List<Layer> retained = new ArrayList<Layer>(unsortedLayers.size());
+		for (Layer layer : unsortedLayers)
+		{
+			if (!removedSet.contains(layer))
+			{
+				retained.add(layer);
+			}
+		}
+		unsortedLayers = retained;
+	}
+
+	/**
+	 * Insert the layers in the given subtrees into the unsorted layers, at
+	 * their position in the tree. Must be called while holding the semaphore.
+	 */
+	private void insertLayerNodesIntoList(List<ILayerTreeNode> nodes)
+	{
+		for (ILayerTreeNode node : nodes)
+		{
+			List<Layer> layers = new ArrayList<Layer>();
+			addLayerNodesToList(node, layers);
+			if (layers.isEmpty())
+			{
+				continue;
+			}
+			int index = 0;
+			Layer preceding = findPrecedingLayer(node);
+			if (preceding != null)
+			{
+				index = lastIndexOf(unsortedLayers, preceding) + 1;
+				if (index == 0)
+				{
+					//the node isn't in this subtree as expected, so rebuild the list
+					unsortedLayers.clear();
+					addLayerNodesToList(this, unsortedLayers);
+					return;
+				}
+			}
+			unsortedLayers.addAll(index, layers);
+		}
+	}
+
+	/**
+	 * Find the last layer that precedes the given node in a pre-order
+	 * traversal of the tree at this node.
+	 * 
+	 * @param node
+	 *            Descendant of this node
+	 * @return Layer preceding the given node, or null if there are none
+	 */
+	private Layer findPrecedingLayer(ILayerTreeNode node)
+	{
+		ILayerTreeNode current = node;
+		while (current != this && !current.isRoot())
+		{
+			ILayerTreeNode parent = current.getParent();
+			List<ILayerTreeNode> siblings = parent.getChildren();
+			for (int i = lastIndexOf(siblings, current) - 1; i >= 0; i--)
+			{
+				Layer last = findLastLayer(siblings.get(i));
+				if (last != null)
+				{
+					return last;
+				}
+			}
+			if (parent instanceof Layer)
+			{
+				return (Layer) parent;
+			}
+			current = parent;
+		}
+		return null;
+	}
+
+	private static Layer findLastLayer(ILayerTreeNode node)
+	{
+		List<ILayerTreeNode> children = node.getChildren();
+		for (int i = children.size() - 1; i >= 0; i--)
+		{
+			Layer last = findLastLayer(children.get(i));
+			if (last != null)
+			{
+				return last;
+			}
+		}
+		return node instanceof Layer ? (Layer) node : null;
+	}
+
+	/**
+	 * Identity based last index of; searches from the end of the list, as
+	 * nodes are most commonly appended.
+	 */
+	private static int lastIndexOf(List<?> list, Object o)
+	{
+		for (int i = list.size() - 1; i >= 0; i--)
+		{
+			if (list.get(i) == o)
+			{
+				return i;
+			}
+		}
+		return -1;
+	}
+
 	@Override
 	public ILayerTreeNode getNodeForCatalogURI(URI catalogURI)
 	{
@@ -346,7 +534,7 @@ public abstract class AbstractLayerTreeNode extends AbstractTreeNode<ILayerTreeN
 			if (catalogUriMap == null)
 			{
 				catalogUriMap = new ArrayListHashMap<URI, ILayerTreeNode>();
-				updateCatalogURIMap();
+				addNodesToCatalogURIMap(this);
 			}
 			List<ILayerTreeNode> nodes = catalogUriMap.get(catalogURI);
 			if (nodes != null && nodes.size() > 0)
@@ -357,6 +545,50 @@ public abstract class AbstractLayerTreeNode extends AbstractTreeNode<ILayerTreeN
 		}
 	}
 
+	private void addNodesToCatalogURIMap(ILayerTreeNode node)
+	{
+		URI catalogUri = node.getCatalogURI();
+		if (catalogUri != null)
+		{
+			catalogUriMap.putSingle(catalogUri, node);
+		}
+		for (ILayerTreeNode child : node.getChildren())
+		{
+			addNodesToCatalogURIMap(child);
+		}
+	}
+
+	private void removeNodesFromCatalogURIMap(ILayerTreeNode node)
+	{
+		URI catalogUri = node.getCatalogURI();
+		if (catalogUri != null)
+		{
+			catalogUriMap.removeSingle(catalogUri, node);
+		}
+		for (ILayerTreeNode child : node.getChildren())
+		{
+			removeNodesFromCatalogURIMap(child);
+		}
+	}
+
+	private void catalogURIChanged(ILayerTreeNode node, URI oldValue, URI newValue)
+	{
+		synchronized (semaphore)
+		{
+			if (catalogUriMap != null)
+			{
+				if (oldValue != null)
+				{
+					catalogUriMap.removeSingle(oldValue, node);
+				}
+				if (newValue != null)
+				{
+					catalogUriMap.putSingle(newValue, node);
+				}
+			}
+		}
+	}
+
 	@Override
 	public CompoundElevationModel getElevationModels()
 	{
@@ -365,7 +597,8 @@ public abstract class AbstractLayerTreeNode extends AbstractTreeNode<ILayerTreeN
 			if (elevationModels == null)
 			{
 				elevationModels = new WorldWindCompoundElevationModel();
-				updateElevationModels();
+				nodeElevationModels = new IdentityHashMap<ILayerNode, ElevationModel>();
+				updateElevationModelNodes(this);
 			}
 			return elevationModels;
 		}
@@ -374,60 +607,78 @@ public abstract class AbstractLayerTreeNode extends AbstractTreeNode<ILayerTreeN
 	@Override
 	public void updateElevationModels()
 	{
-		synchronized (semaphore)
+		ILayerTreeNode node = this;
+		while (node != null)
 		{
-			if (elevationModels != null)
+			if (node instanceof AbstractLayerTreeNode)
 			{
-				elevationModels.removeAll();
-				addElevationModelNodesToCompoundElevationModel(this, elevationModels);
+				((AbstractLayerTreeNode) node).updateElevationModels(this);
 			}
+			node = node.getParent();
 		}
-		if (!isRoot())
+	}
+
+	private void updateElevationModels(ILayerTreeNode subtree)
+	{
+		synchronized (semaphore)
 		{
-			getParent().updateElevationModels();
+			if (elevationModels != null)
+			{
+				updateElevationModelNodes(subtree);
+			}
 		}
 	}
 
-	private static void addElevationModelNodesToCompoundElevationModel(ILayerTreeNode node,
-			CompoundElevationModel compound)
+	/**
+	 * Ensure the compound elevation model contains the current elevation
+	 * models of the layer nodes in the given subtree. Must be called while
+	 * holding the semaphore.
+	 */
+	private void updateElevationModelNodes(ILayerTreeNode node)
 	{
 		if (node instanceof ILayerNode)
 		{
 			ILayerNode layerNode = (ILayerNode) node;
-			ElevationModel elevationModel = layerNode.getElevationModel();
-			if (elevationModel != null)
+			ElevationModel current = layerNode.getElevationModel();
+			ElevationModel previous =
+					current == null ? nodeElevationModels.remove(layerNode) : nodeElevationModels.put(layerNode,
+							current);
+			if (previous != current)
 			{
-				compound.addElevationModel(elevationModel);
+				if (previous != null)
+				{
+					elevationModels.removeElevationModel(previous);
+				}
+				if (current != null)
+				{
+					elevationModels.addElevationModel(current);
+				}
 			}
 		}
 		for (ILayerTreeNode child : node.getChildren())
 		{
-			addElevationModelNodesToCompoundElevationModel(child, compound);
+			updateElevationModelNodes(child);
 		}
 	}
 
-	private void updateCatalogURIMap()
+	/**
+	 * Remove the elevation models of the layer nodes in the given subtree from
+	 * the compound elevation model. Must be called while holding the
+	 * semaphore.
+	 */
+	private void removeElevationModelNodes(ILayerTreeNode node)
 	{
-		synchronized (semaphore)
+		if (node instanceof ILayerNode)
 		{
-			if (catalogUriMap != null)
+			ElevationModel previous = nodeElevationModels.remove(node);
+			if (previous != null)
 			{
-				catalogUriMap.clear();
-				addNodesToCatalogURIMap(this);
+				elevationModels.removeElevationModel(previous);
 			}
 		}
-	}
-
-	private void addNodesToCatalogURIMap(ILayerTreeNode node)
-	{
-		URI catalogUri = node.getCatalogURI();
-		if (catalogUri != null)
-		{
-			catalogUriMap.putSingle(node.getCatalogURI(), node);
-		}
 		for (ILayerTreeNode child : node.getChildren())
 		{
-			addNodesToCatalogURIMap(child);
+			removeElevationModelNodes(child);
 		}
 	}
 
@@ -441,32 +692,117 @@ public abstract class AbstractLayerTreeNode extends AbstractTreeNode<ILayerTreeN
 	@Override
 	public void childrenChanged(List<ILayerTreeNode> oldChildren, List<ILayerTreeNode> newChildren)
 	{
-		//TODO should we implement a (more efficient?) modification of these collections according to changed children?
-		//update the collections if they exist
+		List<ILayerTreeNode> removed = new ArrayList<ILayerTreeNode>();
+		List<ILayerTreeNode> added = new ArrayList<ILayerTreeNode>();
+		calculateChildrenDelta(oldChildren, newChildren, removed, added);
 
-		//If the user is deleting loaded data then update the layers. Don't do it otherwise (eg. while adding) as it can cause severe performance issues
-		if (oldChildren.size() > newChildren.size())
+		//update the collections (if they exist) at this node and each parent up to the root node
+		ILayerTreeNode node = this;
+		while (node != null)
 		{
-			updateLayers();
+			if (node instanceof AbstractLayerTreeNode)
+			{
+				((AbstractLayerTreeNode) node).descendantsChanged(removed, added);
+			}
+			node = node.getParent();
 		}
-		updateElevationModels();
-		updateCatalogURIMap();
+	}
 
-		//fire property changes
-		fireAnyAllChildrenEnabledChanged();
+	/**
+	 * Calculate the nodes removed and added between the old and new children.
+	 * If the order of the children that were retained has changed, they are
+	 * treated as removed and then added again at their new position.
+	 */
+	private static void calculateChildrenDelta(List<ILayerTreeNode> oldChildren, List<ILayerTreeNode> newChildren,
+			List<ILayerTreeNode> removed, List<ILayerTreeNode> added)
+	{
+		Set<ILayerTreeNode> oldSet = Collections.newSetFromMap(new IdentityHashMap<ILayerTreeNode, Boolean>());
+		oldSet.addAll(oldChildren);
+		Set<ILayerTreeNode> newSet = Collections.newSetFromMap(new IdentityHashMap<ILayerTreeNode, Boolean>());
+		newSet.addAll(newChildren);
 
-		//recurse up to the root node
-		if (!isRoot())
+		List<ILayerTreeNode> retained = new ArrayList<ILayerTreeNode>();
+		for (ILayerTreeNode child : oldChildren)
+		{
+			if (newSet.contains(child))
+			{
+				retained.add(child);
+			}
+			else
+			{
+				removed.add(child);
+			}
+		}
+
+		int retainedIndex = 0;
+		boolean moved = false;
+		for (ILayerTreeNode child : newChildren)
+		{
+			if (!oldSet.contains(child))
+			{
+				added.add(child);
+			}
+			else if (retained.get(retainedIndex++) != child)
+			{
+				moved = true;
+			}
+		}
+
+		if (moved)
+		{
+			removed.addAll(retained);
+			added.clear();
+			added.addAll(newChildren);
+		}
+	}
+
+	/**
+	 * Update the collections at this node with the given descendant subtrees
+	 * that have been removed from and added to the tree below this node.
+	 */
+	private void descendantsChanged(List<ILayerTreeNode> removed, List<ILayerTreeNode> added)
+	{
+		synchronized (semaphore)
 		{
-			getParent().childrenChanged(oldChildren, newChildren);
+			if (layerList != null)
+			{
+				removeLayerNodesFromList(removed);
+				insertLayerNodesIntoList(added);
+				layersChanged();
+			}
+			if (elevationModels != null)
+			{
+				for (ILayerTreeNode node : removed)
+				{
+					removeElevationModelNodes(node);
+				}
+				for (ILayerTreeNode node : added)
+				{
+					updateElevationModelNodes(node);
+				}
+			}
+			if (catalogUriMap != null)
+			{
+				for (ILayerTreeNode node : removed)
+				{
+					removeNodesFromCatalogURIMap(node);
+				}
+				for (ILayerTreeNode node : added)
+				{
+					addNodesToCatalogURIMap(node);
+				}
+			}
 		}
+
+		//fire property changes
+		anyAllChildrenEnabledChanged();
 	}
 
 	@Override
 	public void enabledChanged()
 	{
 		//fire property changes
-		fireAnyAllChildrenEnabledChanged();
+		anyAllChildrenEnabledChanged();
 
 		//recurse up to the root node
 		if (!isRoot())
@@ -475,6 +811,14 @@ public abstract class AbstractLayerTreeNode extends AbstractTreeNode<ILayerTreeN
 		}
 	}
 
+	private void anyAllChildrenEnabledChanged()
+	{
+		if (!deferUpdate(false, true))
+		{
+			fireAnyAllChildrenEnabledChanged();
+		}
+	}
+
 	private void fireAnyAllChildrenEnabledChanged()
 	{
 		firePropertyChange(
@@ -483,6 +827,99 @@ public abstract class AbstractLayerTreeNode extends AbstractTreeNode<ILayerTreeN
 				"anyChildrenEnabled", lastAnyChildrenEnabled, lastAnyChildrenEnabled = isAnyChildrenEnabled()); //$NON-NLS-1$
 	}
 
+	@Override
+	public void beginUpdate()
+	{
+		synchronized (updateLock)
+		{
+			updateDepth++;
+		}
+	}
+
+	@Override
+	public void endUpdate()
+	{
+		Set<AbstractLayerTreeNode> pending;
+		synchronized (updateLock)
+		{
+			if (updateDepth <= 0)
+			{
+				throw new IllegalStateException("endUpdate called without a matching beginUpdate"); //$NON-NLS-1$
+			}
+			updateDepth--;
+			if (updateDepth > 0 || pendingUpdateNodes == null)
+			{
+				return;
+			}
+			pending = pendingUpdateNodes;
+			pendingUpdateNodes = null;
+		}
+		for (AbstractLayerTreeNode node : pending)
+		{
+			node.performPendingUpdates();
+		}
+	}
+
+	/**
+	 * If this node or any of its parents is in a batch of updates, mark the
+	 * given updates as pending on this node until the outermost batch ends.
+	 * 
+	 * @return True if the updates were deferred
+	 */
+	private boolean deferUpdate(boolean layers, boolean enabled)
+	{
+		synchronized (updateLock)
+		{
+			AbstractLayerTreeNode owner = null;
+			ILayerTreeNode node = this;
+			while (node != null)
+			{
+				if (node instanceof AbstractLayerTreeNode && ((AbstractLayerTreeNode) node).updateDepth > 0)
+				{
+					owner = (AbstractLayerTreeNode) node;
+				}
+				node = node.getParent();
+			}
+			if (owner == null)
+			{
+				return false;
+			}
+			layersPending |= layers;
+			enabledPending |= enabled;
+			if (owner.pendingUpdateNodes == null)
+			{
+				owner.pendingUpdateNodes = new LinkedHashSet<AbstractLayerTreeNode>();
+			}
+			owner.pendingUpdateNodes.add(this);
+			return true;
+		}
+	}
+
+	private void performPendingUpdates()
+	{
+		boolean layers, enabled;
+		synchronized (updateLock)
+		{
+			layers = layersPending;
+			enabled = enabledPending;
+			layersPending = enabledPending = false;
+		}
+		if (layers)
+		{
+			synchronized (semaphore)
+			{
+				if (layerList != null)
+				{
+					publishLayers();
+				}
+			}
+		}
+		if (enabled)
+		{
+			fireAnyAllChildrenEnabledChanged();
+		}
+	}
+
 	private class EnabledChangeListener implements PropertyChangeListener
 	{
 		@Override
@@ -66,9 +66,14 @@ public interface ILayerTreeNode extends ITreeNode<ILayerTreeNode>, IPropertyChan
 	LayerList getLayers();
 
 	/**
-	 * If {@link #getLayers()} has been called previously, update the list
-	 * returned by {@link #getLayers()} at this node. Called recursively up
-	 * parents to root.
+	 * If {@link #getLayers()} has been called previously, re-sort the list
+	 * returned by {@link #getLayers()} at this node (for example, after the
+	 * draw order of a layer has changed). Called recursively up parents to
+	 * root.
+	 * <p/>
+	 * Layers added to or removed from the tree are added to or removed from
+	 * the list automatically; it is not necessary to call this method after
+	 * changing the tree.
 	 */
 	void updateLayers();
 
@@ -79,9 +84,10 @@ public interface ILayerTreeNode extends ITreeNode<ILayerTreeNode>, IPropertyChan
 	CompoundElevationModel getElevationModels();
 
 	/**
-	 * If {@link #getElevationModels()} has been called previously, update the
-	 * compound model returned by {@link #getElevationModels()} at this node.
-	 * Called recursively up parents to root.
+	 * Update the compound models returned by {@link #getElevationModels()} at
+	 * this node and its parents with the current elevation models of the layer
+	 * nodes at and below this node (for example, after the layer of a layer
+	 * node has changed).
 	 */
 	void updateElevationModels();
 
@@ -101,6 +107,23 @@ public interface ILayerTreeNode extends ITreeNode<ILayerTreeNode>, IPropertyChan
 	 */
 	ILayerTreeNode getNodeForCatalogURI(URI catalogURI);
 
+	/**
+	 * Begin a batch of changes to the tree at and below this node. Until the
+	 * matching call to {@link #endUpdate()}, re-sorting the layer lists and
+	 * firing the layers and children enabled property changes is deferred, and
+	 * is then performed once for each affected node.
+	 * <p/>
+	 * Calls can be nested; the deferred updates are performed when the
+	 * outermost batch ends. Every call must be matched by a call to
+	 * {@link #endUpdate()}, usually in a finally block.
+	 */
+	void beginUpdate();
+
+	/**
+	 * End a batch of changes started by {@link #beginUpdate()}.
+	 */
+	void endUpdate();
+
 	/**
 	 * @return Are any of this node's children enabled?
 	 */
@@ -136,8 +159,10 @@ public interface ILayerTreeNode extends ITreeNode<ILayerTreeNode>, IPropertyChan
 	void enabledChanged();
 
 	/**
-	 * Notify property listeners that this node's children have changed. Should
-	 * only be called internally.
+	 * Notify property listeners that this node's children have changed, and
+	 * update the layer list, elevation models and catalog URI index at this
+	 * node and its parents with the added and removed nodes. Should only be
+	 * called internally.
 	 * 
 	 * @param oldChildren
 	 * @param newChildren
@@ -81,6 +81,7 @@ public class LayerNode extends AbstractLayerTreeNode implements ILayerNode
 				if (evt.getPropertyName().equals("layer")) //$NON-NLS-1$
 				{
 					//clear the cached draw order, as new layer may have a different default
+					int oldDrawOrder = getDrawOrder();
 					drawOrderCached = null;
 
 					//get the legend url if it exists (set by the LayerFactory)
@@ -98,12 +99,12 @@ public class LayerNode extends AbstractLayerTreeNode implements ILayerNode
 						setLegendURL(legendURL);
 					}
 
-					//update layer list (draw order may have changed), and elevation models if required
-					updateLayers();
-					if (getElevationModel() != null)
+					//update layer list if the draw order has changed, and elevation models
+					if (getDrawOrder() != oldDrawOrder)
 					{
-						updateElevationModels();
+						updateLayers();
 					}
+					updateElevationModels();
 				}
 			}
 		});
@@ -109,13 +109,22 @@ public class WorldWindModel extends BasicModel implements ITreeModel
 		}
 		else
 		{
-			while (loadedNode.getChildCount() > 0)
+			//batch the updates to the layer list while the loaded layers are added and initialized
+			rootNode.beginUpdate();
+			try
 			{
-				ILayerTreeNode child = loadedNode.getChild(0);
-				child.removeFromParent();
-				rootNode.addChild(child);
+				while (loadedNode.getChildCount() > 0)
+				{
+					ILayerTreeNode child = loadedNode.getChild(0);
+					child.removeFromParent();
+					rootNode.addChild(child);
+				}
+				initializeAllLayers(rootNode, context);
+			}
+			finally
+			{
+				rootNode.endUpdate();
 			}
-			initializeAllLayers(rootNode, context);
 		}
 	}
 
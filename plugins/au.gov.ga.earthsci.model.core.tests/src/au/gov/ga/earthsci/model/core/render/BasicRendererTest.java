@@ -0,0 +1,52 @@
+/*******************************************************************************
+ * Copyright 2026 Geoscience Australia
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package au.gov.ga.earthsci.model.core.render;
+
+import static org.junit.Assert.*;
+
+import javax.media.opengl.GL2;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for the {@link BasicRenderer} class
+ * 
+ * @author James Navin (james.navin@ga.gov.au)
+ */
+public class BasicRendererTest
+{
+	@Test
+	public void testPolygonModeForFaceRenderModes()
+	{
+		assertEquals(GL2.GL_FILL, BasicRenderer.getPolygonModeForRenderMode(GL2.GL_TRIANGLES));
+		assertEquals(GL2.GL_FILL, BasicRenderer.getPolygonModeForRenderMode(GL2.GL_TRIANGLE_STRIP));
+		assertEquals(GL2.GL_FILL, BasicRenderer.getPolygonModeForRenderMode(GL2.GL_QUADS));
+	}
+
+	@Test
+	public void testPolygonModeForLineRenderModes()
+	{
+		assertEquals(GL2.GL_LINE, BasicRenderer.getPolygonModeForRenderMode(GL2.GL_LINES));
+		assertEquals(GL2.GL_LINE, BasicRenderer.getPolygonModeForRenderMode(GL2.GL_LINE_STRIP));
+		assertEquals(GL2.GL_LINE, BasicRenderer.getPolygonModeForRenderMode(GL2.GL_LINE_LOOP));
+	}
+
+	@Test
+	public void testPolygonModeForPointRenderMode()
+	{
+		assertEquals(GL2.GL_POINT, BasicRenderer.getPolygonModeForRenderMode(GL2.GL_POINTS));
+	}
+}
@@ -0,0 +1,193 @@
+/*******************************************************************************
+ * Copyright 2026 Geoscience Australia
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package au.gov.ga.earthsci.model.core.render;
+
+import static org.junit.Assert.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import au.gov.ga.earthsci.model.core.render.ChunkedGridMesh.Chunk;
+import au.gov.ga.earthsci.model.core.render.ChunkedGridMesh.ISelector;
+
+/**
+ * Unit tests for the {@link ChunkedGridMesh} class
+ * 
+ * @author James Navin (james.navin@ga.gov.au)
+ */
+public class ChunkedGridMeshTest
+{
+	@Test(expected = IllegalArgumentException.class)
+	public void testChunkCellsMustBePowerOfTwo()
+	{
+		new ChunkedGridMesh(10, 10, 6);
+	}
+
+	@Test
+	public void testRootCoversGrid()
+	{
+		ChunkedGridMesh mesh = new ChunkedGridMesh(37, 29, 4);
+		Chunk root = mesh.getRoot();
+
+		assertEquals(16, root.getStep());
+		assertEquals(36, root.getEndColumn());
+		assertEquals(28, root.getEndRow());
+	}
+
+	@Test
+	public void testLeavesUseEveryVertex()
+	{
+		ChunkedGridMesh mesh = new ChunkedGridMesh(37, 29, 4);
+		List<Chunk> selected = mesh.select(new DepthSelector(-1, -1, Integer.MAX_VALUE));
+		for (Chunk chunk : selected)
+		{
+			assertEquals(1, chunk.getStep());
+		}
+		assertCrackFree(mesh, mesh.getIndices());
+		assertEquals(36 * 28 * 6, mesh.getIndices().length);
+	}
+
+	@Test
+	public void testMixedLevelsAreCrackFree()
+	{
+		//refine heavily near one corner, so that neighbouring chunks differ by several levels
+		ChunkedGridMesh mesh = new ChunkedGridMesh(37, 29, 4);
+		List<Chunk> selected = mesh.select(new DepthSelector(3, 2, 20));
+
+		int minStep = Integer.MAX_VALUE, maxStep = 0;
+		for (Chunk chunk : selected)
+		{
+			minStep = Math.min(minStep, chunk.getStep());
+			maxStep = Math.max(maxStep, chunk.getStep());
+		}
+		assertEquals(1, minStep);
+		assertTrue(maxStep >= 4);
+
+		assertCrackFree(mesh, mesh.getIndices());
+	}
+
+	@Test
+	public void testIndicesReusedWhenSelectionUnchanged()
+	{
+		ChunkedGridMesh mesh = new ChunkedGridMesh(37, 29, 4);
+		DepthSelector selector = new DepthSelector(10, 10, 12);
+
+		mesh.select(selector);
+		int[] first = mesh.getIndices();
+		mesh.select(selector);
+		assertSame(first, mesh.getIndices());
+
+		mesh.select(new DepthSelector(30, 20, 12));
+		assertNotSame(first, mesh.getIndices());
+	}
+
+	/**
+	 * Assert that the given triangles exactly tile the grid: no triangle is
+	 * flipped, the total area equals the grid area, and every edge used by
+	 * only one triangle lies on the outside of the grid.
+	 */
+	private static void assertCrackFree(ChunkedGridMesh mesh, int[] indices)
+	{
+		int columns = mesh.getColumns();
+		int rows = mesh.getRows();
+		assertEquals(0, indices.length % 3);
+
+		double area = 0;
+		Map<Long, Integer> edgeCounts = new HashMap<Long, Integer>();
+		for (int i = 0; i < indices.length; i += 3)
+		{
+			int a = indices[i], b = indices[i + 1], c = indices[i + 2];
+			double ax = a % columns, ay = a / columns;
+			double bx = b % columns, by = b / columns;
+			double cx = c % columns, cy = c / columns;
+			double signedArea = ((bx - ax) * (cy - ay) - (by - ay) * (cx - ax)) / 2.0;
+			assertTrue("Flipped or degenerate triangle", signedArea < 0);
+			area -= signedArea;
+
+			addEdge(edgeCounts, a, b);
+			addEdge(edgeCounts, b, c);
+			addEdge(edgeCounts, c, a);
+		}
+		assertEquals((columns - 1) * (rows - 1), area, 1e-9);
+
+		for (Map.Entry<Long, Integer> entry : edgeCounts.entrySet())
+		{
+			if (entry.getValue() == 1)
+			{
+				int a = (int) (entry.getKey() >> 32);
+				int b = (int) (entry.getKey() & 0xffffffffL);
+				assertTrue("Crack along edge " + a + "-" + b, onBoundary(a, b, columns, rows)); //$NON-NLS-1$ //$NON-NLS-2$
+			}
+			else
+			{
+				assertEquals(Integer.valueOf(2), entry.getValue());
+			}
+		}
+	}
+
+	private static void addEdge(Map<Long, Integer> edgeCounts, int a, int b)
+	{
+		long key = ((long) Math.min(a, b) << 32) | Math.max(a, b);
+		Integer count = edgeCounts.get(key);
+		edgeCounts.put(key, count == null ? 1 : count + 1);
+	}
+
+	private static boolean onBoundary(int a, int b, int columns, int rows)
+	{
+		int ax = a % columns, ay = a / columns;
+		int bx = b % columns, by = b / columns;
+		return (ax == bx && (ax == 0 || ax == columns - 1)) || (ay == by && (ay == 0 || ay == rows - 1));
+	}
+
+	/**
+	 * Refines chunks whose cell distance from a focus point is less than a
+	 * multiple of their step.
+	 */
+	private static class DepthSelector implements ISelector
+	{
+		private final int focusColumn;
+		private final int focusRow;
+		private final int factor;
+
+		public DepthSelector(int focusColumn, int focusRow, int factor)
+		{
+			this.focusColumn = focusColumn;
+			this.focusRow = focusRow;
+			this.factor = factor;
+		}
+
+		@Override
+		public boolean isVisible(Chunk chunk)
+		{
+			return true;
+		}
+
+		@Override
+		public boolean shouldRefine(Chunk chunk)
+		{
+			if (factor == Integer.MAX_VALUE)
+			{
+				return true;
+			}
+			int dx = Math.max(0, Math.max(chunk.getColumn() - focusColumn, focusColumn - chunk.getEndColumn()));
+			int dy = Math.max(0, Math.max(chunk.getRow() - focusRow, focusRow - chunk.getEndRow()));
+			return Math.max(dx, dy) < factor * chunk.getStep() / 4;
+		}
+	}
+}
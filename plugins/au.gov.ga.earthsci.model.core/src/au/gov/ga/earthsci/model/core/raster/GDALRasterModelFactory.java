@@ -15,23 +15,28 @@
  ******************************************************************************/
 package au.gov.ga.earthsci.model.core.raster;
 
-import static au.gov.ga.earthsci.common.buffer.BufferUtil.getValue;
-import static au.gov.ga.earthsci.common.buffer.BufferUtil.skipValues;
-import static au.gov.ga.earthsci.core.raster.GDALRasterUtil.getBufferType;
-
 import java.awt.Color;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.gdal.gdal.Band;
 import org.gdal.gdal.Dataset;
+import org.gdal.gdalconst.gdalconstConstants;
 import org.gdal.osr.CoordinateTransformation;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import au.gov.ga.earthsci.common.buffer.BufferType;
-import au.gov.ga.earthsci.common.buffer.BufferUtil;
+import au.gov.ga.earthsci.common.buffer.BufferView;
 import au.gov.ga.earthsci.common.color.ColorMap;
 import au.gov.ga.earthsci.common.color.ColorMap.InterpolationMode;
 import au.gov.ga.earthsci.common.color.ColorType;
@@ -45,7 +50,9 @@ import au.gov.ga.earthsci.model.geometry.BasicColouredMeshGeometry;
 import au.gov.ga.earthsci.model.geometry.FaceType;
 import au.gov.ga.earthsci.model.geometry.ModelGeometryStatistics;
 import au.gov.ga.earthsci.model.render.RendererCreatorRegistry;
+import au.gov.ga.earthsci.worldwind.common.util.ColorLookupTable;
 import au.gov.ga.earthsci.worldwind.common.util.CoordinateTransformationUtil;
+import au.gov.ga.earthsci.worldwind.common.util.DaemonThreadFactory;
 import au.gov.ga.earthsci.worldwind.common.util.Util;
 
 /**
@@ -60,7 +67,11 @@ public class GDALRasterModelFactory
 	private static final int VERTEX_GROUP_SIZE = 3;
 	private static final int RGBA_GROUP_SIZE = 4;
 
+	/** Approximate number of pixels in each window of the raster read at a time */
+	private static final int WINDOW_PIXELS = 256 * 256;
+
 	private static final Color DEFAULT_NODATA_COLOR = new Color(0, 0, 0, 0);
+	private static final int VERTEX_COLOUR_CHUNK_SIZE = 4096;
 
 	private static final Logger logger = LoggerFactory.getLogger(GDALRasterModelFactory.class);
 
@@ -102,32 +113,26 @@ public class GDALRasterModelFactory
 	 * Read vertice data from the given raster dataset using the provided
 	 * parameters, and store calculated statistics about the mesh in the
 	 * provided object for later use.
+	 * <p/>
+	 * The band is read in windows aligned to the GDAL block size, and windows
+	 * are projected in parallel directly into the final vertex buffer, so that
+	 * only one window per worker is held in memory at a time.
 	 */
 	private static void addVerticesAndNodata(BasicColouredMeshGeometry geometry, Dataset ds,
-			GDALRasterModelParameters parameters,
-			ModelGeometryStatistics stats)
+			final GDALRasterModelParameters parameters,
+			ModelGeometryStatistics stats) throws Exception
 	{
-		Band band = ds.GetRasterBand(parameters.getElevationBandIndex());
+		final Band band = ds.GetRasterBand(parameters.getElevationBandIndex());
 
 		int rasterXSize = band.getXSize();
 		int rasterYSize = band.getYSize();
 
-		ByteBuffer buffer = readRasterBuffer(band, rasterXSize, rasterYSize);
-
 		// Transform pixel coords -> source coordinate system coords
 		double[] geoTransform = ds.GetGeoTransform();
 
-		// Transform source coordinate system -> WGS84
-		CoordinateTransformation coordinateTransformation = getCoordinateTransform(parameters);
-
-		BufferType sourceBufferType = getBufferType(band);
-
 		double elevationOffset = getOffset(band, parameters);
 		double elevationScale = getScale(band, parameters);
 
-		double[] transformedCoords = new double[2];
-		double[] projectedCoords = new double[VERTEX_GROUP_SIZE];
-
 		int stride = parameters.getNormalisedSubsample();
 		ByteBuffer vertexBuffer = allocateVerticesBuffer(rasterXSize, rasterYSize, stride);
 
@@ -138,35 +143,60 @@ public class GDALRasterModelFactory
 			scaledNodata = toElevation(elevationOffset, elevationScale, nodata, nodata);
 		}
 
-		for (int y = 0; y < rasterYSize; y += stride)
+		final VertexWindows windows = new VertexWindows(band, geoTransform, vertexBuffer, stride,
+				elevationOffset, elevationScale, scaledNodata);
+
+		int threads = Math.min(Runtime.getRuntime().availableProcessors(), windows.count);
+		List<Callable<WindowStatistics>> workers = new ArrayList<Callable<WindowStatistics>>(threads);
+		for (int i = 0; i < threads; i++)
 		{
-			for (int x = 0; x < rasterXSize; x += stride)
+			workers.add(new Callable<WindowStatistics>()
 			{
-				double datasetValue = getValue(buffer, sourceBufferType).doubleValue();
-				double elevation = toElevation(elevationOffset, elevationScale, datasetValue, nodata);
-
-				transformCoordinates(geoTransform, x, y, transformedCoords);
-				projectCoordinates(coordinateTransformation,
-						transformedCoords[0],
-						transformedCoords[1],
-						elevation,
-						projectedCoords);
-
-				vertexBuffer.putFloat((float) projectedCoords[0])
-						.putFloat((float) projectedCoords[1])
-						.putFloat((float) projectedCoords[2]);
-
-				if (!isNoData(scaledNodata, elevation))
+				@Override
+				public WindowStatistics call() throws Exception
 				{
-					stats.updateStats(projectedCoords[1], projectedCoords[0], projectedCoords[2]);
+					// Transform source coordinate system -> WGS84 (transformations aren't thread safe, so one per worker)
+					CoordinateTransformation coordinateTransformation = getCoordinateTransform(parameters);
+					return windows.project(coordinateTransformation);
 				}
+			});
+		}
 
-				int step = Math.min(stride, rasterXSize - x) - 1; // Skip stride values, or move to the end of the column
-				skipValues(step, buffer, sourceBufferType);
+		if (threads <= 1)
+		{
+			for (Callable<WindowStatistics> worker : workers)
+			{
+				worker.call().updateStats(stats);
+			}
+		}
+		else
+		{
+			ExecutorService executor =
+					Executors.newFixedThreadPool(threads, new DaemonThreadFactory("GDAL raster model loader")); //$NON-NLS-1$
+			try
+			{
+				for (Future<WindowStatistics> future : executor.invokeAll(workers))
+				{
+					try
+					{
+						future.get().updateStats(stats);
+					}
+					catch (ExecutionException e)
+					{
+						if (e.getCause() instanceof Exception)
+						{
+							throw (Exception) e.getCause();
+						}
+						throw e;
+					}
+				}
+			}
+			finally
+			{
+				executor.shutdownNow();
 			}
-			int step = Math.min(stride, rasterYSize - y) - 1;
-			skipValues(rasterXSize * step, buffer, sourceBufferType);
 		}
+		vertexBuffer.position(vertexBuffer.limit());
 
 		// TODO Move name/description to constant somewhere for reuse as standard name
 		IModelData vertices = ModelDataBuilder.createFromBuffer(vertexBuffer)
@@ -184,6 +214,170 @@ public class GDALRasterModelFactory
 		geometry.setUseZMasking(nodata != null);
 	}
 
+	/**
+	 * The set of block-aligned windows of a raster band that need to be
+	 * projected into a vertex buffer. Workers claim windows in turn until none
+	 * remain.
+	 */
+	private static class VertexWindows
+	{
+		private final Band band;
+		private final double[] geoTransform;
+		private final ByteBuffer vertexBuffer;
+		private final int stride;
+		private final double elevationOffset;
+		private final double elevationScale;
+		private final Double scaledNodata;
+
+		private final int rasterXSize;
+		private final int rasterYSize;
+		private final int numColumns;
+		private final int windowXSize;
+		private final int windowYSize;
+		private final int windowsX;
+		private final int count;
+		private final AtomicInteger next = new AtomicInteger();
+
+		public VertexWindows(Band band, double[] geoTransform, ByteBuffer vertexBuffer, int stride,
+				double elevationOffset, double elevationScale, Double scaledNodata)
+		{
+			this.band = band;
+			this.geoTransform = geoTransform;
+			this.vertexBuffer = vertexBuffer;
+			this.stride = stride;
+			this.elevationOffset = elevationOffset;
+			this.elevationScale = elevationScale;
+			this.scaledNodata = scaledNodata;
+
+			rasterXSize = band.getXSize();
+			rasterYSize = band.getYSize();
+			numColumns = subsample(rasterXSize, stride);
+
+			int[] blockXSize = new int[1];
+			int[] blockYSize = new int[1];
+			band.GetBlockSize(blockXSize, blockYSize);
+			int blockX = Math.max(1, Math.min(blockXSize[0], rasterXSize));
+			int blockY = Math.max(1, Math.min(blockYSize[0], rasterYSize));
+
+			// Group whole blocks into windows of a reasonable size (eg. strips of single row blocks)
+			int blocksPerWindow = Math.max(1, WINDOW_PIXELS / (blockX * blockY));
+			windowXSize = blockX;
+			windowYSize = Math.min(rasterYSize, blockY * blocksPerWindow);
+
+			windowsX = subsample(rasterXSize, windowXSize);
+			count = windowsX * subsample(rasterYSize, windowYSize);
+		}
+
+		/**
+		 * Project windows into the vertex buffer until there are none left.
+		 * 
+		 * @return Statistics for the vertices projected by this worker
+		 */
+		public WindowStatistics project(CoordinateTransformation coordinateTransformation)
+		{
+			WindowStatistics stats = new WindowStatistics();
+			double[] row = new double[windowXSize];
+			double[] transformedCoords = new double[2];
+			double[] projectedCoords = new double[VERTEX_GROUP_SIZE];
+
+			int window;
+			while ((window = next.getAndIncrement()) < count)
+			{
+				int x0 = (window % windowsX) * windowXSize;
+				int y0 = (window / windowsX) * windowYSize;
+				int x1 = Math.min(rasterXSize, x0 + windowXSize);
+				int y1 = Math.min(rasterYSize, y0 + windowYSize);
+
+				// Only the sampled rows and columns within the window are needed
+				int firstX = alignUp(x0, stride);
+				int firstY = alignUp(y0, stride);
+				if (firstX >= x1)
+				{
+					continue;
+				}
+
+				for (int y = firstY; y < y1; y += stride)
+				{
+					// GDAL datasets can't be read concurrently; projection is the expensive part anyway
+					synchronized (band)
+					{
+						band.ReadRaster(x0, y, x1 - x0, 1, gdalconstConstants.GDT_Float64, row);
+					}
+
+					int vertexIndex = (y / stride) * numColumns + firstX / stride;
+					for (int x = firstX; x < x1; x += stride, vertexIndex++)
+					{
+						double elevation = elevationOffset + (elevationScale * row[x - x0]);
+
+						transformCoordinates(geoTransform, x, y, transformedCoords);
+						projectCoordinates(coordinateTransformation,
+								transformedCoords[0],
+								transformedCoords[1],
+								elevation,
+								projectedCoords);
+
+						int offset = vertexIndex * VERTEX_GROUP_SIZE * BufferType.FLOAT.getNumberOfBytes();
+						vertexBuffer.putFloat(offset, (float) projectedCoords[0]);
+						vertexBuffer.putFloat(offset + 4, (float) projectedCoords[1]);
+						vertexBuffer.putFloat(offset + 8, (float) projectedCoords[2]);
+
+						if (!isNoData(scaledNodata, elevation))
+						{
+							stats.update(projectedCoords[1], projectedCoords[0], projectedCoords[2]);
+						}
+					}
+				}
+			}
+			return stats;
+		}
+
+		private static int alignUp(int value, int stride)
+		{
+			return ((value + stride - 1) / stride) * stride;
+		}
+	}
+
+	/**
+	 * Primitive min/max statistics gathered by a single worker, merged into
+	 * the {@link ModelGeometryStatistics} once the worker completes.
+	 */
+	private static class WindowStatistics
+	{
+		private double minLat = Double.POSITIVE_INFINITY;
+		private double maxLat = Double.NEGATIVE_INFINITY;
+		private double minLon = Double.POSITIVE_INFINITY;
+		private double maxLon = Double.NEGATIVE_INFINITY;
+		private double minElevation = Double.POSITIVE_INFINITY;
+		private double maxElevation = Double.NEGATIVE_INFINITY;
+		private long numPoints;
+
+		public void update(double lat, double lon, double elevation)
+		{
+			minLat = Math.min(minLat, lat);
+			maxLat = Math.max(maxLat, lat);
+			minLon = Math.min(minLon, lon);
+			maxLon = Math.max(maxLon, lon);
+			minElevation = Math.min(minElevation, elevation);
+			maxElevation = Math.max(maxElevation, elevation);
+			numPoints++;
+		}
+
+		public void updateStats(ModelGeometryStatistics stats)
+		{
+			if (numPoints == 0)
+			{
+				return;
+			}
+			stats.updateLatStats(minLat);
+			stats.updateLatStats(maxLat);
+			stats.updateLonStats(minLon);
+			stats.updateLonStats(maxLon);
+			stats.updateElevationStats(minElevation);
+			stats.updateElevationStats(maxElevation);
+			stats.setNumPoints(stats.getNumPoints() + numPoints);
+		}
+	}
+
 	/**
 	 * Create and return a vertex colour data object containing RGBA values for
 	 * each vertex based on a color map contained in the provided parameters.
@@ -211,34 +405,33 @@ public class GDALRasterModelFactory
 		int numVertices = vertices.getNumberOfGroups();
 
 		ByteBuffer coloursBuffer = allocateVertexColourBuffer(numVertices);
-		ByteBuffer verticesBuffer = vertices.getSource();
+		BufferView elevations = new BufferView(vertices.getSource(), vertices.getBufferType(), 2, 3);
 
-		float[] rgba = new float[4];
-		for (int i = 0; i < numVertices; i++)
-		{
-			BufferUtil.skipValues(2, verticesBuffer, vertices.getBufferType());
-			float elevation = BufferUtil.getValue(verticesBuffer, vertices.getBufferType()).floatValue();
-
-			Color color;
+		ColorLookupTable lookupTable = map.toLookupTable(stats.getMinElevation(), stats.getMaxElevation());
+		Color nodataColor = map.getNodataColour() != null ? map.getNodataColour() : DEFAULT_NODATA_COLOR;
+		int nodataARGB = nodataColor.getRGB();
+		boolean hasNodata = vertices.getNoDataValue() != null;
+		float nodata = hasNodata ? (Float) vertices.getNoDataValue() : 0;
 
-			if (vertices.getNoDataValue() != null && isNoData((Float) vertices.getNoDataValue(), elevation))
+		float[] elevationChunk = new float[VERTEX_COLOUR_CHUNK_SIZE];
+		int[] colourChunk = new int[VERTEX_COLOUR_CHUNK_SIZE];
+		for (int start = 0; start < numVertices; start += VERTEX_COLOUR_CHUNK_SIZE)
+		{
+			int count = Math.min(VERTEX_COLOUR_CHUNK_SIZE, numVertices - start);
+			for (int i = 0; i < count; i++)
 			{
-				color = map.getNodataColour();
-				if (color == null)
-				{
-					color = DEFAULT_NODATA_COLOR;
-				}
+				elevationChunk[i] = elevations.getFloat(start + i);
 			}
-			else
+			lookupTable.map(elevationChunk, 0, colourChunk, 0, count);
+
+			for (int i = 0; i < count; i++)
 			{
-				color = map.getColor(elevation, stats.getMinElevation(), stats.getMaxElevation());
+				int argb = hasNodata && elevationChunk[i] == nodata ? nodataARGB : colourChunk[i];
+				coloursBuffer.putFloat(((argb >> 16) & 0xff) / 255f);
+				coloursBuffer.putFloat(((argb >> 8) & 0xff) / 255f);
+				coloursBuffer.putFloat((argb & 0xff) / 255f);
+				coloursBuffer.putFloat(((argb >> 24) & 0xff) / 255f);
 			}
-
-			color.getRGBComponents(rgba);
-			coloursBuffer.putFloat(rgba[0]);
-			coloursBuffer.putFloat(rgba[1]);
-			coloursBuffer.putFloat(rgba[2]);
-			coloursBuffer.putFloat(rgba[3]);
 		}
 
 		IModelData vertexColours = ModelDataBuilder.createFromBuffer(coloursBuffer)
@@ -309,6 +502,9 @@ public class GDALRasterModelFactory
 
 		geometry.setEdgeIndices(edges);
 		geometry.setFaceType(FaceType.TRIANGLE_STRIP);
+
+		// Allows renderers to triangulate the vertices at multiple levels of detail
+		geometry.setGridSize(numColumns, numRows);
 	}
 
 	private static ByteBuffer allocateVerticesBuffer(int rasterXSize, int rasterYSize, int subsample)
@@ -355,14 +551,6 @@ public class GDALRasterModelFactory
 		return coordinateTransformation;
 	}
 
-	private static ByteBuffer readRasterBuffer(Band band, int columns, int rows)
-	{
-		ByteBuffer buffer = band.ReadRaster_Direct(0, 0, columns, rows, band.getDataType());
-		buffer.order(ByteOrder.nativeOrder()); // @see Band.ReadRaster_Direct
-		buffer.rewind();
-		return buffer;
-	}
-
 	private static Double getNodata(Band band)
 	{
 		Double[] nodatas = new Double[1];
@@ -499,26 +687,6 @@ public class GDALRasterModelFactory
 		return false;
 	}
 
-	/**
-	 * @return <code>true</code> if any value in the provided values is NODATA
-	 */
-	private static boolean isNoData(Float nodata, float... values)
-	{
-		if (nodata == null)
-		{
-			return false;
-		}
-
-		for (float f : values)
-		{
-			if (f == nodata)
-			{
-				return true;
-			}
-		}
-		return false;
-	}
-
 	/**
 	 * @return <code>true</code> if any value in the provided values is NaN
 	 */
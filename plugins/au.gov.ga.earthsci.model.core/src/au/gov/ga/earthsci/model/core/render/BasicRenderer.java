@@ -1,7 +1,18 @@
 package au.gov.ga.earthsci.model.core.render;
 
+import gov.nasa.worldwind.View;
+import gov.nasa.worldwind.geom.Angle;
+import gov.nasa.worldwind.geom.Frustum;
+import gov.nasa.worldwind.geom.Sphere;
+import gov.nasa.worldwind.geom.Vec4;
+import gov.nasa.worldwind.globes.Globe;
 import gov.nasa.worldwind.util.OGLStackHandler;
 
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.media.opengl.GL2;
@@ -13,6 +24,8 @@ import org.slf4j.LoggerFactory;
 
 import au.gov.ga.earthsci.common.color.ColorType;
 import au.gov.ga.earthsci.common.util.Validate;
+import au.gov.ga.earthsci.model.core.render.ChunkedGridMesh.Chunk;
+import au.gov.ga.earthsci.model.geometry.IGriddedGeometry;
 import au.gov.ga.earthsci.model.geometry.IMeshGeometry;
 import au.gov.ga.earthsci.model.geometry.IModelGeometry;
 import au.gov.ga.earthsci.model.geometry.IVertexBasedGeometry;
@@ -22,10 +35,15 @@ import au.gov.ga.earthsci.model.render.IModelGeometryRenderer;
 import au.gov.ga.earthsci.worldwind.common.WorldWindowRegistry;
 import au.gov.ga.earthsci.worldwind.common.exaggeration.VerticalExaggerationService;
 import au.gov.ga.earthsci.worldwind.common.render.fastshape.AbstractVBO;
+import au.gov.ga.earthsci.worldwind.common.render.fastshape.IntIndexVBO;
 
 /**
  * A basic {@link IModelGeometryRenderer} that supports
  * {@link IVertexBasedGeometry} and {@link IVertexColouredGeometry} instances
+ * <p/>
+ * Gridded geometries (see {@link IGriddedGeometry}) are rendered using a
+ * {@link ChunkedGridMesh}, with the level of detail of each chunk chosen each
+ * frame by its screen-space error.
  * 
  * @author James Navin (james.navin@ga.gov.au)
  * 
@@ -35,6 +53,9 @@ public class BasicRenderer implements IModelGeometryRenderer
 
 	private static final Logger logger = LoggerFactory.getLogger(BasicRenderer.class);
 
+	/** Maximum projected size of a mesh cell (in pixels) before a chunk is refined */
+	private static final double LOD_PIXEL_ERROR = 4.0;
+
 	private VerticalExaggerationService veService = VerticalExaggerationService.INSTANCE;
 	private WorldWindowRegistry wwRegistry;
 	private IVertexBasedGeometry geometry;
@@ -47,6 +68,13 @@ public class BasicRenderer implements IModelGeometryRenderer
 
 	private Integer renderMode;
 
+	private ChunkedGridMesh lodMesh;
+	private IntIndexVBO lodIndexVBO;
+	private int[] lodIndices;
+	private final Map<Chunk, Sphere> chunkExtents = new HashMap<Chunk, Sphere>();
+	private Globe extentsGlobe;
+	private double extentsVerticalExaggeration;
+
 	private BasicRendererShader shader = new BasicRendererShader();
 
 	/**
@@ -111,7 +139,23 @@ public class BasicRenderer implements IModelGeometryRenderer
 			vertexVBO.bind(gl);
 			gl.glVertexPointer(geometry.getVertices().getGroupSize(), GL2.GL_FLOAT, 0, 0);
 
-			if (edgesVBO != null)
+			if (lodMesh != null)
+			{
+				int[] indices = selectLevelOfDetail(wwRegistry.getRenderingView());
+				if (indices != lodIndices)
+				{
+					lodIndices = indices;
+					lodIndexVBO.setBuffer(indices);
+				}
+				if (indices.length > 0)
+				{
+					//the chunks are always triangulated, so apply the render mode as a polygon mode
+					gl.glPolygonMode(GL2.GL_FRONT_AND_BACK, getPolygonModeForRenderMode(renderMode));
+					lodIndexVBO.bind(gl);
+					gl.glDrawElements(GL2.GL_TRIANGLES, indices.length, GL2.GL_UNSIGNED_INT, 0);
+				}
+			}
+			else if (edgesVBO != null)
 			{
 				edgesVBO.bind(gl);
 				gl.glDrawElements(renderMode, ((IMeshGeometry) geometry).getEdgeIndices().getNumberOfValues(),
@@ -145,7 +189,14 @@ public class BasicRenderer implements IModelGeometryRenderer
 		{
 			vertexVBO = ModelDataVBO.createDataVBO(geometry.getVertices());
 		}
-		if (edgesVBO == null && geometryHasEdges())
+		if (lodMesh == null && geometryIsGridded())
+		{
+			IGriddedGeometry gridded = (IGriddedGeometry) geometry;
+			lodMesh = new ChunkedGridMesh(gridded.getGridColumns(), gridded.getGridRows(),
+					ChunkedGridMesh.DEFAULT_CHUNK_CELLS);
+			lodIndexVBO = new IntIndexVBO();
+		}
+		if (lodMesh == null && edgesVBO == null && geometryHasEdges())
 		{
 			edgesVBO = ModelDataVBO.createIndexVBO(((IMeshGeometry) geometry).getEdgeIndices());
 		}
@@ -168,6 +219,130 @@ public class BasicRenderer implements IModelGeometryRenderer
 		return geometry instanceof IMeshGeometry && ((IMeshGeometry) geometry).hasEdgeIndices();
 	}
 
+	private boolean geometryIsGridded()
+	{
+		if (!(geometry instanceof IGriddedGeometry && geometry instanceof IMeshGeometry))
+		{
+			return false;
+		}
+		IGriddedGeometry gridded = (IGriddedGeometry) geometry;
+		return gridded.isGridded() && gridded.getGridColumns() > 1 && gridded.getGridRows() > 1
+				&& gridded.getGridColumns() * gridded.getGridRows() == geometry.getVertices().getNumberOfGroups();
+	}
+
+	/**
+	 * Select the chunks of the level-of-detail mesh to render for the given
+	 * view, culling chunks outside the view frustum and refining chunks whose
+	 * cells would appear larger than {@link #LOD_PIXEL_ERROR} pixels.
+	 * 
+	 * @return Triangle indices of the selected chunks
+	 */
+	private int[] selectLevelOfDetail(View view)
+	{
+		final Globe globe = view.getGlobe();
+		final double ve = veService.get();
+		if (globe != extentsGlobe || ve != extentsVerticalExaggeration)
+		{
+			chunkExtents.clear();
+			extentsGlobe = globe;
+			extentsVerticalExaggeration = ve;
+		}
+
+		final Vec4 eye = view.getEyePoint();
+		final Frustum frustum = view.getFrustumInModelCoordinates();
+		final double pixelsPerUnit =
+				view.getViewport().getWidth() / (2.0 * Math.tan(view.getFieldOfView().radians / 2.0));
+
+		lodMesh.select(new ChunkedGridMesh.ISelector()
+		{
+			@Override
+			public boolean isVisible(Chunk chunk)
+			{
+				Sphere extent = getChunkExtent(chunk, globe, ve);
+				return extent != null && frustum.intersects(extent);
+			}
+
+			@Override
+			public boolean shouldRefine(Chunk chunk)
+			{
+				Sphere extent = getChunkExtent(chunk, globe, ve);
+				int cells = Math.max(chunk.getEndColumn() - chunk.getColumn(), chunk.getEndRow() - chunk.getRow())
+						/ chunk.getStep();
+				double cellSize = extent.getDiameter() / Math.max(1, cells);
+				double distance = Math.max(1.0, eye.distanceTo3(extent.getCenter()) - extent.getRadius());
+				return cellSize * pixelsPerUnit / distance > LOD_PIXEL_ERROR;
+			}
+		});
+		return lodMesh.getIndices();
+	}
+
+	/**
+	 * Calculate (or get the cached) bounding sphere of the given chunk. The
+	 * elevation range is sampled from the chunk's own vertices.
+	 * 
+	 * @return The chunk's bounds, or <code>null</code> if all of the chunk's
+	 *         vertices are NODATA
+	 */
+	private Sphere getChunkExtent(Chunk chunk, Globe globe, double ve)
+	{
+		if (chunkExtents.containsKey(chunk))
+		{
+			return chunkExtents.get(chunk);
+		}
+
+		ByteBuffer vertices = geometry.getVertices().getSource();
+		Object nodataValue = geometry.getVertices().getNoDataValue();
+		float nodata = nodataValue instanceof Float ? (Float) nodataValue : Float.NaN;
+		int columns = lodMesh.getColumns();
+		int vertexSize = geometry.getVertices().getGroupSize() * 4;
+
+		double minElevation = Double.POSITIVE_INFINITY;
+		double maxElevation = Double.NEGATIVE_INFINITY;
+		for (int row = chunk.getRow(); row <= chunk.getEndRow(); row =
+				nextSample(row, chunk.getStep(), chunk.getEndRow()))
+		{
+			for (int column = chunk.getColumn(); column <= chunk.getEndColumn(); column =
+					nextSample(column, chunk.getStep(), chunk.getEndColumn()))
+			{
+				float elevation = vertices.getFloat((row * columns + column) * vertexSize + 8);
+				if (elevation != nodata && !Float.isNaN(elevation))
+				{
+					minElevation = Math.min(minElevation, elevation);
+					maxElevation = Math.max(maxElevation, elevation);
+				}
+			}
+		}
+
+		Sphere extent = null;
+		if (minElevation <= maxElevation)
+		{
+			//corners, edge midpoints and center, at the minimum and maximum elevations
+			int[] sampleColumns =
+					{ chunk.getColumn(), (chunk.getColumn() + chunk.getEndColumn()) / 2, chunk.getEndColumn() };
+			int[] sampleRows = { chunk.getRow(), (chunk.getRow() + chunk.getEndRow()) / 2, chunk.getEndRow() };
+			List<Vec4> points = new ArrayList<Vec4>(18);
+			for (int row : sampleRows)
+			{
+				for (int column : sampleColumns)
+				{
+					int offset = (row * columns + column) * vertexSize;
+					Angle longitude = Angle.fromDegrees(vertices.getFloat(offset));
+					Angle latitude = Angle.fromDegrees(vertices.getFloat(offset + 4));
+					points.add(globe.computePointFromPosition(latitude, longitude, minElevation * ve));
+					points.add(globe.computePointFromPosition(latitude, longitude, maxElevation * ve));
+				}
+			}
+			extent = Sphere.createBoundingSphere(points.toArray(new Vec4[points.size()]));
+		}
+		chunkExtents.put(chunk, extent);
+		return extent;
+	}
+
+	private static int nextSample(int value, int step, int end)
+	{
+		return value < end ? Math.min(value + step, end) : end + 1;
+	}
+
 	private boolean geometryHasVertexColours()
 	{
 		return geometry instanceof IVertexColouredGeometry && ((IVertexColouredGeometry) geometry).hasVertexColour();
@@ -252,6 +427,30 @@ public class BasicRenderer implements IModelGeometryRenderer
 		return mode;
 	}
 
+	/**
+	 * Get the polygon mode that renders triangles in the style of the given
+	 * render mode: line modes are rendered as wireframe, point mode as the
+	 * triangle vertices, and face modes as filled triangles.
+	 * 
+	 * @param renderMode
+	 *            Render mode to get the polygon mode for
+	 * @return {@link GL2#GL_FILL}, {@link GL2#GL_LINE} or {@link GL2#GL_POINT}
+	 */
+	static int getPolygonModeForRenderMode(int renderMode)
+	{
+		switch (renderMode)
+		{
+		case GL2.GL_POINTS:
+			return GL2.GL_POINT;
+		case GL2.GL_LINES:
+		case GL2.GL_LINE_STRIP:
+		case GL2.GL_LINE_LOOP:
+			return GL2.GL_LINE;
+		default:
+			return GL2.GL_FILL;
+		}
+	}
+
 	private ColorType getColourTypeForGeometry()
 	{
 		if (geometry instanceof IVertexColouredGeometry)
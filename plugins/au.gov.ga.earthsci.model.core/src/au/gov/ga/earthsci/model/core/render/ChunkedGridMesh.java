@@ -0,0 +1,510 @@
+/*******************************************************************************
+ * Copyright 2026 Geoscience Australia
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package au.gov.ga.earthsci.model.core.render;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import au.gov.ga.earthsci.model.geometry.IGriddedGeometry;
+
+/**
+ * A chunked level-of-detail representation of a regular grid of vertices (see
+ * {@link IGriddedGeometry}).
+ * <p/>
+ * The grid is divided into a quadtree of chunks. Every chunk contains the same
+ * number of cells, so the root chunk covers the whole grid at a coarse vertex
+ * step, and each level down halves the step until the leaf chunks use every
+ * vertex. All chunks index into the same vertex array, so only triangle
+ * indices are generated per chunk.
+ * <p/>
+ * Each frame a set of chunks is chosen by {@link #select(ISelector)}, and the
+ * triangle indices for the selection are returned by {@link #getIndices()}.
+ * Where a chunk borders a coarser chunk, the vertices along the shared edge are
+ * snapped onto the coarser chunk's vertices, so that seams between levels are
+ * crack-free (provided adjacent chunks differ by no more than log2(chunkCells)
+ * levels, which screen-space error selection stays well within).
+ * 
+ * @author James Navin (james.navin@ga.gov.au)
+ */
+public class ChunkedGridMesh
+{
+	public static final int DEFAULT_CHUNK_CELLS = 64;
+
+	/**
+	 * Decides which chunks are selected for rendering.
+	 */
+	public static interface ISelector
+	{
+		/**
+		 * @return Whether any part of the given chunk is visible
+		 */
+		boolean isVisible(Chunk chunk);
+
+		/**
+		 * @return Whether the given chunk is too coarse, and should be replaced
+		 *         by its children
+		 */
+		boolean shouldRefine(Chunk chunk);
+	}
+
+	private final int columns;
+	private final int rows;
+	private final int chunkCells;
+	private final Chunk root;
+
+	private int frame;
+	private List<Chunk> selected = new ArrayList<Chunk>();
+	private List<Chunk> lastSelected = new ArrayList<Chunk>();
+	private int[] lastKeys = new int[0];
+	private int[] indices = new int[0];
+
+	/**
+	 * Create a new chunked mesh for a grid of the given dimensions.
+	 * 
+	 * @param columns
+	 *            Number of vertex columns in the grid (at least 2)
+	 * @param rows
+	 *            Number of vertex rows in the grid (at least 2)
+	 * @param chunkCells
+	 *            Number of cells along each side of a chunk (a power of two)
+	 */
+	public ChunkedGridMesh(int columns, int rows, int chunkCells)
+	{
+		if (columns < 2 || rows < 2)
+		{
+			throw new IllegalArgumentException("Invalid grid size " + columns + "x" + rows); //$NON-NLS-1$ //$NON-NLS-2$
+		}
+		if (chunkCells < 1 || Integer.bitCount(chunkCells) != 1)
+		{
+			throw new IllegalArgumentException("Chunk cells must be a power of two: " + chunkCells); //$NON-NLS-1$
+		}
+		this.columns = columns;
+		this.rows = rows;
+		this.chunkCells = chunkCells;
+
+		int cells = Math.max(columns - 1, rows - 1);
+		int step = 1;
+		while (step * chunkCells < cells)
+		{
+			step *= 2;
+		}
+		root = new Chunk(0, 0, 0, step);
+	}
+
+	/**
+	 * @return Number of vertex columns in the grid
+	 */
+	public int getColumns()
+	{
+		return columns;
+	}
+
+	/**
+	 * @return Number of vertex rows in the grid
+	 */
+	public int getRows()
+	{
+		return rows;
+	}
+
+	/**
+	 * @return The chunk covering the whole grid
+	 */
+	public Chunk getRoot()
+	{
+		return root;
+	}
+
+	/**
+	 * Select the chunks to render, starting at the root and refining chunks
+	 * while the selector requests it.
+	 * 
+	 * @param selector
+	 * @return The selected chunks
+	 */
+	public List<Chunk> select(ISelector selector)
+	{
+		frame++;
+		List<Chunk> swap = lastSelected;
+		lastSelected = selected;
+		selected = swap;
+		selected.clear();
+		select(root, selector);
+
+		//release the cached triangulations of chunks that are no longer selected
+		for (Chunk chunk : lastSelected)
+		{
+			if (chunk.selectedFrame != frame)
+			{
+				chunk.cachedIndices = null;
+			}
+		}
+		return selected;
+	}
+
+	private void select(Chunk chunk, ISelector selector)
+	{
+		if (!selector.isVisible(chunk))
+		{
+			//culled chunks still count as terminal for the seam calculations of their neighbours
+			chunk.terminalFrame = frame;
+			return;
+		}
+		if (chunk.step > 1 && selector.shouldRefine(chunk))
+		{
+			for (Chunk child : chunk.getChildren())
+			{
+				select(child, selector);
+			}
+			return;
+		}
+		chunk.terminalFrame = frame;
+		chunk.selectedFrame = frame;
+		selected.add(chunk);
+	}
+
+	/**
+	 * Calculate the {@link javax.media.opengl.GL#GL_TRIANGLES} indices for the
+	 * chunks chosen by the last call to {@link #select(ISelector)}. If the
+	 * selection (and seams) are the same as the previous call, the same array
+	 * instance is returned.
+	 * 
+	 * @return Triangle indices into the grid vertices
+	 */
+	public int[] getIndices()
+	{
+		int[] keys = new int[selected.size()];
+		for (int i = 0; i < keys.length; i++)
+		{
+			keys[i] = seamKey(selected.get(i));
+		}
+		if (!selectionChanged(keys))
+		{
+			return indices;
+		}
+
+		int count = 0;
+		int[][] chunkIndices = new int[keys.length][];
+		for (int i = 0; i < keys.length; i++)
+		{
+			chunkIndices[i] = selected.get(i).triangulate(keys[i]);
+			count += chunkIndices[i].length;
+		}
+		int[] result = new int[count];
+		int position = 0;
+		for (int[] ci : chunkIndices)
+		{
+			System.arraycopy(ci, 0, result, position, ci.length);
+			position += ci.length;
+		}
+
+		lastKeys = keys;
+		indices = result;
+		return indices;
+	}
+
+	private boolean selectionChanged(int[] keys)
+	{
+		if (keys.length != lastKeys.length || selected.size() != lastSelected.size())
+		{
+			return true;
+		}
+		for (int i = 0; i < keys.length; i++)
+		{
+			if (keys[i] != lastKeys[i] || selected.get(i) != lastSelected.get(i))
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Encode the vertex steps that the given chunk must use along each of its
+	 * edges, as log2 multiples of the chunk's own step (5 bits per edge).
+	 */
+	private int seamKey(Chunk chunk)
+	{
+		int midColumn = (chunk.column + chunk.getEndColumn()) / 2;
+		int midRow = (chunk.row + chunk.getEndRow()) / 2;
+		int top = edgeShift(chunk, midColumn, chunk.row - 1);
+		int bottom = edgeShift(chunk, midColumn, chunk.getEndRow());
+		int left = edgeShift(chunk, chunk.column - 1, midRow);
+		int right = edgeShift(chunk, chunk.getEndColumn(), midRow);
+		return top | (bottom << 5) | (left << 10) | (right << 15);
+	}
+
+	private int edgeShift(Chunk chunk, int cellColumn, int cellRow)
+	{
+		int neighbourStep = stepAt(cellColumn, cellRow);
+		int shift = 0;
+		while ((chunk.step << shift) < neighbourStep)
+		{
+			shift++;
+		}
+		return shift;
+	}
+
+	/**
+	 * @return The step of the terminal chunk containing the given cell, or 0
+	 *         if the cell is outside the grid
+	 */
+	private int stepAt(int cellColumn, int cellRow)
+	{
+		if (cellColumn < 0 || cellRow < 0 || cellColumn >= columns - 1 || cellRow >= rows - 1)
+		{
+			return 0;
+		}
+		Chunk chunk = root;
+		while (chunk.terminalFrame != frame && chunk.children != null)
+		{
+			Chunk next = null;
+			for (Chunk child : chunk.children)
+			{
+				if (child.containsCell(cellColumn, cellRow))
+				{
+					next = child;
+					break;
+				}
+			}
+			if (next == null)
+			{
+				break;
+			}
+			chunk = next;
+		}
+		return chunk.step;
+	}
+
+	/**
+	 * A single chunk in the quadtree. Covers a square block of grid cells
+	 * (clipped to the grid) at a particular vertex step.
+	 */
+	public class Chunk
+	{
+		private final int level;
+		private final int column;
+		private final int row;
+		private final int step;
+
+		private Chunk[] children;
+		private int terminalFrame = -1;
+		private int selectedFrame = -1;
+		private int cachedKey;
+		private int[] cachedIndices;
+
+		private Chunk(int level, int column, int row, int step)
+		{
+			this.level = level;
+			this.column = column;
+			this.row = row;
+			this.step = step;
+		}
+
+		/**
+		 * @return Depth of this chunk in the quadtree; 0 for the root
+		 */
+		public int getLevel()
+		{
+			return level;
+		}
+
+		/**
+		 * @return Number of grid cells between adjacent vertices of this chunk
+		 */
+		public int getStep()
+		{
+			return step;
+		}
+
+		/**
+		 * @return First vertex column of this chunk
+		 */
+		public int getColumn()
+		{
+			return column;
+		}
+
+		/**
+		 * @return First vertex row of this chunk
+		 */
+		public int getRow()
+		{
+			return row;
+		}
+
+		/**
+		 * @return Last vertex column of this chunk (inclusive)
+		 */
+		public int getEndColumn()
+		{
+			return Math.min(column + chunkCells * step, columns - 1);
+		}
+
+		/**
+		 * @return Last vertex row of this chunk (inclusive)
+		 */
+		public int getEndRow()
+		{
+			return Math.min(row + chunkCells * step, rows - 1);
+		}
+
+		/**
+		 * @return The child chunks at the next finer level, or an empty array
+		 *         if this is a leaf chunk
+		 */
+		public Chunk[] getChildren()
+		{
+			if (children == null)
+			{
+				if (step == 1)
+				{
+					children = new Chunk[0];
+				}
+				else
+				{
+					int childStep = step / 2;
+					int half = chunkCells * childStep;
+					List<Chunk> list = new ArrayList<Chunk>(4);
+					for (int y = row; y < row + 2 * half; y += half)
+					{
+						for (int x = column; x < column + 2 * half; x += half)
+						{
+							if (x < columns - 1 && y < rows - 1)
+							{
+								list.add(new Chunk(level + 1, x, y, childStep));
+							}
+						}
+					}
+					children = list.toArray(new Chunk[list.size()]);
+				}
+			}
+			return children;
+		}
+
+		private boolean containsCell(int cellColumn, int cellRow)
+		{
+			int size = chunkCells * step;
+			return cellColumn >= column && cellColumn < column + size && cellRow >= row && cellRow < row + size;
+		}
+
+		/**
+		 * Generate the triangles for this chunk, snapping edge vertices to
+		 * the coarser steps encoded in the given seam key.
+		 */
+		private int[] triangulate(int key)
+		{
+			if (cachedIndices != null && cachedKey == key)
+			{
+				return cachedIndices;
+			}
+
+			int topStep = step << (key & 31);
+			int bottomStep = step << ((key >> 5) & 31);
+			int leftStep = step << ((key >> 10) & 31);
+			int rightStep = step << ((key >> 15) & 31);
+
+			int endColumn = getEndColumn();
+			int endRow = getEndRow();
+			int cellsX = (endColumn - column + step - 1) / step;
+			int cellsY = (endRow - row + step - 1) / step;
+
+			int[] result = new int[cellsX * cellsY * 6];
+			int count = 0;
+			for (int j = 0; j < cellsY; j++)
+			{
+				int y0 = row + j * step;
+				int y1 = Math.min(y0 + step, endRow);
+				for (int i = 0; i < cellsX; i++)
+				{
+					int x0 = column + i * step;
+					int x1 = Math.min(x0 + step, endColumn);
+
+					int tl = index(x0, y0, endColumn, endRow, topStep, bottomStep, leftStep, rightStep);
+					int tr = index(x1, y0, endColumn, endRow, topStep, bottomStep, leftStep, rightStep);
+					int bl = index(x0, y1, endColumn, endRow, topStep, bottomStep, leftStep, rightStep);
+					int br = index(x1, y1, endColumn, endRow, topStep, bottomStep, leftStep, rightStep);
+
+					//skip triangles that have collapsed due to snapping
+					if (i == cellsX - 1 && j == cellsY - 1)
+					{
+						//in the bottom-right cell both bl and tr can be snapped, which would leave tl
+						//lying on the bl-tr diagonal (a T-junction), so split along the other diagonal
+						count = addTriangle(result, count, tl, bl, br);
+						count = addTriangle(result, count, tl, br, tr);
+					}
+					else
+					{
+						count = addTriangle(result, count, tl, bl, tr);
+						count = addTriangle(result, count, tr, bl, br);
+					}
+				}
+			}
+			if (count < result.length)
+			{
+				int[] trimmed = new int[count];
+				System.arraycopy(result, 0, trimmed, 0, count);
+				result = trimmed;
+			}
+
+			cachedKey = key;
+			cachedIndices = result;
+			return result;
+		}
+
+		private int addTriangle(int[] result, int count, int a, int b, int c)
+		{
+			if (a != b && a != c && b != c)
+			{
+				result[count++] = a;
+				result[count++] = b;
+				result[count++] = c;
+			}
+			return count;
+		}
+
+		private int index(int x, int y, int endColumn, int endRow, int topStep, int bottomStep, int leftStep,
+				int rightStep)
+		{
+			if (y == row)
+			{
+				x = snap(x, topStep, columns - 1);
+			}
+			else if (y == endRow)
+			{
+				x = snap(x, bottomStep, columns - 1);
+			}
+			if (x == column)
+			{
+				y = snap(y, leftStep, rows - 1);
+			}
+			else if (x == endColumn)
+			{
+				y = snap(y, rightStep, rows - 1);
+			}
+			return y * columns + x;
+		}
+
+		private int snap(int value, int coarseStep, int last)
+		{
+			if (coarseStep <= step || value == last)
+			{
+				return value;
+			}
+			return (value / coarseStep) * coarseStep;
+		}
+	}
+}
@@ -23,7 +23,7 @@ import au.gov.ga.earthsci.model.render.IModelGeometryRenderer;
  * @author James Navin (james.navin@ga.gov.au)
  */
 public class BasicColouredMeshGeometry extends AbstractPropertyChangeBean implements IMeshGeometry,
-		IVertexColouredGeometry, IVertexColourMappedGeometry, IMaskedGeometry
+		IVertexColouredGeometry, IVertexColourMappedGeometry, IMaskedGeometry, IGriddedGeometry
 {
 
 	private final String id;
@@ -48,6 +48,9 @@ public class BasicColouredMeshGeometry extends AbstractPropertyChangeBean implem
 	private IModelData edges;
 	private FaceType faceType;
 
+	private int gridColumns;
+	private int gridRows;
+
 	private IModelGeometryRenderer renderer;
 
 	private IBoundingVolume bounds;
@@ -187,6 +190,37 @@ public class BasicColouredMeshGeometry extends AbstractPropertyChangeBean implem
 		firePropertyChange(FACE_TYPE_EVENT_NAME, this.faceType, this.faceType = faceType);
 	}
 
+	@Override
+	public boolean isGridded()
+	{
+		return gridColumns > 0 && gridRows > 0;
+	}
+
+	@Override
+	public int getGridColumns()
+	{
+		return gridColumns;
+	}
+
+	@Override
+	public int getGridRows()
+	{
+		return gridRows;
+	}
+
+	/**
+	 * Mark the vertices of this geometry as forming a regular grid of the
+	 * given dimensions, in row-major order. Pass 0 for both to mark the
+	 * geometry as not gridded.
+	 */
+	public void setGridSize(int columns, int rows)
+	{
+		int[] oldValue = new int[] { gridColumns, gridRows };
+		this.gridColumns = columns;
+		this.gridRows = rows;
+		firePropertyChange(GRID_SIZE_EVENT_NAME, oldValue, new int[] { columns, rows });
+	}
+
 	@Override
 	public IModelData getNormals()
 	{
@@ -0,0 +1,51 @@
+/*******************************************************************************
+ * Copyright 2026 Geoscience Australia
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package au.gov.ga.earthsci.model.geometry;
+
+/**
+ * An {@link IVertexBasedGeometry} whose vertices may form a regular grid,
+ * stored in row-major order. Renderers can use the grid structure to
+ * triangulate the vertices at multiple levels of detail.
+ * <p/>
+ * <b>Events</b>
+ * <dl>
+ * <dt>{@value #GRID_SIZE_EVENT_NAME}</dt>
+ * <dd>Issued when the grid dimensions of this geometry change</dd>
+ * </dl>
+ * 
+ * @author James Navin (james.navin@ga.gov.au)
+ */
+public interface IGriddedGeometry extends IVertexBasedGeometry
+{
+	String GRID_SIZE_EVENT_NAME = "gridSize"; //$NON-NLS-1$
+
+	/**
+	 * @return Whether the vertices of this geometry form a regular grid
+	 */
+	boolean isGridded();
+
+	/**
+	 * @return The number of vertex columns in the grid, or 0 if this geometry
+	 *         is not gridded
+	 */
+	int getGridColumns();
+
+	/**
+	 * @return The number of vertex rows in the grid, or 0 if this geometry is
+	 *         not gridded
+	 */
+	int getGridRows();
+}
@@ -0,0 +1,244 @@
+/*******************************************************************************
+ * Copyright 2026 Geoscience Australia
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package au.gov.ga.earthsci.worldwind.common.layers.borehole;
+
+import static org.junit.Assert.*;
+import gov.nasa.worldwind.geom.Position;
+import gov.nasa.worldwind.render.Material;
+import gov.nasa.worldwind.render.markers.BasicMarkerAttributes;
+import gov.nasa.worldwind.render.markers.BasicMarkerShape;
+import gov.nasa.worldwind.render.markers.MarkerAttributes;
+
+import java.awt.Color;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for the {@link BoreholeStore} class
+ * 
+ * @author Michael de Hoog (michael.dehoog@ga.gov.au)
+ */
+public class BoreholeStoreTest
+{
+	private static final double EPSILON = 1e-9;
+
+	private BoreholeStore store;
+
+	@Before
+	public void setup()
+	{
+		store = new BoreholeStore();
+	}
+
+	@Test
+	public void testAddBoreholes()
+	{
+		int first = store.addBorehole(Position.fromDegrees(-20, 130, 100), 0xff0000, 8, "first", "http://first");
+		int second = store.addBorehole(Position.fromDegrees(-30, 140, 0), 0x00ff00, 4, null, null);
+
+		assertEquals(0, first);
+		assertEquals(1, second);
+		assertEquals(2, store.getBoreholeCount());
+		assertEquals(-20, store.getLatitude(first), EPSILON);
+		assertEquals(130, store.getLongitude(first), EPSILON);
+		assertEquals(100, store.getElevation(first), EPSILON);
+		assertEquals(0xff0000, store.getColor(first));
+		assertEquals("first", store.getText(first));
+		assertEquals("http://first", store.getLink(first));
+		assertNull(store.getText(second));
+	}
+
+	@Test
+	public void testInterleavedSamplesAreLinkedPerBorehole()
+	{
+		int first = store.addBorehole(Position.fromDegrees(0, 0, 0), 0, 1, null, null);
+		int second = store.addBorehole(Position.fromDegrees(1, 1, 0), 0, 1, null, null);
+		int s0 = store.addSample(first, 0, 10, 0x112233, "a", null);
+		int s1 = store.addSample(second, 0, 5, 0, "b", null);
+		int s2 = store.addSample(first, 10, 20, 0, "c", "link");
+
+		assertEquals(3, store.getSampleCount());
+		assertEquals(2, store.getSampleCount(first));
+		assertEquals(1, store.getSampleCount(second));
+		assertEquals(s0, store.getFirstSample(first));
+		assertEquals(s2, store.getNextSample(s0));
+		assertEquals(-1, store.getNextSample(s2));
+		assertEquals(s1, store.getFirstSample(second));
+		assertEquals(second, store.getSampleBorehole(s1));
+		assertEquals(10, store.getSampleDepthFrom(s2), EPSILON);
+		assertEquals(20, store.getSampleDepthTo(s2), EPSILON);
+		assertEquals(0x112233, store.getSampleColor(s0));
+		assertEquals("link", store.getSampleLink(s2));
+	}
+
+	@Test
+	public void testStoreGrowsBeyondInitialCapacity()
+	{
+		for (int i = 0; i < 1000; i++)
+		{
+			int hole = store.addBorehole(Position.fromDegrees(0, i * 0.01, 0), i, 1, null, null);
+			store.addPathPosition(hole, 0, Position.fromDegrees(0, i * 0.01, 0));
+			store.addPathPosition(hole, 10, Position.fromDegrees(0, i * 0.01, -10));
+			store.addSample(hole, 0, 10, i, null, null);
+		}
+
+		assertEquals(1000, store.getBoreholeCount());
+		assertEquals(1000, store.getSampleCount());
+		assertEquals(2000, store.getPathPositionCount());
+		assertEquals(999, store.getColor(999));
+		assertEquals(999, store.getSampleBorehole(999));
+	}
+
+	@Test
+	public void testPositionWithoutPathIsVerticalFromShallowestSample()
+	{
+		int hole = store.addBorehole(Position.fromDegrees(-20, 130, 100), 0, 1, null, null);
+		store.addSample(hole, 50, 60, 0, null, null);
+		store.addSample(hole, 60, 80, 0, null, null);
+
+		double[] position = new double[3];
+		store.getPosition(hole, 50, position, 0);
+		assertPosition(-20, 130, 100, position);
+		store.getPosition(hole, 80, position, 0);
+		assertPosition(-20, 130, 70, position);
+	}
+
+	@Test
+	public void testPositionMatchesBoreholePath()
+	{
+		Position[] path =
+				new Position[] { Position.fromDegrees(-20, 130, 0), Position.fromDegrees(-20.001, 130, -100),
+						Position.fromDegrees(-20.001, 130.002, -300) };
+		double[] depths = new double[] { 0, 100, 350 };
+
+		int hole = store.addBorehole(path[0], 0, 1, null, null);
+		BoreholeImpl borehole = new BoreholeImpl(path[0], null);
+		//add out of order, to check that the store sorts the path by depth
+		for (int i : new int[] { 2, 0, 1 })
+		{
+			store.addPathPosition(hole, depths[i], path[i]);
+			borehole.addPath(depths[i], path[i]);
+		}
+
+		double[] position = new double[3];
+		for (double depth : new double[] { -50, 0, 40, 100, 200, 350, 500 })
+		{
+			store.getPosition(hole, depth, position, 0);
+			Position expected = borehole.getPath().getPosition(depth);
+			assertPosition(expected.latitude.degrees, expected.longitude.degrees, expected.elevation, position);
+		}
+	}
+
+	@Test
+	public void testPathPositionAtSameDepthIsReplaced()
+	{
+		int hole = store.addBorehole(Position.fromDegrees(0, 0, 0), 0, 1, null, null);
+		store.addPathPosition(hole, 0, Position.fromDegrees(0, 0, 0));
+		store.addPathPosition(hole, 10, Position.fromDegrees(0, 0, -10));
+		store.addPathPosition(hole, 10, Position.fromDegrees(0, 0, -12));
+
+		assertEquals(2, store.getPathPositionCount());
+		assertEquals(1, store.getPathSegmentCount(hole));
+		double[] segments = new double[6];
+		assertEquals(6, store.getPathSegments(hole, segments, 0));
+		assertEquals(-12, segments[5], EPSILON);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testPathPositionsOnlyAddedToLastBorehole()
+	{
+		int first = store.addBorehole(Position.fromDegrees(0, 0, 0), 0, 1, null, null);
+		store.addBorehole(Position.fromDegrees(1, 1, 0), 0, 1, null, null);
+		store.addPathPosition(first, 0, Position.fromDegrees(0, 0, 0));
+	}
+
+	@Test
+	public void testPathSegmentsWithoutPath()
+	{
+		int empty = store.addBorehole(Position.fromDegrees(0, 0, 0), 0, 1, null, null);
+		int hole = store.addBorehole(Position.fromDegrees(0, 0, 10), 0, 1, null, null);
+		store.addSample(hole, 5, 15, 0, null, null);
+
+		assertEquals(0, store.getPathSegmentCount(empty));
+		assertEquals(1, store.getPathSegmentCount(hole));
+		double[] segments = new double[6];
+		assertEquals(6, store.getPathSegments(hole, segments, 0));
+		assertEquals(10, segments[2], EPSILON);
+		assertEquals(0, segments[5], EPSILON);
+	}
+
+	@Test
+	public void testCreateBorehole()
+	{
+		int hole = store.addBorehole(Position.fromDegrees(-20, 130, 0), 0x0000ff, 6, "text", "link");
+		store.addSample(hole, 0, 10, 0xff0000, "sample", "sampleLink");
+		store.addSample(hole, 10, 30, 0x00ff00, null, null);
+
+		BoreholeImpl borehole = store.createBorehole(hole);
+		assertEquals("text", borehole.getText());
+		assertEquals("link", borehole.getLink());
+		assertEquals(new Color(0x0000ff), borehole.getAttributes().getMaterial().getDiffuse());
+		assertEquals(2, borehole.getSamples().size());
+		assertEquals("sample", borehole.getSamples().get(0).getText());
+		assertEquals(new Color(0x00ff00), borehole.getSamples().get(1).getColor());
+		assertEquals(30, borehole.getSamples().get(1).getDepthTo(), EPSILON);
+		assertSame(borehole, borehole.getSamples().get(0).getBorehole());
+		assertEquals(2, borehole.getPath().getPositions().size());
+	}
+
+	@Test
+	public void testStyledAttributesAreKept()
+	{
+		MarkerAttributes attributes = new BasicMarkerAttributes(new Material(Color.RED), BasicMarkerShape.CUBE, 1);
+		attributes.setMarkerPixels(12);
+		int first = store.addBorehole(Position.fromDegrees(0, 0, 0), attributes, null, null);
+		int second = store.addBorehole(Position.fromDegrees(1, 1, 0), attributes, null, null);
+
+		assertEquals(Color.RED.getRGB() & 0xffffff, store.getColor(first));
+		assertEquals(12, store.getSize(first), EPSILON);
+		assertSame(attributes, store.getAttributes(first));
+		assertSame(attributes, store.getAttributes(second));
+		assertEquals(BasicMarkerShape.CUBE, store.createBorehole(second).getAttributes().getShapeType());
+	}
+
+	@Test
+	public void testAttributesCreatedFromColorAndSize()
+	{
+		int hole = store.addBorehole(Position.fromDegrees(0, 0, 0), 0x00ff00, 7, null, null);
+
+		MarkerAttributes attributes = store.getAttributes(hole);
+		assertEquals(new Color(0x00ff00), attributes.getMaterial().getDiffuse());
+		assertEquals(7, attributes.getMarkerPixels(), EPSILON);
+	}
+
+	@Test
+	public void testBoreholeList()
+	{
+		store.addBorehole(Position.fromDegrees(0, 0, 0), 0, 1, "a", null);
+		store.addBorehole(Position.fromDegrees(1, 1, 0), 0, 1, "b", null);
+
+		assertEquals(2, store.asBoreholeList().size());
+		assertEquals("b", store.asBoreholeList().get(1).getText());
+	}
+
+	private static void assertPosition(double latitude, double longitude, double elevation, double[] actual)
+	{
+		assertEquals(latitude, actual[0], EPSILON);
+		assertEquals(longitude, actual[1], EPSILON);
+		assertEquals(elevation, actual[2], EPSILON);
+	}
+}
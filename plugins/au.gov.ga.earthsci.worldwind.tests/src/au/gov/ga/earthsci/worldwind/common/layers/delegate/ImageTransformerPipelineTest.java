@@ -0,0 +1,308 @@
+/*******************************************************************************
+ * Copyright 2026 Geoscience Australia
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package au.gov.ga.earthsci.worldwind.common.layers.delegate;
+
+import static org.junit.Assert.*;
+import gov.nasa.worldwind.avlist.AVList;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.awt.image.BufferedImageOp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.w3c.dom.Element;
+
+import au.gov.ga.earthsci.worldwind.common.layers.delegate.transformer.ColorLimitTransformerDelegate;
+import au.gov.ga.earthsci.worldwind.common.layers.delegate.transformer.ColorToAlphaTransformerDelegate;
+import au.gov.ga.earthsci.worldwind.common.layers.delegate.transformer.FilterTransformerDelegate;
+import au.gov.ga.earthsci.worldwind.common.layers.delegate.transformer.TransparentColorTransformerDelegate;
+
+import com.jhlabs.image.GammaFilter;
+import com.jhlabs.image.GrayscaleFilter;
+import com.jhlabs.image.InvertFilter;
+
+/**
+ * Unit tests for the {@link ImageTransformerPipeline} class
+ * 
+ * @author Michael de Hoog (michael.dehoog@ga.gov.au)
+ */
+public class ImageTransformerPipelineTest
+{
+	private static final int WIDTH = 7;
+	private static final int HEIGHT = 5;
+
+	@Test
+	public void testIntARGBImageIsNotModified()
+	{
+		BufferedImage image = createImage(BufferedImage.TYPE_INT_ARGB);
+		int[] original = image.getRGB(0, 0, WIDTH, HEIGHT, null, 0, WIDTH);
+		BufferedImage result =
+				ImageTransformerPipeline.transformPixels(image, new TransparentColorTransformerDelegate(new Color(
+						0x0a141e), 0.1));
+
+		assertNotSame(image, result);
+		assertArrayEquals(original, image.getRGB(0, 0, WIDTH, HEIGHT, null, 0, WIDTH));
+		assertEquals(0x000a141e, result.getRGB(0, 0));
+	}
+
+	@Test
+	public void testOwnedIntARGBImageIsTransformedInPlace()
+	{
+		BufferedImage image = createImage(BufferedImage.TYPE_INT_ARGB);
+		BufferedImage result =
+				ImageTransformerPipeline.transform(image, null,
+						Arrays.asList(new TransparentColorTransformerDelegate(new Color(0x0a141e), 0.1)), true);
+
+		assertSame(image, result);
+		assertEquals(0x000a141e, image.getRGB(0, 0));
+	}
+
+	@Test
+	public void testOtherImageTypesAreConverted()
+	{
+		BufferedImage image = createImage(BufferedImage.TYPE_4BYTE_ABGR);
+		int[] original = image.getRGB(0, 0, WIDTH, HEIGHT, null, 0, WIDTH);
+		BufferedImage result =
+				ImageTransformerPipeline.transformPixels(image, new TransparentColorTransformerDelegate(Color.black,
+						0.1));
+
+		assertNotSame(image, result);
+		assertEquals(BufferedImage.TYPE_INT_ARGB, result.getType());
+		assertArrayEquals(original, image.getRGB(0, 0, WIDTH, HEIGHT, null, 0, WIDTH));
+	}
+
+	@Test
+	public void testFusedTransformersMatchPerPixelTransforms()
+	{
+		Color alphaColor = new Color(200, 100, 50);
+		Color limitColor = new Color(240, 240, 200);
+		Color transparentColor = new Color(10, 20, 30);
+
+		BufferedImage image = createImage(BufferedImage.TYPE_3BYTE_BGR);
+		int[] expected = image.getRGB(0, 0, WIDTH, HEIGHT, null, 0, WIDTH);
+		for (int i = 0; i < expected.length; i++)
+		{
+			int argb = ColorToAlphaTransformerDelegate.colorToAlpha(expected[i], alphaColor);
+			argb = limit(argb, limitColor);
+			expected[i] = transparent(argb, transparentColor);
+		}
+
+		List<IImageTransformerDelegate> transformers = new ArrayList<IImageTransformerDelegate>();
+		transformers.add(new ColorToAlphaTransformerDelegate(alphaColor));
+		transformers.add(new ColorLimitTransformerDelegate(limitColor));
+		transformers.add(new TransparentColorTransformerDelegate(transparentColor, 0.1));
+		BufferedImage result = ImageTransformerPipeline.transform(image, null, transformers);
+
+		assertArrayEquals(expected, result.getRGB(0, 0, WIDTH, HEIGHT, null, 0, WIDTH));
+	}
+
+	@Test
+	public void testFusedPointFiltersMatchUnfusedFilters()
+	{
+		BufferedImage image = createImage(BufferedImage.TYPE_INT_ARGB);
+		BufferedImage expected = new InvertFilter().filter(new GrayscaleFilter().filter(image, null), null);
+
+		List<BufferedImageOp> filters = new ArrayList<BufferedImageOp>();
+		filters.add(new GrayscaleFilter());
+		filters.add(new InvertFilter());
+		FilterTransformerDelegate delegate = new FilterTransformerDelegate(filters);
+		assertTrue(delegate.isPixelTransformSupported());
+		BufferedImage result =
+				ImageTransformerPipeline.transform(image, null, Arrays.asList(new ColorLimitTransformerDelegate(
+						Color.white), delegate));
+
+		assertArrayEquals(expected.getRGB(0, 0, WIDTH, HEIGHT, null, 0, WIDTH),
+				result.getRGB(0, 0, WIDTH, HEIGHT, null, 0, WIDTH));
+	}
+
+	@Test
+	public void testFiltersThatOverrideFilterAreNotFused()
+	{
+		BufferedImage image = createImage(BufferedImage.TYPE_INT_ARGB);
+		BufferedImage expected = new GammaFilter(0.5f).filter(image, null);
+
+		List<BufferedImageOp> filters = new ArrayList<BufferedImageOp>();
+		filters.add(new GammaFilter(0.5f));
+		FilterTransformerDelegate delegate = new FilterTransformerDelegate(filters);
+		assertFalse(delegate.isPixelTransformSupported());
+		BufferedImage result =
+				ImageTransformerPipeline.transform(image, null, Arrays.asList(new ColorLimitTransformerDelegate(
+						Color.white), delegate));
+
+		assertArrayEquals(expected.getRGB(0, 0, WIDTH, HEIGHT, null, 0, WIDTH),
+				result.getRGB(0, 0, WIDTH, HEIGHT, null, 0, WIDTH));
+
+		//a single unsupported filter prevents the whole delegate from being fused
+		filters.add(0, new InvertFilter());
+		assertFalse(delegate.isPixelTransformSupported());
+	}
+
+	@Test
+	public void testImageTransformersAreAppliedInOrder()
+	{
+		final List<String> calls = new ArrayList<String>();
+		CountingPixelTransformer first = new CountingPixelTransformer("first", calls);
+		CountingPixelTransformer second = new CountingPixelTransformer("second", calls);
+		CountingPixelTransformer third = new CountingPixelTransformer("third", calls);
+		IImageTransformerDelegate image = new IImageTransformerDelegate()
+		{
+			@Override
+			public BufferedImage transformImage(BufferedImage image, IDelegatorTile tile)
+			{
+				calls.add("image");
+				return image;
+			}
+
+			@Override
+			public String toDefinition(Element layerElement)
+			{
+				return null;
+			}
+
+			@Override
+			public IDelegate fromDefinition(String definition, Element layerElement, AVList params)
+			{
+				return null;
+			}
+		};
+
+		ImageTransformerPipeline.transform(createImage(BufferedImage.TYPE_INT_ARGB), null,
+				Arrays.asList(first, second, image, third));
+
+		//first and second are fused, so their rows are interleaved
+		List<String> expected = new ArrayList<String>();
+		for (int y = 0; y < HEIGHT; y++)
+		{
+			expected.add("first");
+			expected.add("second");
+		}
+		expected.add("image");
+		for (int y = 0; y < HEIGHT; y++)
+		{
+			expected.add("third");
+		}
+		assertEquals(expected, calls);
+	}
+
+	@Test
+	public void testUnsupportedPixelTransformerUsesImageTransform()
+	{
+		List<String> calls = new ArrayList<String>();
+		CountingPixelTransformer transformer = new CountingPixelTransformer("pixels", calls);
+		transformer.supported = false;
+
+		ImageTransformerPipeline.transform(createImage(BufferedImage.TYPE_INT_ARGB), null,
+				Arrays.asList(transformer));
+
+		assertEquals(Arrays.asList("image"), calls);
+	}
+
+	private static BufferedImage createImage(int type)
+	{
+		BufferedImage image = new BufferedImage(WIDTH, HEIGHT, type);
+		for (int y = 0; y < HEIGHT; y++)
+		{
+			for (int x = 0; x < WIDTH; x++)
+			{
+				int value = (x * 37 + y * 59) & 0xff;
+				image.setRGB(x, y, 0xff000000 | value << 16 | (255 - value) << 8 | (value * 3 & 0xff));
+			}
+		}
+		image.setRGB(0, 0, 0xff0a141e);
+		return image;
+	}
+
+	private static int limit(int argb, Color color)
+	{
+		int r = (argb >> 16) & 0xff;
+		int g = (argb >> 8) & 0xff;
+		int b = argb & 0xff;
+		if (r > color.getRed() || g > color.getGreen() || b > color.getBlue())
+		{
+			return argb & 0xffffff;
+		}
+		return argb;
+	}
+
+	private static int transparent(int argb, Color color)
+	{
+		int fuzz = (int) Math.round(0.1 * 255d);
+		int r = (argb >> 16) & 0xff;
+		int g = (argb >> 8) & 0xff;
+		int b = argb & 0xff;
+		if (Math.abs(r - color.getRed()) <= fuzz && Math.abs(g - color.getGreen()) <= fuzz
+				&& Math.abs(b - color.getBlue()) <= fuzz)
+		{
+			return argb & 0xffffff;
+		}
+		return argb;
+	}
+
+	private static class CountingPixelTransformer implements IPixelTransformerDelegate
+	{
+		private final String name;
+		private final List<String> calls;
+		private boolean supported = true;
+
+		public CountingPixelTransformer(String name, List<String> calls)
+		{
+			this.name = name;
+			this.calls = calls;
+		}
+
+		@Override
+		public BufferedImage transformImage(BufferedImage image, IDelegatorTile tile)
+		{
+			calls.add("image");
+			return image;
+		}
+
+		@Override
+		public boolean isPixelTransformSupported()
+		{
+			return supported;
+		}
+
+		@Override
+		public void beginPixelTransform(int width, int height)
+		{
+			assertEquals(WIDTH, width);
+			assertEquals(HEIGHT, height);
+		}
+
+		@Override
+		public void transformPixels(int[] pixels, int offset, int width, int y)
+		{
+			assertEquals(y * WIDTH, offset);
+			calls.add(name);
+		}
+
+		@Override
+		public String toDefinition(Element layerElement)
+		{
+			return null;
+		}
+
+		@Override
+		public IDelegate fromDefinition(String definition, Element layerElement, AVList params)
+		{
+			return null;
+		}
+	}
+}
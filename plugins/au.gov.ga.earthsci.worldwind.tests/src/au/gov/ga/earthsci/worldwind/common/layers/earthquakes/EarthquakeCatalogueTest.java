@@ -0,0 +1,182 @@
+/*******************************************************************************
+ * Copyright 2026 Geoscience Australia
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package au.gov.ga.earthsci.worldwind.common.layers.earthquakes;
+
+import static org.junit.Assert.*;
+import gov.nasa.worldwind.geom.Position;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for the {@link EarthquakeCatalogue} class
+ * 
+ * @author Michael de Hoog (michael.dehoog@ga.gov.au)
+ */
+public class EarthquakeCatalogueTest
+{
+	private static final int COUNT = 2000;
+
+	@Test
+	public void testBuilderColumns() throws Exception
+	{
+		EarthquakeCatalogue catalogue = createCatalogue();
+		assertEquals(COUNT, catalogue.size());
+		assertCatalogue(catalogue);
+	}
+
+	@Test
+	public void testWriteAndRead() throws Exception
+	{
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		createCatalogue().write(baos);
+		assertEquals(EarthquakeCatalogue.getLength(COUNT), baos.size());
+
+		EarthquakeCatalogue catalogue = EarthquakeCatalogue.read(new ByteArrayInputStream(baos.toByteArray()));
+		assertCatalogue(catalogue);
+	}
+
+	@Test
+	public void testOpenMapsFile() throws Exception
+	{
+		File file = File.createTempFile("earthquakes", ".dat");
+		try
+		{
+			OutputStream os = new FileOutputStream(file);
+			try
+			{
+				createCatalogue().write(os);
+			}
+			finally
+			{
+				os.close();
+			}
+
+			EarthquakeCatalogue catalogue = EarthquakeCatalogue.open(file);
+			assertCatalogue(catalogue);
+
+			//a mapped catalogue can be written back out
+			ByteArrayOutputStream baos = new ByteArrayOutputStream();
+			catalogue.write(baos);
+			assertCatalogue(EarthquakeCatalogue.fromBuffer(ByteBuffer.wrap(baos.toByteArray())));
+		}
+		finally
+		{
+			file.delete();
+		}
+	}
+
+	@Test
+	public void testReadLegacyFormat() throws Exception
+	{
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		ObjectOutputStream oos = new ObjectOutputStream(baos);
+		for (int i = 0; i < COUNT; i++)
+		{
+			oos.writeDouble(latitude(i));
+			oos.writeDouble(longitude(i));
+			oos.writeDouble(elevation(i));
+			oos.writeDouble(magnitude(i));
+			oos.writeLong(time(i));
+		}
+		oos.close();
+
+		EarthquakeCatalogue catalogue = EarthquakeCatalogue.read(new ByteArrayInputStream(baos.toByteArray()));
+		assertEquals(COUNT, catalogue.size());
+		assertCatalogue(catalogue);
+	}
+
+	@Test
+	public void testPositions() throws Exception
+	{
+		List<Position> positions = createCatalogue().getPositions();
+		assertEquals(COUNT, positions.size());
+		for (int i = 0; i < COUNT; i += 97)
+		{
+			Position position = positions.get(i);
+			assertEquals(latitude(i), position.latitude.degrees, 1e-4);
+			assertEquals(longitude(i), position.longitude.degrees, 1e-4);
+			assertEquals(elevation(i), position.elevation, 1e-2);
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void testTruncatedCatalogueIsRejected() throws Exception
+	{
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		createCatalogue().write(baos);
+		byte[] bytes = baos.toByteArray();
+		ByteBuffer truncated = ByteBuffer.wrap(bytes, 0, bytes.length - 1);
+		new EarthquakeCatalogue(truncated);
+	}
+
+	private static EarthquakeCatalogue createCatalogue()
+	{
+		EarthquakeCatalogue.Builder builder = new EarthquakeCatalogue.Builder();
+		for (int i = 0; i < COUNT; i++)
+		{
+			builder.add(latitude(i), longitude(i), elevation(i), magnitude(i), time(i));
+		}
+		return builder.build();
+	}
+
+	private static void assertCatalogue(EarthquakeCatalogue catalogue)
+	{
+		assertEquals(COUNT, catalogue.size());
+		for (int i = 0; i < COUNT; i++)
+		{
+			assertEquals(latitude(i), catalogue.getLatitude(i), 1e-4);
+			assertEquals(longitude(i), catalogue.getLongitude(i), 1e-4);
+			assertEquals(elevation(i), catalogue.getElevation(i), 1e-2);
+			assertEquals(magnitude(i), catalogue.getMagnitude(i), 1e-5);
+			assertEquals(time(i), catalogue.getTimeInMillis(i));
+		}
+	}
+
+	private static double latitude(int i)
+	{
+		return -45 + (i % 900) * 0.1;
+	}
+
+	private static double longitude(int i)
+	{
+		return 110 + (i % 450) * 0.1;
+	}
+
+	private static double elevation(int i)
+	{
+		return -(i % 700) * 1000.5;
+	}
+
+	private static double magnitude(int i)
+	{
+		return (i % 80) * 0.1;
+	}
+
+	private static long time(int i)
+	{
+		return -631152000000L + i * 86400000L * 7;
+	}
+}
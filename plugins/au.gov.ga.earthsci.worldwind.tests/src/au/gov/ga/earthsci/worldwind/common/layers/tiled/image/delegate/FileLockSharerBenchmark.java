@@ -0,0 +1,204 @@
+/*******************************************************************************
+ * Copyright 2026 Geoscience Australia
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package au.gov.ga.earthsci.worldwind.common.layers.tiled.image.delegate;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.CRC32;
+
+/**
+ * Benchmark of parallel tile load throughput for a single layer, comparing a
+ * single lock for the layer's cache location (the previous
+ * {@link FileLockSharer} behaviour) with the per-tile locks of
+ * {@link FileLocks}.
+ * <p/>
+ * A cache of tile files is written to a temporary directory. Each thread then
+ * repeatedly loads a random tile while holding its lock: the file is read and
+ * checksummed, standing in for the image decoding done by
+ * {@link DelegatorTiledImageLayer#readTexture}.
+ * <p/>
+ * Not run as part of the unit tests. Usage:
+ * 
+ * <pre>
+ * FileLockSharerBenchmark [threadCount] [tileCount] [tileSizeKB] [loadsPerThread]
+ * </pre>
+ * 
+ * The defaults are 8 threads, 512 tiles of 64KB and 2000 loads per thread.
+ * 
+ * @author Michael de Hoog (michael.dehoog@ga.gov.au)
+ */
+public class FileLockSharerBenchmark
+{
+	private static final int WARMUP_ITERATIONS = 1;
+	private static final int TIMED_ITERATIONS = 3;
+
+	private static volatile long sink;
+
+	public static void main(String[] args) throws Exception
+	{
+		int threadCount = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+		int tileCount = args.length > 1 ? Integer.parseInt(args[1]) : 512;
+		int tileSize = (args.length > 2 ? Integer.parseInt(args[2]) : 64) * 1024;
+		int loads = args.length > 3 ? Integer.parseInt(args[3]) : 2000;
+
+		File directory = File.createTempFile("tiles", "");
+		directory.delete();
+		String[] paths = createTiles(directory, tileCount, tileSize);
+		try
+		{
+			System.out.println(threadCount + " threads, " + tileCount + " tiles of " + (tileSize / 1024) + "KB, "
+					+ loads + " loads per thread");
+			final FileLocks locks = new FileLocks(directory.getName());
+			LockProvider single = new LockProvider()
+			{
+				@Override
+				public Object getLock(String path)
+				{
+					return locks;
+				}
+			};
+			LockProvider perTile = new LockProvider()
+			{
+				@Override
+				public Object getLock(String path)
+				{
+					return locks.getLock(path);
+				}
+			};
+
+			for (int i = 0; i < WARMUP_ITERATIONS + TIMED_ITERATIONS; i++)
+			{
+				boolean timed = i >= WARMUP_ITERATIONS;
+				long singleTime = run(single, paths, threadCount, loads);
+				long perTileTime = run(perTile, paths, threadCount, loads);
+				if (timed)
+				{
+					double total = (double) threadCount * loads;
+					System.out.println(String.format("Single lock: %8.0f tiles/s   Per-tile locks: %8.0f tiles/s",
+							total * 1e9 / singleTime, total * 1e9 / perTileTime));
+				}
+			}
+		}
+		finally
+		{
+			for (File file : directory.listFiles())
+			{
+				file.delete();
+			}
+			directory.delete();
+		}
+	}
+
+	private static String[] createTiles(File directory, int tileCount, int tileSize) throws IOException
+	{
+		directory.mkdirs();
+		Random random = new Random(0);
+		byte[] data = new byte[tileSize];
+		String[] paths = new String[tileCount];
+		for (int i = 0; i < tileCount; i++)
+		{
+			File file = new File(directory, (i / 32) + "_" + (i % 32) + ".png");
+			random.nextBytes(data);
+			OutputStream os = new FileOutputStream(file);
+			try
+			{
+				os.write(data);
+			}
+			finally
+			{
+				os.close();
+			}
+			paths[i] = file.getPath();
+		}
+		return paths;
+	}
+
+	private static long run(final LockProvider provider, final String[] paths, int threadCount, final int loads)
+			throws Exception
+	{
+		final CountDownLatch start = new CountDownLatch(1);
+		final AtomicReference<Exception> error = new AtomicReference<Exception>();
+		Thread[] threads = new Thread[threadCount];
+		for (int t = 0; t < threadCount; t++)
+		{
+			final Random random = new Random(t);
+			threads[t] = new Thread(new Runnable()
+			{
+				@Override
+				public void run()
+				{
+					byte[] buffer = new byte[8192];
+					CRC32 crc = new CRC32();
+					try
+					{
+						start.await();
+						for (int i = 0; i < loads; i++)
+						{
+							String path = paths[random.nextInt(paths.length)];
+							synchronized (provider.getLock(path))
+							{
+								crc.reset();
+								InputStream is = new FileInputStream(path);
+								try
+								{
+									int read;
+									while ((read = is.read(buffer)) >= 0)
+									{
+										crc.update(buffer, 0, read);
+									}
+								}
+								finally
+								{
+									is.close();
+								}
+							}
+							sink += crc.getValue();
+						}
+					}
+					catch (Exception e)
+					{
+						error.set(e);
+					}
+				}
+			});
+			threads[t].start();
+		}
+
+		long startTime = System.nanoTime();
+		start.countDown();
+		for (Thread thread : threads)
+		{
+			thread.join();
+		}
+		if (error.get() != null)
+		{
+			throw error.get();
+		}
+		return System.nanoTime() - startTime;
+	}
+
+	private static interface LockProvider
+	{
+		Object getLock(String path);
+	}
+}
@@ -0,0 +1,115 @@
+/*******************************************************************************
+ * Copyright 2026 Geoscience Australia
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package au.gov.ga.earthsci.worldwind.common.layers.tiled.image.delegate;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for the {@link FileLockSharer} and {@link FileLocks} classes
+ * 
+ * @author Michael de Hoog (michael.dehoog@ga.gov.au)
+ */
+public class FileLockSharerTest
+{
+	@Test
+	public void testSameCacheNameReturnsSameLocks()
+	{
+		FileLocks first = FileLockSharer.getLock("Test/SameCacheName");
+		FileLocks second = FileLockSharer.getLock("Test/SameCacheName");
+		assertSame(first, second);
+		assertEquals("Test/SameCacheName", first.getDataCacheName());
+	}
+
+	@Test
+	public void testDifferentCacheNamesReturnDifferentLocks()
+	{
+		FileLocks first = FileLockSharer.getLock("Test/CacheName1");
+		FileLocks second = FileLockSharer.getLock("Test/CacheName2");
+		assertNotSame(first, second);
+	}
+
+	@Test
+	public void testUnreferencedLocksAreRemoved() throws InterruptedException
+	{
+		int initialSize = FileLockSharer.size();
+		for (int i = 0; i < 100; i++)
+		{
+			FileLockSharer.getLock("Test/Unreferenced/" + i);
+		}
+
+		for (int i = 0; i < 50 && FileLockSharer.size() > initialSize; i++)
+		{
+			System.gc();
+			Thread.sleep(10);
+		}
+		assertTrue(FileLockSharer.size() <= initialSize);
+	}
+
+	@Test
+	public void testStripeCountIsRoundedUpToPowerOfTwo()
+	{
+		assertEquals(FileLocks.DEFAULT_STRIPE_COUNT, new FileLocks("Test").getStripeCount());
+		assertEquals(1, new FileLocks("Test", 1).getStripeCount());
+		assertEquals(16, new FileLocks("Test", 9).getStripeCount());
+	}
+
+	@Test
+	public void testTilePathAndFileURLReturnSameLock() throws Exception
+	{
+		FileLocks locks = new FileLocks("Test");
+		for (int level = 0; level < 4; level++)
+		{
+			for (int row = 0; row < 10; row++)
+			{
+				for (int column = 0; column < 10; column++)
+				{
+					String tilePath = "Test/" + level + "/" + row + "/" + row + "_" + column + ".png";
+					File file = new File(new File("cache"), tilePath);
+					assertSame(locks.getLock(tilePath), locks.getLock(file.toURI().toURL().getPath()));
+					assertSame(locks.getLock(tilePath), locks.getLock(file.getPath()));
+					assertSame(locks.getLock(tilePath), locks.getLock(tilePath.replace(".png", ".dds")));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testTilesAreSpreadOverStripes()
+	{
+		FileLocks locks = new FileLocks("Test", 16);
+		Set<Object> used = new HashSet<Object>();
+		for (int row = 0; row < 8; row++)
+		{
+			for (int column = 0; column < 8; column++)
+			{
+				used.add(locks.getLock("Test/5/" + row + "/" + row + "_" + column + ".jpg"));
+			}
+		}
+		assertEquals(16, used.size());
+	}
+
+	@Test
+	public void testNullPathReturnsLock()
+	{
+		assertNotNull(new FileLocks("Test").getLock(null));
+	}
+}
@@ -0,0 +1,140 @@
+/*******************************************************************************
+ * Copyright 2026 Geoscience Australia
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package au.gov.ga.earthsci.worldwind.common.layers.tiled.image.delegate.elevationreader;
+
+import static org.junit.Assert.*;
+import gov.nasa.worldwind.util.BufferWrapper;
+
+import java.nio.FloatBuffer;
+
+import org.junit.Test;
+
+import au.gov.ga.earthsci.worldwind.common.layers.tiled.image.delegate.elevationreader.ElevationGrid.Edge;
+
+/**
+ * Unit tests for the {@link ElevationGrid} class
+ * 
+ * @author Michael de Hoog (michael.dehoog@ga.gov.au)
+ */
+public class ElevationGridTest
+{
+	private static final float MISSING = -9999f;
+
+	@Test
+	public void testReadElevations()
+	{
+		ElevationGrid grid = createGrid(4, 3);
+
+		assertEquals(4, grid.getWidth());
+		assertEquals(3, grid.getHeight());
+		assertEquals(6, grid.getStride());
+		assertEquals(0f, grid.get(0, 0), 0f);
+		assertEquals(3f, grid.get(3, 0), 0f);
+		assertEquals(13f, grid.get(3, 2), 0f);
+	}
+
+	@Test
+	public void testMissingElevationsAreNaN()
+	{
+		float[] values = new float[] { 1, MISSING, 3, 4 };
+		ElevationGrid grid =
+				new ElevationGrid(new BufferWrapper.FloatBufferWrapper(FloatBuffer.wrap(values)), 2, 2, MISSING);
+
+		assertEquals(1f, grid.get(0, 0), 0f);
+		assertTrue(Float.isNaN(grid.get(1, 0)));
+	}
+
+	@Test
+	public void testHaloIsInitiallyMissing()
+	{
+		ElevationGrid grid = createGrid(4, 3);
+
+		for (int x = -1; x <= 4; x++)
+		{
+			assertTrue(Float.isNaN(grid.get(x, -1)));
+			assertTrue(Float.isNaN(grid.get(x, 3)));
+		}
+		for (int y = -1; y <= 3; y++)
+		{
+			assertTrue(Float.isNaN(grid.get(-1, y)));
+			assertTrue(Float.isNaN(grid.get(4, y)));
+		}
+	}
+
+	@Test
+	public void testGetEdge()
+	{
+		ElevationGrid grid = createGrid(4, 3);
+
+		assertArrayEquals(new float[] { 0, 1, 2, 3 }, grid.getEdge(Edge.NORTH), 0f);
+		assertArrayEquals(new float[] { 10, 11, 12, 13 }, grid.getEdge(Edge.SOUTH), 0f);
+		assertArrayEquals(new float[] { 0, 5, 10 }, grid.getEdge(Edge.WEST), 0f);
+		assertArrayEquals(new float[] { 3, 8, 13 }, grid.getEdge(Edge.EAST), 0f);
+	}
+
+	@Test
+	public void testSetHaloFromAdjacentTiles()
+	{
+		ElevationGrid grid = createGrid(4, 3);
+		ElevationGrid north = createGrid(4, 3);
+		ElevationGrid east = createGrid(4, 3);
+
+		grid.setHalo(Edge.NORTH, north.getEdge(Edge.NORTH.opposite()));
+		grid.setHalo(Edge.EAST, east.getEdge(Edge.EAST.opposite()));
+
+		for (int x = 0; x < 4; x++)
+		{
+			assertEquals(north.get(x, 2), grid.get(x, -1), 0f);
+		}
+		for (int y = 0; y < 3; y++)
+		{
+			assertEquals(east.get(0, y), grid.get(4, y), 0f);
+		}
+		assertTrue(Float.isNaN(grid.get(0, 3)));
+		assertTrue(Float.isNaN(grid.get(-1, 0)));
+	}
+
+	@Test
+	public void testSetHaloWithWrongLengthIsMissing()
+	{
+		ElevationGrid grid = createGrid(4, 3);
+
+		grid.setHalo(Edge.WEST, new float[] { 1, 2, 3 });
+		assertEquals(2f, grid.get(-1, 1), 0f);
+
+		grid.setHalo(Edge.WEST, new float[] { 1, 2 });
+		assertTrue(Float.isNaN(grid.get(-1, 1)));
+		grid.setHalo(Edge.SOUTH, null);
+		assertTrue(Float.isNaN(grid.get(0, 3)));
+	}
+
+	/**
+	 * Create a grid whose elevations are <code>y * (width + 1) + x</code>.
+	 */
+	private static ElevationGrid createGrid(int width, int height)
+	{
+		float[] values = new float[width * height];
+		for (int y = 0, i = 0; y < height; y++)
+		{
+			for (int x = 0; x < width; x++, i++)
+			{
+				values[i] = y * (width + 1) + x;
+			}
+		}
+		return new ElevationGrid(new BufferWrapper.FloatBufferWrapper(FloatBuffer.wrap(values)), width, height,
+				MISSING);
+	}
+}
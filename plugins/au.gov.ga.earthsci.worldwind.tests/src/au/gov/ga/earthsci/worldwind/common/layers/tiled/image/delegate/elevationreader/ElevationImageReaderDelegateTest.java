@@ -0,0 +1,49 @@
+/*******************************************************************************
+ * Copyright 2026 Geoscience Australia
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package au.gov.ga.earthsci.worldwind.common.layers.tiled.image.delegate.elevationreader;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for the {@link ElevationImageReaderDelegate} class
+ * 
+ * @author Michael de Hoog (michael.dehoog@ga.gov.au)
+ */
+public class ElevationImageReaderDelegateTest
+{
+	@Test
+	public void testColumnsAroundGlobe()
+	{
+		assertEquals(10, ElevationImageReaderDelegate.getColumnsAroundGlobe(36));
+		assertEquals(1, ElevationImageReaderDelegate.getColumnsAroundGlobe(360));
+		assertEquals(2560, ElevationImageReaderDelegate.getColumnsAroundGlobe(36d / 256));
+	}
+
+	@Test
+	public void testColumnsAroundGlobeWithRoundingError()
+	{
+		assertEquals(30, ElevationImageReaderDelegate.getColumnsAroundGlobe(12.000000000001));
+	}
+
+	@Test
+	public void testColumnsAroundGlobeForUnevenTiles()
+	{
+		assertEquals(-1, ElevationImageReaderDelegate.getColumnsAroundGlobe(7));
+		assertEquals(-1, ElevationImageReaderDelegate.getColumnsAroundGlobe(0));
+	}
+}
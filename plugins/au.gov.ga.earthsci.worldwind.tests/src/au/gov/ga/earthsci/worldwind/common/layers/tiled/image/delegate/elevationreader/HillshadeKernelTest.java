@@ -0,0 +1,177 @@
+/*******************************************************************************
+ * Copyright 2026 Geoscience Australia
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package au.gov.ga.earthsci.worldwind.common.layers.tiled.image.delegate.elevationreader;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import au.gov.ga.earthsci.worldwind.common.layers.tiled.image.delegate.elevationreader.ElevationGrid.Edge;
+
+/**
+ * Unit tests for the {@link HillshadeKernel} class
+ * 
+ * @author Michael de Hoog (michael.dehoog@ga.gov.au)
+ */
+public class HillshadeKernelTest
+{
+	private static final double DELTA = 0.01;
+	private static final double SCALE = 0.01;
+
+	@Test
+	public void testFlatSurfaceFacingSun()
+	{
+		ElevationGrid grid = createGrid(8, 8, 0, 0);
+		int[] pixels = shade(grid, createKernel(0, 0, -1));
+
+		for (int pixel : pixels)
+		{
+			assertEquals(0xffffffff, pixel);
+		}
+	}
+
+	@Test
+	public void testSlopeMatchesPlaneNormal()
+	{
+		//elevation increases by 1 per sample to the east, so the normal is (0, dlat * scale, -dlat * dlon)
+		ElevationGrid grid = createGrid(8, 8, 1, 0);
+		double sunY = -Math.sqrt(0.5);
+		double sunZ = -Math.sqrt(0.5);
+		int[] pixels = shade(grid, createKernel(0, sunY, sunZ));
+
+		double ny = DELTA * SCALE;
+		double nz = -DELTA * DELTA;
+		double light = (ny * sunY + nz * sunZ) / Math.sqrt(ny * ny + nz * nz);
+		int expected = (int) (255.0 * light);
+		for (int pixel : pixels)
+		{
+			assertEquals(expected, pixel & 0xff);
+			assertEquals(0xff, pixel >>> 24);
+		}
+	}
+
+	@Test
+	public void testMissingSamplesAreTransparent()
+	{
+		ElevationGrid grid = createGrid(4, 4, 0, 0);
+		grid.set(1, 1, Float.NaN);
+		int[] pixels = shade(grid, createKernel(0, 0, -1));
+
+		assertEquals(0, pixels[1 * 4 + 1]);
+		assertEquals(0xffffffff, pixels[1 * 4 + 2]);
+	}
+
+	@Test
+	public void testSamplesOutsideElevationRangeAreTransparent()
+	{
+		ElevationGrid grid = createGrid(4, 1, 0, 0);
+		grid.set(0, 0, -100);
+		grid.set(1, 0, 100);
+		HillshadeKernel kernel = new HillshadeKernel(DELTA, DELTA, SCALE, 0, 0, -1, -10, 10);
+		int[] pixels = shade(grid, kernel);
+
+		assertEquals(0, pixels[0]);
+		assertEquals(0, pixels[1]);
+		//a single row has no vertical neighbours, so can't be shaded
+		assertEquals(0, pixels[2]);
+	}
+
+	@Test
+	public void testTilesWithHaloMatchSingleTile()
+	{
+		//a bumpy surface shaded as one 16x8 tile should match the same surface split into two 8x8 tiles
+		int width = 16, height = 8;
+		ElevationGrid whole = new ElevationGrid(width, height);
+		ElevationGrid west = new ElevationGrid(width / 2, height);
+		ElevationGrid east = new ElevationGrid(width / 2, height);
+		for (int y = 0; y < height; y++)
+		{
+			for (int x = 0; x < width; x++)
+			{
+				float z = (float) (Math.sin(x * 0.7) * 5 + Math.cos(y * 1.3) * 3);
+				whole.set(x, y, z);
+				if (x < width / 2)
+				{
+					west.set(x, y, z);
+				}
+				else
+				{
+					east.set(x - width / 2, y, z);
+				}
+			}
+		}
+		west.setHalo(Edge.EAST, east.getEdge(Edge.WEST));
+		east.setHalo(Edge.WEST, west.getEdge(Edge.EAST));
+
+		HillshadeKernel kernel = createKernel(-0.5, 0.5, -0.7);
+		int[] wholePixels = shade(whole, kernel);
+		int[] westPixels = shade(west, kernel);
+		int[] eastPixels = shade(east, kernel);
+
+		for (int y = 0; y < height; y++)
+		{
+			for (int x = 0; x < width; x++)
+			{
+				int expected = wholePixels[y * width + x];
+				int actual =
+						x < width / 2 ? westPixels[y * width / 2 + x] : eastPixels[y * width / 2 + x - width / 2];
+				assertEquals("Pixel " + x + "," + y, expected, actual);
+			}
+		}
+	}
+
+	@Test
+	public void testBandsMatchSinglePass()
+	{
+		ElevationGrid grid = createGrid(8, 8, 2, 1);
+		HillshadeKernel kernel = createKernel(-0.5, 0.5, -0.7);
+		int[] single = shade(grid, kernel);
+
+		int[] banded = new int[64];
+		kernel.apply(grid, banded, 0, 3);
+		kernel.apply(grid, banded, 3, 8);
+		assertArrayEquals(single, banded);
+	}
+
+	private static HillshadeKernel createKernel(double sunX, double sunY, double sunZ)
+	{
+		return new HillshadeKernel(DELTA, DELTA, SCALE, sunX, sunY, sunZ, -Double.MAX_VALUE, Double.MAX_VALUE);
+	}
+
+	/**
+	 * Create a grid of a plane with the given elevation changes per sample to
+	 * the east (x) and south (y).
+	 */
+	private static ElevationGrid createGrid(int width, int height, float dx, float dy)
+	{
+		ElevationGrid grid = new ElevationGrid(width, height);
+		for (int y = 0; y < height; y++)
+		{
+			for (int x = 0; x < width; x++)
+			{
+				grid.set(x, y, x * dx + y * dy);
+			}
+		}
+		return grid;
+	}
+
+	private static int[] shade(ElevationGrid grid, ElevationKernel kernel)
+	{
+		int[] pixels = new int[grid.getWidth() * grid.getHeight()];
+		kernel.apply(grid, pixels, 0, grid.getHeight());
+		return pixels;
+	}
+}
@@ -18,6 +18,7 @@ package au.gov.ga.earthsci.worldwind.common.layers.volume;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
@@ -106,12 +107,12 @@ public class SGridVolumeDataProviderTest
 	{
 		classUnderTest.doLoadData(ASCII_ZIP_FILE, parentLayer);
 		
-		float[] zipData = classUnderTest.getData().array();
+		float[] zipData = toArray(classUnderTest.getData());
 		
 		setup();
 		classUnderTest.doLoadData(ASCII_FILE, parentLayer);
 		
-		float[] normalData = classUnderTest.getData().array();
+		float[] normalData = toArray(classUnderTest.getData());
 		
 		assertArrayEquals(normalData, zipData, 0.001f);
 	}
@@ -152,16 +153,26 @@ public class SGridVolumeDataProviderTest
 	{
 		classUnderTest.doLoadData(ASCII_FILE, parentLayer);
 		
-		float[] asciiData = classUnderTest.getData().array();
+		float[] asciiData = toArray(classUnderTest.getData());
 		
 		setup();
 		classUnderTest.doLoadData(BINARY_FILE, parentLayer);
 		
-		float[] binaryData = classUnderTest.getData().array();
+		float[] binaryData = toArray(classUnderTest.getData());
 		
 		assertArrayEquals(asciiData, binaryData, 0.001f);
 	}
 	
+	@Test
+	public void testBinaryDataIsMapped() throws Exception
+	{
+		classUnderTest.doLoadData(BINARY_FILE, parentLayer);
+
+		FloatBuffer data = classUnderTest.getData();
+		assertTrue(data.isReadOnly());
+		assertFalse(data.hasArray());
+	}
+
 	private void assertBasicProperties(boolean result)
 	{
 		assertTrue(result);
@@ -178,7 +189,7 @@ public class SGridVolumeDataProviderTest
 		FloatBuffer data = classUnderTest.getData();
 		assertNotNull(data);
 		assertEquals(5*5*5, data.capacity());
-		assertDataPopulated(data.array());
+		assertDataPopulated(toArray(data));
 		
 		// Check that cell-centred clamping etc. is working
 		for (int z = 0; z < classUnderTest.getZSize(); z++)
@@ -198,6 +209,16 @@ public class SGridVolumeDataProviderTest
 		
 	}
 	
+	private static float[] toArray(FloatBuffer buffer)
+	{
+		float[] array = new float[buffer.limit()];
+		for (int i = 0; i < array.length; i++)
+		{
+			array[i] = buffer.get(i);
+		}
+		return array;
+	}
+
 	private void assertDataPopulated(float[] data)
 	{
 		for (float f : data)
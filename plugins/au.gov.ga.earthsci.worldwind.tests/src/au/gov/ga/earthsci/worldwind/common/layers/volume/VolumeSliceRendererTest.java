@@ -0,0 +1,176 @@
+/*******************************************************************************
+ * Copyright 2026 Geoscience Australia
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package au.gov.ga.earthsci.worldwind.common.layers.volume;
+
+import static org.junit.Assert.*;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.image.BufferedImage;
+import java.net.URL;
+import java.nio.FloatBuffer;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import au.gov.ga.earthsci.worldwind.common.util.ColorMap;
+
+/**
+ * Unit tests for the {@link VolumeSliceRenderer} class
+ * 
+ * @author Michael de Hoog (michael.dehoog@ga.gov.au)
+ */
+public class VolumeSliceRendererTest
+{
+	private static final int SIZE = 16;
+	private static final float NO_DATA = -1f;
+
+	private TestVolumeDataProvider dataProvider;
+	private ColorMap colorMap;
+
+	@Before
+	public void setup()
+	{
+		dataProvider = new TestVolumeDataProvider();
+
+		colorMap = new ColorMap();
+		colorMap.setInterpolateHue(false);
+		colorMap.put(0d, Color.BLUE);
+		colorMap.put((double) SIZE * 3, Color.RED);
+	}
+
+	@Test
+	public void testRenderMatchesColorMap()
+	{
+		VolumeSliceRenderer renderer = new VolumeSliceRenderer(dataProvider, colorMap, Color.GRAY);
+		for (int axis = 0; axis < 3; axis++)
+		{
+			int position = 5;
+			BufferedImage image = renderer.render(axis, position, new Dimension(SIZE, SIZE));
+			for (int y = 0; y < SIZE; y++)
+			{
+				for (int x = 0; x < SIZE; x++)
+				{
+					int vx = axis == 0 ? position : x;
+					int vy = axis == 2 ? y : axis == 1 ? position : x;
+					int vz = axis == 2 ? position : y;
+					float value = valueAt(vx, vy, vz);
+					Color expected = value == NO_DATA ? Color.GRAY : colorMap.calculateColor(value);
+					assertColorEquals(expected, new Color(image.getRGB(x, y), true));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testRenderWithoutColorMap()
+	{
+		VolumeSliceRenderer renderer = new VolumeSliceRenderer(dataProvider, null, null);
+		BufferedImage image = renderer.render(2, 0, new Dimension(SIZE, SIZE));
+
+		assertEquals(0, image.getRGB(0, 0));
+		assertEquals(Color.HSBtoRGB(-0.3f - 1f * 0.7f, 1f, 1f), image.getRGB(1, 0));
+	}
+
+	@Test
+	public void testRequestRendersLatestPosition() throws InterruptedException
+	{
+		VolumeSliceRenderer renderer = new VolumeSliceRenderer(dataProvider, colorMap, Color.GRAY);
+		Object key = new Object();
+		Dimension size = new Dimension(SIZE, SIZE);
+		for (int position = 0; position < SIZE; position++)
+		{
+			renderer.request(key, 2, position, size);
+		}
+
+		VolumeSliceRenderer.Slice slice = null;
+		long timeout = System.currentTimeMillis() + 10000;
+		while ((slice == null || slice.getPosition() != SIZE - 1) && System.currentTimeMillis() < timeout)
+		{
+			VolumeSliceRenderer.Slice polled = renderer.poll(key);
+			slice = polled != null ? polled : slice;
+			Thread.sleep(10);
+		}
+
+		assertNotNull(slice);
+		assertEquals(SIZE - 1, slice.getPosition());
+		assertEquals(2, slice.getAxis());
+
+		//requesting the same slice again does nothing
+		renderer.request(key, 2, SIZE - 1, size);
+		Thread.sleep(100);
+		assertNull(renderer.poll(key));
+	}
+
+	@Test
+	public void testRenderNowSupersedesRequest()
+	{
+		VolumeSliceRenderer renderer = new VolumeSliceRenderer(dataProvider, colorMap, Color.GRAY);
+		Object key = new Object();
+		Dimension size = new Dimension(SIZE, SIZE);
+
+		VolumeSliceRenderer.Slice slice = renderer.renderNow(key, 1, 3, size);
+		assertEquals(3, slice.getPosition());
+		assertNotNull(slice.getImage());
+		assertNull(renderer.poll(key));
+	}
+
+	private static float valueAt(int x, int y, int z)
+	{
+		return (x + y + z) % 7 == 0 ? NO_DATA : x + y + z;
+	}
+
+	private static void assertColorEquals(Color expected, Color actual)
+	{
+		//the colour lookup table quantizes values, so allow for a small difference
+		assertEquals(expected.getRed(), actual.getRed(), 1);
+		assertEquals(expected.getGreen(), actual.getGreen(), 1);
+		assertEquals(expected.getBlue(), actual.getBlue(), 1);
+		assertEquals(expected.getAlpha(), actual.getAlpha(), 1);
+	}
+
+	/**
+	 * Volume of {@link #SIZE}<sup>3</sup> values calculated from the
+	 * coordinates.
+	 */
+	private static class TestVolumeDataProvider extends AbstractVolumeDataProvider
+	{
+		public TestVolumeDataProvider()
+		{
+			xSize = ySize = zSize = SIZE;
+			noDataValue = NO_DATA;
+			minValue = 0;
+			maxValue = SIZE * 3;
+			data = FloatBuffer.allocate(SIZE * SIZE * SIZE);
+			for (int z = 0; z < SIZE; z++)
+			{
+				for (int y = 0; y < SIZE; y++)
+				{
+					for (int x = 0; x < SIZE; x++)
+					{
+						data.put(valueAt(x, y, z));
+					}
+				}
+			}
+		}
+
+		@Override
+		protected boolean doLoadData(URL url, VolumeLayer layer)
+		{
+			return false;
+		}
+	}
+}
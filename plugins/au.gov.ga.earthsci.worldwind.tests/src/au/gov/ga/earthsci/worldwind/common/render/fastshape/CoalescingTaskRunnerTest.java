@@ -0,0 +1,218 @@
+/*******************************************************************************
+ * Copyright 2026 Geoscience Australia
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package au.gov.ga.earthsci.worldwind.common.render.fastshape;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for the {@link CoalescingTaskRunner} class
+ * 
+ * @author Michael de Hoog (michael.dehoog@ga.gov.au)
+ */
+public class CoalescingTaskRunnerTest
+{
+	private static final long TIMEOUT = 5000;
+
+	@Test
+	public void testPendingTaskIsReplaced() throws Exception
+	{
+		CoalescingTaskRunner runner = new CoalescingTaskRunner("test", 1); //$NON-NLS-1$
+		CountDownLatch blocker = block(runner);
+
+		final List<String> ran = Collections.synchronizedList(new ArrayList<String>());
+		Object owner = new Object();
+		runner.run(owner, new Record(ran, "first")); //$NON-NLS-1$
+		runner.run(owner, new Record(ran, "second")); //$NON-NLS-1$
+		assertEquals(1, runner.getQueueDepth());
+
+		blocker.countDown();
+		waitForCompletion(runner, 2);
+		assertEquals(Collections.singletonList("second"), ran); //$NON-NLS-1$
+		assertEquals(3, runner.getSubmittedCount());
+		assertEquals(1, runner.getCoalescedCount());
+		assertEquals(0, runner.getQueueDepth());
+	}
+
+	@Test
+	public void testTasksRunInPriorityOrder() throws Exception
+	{
+		CoalescingTaskRunner runner = new CoalescingTaskRunner("test", 1); //$NON-NLS-1$
+		CountDownLatch blocker = block(runner);
+
+		final List<String> ran = Collections.synchronizedList(new ArrayList<String>());
+		runner.run(new Object(), new Record(ran, "far"), 100); //$NON-NLS-1$
+		runner.run(new Object(), new Record(ran, "near"), 1); //$NON-NLS-1$
+		runner.run(new Object(), new Record(ran, "middle"), 10); //$NON-NLS-1$
+		runner.run(new Object(), new Record(ran, "middle2"), 10); //$NON-NLS-1$
+
+		Object owner = new Object();
+		runner.run(owner, new Record(ran, "offscreen"), 1000); //$NON-NLS-1$
+		runner.run(owner, new Record(ran, "onscreen"), 0); //$NON-NLS-1$
+
+		blocker.countDown();
+		waitForCompletion(runner, 6);
+		assertEquals("[onscreen, near, middle, middle2, far]", ran.toString()); //$NON-NLS-1$
+	}
+
+	@Test
+	public void testSameOwnerNeverRunsConcurrently() throws Exception
+	{
+		CoalescingTaskRunner runner = new CoalescingTaskRunner("test", 4); //$NON-NLS-1$
+		final Object owner = new Object();
+		final AtomicInteger concurrent = new AtomicInteger();
+		final AtomicInteger maximumConcurrent = new AtomicInteger();
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		final AtomicInteger runs = new AtomicInteger();
+
+		Runnable runnable = new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				int c = concurrent.incrementAndGet();
+				maximumConcurrent.set(Math.max(maximumConcurrent.get(), c));
+				runs.incrementAndGet();
+				started.countDown();
+				try
+				{
+					release.await(TIMEOUT, TimeUnit.MILLISECONDS);
+				}
+				catch (InterruptedException e)
+				{
+				}
+				concurrent.decrementAndGet();
+			}
+		};
+
+		runner.run(owner, runnable);
+		assertTrue(started.await(TIMEOUT, TimeUnit.MILLISECONDS));
+		//submitted while the first is running; must wait for it to finish
+		runner.run(owner, runnable);
+		runner.run(owner, runnable);
+		Thread.sleep(50);
+		assertEquals(1, runs.get());
+		assertEquals(1, runner.getQueueDepth());
+		assertEquals(1, runner.getRunningCount());
+
+		release.countDown();
+		waitForCompletion(runner, 2);
+		assertEquals(2, runs.get());
+		assertEquals(1, maximumConcurrent.get());
+	}
+
+	@Test
+	public void testExceptionDoesNotKillThread() throws Exception
+	{
+		CoalescingTaskRunner runner = new CoalescingTaskRunner("test", 1); //$NON-NLS-1$
+		runner.run(new Object(), new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				throw new RuntimeException("expected"); //$NON-NLS-1$
+			}
+		});
+		final CountDownLatch ran = new CountDownLatch(1);
+		runner.run(new Object(), new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				ran.countDown();
+			}
+		});
+		assertTrue(ran.await(TIMEOUT, TimeUnit.MILLISECONDS));
+	}
+
+	@Test
+	public void testLatencyIsRecorded() throws Exception
+	{
+		CoalescingTaskRunner runner = new CoalescingTaskRunner("test", 1); //$NON-NLS-1$
+		CountDownLatch blocker = block(runner);
+		runner.run(new Object(), new Record(new ArrayList<String>(), "task")); //$NON-NLS-1$
+		Thread.sleep(20);
+		blocker.countDown();
+		waitForCompletion(runner, 2);
+
+		assertTrue(runner.getMaximumLatency() >= 20);
+		assertTrue(runner.getAverageLatency() > 0);
+		assertTrue(runner.getAverageLatency() <= runner.getMaximumLatency());
+	}
+
+	/**
+	 * Occupy the runner's only thread until the returned latch is released.
+	 */
+	private static CountDownLatch block(CoalescingTaskRunner runner) throws InterruptedException
+	{
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch blocker = new CountDownLatch(1);
+		runner.run(new Object(), new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				started.countDown();
+				try
+				{
+					blocker.await(TIMEOUT, TimeUnit.MILLISECONDS);
+				}
+				catch (InterruptedException e)
+				{
+				}
+			}
+		});
+		assertTrue(started.await(TIMEOUT, TimeUnit.MILLISECONDS));
+		return blocker;
+	}
+
+	private static void waitForCompletion(CoalescingTaskRunner runner, long count) throws InterruptedException
+	{
+		long end = System.currentTimeMillis() + TIMEOUT;
+		while (runner.getCompletedCount() < count && System.currentTimeMillis() < end)
+		{
+			Thread.sleep(5);
+		}
+		assertEquals(count, runner.getCompletedCount());
+	}
+
+	private static class Record implements Runnable
+	{
+		private final List<String> list;
+		private final String name;
+
+		public Record(List<String> list, String name)
+		{
+			this.list = list;
+			this.name = name;
+		}
+
+		@Override
+		public void run()
+		{
+			list.add(name);
+		}
+	}
+}
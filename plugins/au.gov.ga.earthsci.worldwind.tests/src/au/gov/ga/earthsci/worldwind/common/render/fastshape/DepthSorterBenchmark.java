@@ -0,0 +1,178 @@
+/*******************************************************************************
+ * Copyright 2026 Geoscience Australia
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package au.gov.ga.earthsci.worldwind.common.render.fastshape;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Benchmark comparing the {@link DepthSorter} with an object-per-triangle
+ * comparison sort (the approach previously used by {@link FastShape}), for
+ * full sorts and for re-sorts after small eye movements.
+ * <p/>
+ * Not run as part of the unit tests. Usage:
+ * 
+ * <pre>
+ * DepthSorterBenchmark [triangleCount...]
+ * </pre>
+ * 
+ * The defaults are meshes of 1 million and 5 million indexed triangles.
+ * Requires a large heap (-Xmx2g or more) for the 5 million triangle mesh.
+ * 
+ * @author Michael de Hoog (michael.dehoog@ga.gov.au)
+ */
+public class DepthSorterBenchmark
+{
+	private static final int WARMUP_ITERATIONS = 2;
+	private static final int TIMED_ITERATIONS = 5;
+
+	public static void main(String[] args)
+	{
+		int[] triangleCounts = { 1000000, 5000000 };
+		if (args.length > 0)
+		{
+			triangleCounts = new int[args.length];
+			for (int i = 0; i < args.length; i++)
+			{
+				triangleCounts[i] = Integer.parseInt(args[i]);
+			}
+		}
+
+		for (int triangleCount : triangleCounts)
+		{
+			benchmark(triangleCount);
+		}
+	}
+
+	private static void benchmark(int triangleCount)
+	{
+		//grid mesh, 2 triangles per cell, with random elevations
+		int width = (int) Math.ceil(Math.sqrt(triangleCount / 2d)) + 1;
+		Random random = new Random(0);
+		float[] vertices = new float[width * width * 3];
+		for (int y = 0, v = 0; y < width; y++)
+		{
+			for (int x = 0; x < width; x++, v += 3)
+			{
+				vertices[v] = x;
+				vertices[v + 1] = y;
+				vertices[v + 2] = random.nextFloat() * 10f;
+			}
+		}
+		int[] indices = new int[triangleCount * 3];
+		for (int t = 0, i = 0; t < triangleCount; t += 2)
+		{
+			int cell = t / 2;
+			int v = (cell / (width - 1)) * width + cell % (width - 1);
+			indices[i++] = v;
+			indices[i++] = v + 1;
+			indices[i++] = v + width;
+			if (t + 1 < triangleCount)
+			{
+				indices[i++] = v + 1;
+				indices[i++] = v + width + 1;
+				indices[i++] = v + width;
+			}
+		}
+		int[] sorted = new int[indices.length];
+		double eyeX = width / 2d, eyeY = -width / 4d, eyeZ = width / 2d;
+
+		System.out.println(triangleCount + " triangles:"); //$NON-NLS-1$
+
+		long time = 0;
+		for (int i = 0; i < WARMUP_ITERATIONS + TIMED_ITERATIONS; i++)
+		{
+			long start = System.nanoTime();
+			objectSort(vertices, indices, eyeX + i, eyeY, eyeZ, sorted);
+			time += i >= WARMUP_ITERATIONS ? System.nanoTime() - start : 0;
+		}
+		print("Object sort", time); //$NON-NLS-1$
+
+		time = 0;
+		for (int i = 0; i < WARMUP_ITERATIONS + TIMED_ITERATIONS; i++)
+		{
+			//new sorter each time, so that the sort is never incremental
+			DepthSorter sorter = new DepthSorter();
+			long start = System.nanoTime();
+			sorter.sort(vertices, indices, 3, eyeX + i, eyeY, eyeZ, sorted);
+			time += i >= WARMUP_ITERATIONS ? System.nanoTime() - start : 0;
+		}
+		print("Radix sort", time); //$NON-NLS-1$
+
+		DepthSorter sorter = new DepthSorter();
+		sorter.sort(vertices, indices, 3, eyeX, eyeY, eyeZ, sorted);
+		time = 0;
+		int incremental = 0;
+		for (int i = 1; i <= WARMUP_ITERATIONS + TIMED_ITERATIONS; i++)
+		{
+			long start = System.nanoTime();
+			sorter.sort(vertices, indices, 3, eyeX + i * 0.01, eyeY, eyeZ, sorted);
+			if (i > WARMUP_ITERATIONS)
+			{
+				time += System.nanoTime() - start;
+				incremental += sorter.isLastSortIncremental() ? 1 : 0;
+			}
+		}
+		print("Small move (" + incremental + "/" + TIMED_ITERATIONS + " incremental)", time); //$NON-NLS-1$ //$NON-NLS-2$ //$NON-NLS-3$
+	}
+
+	private static void print(String name, long nanos)
+	{
+		System.out.println(String.format("  %-32s %8.1f ms", name, nanos / 1e6 / TIMED_ITERATIONS)); //$NON-NLS-1$
+	}
+
+	private static void objectSort(float[] vertices, int[] indices, double x, double y, double z, int[] sorted)
+	{
+		IndexAndDistance[] distances = new IndexAndDistance[indices.length / 3];
+		for (int i = 0, j = 0; i < indices.length; i += 3, j++)
+		{
+			double distance = 0;
+			for (int k = 0; k < 3; k++)
+			{
+				int v = indices[i + k] * 3;
+				double dx = vertices[v] - x, dy = vertices[v + 1] - y, dz = vertices[v + 2] - z;
+				distance += dx * dx + dy * dy + dz * dz;
+			}
+			distances[j] = new IndexAndDistance(distance, i);
+		}
+		Arrays.sort(distances);
+		for (int i = 0, j = 0; i < indices.length; i += 3, j++)
+		{
+			int index = distances[j].index;
+			sorted[i] = indices[index];
+			sorted[i + 1] = indices[index + 1];
+			sorted[i + 2] = indices[index + 2];
+		}
+	}
+
+	private static class IndexAndDistance implements Comparable<IndexAndDistance>
+	{
+		public final double distance;
+		public final int index;
+
+		public IndexAndDistance(double distance, int index)
+		{
+			this.distance = distance;
+			this.index = index;
+		}
+
+		@Override
+		public int compareTo(IndexAndDistance o)
+		{
+			return -Double.compare(distance, o.distance);
+		}
+	}
+}
@@ -0,0 +1,178 @@
+/*******************************************************************************
+ * Copyright 2026 Geoscience Australia
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package au.gov.ga.earthsci.worldwind.common.render.fastshape;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for the {@link DepthSorter} class
+ * 
+ * @author Michael de Hoog (michael.dehoog@ga.gov.au)
+ */
+public class DepthSorterTest
+{
+	private static final int TRIANGLE_COUNT = 5000;
+
+	@Test
+	public void testEmpty()
+	{
+		DepthSorter sorter = new DepthSorter();
+		assertEquals(-1, sorter.sort(new float[0], null, 3, 0, 0, 0, new int[0]));
+		assertEquals(-1, sorter.sort(new float[9], new int[0], 3, 0, 0, 0, new int[0]));
+	}
+
+	@Test
+	public void testPointsSortedBackToFront()
+	{
+		float[] vertices = { 0, 0, 1, 0, 0, 5, 0, 0, 3, 0, 0, 2, 0, 0, 4 };
+		int[] sorted = new int[5];
+		int closest = new DepthSorter().sort(vertices, null, 1, 0, 0, 0, sorted);
+		assertArrayEquals(new int[] { 1, 4, 2, 3, 0 }, sorted);
+		assertEquals(0, closest);
+	}
+
+	@Test
+	public void testIndexedPointsSortedBackToFront()
+	{
+		float[] vertices = { 0, 0, 1, 0, 0, 5, 0, 0, 3 };
+		int[] indices = { 2, 0, 1 };
+		int[] sorted = new int[3];
+		int closest = new DepthSorter().sort(vertices, indices, 1, 0, 0, 10, sorted);
+		assertArrayEquals(new int[] { 0, 2, 1 }, sorted);
+		assertEquals(1, closest);
+	}
+
+	@Test
+	public void testTrianglesSortedBackToFront()
+	{
+		Random random = new Random(0);
+		float[] vertices = randomVertices(random, TRIANGLE_COUNT * 3);
+		int[] sorted = new int[TRIANGLE_COUNT * 3];
+		int closest = new DepthSorter().sort(vertices, null, 3, 10, 20, 30, sorted);
+
+		assertSortedBackToFront(vertices, null, sorted, 10, 20, 30);
+		assertEquals(sorted[sorted.length - 3], closest);
+	}
+
+	@Test
+	public void testIndexedTrianglesSortedBackToFront()
+	{
+		Random random = new Random(1);
+		float[] vertices = randomVertices(random, TRIANGLE_COUNT);
+		int[] indices = new int[TRIANGLE_COUNT * 3];
+		for (int i = 0; i < indices.length; i++)
+		{
+			indices[i] = random.nextInt(TRIANGLE_COUNT);
+		}
+		int[] sorted = new int[indices.length];
+		new DepthSorter().sort(vertices, indices, 3, -5, 0, 5, sorted);
+
+		assertSortedBackToFront(vertices, indices, sorted, -5, 0, 5);
+	}
+
+	@Test
+	public void testSmallEyeMovementSortsIncrementally()
+	{
+		Random random = new Random(2);
+		float[] vertices = randomVertices(random, TRIANGLE_COUNT * 3);
+		int[] sorted = new int[TRIANGLE_COUNT * 3];
+		DepthSorter sorter = new DepthSorter();
+
+		sorter.sort(vertices, null, 3, 0, 0, 500, sorted);
+		assertFalse(sorter.isLastSortIncremental());
+
+		sorter.sort(vertices, null, 3, 0.01, 0, 500, sorted);
+		assertTrue(sorter.isLastSortIncremental());
+		assertSortedBackToFront(vertices, null, sorted, 0.01, 0, 500);
+	}
+
+	@Test
+	public void testLargeEyeMovementFallsBackToFullSort()
+	{
+		Random random = new Random(3);
+		float[] vertices = randomVertices(random, TRIANGLE_COUNT * 3);
+		int[] sorted = new int[TRIANGLE_COUNT * 3];
+		DepthSorter sorter = new DepthSorter();
+
+		sorter.sort(vertices, null, 3, 0, 0, 500, sorted);
+		sorter.sort(vertices, null, 3, 0, 0, -500, sorted);
+		assertFalse(sorter.isLastSortIncremental());
+		assertSortedBackToFront(vertices, null, sorted, 0, 0, -500);
+	}
+
+	@Test
+	public void testChangedPrimitiveCountResorts()
+	{
+		Random random = new Random(4);
+		DepthSorter sorter = new DepthSorter();
+
+		float[] vertices = randomVertices(random, TRIANGLE_COUNT * 3);
+		sorter.sort(vertices, null, 3, 0, 0, 0, new int[vertices.length / 3]);
+
+		vertices = randomVertices(random, 30);
+		int[] sorted = new int[30];
+		sorter.sort(vertices, null, 3, 0, 0, 0, sorted);
+		assertFalse(sorter.isLastSortIncremental());
+		assertSortedBackToFront(vertices, null, sorted, 0, 0, 0);
+	}
+
+	private static float[] randomVertices(Random random, int count)
+	{
+		float[] vertices = new float[count * 3];
+		for (int i = 0; i < vertices.length; i++)
+		{
+			vertices[i] = random.nextFloat() * 200f - 100f;
+		}
+		return vertices;
+	}
+
+	private static void assertSortedBackToFront(float[] vertices, int[] indices, int[] sorted, double x,
+			double y, double z)
+	{
+		int[] expectedCounts = new int[vertices.length / 3];
+		int[] actualCounts = new int[vertices.length / 3];
+		int size = indices != null ? indices.length : vertices.length / 3;
+		for (int i = 0; i < size; i++)
+		{
+			expectedCounts[indices != null ? indices[i] : i]++;
+			actualCounts[sorted[i]]++;
+		}
+		assertArrayEquals(expectedCounts, actualCounts);
+
+		float previous = Float.MAX_VALUE;
+		for (int i = 0; i < size; i += 3)
+		{
+			float distance =
+					(float) (distanceSquared(vertices, sorted[i], x, y, z)
+							+ distanceSquared(vertices, sorted[i + 1], x, y, z) + distanceSquared(vertices,
+							sorted[i + 2], x, y, z));
+			assertTrue(distance <= previous);
+			previous = distance;
+		}
+	}
+
+	private static double distanceSquared(float[] vertices, int index, double x, double y, double z)
+	{
+		double dx = vertices[index * 3] - x;
+		double dy = vertices[index * 3 + 1] - y;
+		double dz = vertices[index * 3 + 2] - z;
+		return dx * dx + dy * dy + dz * dz;
+	}
+}
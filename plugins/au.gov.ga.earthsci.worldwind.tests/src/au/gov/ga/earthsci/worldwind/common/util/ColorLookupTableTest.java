@@ -0,0 +1,117 @@
+/*******************************************************************************
+ * Copyright 2026 Geoscience Australia
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package au.gov.ga.earthsci.worldwind.common.util;
+
+import static org.junit.Assert.*;
+
+import java.awt.Color;
+
+import org.junit.Test;
+
+import au.gov.ga.earthsci.worldwind.common.util.ColorLookupTable.ColorFunction;
+
+/**
+ * Unit tests for the {@link ColorLookupTable} class
+ * 
+ * @author Michael de Hoog (michael.dehoog@ga.gov.au)
+ */
+public class ColorLookupTableTest
+{
+	private static final ColorFunction IDENTITY = new ColorFunction()
+	{
+		@Override
+		public int getColor(double value)
+		{
+			return (int) Math.round(value);
+		}
+	};
+
+	@Test
+	public void testValuesMapToNearestSample()
+	{
+		ColorLookupTable table = new ColorLookupTable(IDENTITY, 0, 100, 11);
+		assertEquals(0, table.getColor(0));
+		assertEquals(0, table.getColor(4.9));
+		assertEquals(10, table.getColor(5.1));
+		assertEquals(50, table.getColor(52));
+		assertEquals(100, table.getColor(100));
+	}
+
+	@Test
+	public void testOutOfRangeValuesUseFunction()
+	{
+		ColorLookupTable table = new ColorLookupTable(IDENTITY, 0, 100, 11);
+		assertEquals(-7, table.getColor(-7));
+		assertEquals(123, table.getColor(123));
+	}
+
+	@Test
+	public void testZeroSizeAlwaysUsesFunction()
+	{
+		ColorLookupTable table = new ColorLookupTable(IDENTITY, 0, 100, 0);
+		assertEquals(0, table.getSize());
+		assertEquals(52, table.getColor(52));
+	}
+
+	@Test
+	public void testReversedAndEmptyRange()
+	{
+		ColorLookupTable table = new ColorLookupTable(IDENTITY, 100, 0, 11);
+		assertEquals(0, table.getMinimum(), 0);
+		assertEquals(100, table.getMaximum(), 0);
+
+		table = new ColorLookupTable(IDENTITY, 5, 5, 11);
+		assertEquals(5, table.getColor(5));
+		assertEquals(6, table.getColor(6));
+	}
+
+	@Test
+	public void testBulkMap()
+	{
+		ColorLookupTable table = new ColorLookupTable(IDENTITY, 0, 100, 101);
+		float[] in = { 1, 2, 3, 200, -1 };
+		int[] out = new int[7];
+		table.map(in, 1, out, 2, 4);
+		assertArrayEquals(new int[] { 0, 0, 2, 3, 200, -1, 0 }, out);
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testBulkMapChecksBounds()
+	{
+		new ColorLookupTable(IDENTITY, 0, 100, 101).map(new float[4], new int[3]);
+	}
+
+	@Test
+	public void testFromColorMap()
+	{
+		ColorMap colorMap = new ColorMap();
+		colorMap.setInterpolateHue(false);
+		colorMap.put(0d, Color.BLACK);
+		colorMap.put(1d, Color.WHITE);
+		colorMap.setValuesPercentages(true);
+
+		ColorLookupTable table = ColorLookupTable.fromColorMap(colorMap, 100, 200);
+		colorMap.put(0.5, Color.RED);
+
+		for (double value = 100; value <= 200; value += 10)
+		{
+			int grey = (int) Math.round(255 * (value - 100) / 100);
+			int actual = table.getColor(value);
+			assertEquals(grey, (actual >> 16) & 0xff, 1);
+			assertEquals(grey, actual & 0xff, 1);
+		}
+	}
+}
@@ -20,7 +20,10 @@ import gov.nasa.worldwind.avlist.AVKey;
 import gov.nasa.worldwind.avlist.AVList;
 import gov.nasa.worldwind.event.SelectEvent;
 import gov.nasa.worldwind.event.SelectListener;
+import gov.nasa.worldwind.geom.LatLon;
 import gov.nasa.worldwind.geom.Position;
+import gov.nasa.worldwind.geom.Vec4;
+import gov.nasa.worldwind.globes.Globe;
 import gov.nasa.worldwind.layers.AbstractLayer;
 import gov.nasa.worldwind.pick.PickSupport;
 import gov.nasa.worldwind.pick.PickedObject;
@@ -28,6 +31,7 @@ import gov.nasa.worldwind.render.AnnotationRenderer;
 import gov.nasa.worldwind.render.BasicAnnotationRenderer;
 import gov.nasa.worldwind.render.DrawContext;
 import gov.nasa.worldwind.render.GlobeAnnotation;
+import gov.nasa.worldwind.render.markers.BasicMarker;
 import gov.nasa.worldwind.render.markers.BasicMarkerAttributes;
 import gov.nasa.worldwind.render.markers.Marker;
 import gov.nasa.worldwind.render.markers.MarkerAttributes;
@@ -39,10 +43,12 @@ import java.awt.Point;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 
 import javax.media.opengl.GL2;
 
@@ -50,7 +56,6 @@ import org.gdal.osr.CoordinateTransformation;
 
 import au.gov.ga.earthsci.worldwind.common.WorldWindowRegistry;
 import au.gov.ga.earthsci.worldwind.common.layers.Bounds;
-import au.gov.ga.earthsci.worldwind.common.layers.point.types.MarkerPointLayer;
 import au.gov.ga.earthsci.worldwind.common.layers.styled.Attribute;
 import au.gov.ga.earthsci.worldwind.common.layers.styled.BasicStyleProvider;
 import au.gov.ga.earthsci.worldwind.common.layers.styled.Style;
@@ -69,6 +74,15 @@ import au.gov.ga.earthsci.worldwind.common.util.Validate;
 /**
  * Basic implementation of the {@link BoreholeLayer}. Draws markers for each
  * borehole location, and coloured lines for borehole samples.
+ * <p/>
+ * Boreholes and samples are stored in a columnar {@link BoreholeStore} as they
+ * are streamed from the {@link BoreholeProvider}, rather than as objects. The
+ * boreholes are grouped into cells of {@link #CELL_SIZE_DEGREES}; each cell's
+ * sample and path lines are only drawn when the cell is within the detail
+ * distance of the eye (the layer's minimum distance, if set). The collars of
+ * boreholes in those cells are drawn as styled markers, and distant boreholes
+ * are drawn as a single shape of coloured points. The geometry is rebuilt
+ * periodically while loading, so large datasets appear progressively.
  * 
  * @author Michael de Hoog (michael.dehoog@ga.gov.au)
  */
@@ -76,11 +90,32 @@ public class BasicBoreholeLayer extends AbstractLayer implements BoreholeLayer,
 {
 	private static final Color DEFAULT_SAMPLE_COLOR = Color.GRAY;
 
+	/**
+	 * Size of the (latitude and longitude) cells that boreholes are grouped
+	 * into for level of detail
+	 */
+	protected static final double CELL_SIZE_DEGREES = 0.5;
+	/**
+	 * Distance from the eye (in metres) within which the samples of a cell are
+	 * drawn, if the layer has no minimum distance
+	 */
+	protected static final double DEFAULT_DETAIL_DISTANCE = 100000;
+	/**
+	 * Minimum time between geometry updates while loading (milliseconds)
+	 */
+	protected static final long PROGRESSIVE_UPDATE_INTERVAL = 1000;
+	/**
+	 * Size of the points drawn at the collars of distant boreholes
+	 */
+	protected static final double COLLAR_POINT_SIZE = 5;
+
 	protected BoreholeProvider boreholeProvider;
 	protected StyleProvider boreholeStyleProvider = new BasicStyleProvider();
 	protected StyleProvider sampleStyleProvider = new BasicStyleProvider();
-	protected final List<Borehole> boreholes = new ArrayList<Borehole>();
-	protected final Map<Object, BoreholeImpl> idToBorehole = new HashMap<Object, BoreholeImpl>();
+	protected final BoreholeStore store = new BoreholeStore();
+	protected final List<Borehole> boreholes = store.asBoreholeList();
+	protected final Map<Object, Integer> idToBorehole = new HashMap<Object, Integer>();
+	protected final List<Marker> markers = new ArrayList<Marker>();
 	protected final DeepPickingMarkerRenderer markerRenderer = new DeepPickingMarkerRenderer();
 	protected final AnnotationRenderer annotationRenderer = new BasicAnnotationRenderer();
 
@@ -98,9 +133,18 @@ public class BasicBoreholeLayer extends AbstractLayer implements BoreholeLayer,
 
 	protected GlobeAnnotation tooltipAnnotation;
 
-	protected FastShape pathShape;
-	protected FastShape samplesShape;
-	protected float[] pickingColorBuffer;
+	//cells are only accessed by the loading thread; the render thread uses the published geometry
+	private final Map<Long, Cell> cells = new HashMap<Long, Cell>();
+	private volatile List<CellGeometry> cellGeometries = Collections.emptyList();
+	private volatile FastShape collarShape;
+	//marker attributes shared by boreholes with the same style, accessed only by the loading thread
+	private final Map<List<Object>, MarkerAttributes> sharedAttributes =
+			new HashMap<List<Object>, MarkerAttributes>();
+	//detailed cells whose boreholes were last excluded from the collar shape, accessed only by the render thread
+	private List<CellGeometry> lastDetailedCells = Collections.emptyList();
+	private FastShape lastCollarShape;
+	private long lastPublishTime;
+	private int lastPublishSize;
 	protected final PickSupport pickSupport = new PickSupport();
 
 	@SuppressWarnings("unchecked")
@@ -206,10 +250,29 @@ public class BasicBoreholeLayer extends AbstractLayer implements BoreholeLayer,
 	@Override
 	public void addBorehole(Borehole borehole)
 	{
-		synchronized (boreholes)
+		int hole =
+				store.addBorehole(borehole.getPosition(), shareAttributes(borehole.getAttributes()),
+						borehole.getText(), borehole.getLink());
+		for (Entry<Double, Position> entry : borehole.getPath().getPositions().entrySet())
+		{
+			store.addPathPosition(hole, entry.getKey(), entry.getValue());
+		}
+
+		Cell cell = getCell(hole);
+		for (BoreholeSample sample : borehole.getSamples())
 		{
-			boreholes.add(borehole);
+			Color color = sample.getColor() != null ? sample.getColor() : getDefaultSampleColor();
+			cell.addSample(store.addSample(hole, sample.getDepthFrom(), sample.getDepthTo(), color.getRGB(),
+					sample.getText(), sample.getLink()));
 		}
+		if (!borehole.getMarkers().isEmpty())
+		{
+			synchronized (markers)
+			{
+				markers.addAll(borehole.getMarkers());
+			}
+		}
+		publishIfRequired();
 	}
 
 	@Override
@@ -223,89 +286,141 @@ public class BasicBoreholeLayer extends AbstractLayer implements BoreholeLayer,
 		Validate.notNull(depthFrom, "Borehole sample attributes do not contain a valid depth-from");
 		Validate.notNull(depthTo, "Borehole sample attributes do not contain a valid depth-to");
 
-		BoreholeImpl borehole = idToBorehole.get(id);
-		if (borehole == null)
+		Integer hole = idToBorehole.get(id);
+		if (hole == null)
 		{
+			//apply the style to temporary objects, and only keep the resulting properties in the store
 			MarkerAttributes markerAttributes = new BasicMarkerAttributes();
-			borehole = new BoreholeImpl(position, markerAttributes);
-			idToBorehole.put(id, borehole);
-			synchronized (boreholes)
-			{
-				boreholes.add(borehole);
-			}
-
+			BoreholeImpl borehole = new BoreholeImpl(position, markerAttributes);
 			StyleAndText boreholeProperties = boreholeStyleProvider.getStyle(attributeValues);
-			borehole.setUrl(boreholeProperties.link);
-			borehole.setTooltipText(boreholeProperties.text);
 			boreholeProperties.style.setPropertiesFromAttributes(context, attributeValues, markerAttributes, borehole);
-			MarkerPointLayer.fixShapeType(markerAttributes);
-		}
 
-		BoreholeSampleImpl sample = new BoreholeSampleImpl(borehole);
-		borehole.addSample(sample);
-		sample.setDepthFrom(attributesRepresentPositiveDepth ? depthFrom : -depthFrom);
-		sample.setDepthTo(attributesRepresentPositiveDepth ? depthTo : -depthTo);
+			hole =
+					store.addBorehole(position, shareAttributes(markerAttributes), boreholeProperties.text,
+							boreholeProperties.link);
+			idToBorehole.put(id, hole);
+		}
 
+		BoreholeSampleImpl sample = new BoreholeSampleImpl(null);
 		StyleAndText sampleProperties = sampleStyleProvider.getStyle(attributeValues);
-		sample.setText(sampleProperties.text);
-		sample.setLink(sampleProperties.link);
 		sampleProperties.style.setPropertiesFromAttributes(context, attributeValues, sample);
+		Color color = sample.getColor() != null ? sample.getColor() : getDefaultSampleColor();
+
+		getCell(hole).addSample(
+				store.addSample(hole, attributesRepresentPositiveDepth ? depthFrom : -depthFrom,
+						attributesRepresentPositiveDepth ? depthTo : -depthTo, color.getRGB(), sampleProperties.text,
+						sampleProperties.link));
+		publishIfRequired();
 	}
 
 	@Override
 	public void loadComplete()
 	{
-		List<Position> positions = new ArrayList<Position>();
-		List<Color> colors = new ArrayList<Color>();
-		List<Position> pathPositions = new ArrayList<Position>();
+		publish();
+	}
 
-		for (Borehole borehole : boreholes)
+	/**
+	 * Get a shared instance of the given marker attributes, so that boreholes
+	 * with the same style don't each keep their own copy.
+	 * 
+	 * @param attributes
+	 *            Styled marker attributes of a borehole
+	 * @return Attributes equal to the given attributes, shared between
+	 *         boreholes
+	 */
+	protected MarkerAttributes shareAttributes(MarkerAttributes attributes)
+	{
+		List<Object> key =
+				Arrays.<Object> asList(attributes.getShapeType(), attributes.getMaterial(),
+						attributes.getHeadingMaterial(), attributes.getHeadingScale(), attributes.getOpacity(),
+						attributes.getMarkerPixels(), attributes.getMinMarkerSize(), attributes.getMaxMarkerSize());
+		MarkerAttributes shared = sharedAttributes.get(key);
+		if (shared == null)
 		{
-			borehole.loadComplete();
-
-			BoreholePath path = borehole.getPath();
-			for (BoreholeSample sample : borehole.getSamples())
-			{
-				Position sampleTop = path.getPosition(sample.getDepthFrom());
-				Position sampleBottom = path.getPosition(sample.getDepthTo());
-
-				positions.add(sampleTop);
-				positions.add(sampleBottom);
-
-				Color sampleColor = sample.getColor();
-				sampleColor = sampleColor != null ? sampleColor : getDefaultSampleColor();
-				colors.add(sampleColor);
-				colors.add(sampleColor);
-			}
+			shared = attributes;
+			sharedAttributes.put(key, shared);
+		}
+		return shared;
+	}
 
-			Position lastPosition = null;
-			for (Position position : path.getPositions().values())
-			{
-				if (lastPosition != null)
-				{
-					pathPositions.add(lastPosition);
-					pathPositions.add(position);
-				}
-				lastPosition = position;
-			}
+	/**
+	 * Get the level of detail cell that contains the given borehole, creating
+	 * it if required.
+	 */
+	private Cell getCell(int hole)
+	{
+		double latitude = store.getLatitude(hole);
+		double longitude = store.getLongitude(hole);
+		int row = (int) Math.floor(latitude / CELL_SIZE_DEGREES);
+		int column = (int) Math.floor(longitude / CELL_SIZE_DEGREES);
+		Long key = ((long) row << 32) | (column & 0xffffffffL);
+
+		Cell cell = cells.get(key);
+		if (cell == null)
+		{
+			cell = new Cell(row * CELL_SIZE_DEGREES, column * CELL_SIZE_DEGREES);
+			cells.put(key, cell);
 		}
+		cell.addBorehole(hole);
+		return cell;
+	}
 
-		FastShape pathShape = new FastShape(pathPositions, GL2.GL_LINES);
-		pathShape.setColor(Color.LIGHT_GRAY);
-		pathShape.setLineWidth(1.0);
-		pathShape.setFollowTerrain(isFollowTerrain());
+	/**
+	 * Publish the geometry loaded so far, if enough time has passed and the
+	 * store has grown enough since the last update. Requiring the store to
+	 * grow geometrically keeps the total cost of the progressive updates
+	 * proportional to the size of the dataset.
+	 */
+	private void publishIfRequired()
+	{
+		long time = System.currentTimeMillis();
+		int size = store.getBoreholeCount() + store.getSampleCount();
+		if (time - lastPublishTime >= PROGRESSIVE_UPDATE_INTERVAL && size >= lastPublishSize + lastPublishSize / 2)
+		{
+			publish();
+		}
+	}
 
-		float[] boreholeColorBuffer = FastShape.color3ToFloats(colors);
-		pickingColorBuffer = new float[colors.size() * 3];
+	/**
+	 * Rebuild the geometry of the cells that have changed since the last
+	 * update, and the collar markers, and publish them to the render thread.
+	 */
+	protected void publish()
+	{
+		List<CellGeometry> geometries = new ArrayList<CellGeometry>(cells.size());
+		for (Cell cell : cells.values())
+		{
+			geometries.add(cell.getGeometry());
+		}
 
-		FastShape samplesShape = new FastShape(positions, GL2.GL_LINES);
-		samplesShape.setColorBuffer(boreholeColorBuffer);
-		samplesShape.setFollowTerrain(isFollowTerrain());
-		samplesShape.setLineWidth(lineWidth);
+		int holeCount = store.getBoreholeCount();
+		double[] collarPositions = new double[holeCount * 3];
+		float[] collarColors = new float[holeCount * 3];
+		for (int hole = 0, i = 0; hole < holeCount; hole++, i += 3)
+		{
+			collarPositions[i] = store.getLatitude(hole);
+			collarPositions[i + 1] = store.getLongitude(hole);
+			collarPositions[i + 2] = store.getElevation(hole);
+			putColor(store.getColor(hole), collarColors, i);
+		}
+		FastShape collarShape = new FastShape(new DegreesPositionList(collarPositions, holeCount), GL2.GL_POINTS);
+		collarShape.setColorBuffer(collarColors);
+		collarShape.setPointSize(COLLAR_POINT_SIZE);
+		collarShape.setFollowTerrain(isFollowTerrain());
+
+		//set at the end, so that half-setup shapes aren't rendered on the render thread
+		this.collarShape = collarShape;
+		this.cellGeometries = geometries;
+		lastPublishTime = System.currentTimeMillis();
+		lastPublishSize = holeCount + store.getSampleCount();
+		firePropertyChange(AVKey.LAYER, null, this);
+	}
 
-		//set at the end, so that half-setup shape isn't rendered on the render thread 
-		this.pathShape = pathShape;
-		this.samplesShape = samplesShape;
+	private static void putColor(int rgb, float[] colors, int offset)
+	{
+		colors[offset] = ((rgb >> 16) & 0xff) / 255f;
+		colors[offset + 1] = ((rgb >> 8) & 0xff) / 255f;
+		colors[offset + 2] = (rgb & 0xff) / 255f;
 	}
 
 	@Override
@@ -329,73 +444,222 @@ public class BasicBoreholeLayer extends AbstractLayer implements BoreholeLayer,
 		}
 
 		boreholeProvider.requestData(this);
-		synchronized (boreholes)
+		synchronized (markers)
 		{
-			markerRenderer.render(dc, allMarkers());
-			annotationRenderer.render(dc, tooltipAnnotation, tooltipAnnotation.getAnnotationDrawPoint(dc), this);
-			if (samplesShape != null)
+			if (!markers.isEmpty())
+			{
+				markerRenderer.render(dc, markers);
+			}
+		}
+		annotationRenderer.render(dc, tooltipAnnotation, tooltipAnnotation.getAnnotationDrawPoint(dc), this);
+
+		FastShape collarShape = this.collarShape;
+		if (collarShape == null)
+		{
+			return;
+		}
+
+		List<CellGeometry> detailed = getDetailedCells(dc);
+		boolean renderCollarShape = updateCollarIndices(collarShape, detailed);
+		List<Marker> collarMarkers = new ArrayList<Marker>();
+		for (CellGeometry cell : detailed)
+		{
+			collarMarkers.addAll(cell.getCollarMarkers());
+		}
+		if (!collarMarkers.isEmpty())
+		{
+			//picked markers are resolved by the marker renderer, and converted to boreholes on selection
+			markerRenderer.render(dc, collarMarkers);
+		}
+
+		if (!dc.isPickingMode())
+		{
+			if (renderCollarShape)
+			{
+				collarShape.render(dc);
+			}
+			for (CellGeometry cell : detailed)
 			{
-				if (!dc.isPickingMode())
+				cell.samplesShape.render(dc);
+				cell.pathShape.render(dc);
+			}
+			return;
+		}
+
+		boolean oldDeepPicking = dc.isDeepPickingEnabled();
+		try
+		{
+			//deep picking needs to be enabled, because boreholes are below the surface
+			dc.setDeepPickingEnabled(true);
+			pickSupport.beginPicking(dc);
+
+			Object picked = null;
+			PickedObject pickedObject = null;
+			for (CellGeometry cell : detailed)
+			{
+				pickedObject = pickItem(dc, cell.samplesShape, cell.samples.length, 2);
+				if (pickedObject != null)
 				{
-					samplesShape.render(dc);
-					pathShape.render(dc);
+					picked = createSample(cell.samples[(Integer) pickedObject.getObject()]);
+					break;
 				}
-				else
+			}
+			if (picked == null && renderCollarShape)
+			{
+				pickedObject = pickItem(dc, collarShape, collarShape.getPositions().size(), 1);
+				if (pickedObject != null)
 				{
-					boolean oldDeepPicking = dc.isDeepPickingEnabled();
-					try
+					picked = store.createBorehole((Integer) pickedObject.getObject());
+				}
+			}
+
+			if (picked != null)
+			{
+				//only create an object for the item that was actually picked
+				pickSupport.addPickableObject(pickedObject.getColorCode(), picked, getBounds().center);
+				pickSupport.resolvePick(dc, dc.getPickPoint(), this);
+			}
+		}
+		finally
+		{
+			pickSupport.endPicking(dc);
+			dc.setDeepPickingEnabled(oldDeepPicking);
+		}
+	}
+
+	/**
+	 * @return The published cells within the detail distance of the eye
+	 */
+	protected List<CellGeometry> getDetailedCells(DrawContext dc)
+	{
+		List<CellGeometry> cells = this.cellGeometries;
+		List<CellGeometry> detailed = new ArrayList<CellGeometry>();
+		double detailDistance = minimumDistance != null ? minimumDistance : DEFAULT_DETAIL_DISTANCE;
+		Vec4 eyePoint = dc.getView().getEyePoint();
+		for (CellGeometry cell : cells)
+		{
+			if (cell.getDistance(dc.getGlobe(), eyePoint) <= detailDistance)
+			{
+				detailed.add(cell);
+			}
+		}
+		return detailed;
+	}
+
+	/**
+	 * Exclude the boreholes in the detailed cells, which are drawn as styled
+	 * markers, from the collar point shape. The shape's indices are only
+	 * updated when the detailed cells change.
+	 * 
+	 * @param collarShape
+	 *            Shape containing a point for every borehole collar
+	 * @param detailed
+	 *            Cells within the detail distance of the eye
+	 * @return True if any collar points remain to be drawn
+	 */
+	protected boolean updateCollarIndices(FastShape collarShape, List<CellGeometry> detailed)
+	{
+		if (collarShape != lastCollarShape || !detailed.equals(lastDetailedCells))
+		{
+			int[] indices = null;
+			if (!detailed.isEmpty())
+			{
+				int holeCount = collarShape.getPositions().size();
+				boolean[] excluded = new boolean[holeCount];
+				int excludedCount = 0;
+				for (CellGeometry cell : detailed)
+				{
+					for (int hole : cell.holes)
 					{
-						//deep picking needs to be enabled, because boreholes are below the surface
-						dc.setDeepPickingEnabled(true);
-						pickSupport.beginPicking(dc);
-
-						//First pick on the entire object by setting the shape to a single color.
-						//This will determine if we have to go further and pick individual samples.
-						Color overallPickColor = dc.getUniquePickColor();
-						pickSupport.addPickableObject(overallPickColor.getRGB(), samplesShape, getBounds().center);
-						samplesShape.setColor(overallPickColor);
-						samplesShape.setColorBufferEnabled(false);
-						samplesShape.render(dc);
-						samplesShape.setColorBufferEnabled(true);
-
-						PickedObject object = pickSupport.getTopObject(dc, dc.getPickPoint());
-						pickSupport.clearPickList();
-
-						if (object != null && object.getObject() == samplesShape)
+						if (hole < holeCount && !excluded[hole])
 						{
-							//This layer has been picked; now try picking the samples individually
-
-							//Put unique pick colours into the pickingColorBuffer (2 per sample)
-							int i = 0;
-							for (Borehole borehole : boreholes)
-							{
-								for (BoreholeSample sample : borehole.getSamples())
-								{
-									Color color = dc.getUniquePickColor();
-									pickSupport.addPickableObject(color.getRGB(), sample, getBounds().center);
-									for (int j = 0; j < 2; j++)
-									{
-										pickingColorBuffer[i++] = color.getRed() / 255f;
-										pickingColorBuffer[i++] = color.getGreen() / 255f;
-										pickingColorBuffer[i++] = color.getBlue() / 255f;
-									}
-								}
-							}
-
-							//render the shape with the pickingColorBuffer, and then resolve the pick
-							samplesShape.setPickingColorBuffer(pickingColorBuffer);
-							samplesShape.render(dc);
-							pickSupport.resolvePick(dc, dc.getPickPoint(), this);
+							excluded[hole] = true;
+							excludedCount++;
 						}
 					}
-					finally
+				}
+				indices = new int[holeCount - excludedCount];
+				for (int hole = 0, i = 0; hole < holeCount; hole++)
+				{
+					if (!excluded[hole])
 					{
-						pickSupport.endPicking(dc);
-						dc.setDeepPickingEnabled(oldDeepPicking);
+						indices[i++] = hole;
 					}
 				}
 			}
+			collarShape.setIndices(indices);
+			lastCollarShape = collarShape;
+			lastDetailedCells = detailed;
 		}
+		int[] indices = collarShape.getIndices();
+		return indices == null || indices.length > 0;
+	}
+
+	/**
+	 * Pick the individual items (samples or boreholes) of a shape. The shape
+	 * is first picked as a whole using a single colour, and only if that
+	 * succeeds is it rendered again with a unique colour per item.
+	 * 
+	 * @param dc
+	 *            Draw context
+	 * @param shape
+	 *            Shape to pick
+	 * @param itemCount
+	 *            Number of items in the shape
+	 * @param verticesPerItem
+	 *            Number of consecutive vertices in the shape for each item
+	 * @return Picked object whose object is the index of the picked item in
+	 *         the shape, or null if none was picked
+	 */
+	protected PickedObject pickItem(DrawContext dc, FastShape shape, int itemCount, int verticesPerItem)
+	{
+		Color overallPickColor = dc.getUniquePickColor();
+		pickSupport.addPickableObject(overallPickColor.getRGB(), shape);
+		Color color = shape.getColor();
+		shape.setColor(overallPickColor);
+		shape.setColorBufferEnabled(false);
+		shape.render(dc);
+		shape.setColorBufferEnabled(true);
+		shape.setColor(color);
+
+		PickedObject object = pickSupport.getTopObject(dc, dc.getPickPoint());
+		pickSupport.clearPickList();
+		if (object == null || object.getObject() != shape)
+		{
+			return null;
+		}
+
+		float[] pickingColorBuffer = new float[itemCount * verticesPerItem * 3];
+		for (int item = 0, i = 0; item < itemCount; item++)
+		{
+			Color itemColor = dc.getUniquePickColor();
+			pickSupport.addPickableObject(itemColor.getRGB(), item);
+			for (int j = 0; j < verticesPerItem; j++, i += 3)
+			{
+				putColor(itemColor.getRGB(), pickingColorBuffer, i);
+			}
+		}
+		shape.setPickingColorBuffer(pickingColorBuffer);
+		shape.render(dc);
+		shape.setPickingColorBuffer(null);
+
+		object = pickSupport.getTopObject(dc, dc.getPickPoint());
+		pickSupport.clearPickList();
+		return object != null && object.getObject() instanceof Integer ? object : null;
+	}
+
+	/**
+	 * Create a {@link BoreholeSample} object for a sample in the store.
+	 */
+	protected BoreholeSample createSample(int sample)
+	{
+		int hole = store.getSampleBorehole(sample);
+		int index = 0;
+		for (int s = store.getFirstSample(hole); s != sample; s = store.getNextSample(s))
+		{
+			index++;
+		}
+		return store.createBorehole(hole).getSamples().get(index);
 	}
 
 	@Override
@@ -426,6 +690,10 @@ public class BasicBoreholeLayer extends AbstractLayer implements BoreholeLayer,
 
 		PickedObject topPickedObject = e.getTopPickedObject();
 		Object object = topPickedObject != null ? topPickedObject.getObject() : null;
+		if (object instanceof CollarMarker)
+		{
+			object = store.createBorehole(((CollarMarker) object).hole);
+		}
 		if (object instanceof Borehole || object instanceof BoreholeSample || object instanceof BoreholeMarker)
 		{
 			highlight(object, true);
@@ -541,51 +809,169 @@ public class BasicBoreholeLayer extends AbstractLayer implements BoreholeLayer,
 		}
 	}
 
-	protected Iterable<Marker> allMarkers()
+	/**
+	 * Borehole data added to a single level of detail cell, accessed only by
+	 * the loading thread.
+	 */
+	private class Cell
 	{
-		return new Iterable<Marker>()
+		private final double minLatitude;
+		private final double minLongitude;
+		private int[] holes = new int[16];
+		private int holeCount;
+		private int[] samples = new int[16];
+		private int sampleCount;
+		private CellGeometry geometry;
+
+		public Cell(double minLatitude, double minLongitude)
+		{
+			this.minLatitude = minLatitude;
+			this.minLongitude = minLongitude;
+		}
+
+		public void addBorehole(int hole)
 		{
-			@Override
-			public Iterator<Marker> iterator()
+			if (holeCount > 0 && holes[holeCount - 1] >= hole)
 			{
-				return new Iterator<Marker>()
-				{
-					private Iterator<? extends Marker> current = boreholes.iterator();
-					private int boreholeIndex = 0;
+				//boreholes are added in increasing order, so this one has already been added
+				return;
+			}
+			if (holeCount == holes.length)
+			{
+				holes = Arrays.copyOf(holes, holeCount * 2);
+			}
+			holes[holeCount++] = hole;
+			geometry = null;
+		}
 
-					@Override
-					public boolean hasNext()
-					{
-						if (current.hasNext())
-						{
-							return true;
-						}
-						while (boreholeIndex < boreholes.size())
-						{
-							current = boreholes.get(boreholeIndex++).getMarkers().iterator();
-							if (current.hasNext())
-							{
-								return true;
-							}
-						}
-						return false;
-					}
+		public void addSample(int sample)
+		{
+			if (sampleCount == samples.length)
+			{
+				samples = Arrays.copyOf(samples, sampleCount * 2);
+			}
+			samples[sampleCount++] = sample;
+			geometry = null;
+		}
 
-					@Override
-					public Marker next()
-					{
-						if (!hasNext())
-						{
-							return null;
-						}
-						return current.next();
-					}
+		/**
+		 * @return Geometry containing all of the data in this cell, rebuilt if
+		 *         data has been added since it was last built
+		 */
+		public CellGeometry getGeometry()
+		{
+			if (geometry == null)
+			{
+				geometry = new CellGeometry(this);
+			}
+			return geometry;
+		}
+	}
 
-					@Override
-					public void remove() {
-					}
-				};
+	/**
+	 * Immutable geometry of a level of detail cell, published to the render
+	 * thread.
+	 */
+	protected class CellGeometry
+	{
+		public final FastShape samplesShape;
+		public final FastShape pathShape;
+		public final int[] samples;
+		public final int[] holes;
+		private final LatLon center;
+		private final double radiusRadians;
+
+		private Globe lastGlobe;
+		private Vec4 centerPoint;
+		private double radius;
+		private List<Marker> collarMarkers;
+
+		private CellGeometry(Cell cell)
+		{
+			samples = Arrays.copyOf(cell.samples, cell.sampleCount);
+			holes = Arrays.copyOf(cell.holes, cell.holeCount);
+			center =
+					LatLon.fromDegrees(cell.minLatitude + CELL_SIZE_DEGREES * 0.5, cell.minLongitude
+							+ CELL_SIZE_DEGREES * 0.5);
+			radiusRadians = Math.toRadians(CELL_SIZE_DEGREES * Math.sqrt(0.5));
+
+			double[] samplePositions = new double[samples.length * 6];
+			float[] sampleColors = new float[samples.length * 6];
+			for (int i = 0, j = 0; i < samples.length; i++, j += 6)
+			{
+				int sample = samples[i];
+				int hole = store.getSampleBorehole(sample);
+				store.getPosition(hole, store.getSampleDepthFrom(sample), samplePositions, j);
+				store.getPosition(hole, store.getSampleDepthTo(sample), samplePositions, j + 3);
+				putColor(store.getSampleColor(sample), sampleColors, j);
+				putColor(store.getSampleColor(sample), sampleColors, j + 3);
 			}
-		};
+			samplesShape = new FastShape(new DegreesPositionList(samplePositions, samples.length * 2), GL2.GL_LINES);
+			samplesShape.setColorBuffer(sampleColors);
+			samplesShape.setFollowTerrain(isFollowTerrain());
+			samplesShape.setLineWidth(lineWidth);
+
+			int segmentCount = 0;
+			for (int i = 0; i < cell.holeCount; i++)
+			{
+				segmentCount += store.getPathSegmentCount(cell.holes[i]);
+			}
+			double[] pathPositions = new double[segmentCount * 6];
+			for (int i = 0, offset = 0; i < cell.holeCount; i++)
+			{
+				offset = store.getPathSegments(cell.holes[i], pathPositions, offset);
+			}
+			pathShape = new FastShape(new DegreesPositionList(pathPositions, segmentCount * 2), GL2.GL_LINES);
+			pathShape.setColor(Color.LIGHT_GRAY);
+			pathShape.setLineWidth(1.0);
+			pathShape.setFollowTerrain(isFollowTerrain());
+		}
+
+		/**
+		 * @return Styled markers for the collars of the boreholes in this
+		 *         cell, created when the cell is first drawn in detail
+		 */
+		public List<Marker> getCollarMarkers()
+		{
+			if (collarMarkers == null)
+			{
+				collarMarkers = new ArrayList<Marker>(holes.length);
+				for (int hole : holes)
+				{
+					collarMarkers.add(new CollarMarker(hole, store.getPosition(hole), store.getAttributes(hole)));
+				}
+			}
+			return collarMarkers;
+		}
+
+		/**
+		 * @return Approximate distance from the eye point to the closest point
+		 *         of this cell (0 if the eye is above the cell)
+		 */
+		public double getDistance(Globe globe, Vec4 eyePoint)
+		{
+			if (globe != lastGlobe)
+			{
+				centerPoint = globe.computePointFromPosition(center, 0);
+				radius = radiusRadians * globe.getRadius();
+				lastGlobe = globe;
+			}
+			return Math.max(0, eyePoint.distanceTo3(centerPoint) - radius);
+		}
+	}
+
+	/**
+	 * Lightweight marker for the collar of a borehole in the store, which is
+	 * converted to a {@link Borehole} when selected.
+	 */
+	protected static class CollarMarker extends BasicMarker
+	{
+		public final int hole;
+
+		public CollarMarker(int hole, Position position, MarkerAttributes attributes)
+		{
+			super(position, attributes);
+			this.hole = hole;
+		}
 	}
 }
@@ -33,7 +33,9 @@ import au.gov.ga.earthsci.worldwind.common.util.ColorMap;
 public interface BoreholeLayer extends DataLayer
 {
 	/**
-	 * Add a borehole to this layer.
+	 * Add a borehole to this layer. The borehole's path, samples and markers
+	 * should be added to it before it is added to the layer; implementations
+	 * may copy the borehole's data rather than keep a reference to it.
 	 * 
 	 * @param borehole
 	 *            Borehole to add
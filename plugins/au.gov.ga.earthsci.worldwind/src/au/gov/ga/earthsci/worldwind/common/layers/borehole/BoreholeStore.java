@@ -0,0 +1,658 @@
+/*******************************************************************************
+ * Copyright 2026 Geoscience Australia
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package au.gov.ga.earthsci.worldwind.common.layers.borehole;
+
+import gov.nasa.worldwind.geom.Position;
+import gov.nasa.worldwind.render.Material;
+import gov.nasa.worldwind.render.markers.BasicMarkerAttributes;
+import gov.nasa.worldwind.render.markers.MarkerAttributes;
+
+import java.awt.Color;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+import au.gov.ga.earthsci.worldwind.common.util.Validate;
+
+/**
+ * Columnar store of borehole data. Boreholes (their collar positions, marker
+ * colours and text), path positions and samples are each stored in parallel
+ * primitive arrays, rather than as an object per borehole and sample, so that
+ * national datasets with hundreds of thousands of boreholes and millions of
+ * samples fit comfortably in memory.
+ * <p/>
+ * Boreholes and samples are identified by their index in the store. The
+ * samples of a borehole don't need to be added consecutively; each borehole
+ * keeps a linked list of its samples. The path positions of a borehole must be
+ * added before the next borehole is added.
+ * <p/>
+ * A borehole's styled {@link MarkerAttributes} are kept by reference, so
+ * boreholes with the same style should share a single attributes instance.
+ * <p/>
+ * {@link Borehole} and {@link BoreholeSample} objects are only created on
+ * demand (see {@link #createBorehole(int)}), for example when a borehole is
+ * picked. The store is thread-safe, so it can be read by the render thread
+ * while it is being filled by a loading thread.
+ * 
+ * @author Michael de Hoog (michael.dehoog@ga.gov.au)
+ */
+public class BoreholeStore
+{
+	private static final int INITIAL_CAPACITY = 64;
+
+	//boreholes
+	private int holeCount;
+	private double[] holeLatitudes = new double[INITIAL_CAPACITY];
+	private double[] holeLongitudes = new double[INITIAL_CAPACITY];
+	private double[] holeElevations = new double[INITIAL_CAPACITY];
+	private int[] holeColors = new int[INITIAL_CAPACITY];
+	private float[] holeSizes = new float[INITIAL_CAPACITY];
+	private MarkerAttributes[] holeAttributes = new MarkerAttributes[INITIAL_CAPACITY];
+	private String[] holeTexts = new String[INITIAL_CAPACITY];
+	private String[] holeLinks = new String[INITIAL_CAPACITY];
+	private double[] holeMinDepths = new double[INITIAL_CAPACITY];
+	private double[] holeMaxDepths = new double[INITIAL_CAPACITY];
+	private int[] holeFirstSamples = new int[INITIAL_CAPACITY];
+	private int[] holeLastSamples = new int[INITIAL_CAPACITY];
+	private int[] holeSampleCounts = new int[INITIAL_CAPACITY];
+	private int[] holePathStarts = new int[INITIAL_CAPACITY];
+	private int[] holePathCounts = new int[INITIAL_CAPACITY];
+
+	//path positions
+	private int pathCount;
+	private double[] pathDepths = new double[INITIAL_CAPACITY];
+	private double[] pathLatitudes = new double[INITIAL_CAPACITY];
+	private double[] pathLongitudes = new double[INITIAL_CAPACITY];
+	private double[] pathElevations = new double[INITIAL_CAPACITY];
+
+	//samples
+	private int sampleCount;
+	private int[] sampleHoles = new int[INITIAL_CAPACITY];
+	private int[] sampleNext = new int[INITIAL_CAPACITY];
+	private float[] sampleDepthFroms = new float[INITIAL_CAPACITY];
+	private float[] sampleDepthTos = new float[INITIAL_CAPACITY];
+	private int[] sampleColors = new int[INITIAL_CAPACITY];
+	private String[] sampleTexts = new String[INITIAL_CAPACITY];
+	private String[] sampleLinks = new String[INITIAL_CAPACITY];
+
+	/**
+	 * Add a borehole to this store.
+	 * 
+	 * @param collar
+	 *            Position of the top of the borehole
+	 * @param color
+	 *            Packed RGB colour of the borehole's marker
+	 * @param size
+	 *            Size of the borehole's marker, in pixels
+	 * @param text
+	 *            Display text of the borehole (can be null)
+	 * @param link
+	 *            URL string describing the borehole (can be null)
+	 * @return Index of the added borehole
+	 */
+	public synchronized int addBorehole(Position collar, int color, double size, String text, String link)
+	{
+		return addBorehole(collar, color, size, null, text, link);
+	}
+
+	/**
+	 * Add a borehole with styled marker attributes to this store. The marker's
+	 * colour and size are taken from the attributes.
+	 * 
+	 * @param collar
+	 *            Position of the top of the borehole
+	 * @param attributes
+	 *            Marker attributes of the borehole, which may be shared with
+	 *            other boreholes and must not be modified afterwards
+	 * @param text
+	 *            Display text of the borehole (can be null)
+	 * @param link
+	 *            URL string describing the borehole (can be null)
+	 * @return Index of the added borehole
+	 */
+	public synchronized int addBorehole(Position collar, MarkerAttributes attributes, String text, String link)
+	{
+		Validate.notNull(attributes, "Borehole marker attributes are required");
+		Material material = attributes.getMaterial();
+		int color = material != null ? material.getDiffuse().getRGB() : Color.WHITE.getRGB();
+		return addBorehole(collar, color, attributes.getMarkerPixels(), attributes, text, link);
+	}
+
+	private int addBorehole(Position collar, int color, double size, MarkerAttributes attributes, String text,
+			String link)
+	{
+		Validate.notNull(collar, "A borehole position is required");
+
+		if (holeCount == holeLatitudes.length)
+		{
+			int capacity = grow(holeCount);
+			holeLatitudes = Arrays.copyOf(holeLatitudes, capacity);
+			holeLongitudes = Arrays.copyOf(holeLongitudes, capacity);
+			holeElevations = Arrays.copyOf(holeElevations, capacity);
+			holeColors = Arrays.copyOf(holeColors, capacity);
+			holeSizes = Arrays.copyOf(holeSizes, capacity);
+			holeAttributes = Arrays.copyOf(holeAttributes, capacity);
+			holeTexts = Arrays.copyOf(holeTexts, capacity);
+			holeLinks = Arrays.copyOf(holeLinks, capacity);
+			holeMinDepths = Arrays.copyOf(holeMinDepths, capacity);
+			holeMaxDepths = Arrays.copyOf(holeMaxDepths, capacity);
+			holeFirstSamples = Arrays.copyOf(holeFirstSamples, capacity);
+			holeLastSamples = Arrays.copyOf(holeLastSamples, capacity);
+			holeSampleCounts = Arrays.copyOf(holeSampleCounts, capacity);
+			holePathStarts = Arrays.copyOf(holePathStarts, capacity);
+			holePathCounts = Arrays.copyOf(holePathCounts, capacity);
+		}
+
+		int hole = holeCount++;
+		holeLatitudes[hole] = collar.latitude.degrees;
+		holeLongitudes[hole] = collar.longitude.degrees;
+		holeElevations[hole] = collar.elevation;
+		holeColors[hole] = color & 0xffffff;
+		holeSizes[hole] = (float) size;
+		holeAttributes[hole] = attributes;
+		holeTexts[hole] = text;
+		holeLinks[hole] = link;
+		holeMinDepths[hole] = Double.NaN;
+		holeMaxDepths[hole] = Double.NaN;
+		holeFirstSamples[hole] = -1;
+		holeLastSamples[hole] = -1;
+		holeSampleCounts[hole] = 0;
+		holePathStarts[hole] = pathCount;
+		holePathCounts[hole] = 0;
+		return hole;
+	}
+
+	/**
+	 * Add a position to the path of the most recently added borehole.
+	 * Positions can be added in any order; a position at the same depth as an
+	 * existing position replaces it.
+	 * 
+	 * @param hole
+	 *            Index of the borehole, which must be the last added
+	 * @param measuredDepth
+	 *            Measured depth of the position along the borehole
+	 * @param position
+	 *            Position to add
+	 */
+	public synchronized void addPathPosition(int hole, double measuredDepth, Position position)
+	{
+		Validate.isTrue(hole == holeCount - 1, "Path positions can only be added to the last borehole");
+
+		int start = holePathStarts[hole];
+		int end = start + holePathCounts[hole];
+		int insert = end;
+		while (insert > start && pathDepths[insert - 1] > measuredDepth)
+		{
+			insert--;
+		}
+		if (insert > start && pathDepths[insert - 1] == measuredDepth)
+		{
+			setPathPosition(insert - 1, measuredDepth, position);
+			return;
+		}
+
+		if (pathCount == pathDepths.length)
+		{
+			int capacity = grow(pathCount);
+			pathDepths = Arrays.copyOf(pathDepths, capacity);
+			pathLatitudes = Arrays.copyOf(pathLatitudes, capacity);
+			pathLongitudes = Arrays.copyOf(pathLongitudes, capacity);
+			pathElevations = Arrays.copyOf(pathElevations, capacity);
+		}
+		int move = end - insert;
+		System.arraycopy(pathDepths, insert, pathDepths, insert + 1, move);
+		System.arraycopy(pathLatitudes, insert, pathLatitudes, insert + 1, move);
+		System.arraycopy(pathLongitudes, insert, pathLongitudes, insert + 1, move);
+		System.arraycopy(pathElevations, insert, pathElevations, insert + 1, move);
+		setPathPosition(insert, measuredDepth, position);
+		pathCount++;
+		holePathCounts[hole]++;
+	}
+
+	private void setPathPosition(int index, double measuredDepth, Position position)
+	{
+		pathDepths[index] = measuredDepth;
+		pathLatitudes[index] = position.latitude.degrees;
+		pathLongitudes[index] = position.longitude.degrees;
+		pathElevations[index] = position.elevation;
+	}
+
+	/**
+	 * Add a sample to a borehole.
+	 * 
+	 * @param hole
+	 *            Index of the borehole that contains the sample
+	 * @param depthFrom
+	 *            Measured depth of the top of the sample
+	 * @param depthTo
+	 *            Measured depth of the bottom of the sample
+	 * @param color
+	 *            Packed RGB colour of the sample
+	 * @param text
+	 *            Display text of the sample (can be null)
+	 * @param link
+	 *            URL string describing the sample (can be null)
+	 * @return Index of the added sample
+	 */
+	public synchronized int addSample(int hole, double depthFrom, double depthTo, int color, String text, String link)
+	{
+		checkHole(hole);
+
+		if (sampleCount == sampleHoles.length)
+		{
+			int capacity = grow(sampleCount);
+			sampleHoles = Arrays.copyOf(sampleHoles, capacity);
+			sampleNext = Arrays.copyOf(sampleNext, capacity);
+			sampleDepthFroms = Arrays.copyOf(sampleDepthFroms, capacity);
+			sampleDepthTos = Arrays.copyOf(sampleDepthTos, capacity);
+			sampleColors = Arrays.copyOf(sampleColors, capacity);
+			sampleTexts = Arrays.copyOf(sampleTexts, capacity);
+			sampleLinks = Arrays.copyOf(sampleLinks, capacity);
+		}
+
+		int sample = sampleCount++;
+		sampleHoles[sample] = hole;
+		sampleNext[sample] = -1;
+		sampleDepthFroms[sample] = (float) depthFrom;
+		sampleDepthTos[sample] = (float) depthTo;
+		sampleColors[sample] = color & 0xffffff;
+		sampleTexts[sample] = text;
+		sampleLinks[sample] = link;
+
+		if (holeLastSamples[hole] < 0)
+		{
+			holeFirstSamples[hole] = sample;
+		}
+		else
+		{
+			sampleNext[holeLastSamples[hole]] = sample;
+		}
+		holeLastSamples[hole] = sample;
+		holeSampleCounts[hole]++;
+
+		double min = Math.min(depthFrom, depthTo);
+		double max = Math.max(depthFrom, depthTo);
+		if (!(holeMinDepths[hole] <= min))
+		{
+			holeMinDepths[hole] = min;
+		}
+		if (!(holeMaxDepths[hole] >= max))
+		{
+			holeMaxDepths[hole] = max;
+		}
+		return sample;
+	}
+
+	/**
+	 * @return Number of boreholes in this store
+	 */
+	public synchronized int getBoreholeCount()
+	{
+		return holeCount;
+	}
+
+	/**
+	 * @return Number of samples in this store
+	 */
+	public synchronized int getSampleCount()
+	{
+		return sampleCount;
+	}
+
+	/**
+	 * @return Number of path positions in this store
+	 */
+	public synchronized int getPathPositionCount()
+	{
+		return pathCount;
+	}
+
+	public synchronized double getLatitude(int hole)
+	{
+		checkHole(hole);
+		return holeLatitudes[hole];
+	}
+
+	public synchronized double getLongitude(int hole)
+	{
+		checkHole(hole);
+		return holeLongitudes[hole];
+	}
+
+	public synchronized double getElevation(int hole)
+	{
+		checkHole(hole);
+		return holeElevations[hole];
+	}
+
+	public synchronized Position getPosition(int hole)
+	{
+		checkHole(hole);
+		return Position.fromDegrees(holeLatitudes[hole], holeLongitudes[hole], holeElevations[hole]);
+	}
+
+	public synchronized int getColor(int hole)
+	{
+		checkHole(hole);
+		return holeColors[hole];
+	}
+
+	public synchronized double getSize(int hole)
+	{
+		checkHole(hole);
+		return holeSizes[hole];
+	}
+
+	/**
+	 * Get the marker attributes of a borehole. Boreholes added without
+	 * attributes get new attributes with their colour and size.
+	 * 
+	 * @param hole
+	 *            Borehole index
+	 * @return Marker attributes of the borehole
+	 */
+	public synchronized MarkerAttributes getAttributes(int hole)
+	{
+		checkHole(hole);
+		if (holeAttributes[hole] != null)
+		{
+			return holeAttributes[hole];
+		}
+		MarkerAttributes attributes = new BasicMarkerAttributes();
+		attributes.setMaterial(new Material(new Color(holeColors[hole])));
+		attributes.setMarkerPixels(holeSizes[hole]);
+		return attributes;
+	}
+
+	public synchronized String getText(int hole)
+	{
+		checkHole(hole);
+		return holeTexts[hole];
+	}
+
+	public synchronized String getLink(int hole)
+	{
+		checkHole(hole);
+		return holeLinks[hole];
+	}
+
+	/**
+	 * @return Number of samples in the given borehole
+	 */
+	public synchronized int getSampleCount(int hole)
+	{
+		checkHole(hole);
+		return holeSampleCounts[hole];
+	}
+
+	/**
+	 * @return Index of the first sample added to the given borehole, or -1 if
+	 *         it has no samples
+	 * @see #getNextSample(int)
+	 */
+	public synchronized int getFirstSample(int hole)
+	{
+		checkHole(hole);
+		return holeFirstSamples[hole];
+	}
+
+	/**
+	 * @return Index of the next sample in the same borehole as the given
+	 *         sample, or -1 if it is the last
+	 */
+	public synchronized int getNextSample(int sample)
+	{
+		checkSample(sample);
+		return sampleNext[sample];
+	}
+
+	/**
+	 * @return Index of the borehole that contains the given sample
+	 */
+	public synchronized int getSampleBorehole(int sample)
+	{
+		checkSample(sample);
+		return sampleHoles[sample];
+	}
+
+	public synchronized double getSampleDepthFrom(int sample)
+	{
+		checkSample(sample);
+		return sampleDepthFroms[sample];
+	}
+
+	public synchronized double getSampleDepthTo(int sample)
+	{
+		checkSample(sample);
+		return sampleDepthTos[sample];
+	}
+
+	public synchronized int getSampleColor(int sample)
+	{
+		checkSample(sample);
+		return sampleColors[sample];
+	}
+
+	public synchronized String getSampleText(int sample)
+	{
+		checkSample(sample);
+		return sampleTexts[sample];
+	}
+
+	public synchronized String getSampleLink(int sample)
+	{
+		checkSample(sample);
+		return sampleLinks[sample];
+	}
+
+	/**
+	 * Calculate the position at a measured depth along a borehole, following
+	 * the same rules as {@link BoreholePathImpl#getPosition(double)}. If the
+	 * borehole has no path positions but has samples, it is treated as a
+	 * vertical borehole whose collar is at the depth of its shallowest sample.
+	 * 
+	 * @param hole
+	 *            Borehole index
+	 * @param measuredDepth
+	 *            Measured depth along the borehole
+	 * @param result
+	 *            Array to store the latitude, longitude (in degrees) and
+	 *            elevation of the position into
+	 * @param offset
+	 *            Index in the result array at which to store the position
+	 */
+	public synchronized void getPosition(int hole, double measuredDepth, double[] result, int offset)
+	{
+		checkHole(hole);
+
+		int count = holePathCounts[hole];
+		if (count == 0)
+		{
+			double collarDepth = Double.isNaN(holeMinDepths[hole]) ? 0 : holeMinDepths[hole];
+			result[offset] = holeLatitudes[hole];
+			result[offset + 1] = holeLongitudes[hole];
+			result[offset + 2] = holeElevations[hole] - (measuredDepth - collarDepth);
+			return;
+		}
+
+		int start = holePathStarts[hole];
+		if (count == 1)
+		{
+			//only one position, so extrapolate out
+			result[offset] = pathLatitudes[start];
+			result[offset + 1] = pathLongitudes[start];
+			result[offset + 2] = pathElevations[start] + (pathDepths[start] - measuredDepth);
+			return;
+		}
+
+		//find the pair of positions to interpolate (or extrapolate) between
+		int upper = Arrays.binarySearch(pathDepths, start, start + count, measuredDepth);
+		if (upper >= 0)
+		{
+			result[offset] = pathLatitudes[upper];
+			result[offset + 1] = pathLongitudes[upper];
+			result[offset + 2] = pathElevations[upper];
+			return;
+		}
+		upper = Math.max(start + 1, Math.min(start + count - 1, -upper - 1));
+		int lower = upper - 1;
+
+		double amount = (measuredDepth - pathDepths[lower]) / (pathDepths[upper] - pathDepths[lower]);
+		result[offset] = pathLatitudes[lower] + amount * (pathLatitudes[upper] - pathLatitudes[lower]);
+		result[offset + 1] = pathLongitudes[lower] + amount * (pathLongitudes[upper] - pathLongitudes[lower]);
+		result[offset + 2] = pathElevations[lower] + amount * (pathElevations[upper] - pathElevations[lower]);
+	}
+
+	/**
+	 * Append the path segments of a borehole to the given array, as pairs of
+	 * (latitude, longitude, elevation) positions. If the borehole has no path
+	 * positions, a single vertical segment through its samples is appended (or
+	 * nothing, if it has no samples).
+	 * 
+	 * @param hole
+	 *            Borehole index
+	 * @param result
+	 *            Array to append the segments to
+	 * @param offset
+	 *            Index in the result array at which to store the first
+	 *            position
+	 * @return Index in the result array after the last position stored
+	 */
+	public synchronized int getPathSegments(int hole, double[] result, int offset)
+	{
+		checkHole(hole);
+
+		int count = holePathCounts[hole];
+		if (count == 0)
+		{
+			if (holeSampleCounts[hole] == 0)
+			{
+				return offset;
+			}
+			getPosition(hole, holeMinDepths[hole], result, offset);
+			getPosition(hole, holeMaxDepths[hole], result, offset + 3);
+			return offset + 6;
+		}
+
+		int start = holePathStarts[hole];
+		for (int i = start + 1; i < start + count; i++)
+		{
+			result[offset++] = pathLatitudes[i - 1];
+			result[offset++] = pathLongitudes[i - 1];
+			result[offset++] = pathElevations[i - 1];
+			result[offset++] = pathLatitudes[i];
+			result[offset++] = pathLongitudes[i];
+			result[offset++] = pathElevations[i];
+		}
+		return offset;
+	}
+
+	/**
+	 * @return Number of path segments that
+	 *         {@link #getPathSegments(int, double[], int)} returns for the
+	 *         given borehole
+	 */
+	public synchronized int getPathSegmentCount(int hole)
+	{
+		checkHole(hole);
+		int count = holePathCounts[hole];
+		if (count == 0)
+		{
+			return holeSampleCounts[hole] == 0 ? 0 : 1;
+		}
+		return count - 1;
+	}
+
+	/**
+	 * Create a {@link Borehole} object containing a copy of a borehole's data
+	 * in this store, including its path and samples.
+	 * 
+	 * @param hole
+	 *            Borehole index
+	 * @return New borehole object
+	 */
+	public synchronized BoreholeImpl createBorehole(int hole)
+	{
+		checkHole(hole);
+
+		BoreholeImpl borehole = new BoreholeImpl(getPosition(hole), getAttributes(hole));
+		borehole.setTooltipText(holeTexts[hole]);
+		borehole.setUrl(holeLinks[hole]);
+
+		int start = holePathStarts[hole];
+		for (int i = start; i < start + holePathCounts[hole]; i++)
+		{
+			borehole.addPath(pathDepths[i],
+					Position.fromDegrees(pathLatitudes[i], pathLongitudes[i], pathElevations[i]));
+		}
+		for (int sample = holeFirstSamples[hole]; sample >= 0; sample = sampleNext[sample])
+		{
+			BoreholeSampleImpl boreholeSample = new BoreholeSampleImpl(borehole);
+			boreholeSample.setDepthFrom(sampleDepthFroms[sample]);
+			boreholeSample.setDepthTo(sampleDepthTos[sample]);
+			boreholeSample.setColor(new Color(sampleColors[sample]));
+			boreholeSample.setText(sampleTexts[sample]);
+			boreholeSample.setLink(sampleLinks[sample]);
+			borehole.addSample(boreholeSample);
+		}
+		borehole.loadComplete();
+		return borehole;
+	}
+
+	/**
+	 * @return A read-only list view of the boreholes in this store, which
+	 *         creates a {@link Borehole} object for each element accessed
+	 * @see #createBorehole(int)
+	 */
+	public List<Borehole> asBoreholeList()
+	{
+		return new AbstractList<Borehole>()
+		{
+			@Override
+			public Borehole get(int index)
+			{
+				return createBorehole(index);
+			}
+
+			@Override
+			public int size()
+			{
+				return getBoreholeCount();
+			}
+		};
+	}
+
+	private void checkHole(int hole)
+	{
+		if (hole < 0 || hole >= holeCount)
+		{
+			throw new IndexOutOfBoundsException("Borehole index: " + hole);
+		}
+	}
+
+	private void checkSample(int sample)
+	{
+		if (sample < 0 || sample >= sampleCount)
+		{
+			throw new IndexOutOfBoundsException("Sample index: " + sample);
+		}
+	}
+
+	private static int grow(int size)
+	{
+		return Math.max(INITIAL_CAPACITY, size + (size >> 1));
+	}
+}
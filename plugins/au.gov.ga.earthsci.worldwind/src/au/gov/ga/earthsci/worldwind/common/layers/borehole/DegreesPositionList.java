@@ -0,0 +1,68 @@
+/*******************************************************************************
+ * Copyright 2026 Geoscience Australia
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package au.gov.ga.earthsci.worldwind.common.layers.borehole;
+
+import gov.nasa.worldwind.geom.Position;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * Read-only list of positions backed by an array of (latitude, longitude,
+ * elevation) triples, in degrees and metres. {@link Position} objects are only
+ * created as elements are accessed, so a shape's positions don't need to be
+ * kept in memory as objects.
+ * 
+ * @author Michael de Hoog (michael.dehoog@ga.gov.au)
+ */
+class DegreesPositionList extends AbstractList<Position> implements RandomAccess
+{
+	private final double[] positions;
+	private final int size;
+
+	/**
+	 * @param positions
+	 *            Array of (latitude, longitude, elevation) triples
+	 * @param size
+	 *            Number of positions in the array to use
+	 */
+	public DegreesPositionList(double[] positions, int size)
+	{
+		if (size < 0 || size * 3 > positions.length)
+		{
+			throw new IndexOutOfBoundsException("Size: " + size);
+		}
+		this.positions = positions;
+		this.size = size;
+	}
+
+	@Override
+	public Position get(int index)
+	{
+		if (index < 0 || index >= size)
+		{
+			throw new IndexOutOfBoundsException("Index: " + index);
+		}
+		int i = index * 3;
+		return Position.fromDegrees(positions[i], positions[i + 1], positions[i + 2]);
+	}
+
+	@Override
+	public int size()
+	{
+		return size;
+	}
+}
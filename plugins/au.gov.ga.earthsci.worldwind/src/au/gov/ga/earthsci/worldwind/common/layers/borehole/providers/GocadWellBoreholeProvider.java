@@ -351,7 +351,6 @@ public class GocadWellBoreholeProvider extends AbstractDataProvider<BoreholeLaye
 			markerAttributes.setMarkerPixels(4);
 			BoreholeImpl borehole = new BoreholeImpl(position, markerAttributes);
 			borehole.setTooltipText(data.name);
-			layer.addBorehole(borehole);
 
 			for (BoreholeDataPathItem item : data.path)
 			{
@@ -380,6 +379,9 @@ public class GocadWellBoreholeProvider extends AbstractDataProvider<BoreholeLaye
 				marker.setDip(m.dip);
 				borehole.addMarker(marker);
 			}
+
+			//add the borehole once it is complete, as the layer copies it into its store
+			layer.addBorehole(borehole);
 		}
 	}
 
@@ -213,11 +213,8 @@ public abstract class AbstractDelegateKit<TILE extends IDelegatorTile, BOUNDS, L
 	@Override
 	public BufferedImage transformImage(BufferedImage image, IDelegatorTile tile)
 	{
-		for (IImageTransformerDelegate transformer : transformerDelegates)
-		{
-			image = transformer.transformImage(image, tile);
-		}
-		return image;
+		//consecutive pixel transformers are fused into a single pass over the image
+		return ImageTransformerPipeline.transform(image, tile, transformerDelegates);
 	}
 
 	@Override
@@ -0,0 +1,60 @@
+/*******************************************************************************
+ * Copyright 2026 Geoscience Australia
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package au.gov.ga.earthsci.worldwind.common.layers.delegate;
+
+/**
+ * {@link IImageTransformerDelegate} that transforms each pixel independently of
+ * the others. Consecutive pixel transformers are fused by the
+ * {@link ImageTransformerPipeline} into a single pass over the image's pixels,
+ * which are transformed in place, rather than each transformer creating a new
+ * image.
+ * 
+ * @author Michael de Hoog (michael.dehoog@ga.gov.au)
+ */
+public interface IPixelTransformerDelegate extends IImageTransformerDelegate
+{
+	/**
+	 * @return Can this delegate currently transform pixels using
+	 *         {@link #transformPixels(int[], int, int, int)}? If false,
+	 *         {@link #transformImage} is used instead.
+	 */
+	boolean isPixelTransformSupported();
+
+	/**
+	 * Prepare to transform the pixels of an image with the given dimensions.
+	 * Called before the first row of each image is transformed.
+	 * 
+	 * @param width
+	 *            Image width
+	 * @param height
+	 *            Image height
+	 */
+	void beginPixelTransform(int width, int height);
+
+	/**
+	 * Transform a row of pixels in place.
+	 * 
+	 * @param pixels
+	 *            Image pixels, as non-premultiplied packed ARGB values
+	 * @param offset
+	 *            Index of the first pixel in the row
+	 * @param width
+	 *            Number of pixels in the row
+	 * @param y
+	 *            Row index in the image
+	 */
+	void transformPixels(int[] pixels, int offset, int width, int y);
+}
@@ -0,0 +1,198 @@
+/*******************************************************************************
+ * Copyright 2026 Geoscience Australia
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package au.gov.ga.earthsci.worldwind.common.layers.delegate;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.SampleModel;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
+import java.util.List;
+
+/**
+ * Applies a chain of {@link IImageTransformerDelegate}s to an image.
+ * Consecutive {@link IPixelTransformerDelegate}s are fused: the image is
+ * converted to a {@link BufferedImage#TYPE_INT_ARGB} image at most once, and
+ * each row of its pixels is passed through all of the fused transformers
+ * before moving to the next, in place. Other transformers are applied using
+ * {@link IImageTransformerDelegate#transformImage}, as before.
+ * <p/>
+ * Images passed in are only modified if the caller owns them; otherwise the
+ * pixels are transformed in a copy.
+ * 
+ * @author Michael de Hoog (michael.dehoog@ga.gov.au)
+ */
+public class ImageTransformerPipeline
+{
+	private ImageTransformerPipeline()
+	{
+	}
+
+	/**
+	 * Transform an image using a chain of transformers. The image is not
+	 * modified.
+	 * 
+	 * @param image
+	 *            Image to transform
+	 * @param tile
+	 *            Tile associated with the image
+	 * @param transformers
+	 *            Transformers to apply, in order
+	 * @return Transformed image
+	 */
+	public static BufferedImage transform(BufferedImage image, IDelegatorTile tile,
+			List<? extends IImageTransformerDelegate> transformers)
+	{
+		return transform(image, tile, transformers, false);
+	}
+
+	/**
+	 * Transform an image using a chain of transformers.
+	 * 
+	 * @param image
+	 *            Image to transform
+	 * @param tile
+	 *            Tile associated with the image
+	 * @param transformers
+	 *            Transformers to apply, in order
+	 * @param ownsImage
+	 *            True if the caller owns the image, so it can be modified in
+	 *            place
+	 * @return Transformed image
+	 */
+	public static BufferedImage transform(BufferedImage image, IDelegatorTile tile,
+			List<? extends IImageTransformerDelegate> transformers, boolean ownsImage)
+	{
+		int count = transformers.size();
+		IPixelTransformerDelegate[] fused = new IPixelTransformerDelegate[count];
+		int i = 0;
+		while (i < count)
+		{
+			int fusedCount = 0;
+			while (i < count && isPixelTransformer(transformers.get(i)))
+			{
+				fused[fusedCount++] = (IPixelTransformerDelegate) transformers.get(i++);
+			}
+			if (fusedCount > 0)
+			{
+				image = transformPixels(image, fused, fusedCount, ownsImage);
+				ownsImage = true;
+			}
+			else
+			{
+				BufferedImage transformed = transformers.get(i++).transformImage(image, tile);
+				//other transformers could return an image that is shared, so only keep ownership of our own
+				ownsImage &= transformed == image;
+				image = transformed;
+			}
+		}
+		return image;
+	}
+
+	/**
+	 * Transform an image using a single pixel transformer. The image is not
+	 * modified.
+	 * 
+	 * @param image
+	 *            Image to transform
+	 * @param transformer
+	 *            Transformer to apply
+	 * @return Transformed image
+	 */
+	public static BufferedImage transformPixels(BufferedImage image, IPixelTransformerDelegate transformer)
+	{
+		return transformPixels(image, new IPixelTransformerDelegate[] { transformer }, 1, false);
+	}
+
+	private static BufferedImage transformPixels(BufferedImage image, IPixelTransformerDelegate[] transformers,
+			int count, boolean ownsImage)
+	{
+		if (image == null)
+		{
+			return null;
+		}
+
+		BufferedImage argb = toIntARGB(image);
+		if (argb == image && !ownsImage)
+		{
+			argb = copy(image);
+		}
+		int width = argb.getWidth();
+		int height = argb.getHeight();
+		int[] pixels = ((DataBufferInt) argb.getRaster().getDataBuffer()).getData();
+
+		for (int i = 0; i < count; i++)
+		{
+			transformers[i].beginPixelTransform(width, height);
+		}
+		for (int y = 0, offset = 0; y < height; y++, offset += width)
+		{
+			//transform each row with all transformers while it is in the cache
+			for (int i = 0; i < count; i++)
+			{
+				transformers[i].transformPixels(pixels, offset, width, y);
+			}
+		}
+		return argb;
+	}
+
+	private static boolean isPixelTransformer(IImageTransformerDelegate transformer)
+	{
+		return transformer instanceof IPixelTransformerDelegate
+				&& ((IPixelTransformerDelegate) transformer).isPixelTransformSupported();
+	}
+
+	/**
+	 * Return the given image if its pixels are stored as a packed ARGB int
+	 * array with no padding, otherwise a copy of the image that is.
+	 * 
+	 * @param image
+	 * @return Image with a contiguous packed ARGB int raster
+	 */
+	public static BufferedImage toIntARGB(BufferedImage image)
+	{
+		if (image.getType() == BufferedImage.TYPE_INT_ARGB)
+		{
+			WritableRaster raster = image.getRaster();
+			SampleModel sampleModel = raster.getSampleModel();
+			if (raster.getParent() == null && sampleModel instanceof SinglePixelPackedSampleModel
+					&& ((SinglePixelPackedSampleModel) sampleModel).getScanlineStride() == image.getWidth()
+					&& raster.getDataBuffer().getNumBanks() == 1 && raster.getDataBuffer().getOffset() == 0)
+			{
+				return image;
+			}
+		}
+
+		int width = image.getWidth();
+		int height = image.getHeight();
+		BufferedImage argb = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+		int[] pixels = ((DataBufferInt) argb.getRaster().getDataBuffer()).getData();
+		image.getRGB(0, 0, width, height, pixels, 0, width);
+		return argb;
+	}
+
+	/**
+	 * Copy an image returned by {@link #toIntARGB(BufferedImage)}.
+	 */
+	private static BufferedImage copy(BufferedImage image)
+	{
+		BufferedImage copy = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_ARGB);
+		int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+		int[] copyPixels = ((DataBufferInt) copy.getRaster().getDataBuffer()).getData();
+		System.arraycopy(pixels, 0, copyPixels, 0, copyPixels.length);
+		return copy;
+	}
+}
@@ -26,7 +26,8 @@ import org.w3c.dom.Element;
 
 import au.gov.ga.earthsci.worldwind.common.layers.delegate.IDelegate;
 import au.gov.ga.earthsci.worldwind.common.layers.delegate.IDelegatorTile;
-import au.gov.ga.earthsci.worldwind.common.layers.delegate.IImageTransformerDelegate;
+import au.gov.ga.earthsci.worldwind.common.layers.delegate.IPixelTransformerDelegate;
+import au.gov.ga.earthsci.worldwind.common.layers.delegate.ImageTransformerPipeline;
 
 /**
  * A delegate that limits each colour channel of the target image to be less than a 
@@ -41,7 +42,7 @@ import au.gov.ga.earthsci.worldwind.common.layers.delegate.IImageTransformerDele
  * 
  * @author Michael de Hoog (michael.dehoog@ga.gov.au)
  */
-public class ColorLimitTransformerDelegate implements IImageTransformerDelegate
+public class ColorLimitTransformerDelegate implements IPixelTransformerDelegate
 {
 	private final static String DEFINITION_STRING = "ColorLimitTransformer";
 
@@ -92,36 +93,47 @@ public class ColorLimitTransformerDelegate implements IImageTransformerDelegate
 	@Override
 	public BufferedImage transformImage(BufferedImage image, IDelegatorTile tile)
 	{
-		if (image == null)
-			return null;
+		return ImageTransformerPipeline.transformPixels(image, this);
+	}
 
-		BufferedImage dst = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_ARGB_PRE);
+	@Override
+	public boolean isPixelTransformSupported()
+	{
+		return true;
+	}
 
-		for (int y = 0; y < image.getHeight(); y++)
+	@Override
+	public void beginPixelTransform(int width, int height)
+	{
+	}
+
+	@Override
+	public void transformPixels(int[] pixels, int offset, int width, int y)
+	{
+		int cr = color.getRed();
+		int cg = color.getGreen();
+		int cb = color.getBlue();
+		for (int i = offset; i < offset + width; i++)
 		{
-			for (int x = 0; x < image.getWidth(); x++)
-			{
-				int rgb = image.getRGB(x, y);
-				rgb = limitColor(rgb, color);
-				dst.setRGB(x, y, rgb);
-			}
+			pixels[i] = limitColor(pixels[i], cr, cg, cb);
 		}
-
-		return dst;
 	}
 
 	protected static int limitColor(int argb, Color color)
 	{
-		int a = (argb >> 24) & 0xff;
+		return limitColor(argb, color.getRed(), color.getGreen(), color.getBlue());
+	}
+
+	protected static int limitColor(int argb, int limitRed, int limitGreen, int limitBlue)
+	{
 		int r = (argb >> 16) & 0xff;
 		int g = (argb >> 8) & 0xff;
 		int b = (argb) & 0xff;
 
-		if (r > color.getRed() || g > color.getGreen() || b > color.getBlue())
+		if (r > limitRed || g > limitGreen || b > limitBlue)
 		{
-			a = 0;
+			return argb & 0xffffff;
 		}
-
-		return (a & 0xff) << 24 | (r & 0xff) << 16 | (g & 0xff) << 8 | (b & 0xff);
+		return argb;
 	}
 }
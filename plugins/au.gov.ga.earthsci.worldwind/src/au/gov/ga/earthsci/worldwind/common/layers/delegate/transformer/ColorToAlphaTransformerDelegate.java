@@ -27,6 +27,8 @@ import org.w3c.dom.Element;
 import au.gov.ga.earthsci.worldwind.common.layers.delegate.IDelegate;
 import au.gov.ga.earthsci.worldwind.common.layers.delegate.IDelegatorTile;
 import au.gov.ga.earthsci.worldwind.common.layers.delegate.IImageTransformerDelegate;
+import au.gov.ga.earthsci.worldwind.common.layers.delegate.IPixelTransformerDelegate;
+import au.gov.ga.earthsci.worldwind.common.layers.delegate.ImageTransformerPipeline;
 
 /**
  * Implementation of {@link IImageTransformerDelegate} which applies a
@@ -48,7 +50,7 @@ import au.gov.ga.earthsci.worldwind.common.layers.delegate.IImageTransformerDele
  * 
  * @author Michael de Hoog (michael.dehoog@ga.gov.au)
  */
-public class ColorToAlphaTransformerDelegate implements IImageTransformerDelegate
+public class ColorToAlphaTransformerDelegate implements IPixelTransformerDelegate
 {
 	private final static String DEFINITION_STRING = "ColorToAlphaTransformer";
 
@@ -100,24 +102,30 @@ public class ColorToAlphaTransformerDelegate implements IImageTransformerDelegat
 	@Override
 	public BufferedImage transformImage(BufferedImage image, IDelegatorTile tile)
 	{
-		if (image == null)
-			return null;
+		return ImageTransformerPipeline.transformPixels(image, this);
+	}
+
+	@Override
+	public boolean isPixelTransformSupported()
+	{
+		return true;
+	}
 
-		BufferedImage dst =
-				new BufferedImage(image.getWidth(), image.getHeight(),
-						BufferedImage.TYPE_INT_ARGB_PRE);
+	@Override
+	public void beginPixelTransform(int width, int height)
+	{
+	}
 
-		for (int y = 0; y < image.getHeight(); y++)
+	@Override
+	public void transformPixels(int[] pixels, int offset, int width, int y)
+	{
+		int cr = color.getRed();
+		int cg = color.getGreen();
+		int cb = color.getBlue();
+		for (int i = offset; i < offset + width; i++)
 		{
-			for (int x = 0; x < image.getWidth(); x++)
-			{
-				int rgb = image.getRGB(x, y);
-				rgb = colorToAlpha(rgb, color);
-				dst.setRGB(x, y, rgb);
-			}
+			pixels[i] = colorToAlpha(pixels[i], cr, cg, cb);
 		}
-
-		return dst;
 	}
 
 	/**
@@ -131,23 +139,42 @@ public class ColorToAlphaTransformerDelegate implements IImageTransformerDelegat
 	 * @return Transformed ARGB color
 	 */
 	public static int colorToAlpha(int argb, Color color)
+	{
+		return colorToAlpha(argb, color.getRed(), color.getGreen(), color.getBlue());
+	}
+
+	/**
+	 * Transform an ARGB color by removing a certain color and replacing it with
+	 * transparency.
+	 * 
+	 * @param argb
+	 *            Color to transform
+	 * @param red
+	 *            Red component of the color to remove
+	 * @param green
+	 *            Green component of the color to remove
+	 * @param blue
+	 *            Blue component of the color to remove
+	 * @return Transformed ARGB color
+	 */
+	public static int colorToAlpha(int argb, int red, int green, int blue)
 	{
 		int a = (argb >> 24) & 0xff;
 		int r = (argb >> 16) & 0xff;
 		int g = (argb >> 8) & 0xff;
 		int b = (argb) & 0xff;
 
-		float pr = distancePercent(r, color.getRed(), 0, 255);
-		float pg = distancePercent(g, color.getGreen(), 0, 255);
-		float pb = distancePercent(b, color.getBlue(), 0, 255);
+		float pr = distancePercent(r, red, 0, 255);
+		float pg = distancePercent(g, green, 0, 255);
+		float pb = distancePercent(b, blue, 0, 255);
 		float percent = Math.max(pr, Math.max(pg, pb));
 
 		//(image - color) / alpha + color
 		if (percent > 0)
 		{
-			r = (int) ((r - color.getRed()) / percent) + color.getRed();
-			g = (int) ((g - color.getGreen()) / percent) + color.getGreen();
-			b = (int) ((b - color.getBlue()) / percent) + color.getBlue();
+			r = (int) ((r - red) / percent) + red;
+			g = (int) ((g - green) / percent) + green;
+			b = (int) ((b - blue) / percent) + blue;
 		}
 		a = (int) (a * percent);
 
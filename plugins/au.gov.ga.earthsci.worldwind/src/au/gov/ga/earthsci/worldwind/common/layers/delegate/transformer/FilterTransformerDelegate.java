@@ -29,12 +29,14 @@ import org.w3c.dom.Element;
 import au.gov.ga.earthsci.worldwind.common.layers.delegate.IDelegate;
 import au.gov.ga.earthsci.worldwind.common.layers.delegate.IDelegatorTile;
 import au.gov.ga.earthsci.worldwind.common.layers.delegate.IImageTransformerDelegate;
+import au.gov.ga.earthsci.worldwind.common.layers.delegate.IPixelTransformerDelegate;
 import au.gov.ga.earthsci.worldwind.common.layers.delegate.filters.TransparentMinimumFilter;
 import au.gov.ga.earthsci.worldwind.common.layers.styled.PropertySetter;
 import au.gov.ga.earthsci.worldwind.common.layers.styled.StyleAndAttributeFactory;
 import au.gov.ga.earthsci.worldwind.common.util.XMLUtil;
 
 import com.jhlabs.image.AbstractBufferedImageOp;
+import com.jhlabs.image.PointFilter;
 
 /**
  * {@link IImageTransformerDelegate} implementation that uses implementations of
@@ -71,7 +73,7 @@ import com.jhlabs.image.AbstractBufferedImageOp;
  * 
  * @author Michael de Hoog (michael.dehoog@ga.gov.au)
  */
-public class FilterTransformerDelegate implements IImageTransformerDelegate
+public class FilterTransformerDelegate implements IPixelTransformerDelegate
 {
 	private final static String DEFINITION_STRING = "FilterTransformer";
 
@@ -180,4 +182,80 @@ public class FilterTransformerDelegate implements IImageTransformerDelegate
 		}
 		return image;
 	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p/>
+	 * Pixel transforms are only supported if all of the filters are
+	 * {@link PointFilter}s that don't override
+	 * {@link PointFilter#filter(BufferedImage, BufferedImage)}; otherwise the
+	 * filters are applied using
+	 * {@link #transformImage(BufferedImage, IDelegatorTile)}.
+	 */
+	@Override
+	public boolean isPixelTransformSupported()
+	{
+		if (filters == null || filters.isEmpty())
+		{
+			return false;
+		}
+		for (BufferedImageOp filter : filters)
+		{
+			if (!isPixelFilter(filter))
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Check if the given filter can be applied one pixel at a time using
+	 * {@link PointFilter#filterRGB(int, int, int)}. Filters that override
+	 * {@link PointFilter#filter(BufferedImage, BufferedImage)} can't, because
+	 * they either do setup in that method that filterRGB depends on (such as
+	 * the lookup tables of a {@link com.jhlabs.image.TransferFilter}), or
+	 * produce different output.
+	 * 
+	 * @param filter
+	 * @return True if the filter can be applied one pixel at a time
+	 */
+	protected static boolean isPixelFilter(BufferedImageOp filter)
+	{
+		if (!(filter instanceof PointFilter))
+		{
+			return false;
+		}
+		try
+		{
+			return filter.getClass().getMethod("filter", BufferedImage.class, BufferedImage.class)
+					.getDeclaringClass() == PointFilter.class;
+		}
+		catch (NoSuchMethodException e)
+		{
+			return false;
+		}
+	}
+
+	@Override
+	public void beginPixelTransform(int width, int height)
+	{
+		for (BufferedImageOp filter : filters)
+		{
+			((PointFilter) filter).setDimensions(width, height);
+		}
+	}
+
+	@Override
+	public void transformPixels(int[] pixels, int offset, int width, int y)
+	{
+		for (BufferedImageOp filter : filters)
+		{
+			PointFilter pointFilter = (PointFilter) filter;
+			for (int x = 0, i = offset; x < width; x++, i++)
+			{
+				pixels[i] = pointFilter.filterRGB(x, y, pixels[i]);
+			}
+		}
+	}
 }
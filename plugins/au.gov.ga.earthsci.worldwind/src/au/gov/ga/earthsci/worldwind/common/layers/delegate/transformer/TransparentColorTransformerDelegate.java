@@ -27,6 +27,8 @@ import org.w3c.dom.Element;
 import au.gov.ga.earthsci.worldwind.common.layers.delegate.IDelegate;
 import au.gov.ga.earthsci.worldwind.common.layers.delegate.IDelegatorTile;
 import au.gov.ga.earthsci.worldwind.common.layers.delegate.IImageTransformerDelegate;
+import au.gov.ga.earthsci.worldwind.common.layers.delegate.IPixelTransformerDelegate;
+import au.gov.ga.earthsci.worldwind.common.layers.delegate.ImageTransformerPipeline;
 
 /**
  * Implementation of {@link IImageTransformerDelegate} which converts a targeted
@@ -48,7 +50,7 @@ import au.gov.ga.earthsci.worldwind.common.layers.delegate.IImageTransformerDele
  * 
  * @author Michael de Hoog (michael.dehoog@ga.gov.au)
  */
-public class TransparentColorTransformerDelegate implements IImageTransformerDelegate
+public class TransparentColorTransformerDelegate implements IPixelTransformerDelegate
 {
 	private final static String DEFINITION_STRING = "TransparentColorTransformer";
 
@@ -71,32 +73,40 @@ public class TransparentColorTransformerDelegate implements IImageTransformerDel
 	@Override
 	public BufferedImage transformImage(BufferedImage image, IDelegatorTile tile)
 	{
-		int fuzzi = Math.max(0, Math.min(255, (int) Math.round(fuzz * 255d)));
-		BufferedImage trans =
-				new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_ARGB);
+		return ImageTransformerPipeline.transformPixels(image, this);
+	}
+
+	@Override
+	public boolean isPixelTransformSupported()
+	{
+		return true;
+	}
+
+	@Override
+	public void beginPixelTransform(int width, int height)
+	{
+	}
 
+	@Override
+	public void transformPixels(int[] pixels, int offset, int width, int y)
+	{
+		int fuzzi = Math.max(0, Math.min(255, (int) Math.round(fuzz * 255d)));
 		int cr = color.getRed();
 		int cg = color.getGreen();
 		int cb = color.getBlue();
 
-		for (int x = 0; x < image.getWidth(); x++)
+		for (int i = offset; i < offset + width; i++)
 		{
-			for (int y = 0; y < image.getHeight(); y++)
+			int rgb = pixels[i];
+			int sr = (rgb >> 16) & 0xff;
+			int sg = (rgb >> 8) & 0xff;
+			int sb = (rgb >> 0) & 0xff;
+			if (cr - fuzzi <= sr && sr <= cr + fuzzi && cg - fuzzi <= sg && sg <= cg + fuzzi
+					&& cb - fuzzi <= sb && sb <= cb + fuzzi)
 			{
-				int rgb = image.getRGB(x, y);
-				int sr = (rgb >> 16) & 0xff;
-				int sg = (rgb >> 8) & 0xff;
-				int sb = (rgb >> 0) & 0xff;
-				if (cr - fuzzi <= sr && sr <= cr + fuzzi && cg - fuzzi <= sg && sg <= cg + fuzzi
-						&& cb - fuzzi <= sb && sb <= cb + fuzzi)
-				{
-					rgb = (rgb & 0xffffff);
-				}
-				trans.setRGB(x, y, rgb);
+				pixels[i] = (rgb & 0xffffff);
 			}
 		}
-
-		return trans;
 	}
 
 	@Override
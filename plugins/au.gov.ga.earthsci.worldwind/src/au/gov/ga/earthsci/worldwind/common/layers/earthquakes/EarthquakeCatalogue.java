@@ -0,0 +1,439 @@
+/*******************************************************************************
+ * Copyright 2026 Geoscience Australia
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package au.gov.ga.earthsci.worldwind.common.layers.earthquakes;
+
+import gov.nasa.worldwind.geom.Position;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.channels.WritableByteChannel;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Columnar catalogue of earthquakes, stored in a compact binary format that
+ * can be memory-mapped. Each attribute is stored as a separate primitive
+ * column, and the columns are read directly from the (possibly mapped) buffer,
+ * so no objects are created per earthquake.
+ * <p/>
+ * The format is big-endian, and consists of a 16 byte header:
+ * 
+ * <pre>
+ * int magic ({@link #MAGIC})
+ * int version ({@link #VERSION})
+ * int count
+ * int reserved (0)
+ * </pre>
+ * 
+ * followed by the columns:
+ * 
+ * <pre>
+ * float[count] latitude (in degrees)
+ * float[count] longitude (in degrees)
+ * float[count] elevation (in metres - negative indicates subsurface)
+ * float[count] magnitude
+ * long[count] timestamp (in milliseconds since epoc 01 01 1970 00:00:00 UTC)
+ * </pre>
+ * 
+ * The legacy format, a serialized stream of (double latitude, double
+ * longitude, double elevation, double magnitude, long timestamp) records, can
+ * still be read using {@link #read(InputStream)}.
+ * 
+ * @author Michael de Hoog (michael.dehoog@ga.gov.au)
+ */
+public class EarthquakeCatalogue
+{
+	public static final int MAGIC = 0x45514B43; //"EQKC"
+	public static final int VERSION = 1;
+	public static final int HEADER_SIZE = 16;
+	public static final int RECORD_SIZE = 4 * 4 + 8;
+
+	private final ByteBuffer data;
+	private final int size;
+	private final FloatBuffer latitudes;
+	private final FloatBuffer longitudes;
+	private final FloatBuffer elevations;
+	private final FloatBuffer magnitudes;
+	private final LongBuffer times;
+
+	/**
+	 * Create a catalogue backed by the given buffer, which must contain a
+	 * catalogue in the binary format starting at its current position.
+	 * 
+	 * @param buffer
+	 * @throws IOException
+	 *             If the buffer doesn't contain a valid catalogue
+	 */
+	public EarthquakeCatalogue(ByteBuffer buffer) throws IOException
+	{
+		ByteBuffer data = buffer.slice();
+		if (!isCatalogue(data))
+		{
+			throw new IOException("Not an earthquake catalogue");
+		}
+		int version = data.getInt(4);
+		if (version != VERSION)
+		{
+			throw new IOException("Unsupported earthquake catalogue version: " + version);
+		}
+		size = data.getInt(8);
+		if (size < 0 || data.remaining() < getLength(size))
+		{
+			throw new IOException("Earthquake catalogue is truncated");
+		}
+		data.limit((int) getLength(size));
+		this.data = data;
+
+		int offset = HEADER_SIZE;
+		latitudes = column(data, offset, size * 4).asFloatBuffer();
+		offset += size * 4;
+		longitudes = column(data, offset, size * 4).asFloatBuffer();
+		offset += size * 4;
+		elevations = column(data, offset, size * 4).asFloatBuffer();
+		offset += size * 4;
+		magnitudes = column(data, offset, size * 4).asFloatBuffer();
+		offset += size * 4;
+		times = column(data, offset, size * 8).asLongBuffer();
+	}
+
+	private static ByteBuffer column(ByteBuffer data, int offset, int length)
+	{
+		ByteBuffer column = data.duplicate();
+		column.position(offset);
+		column.limit(offset + length);
+		return column.slice();
+	}
+
+	/**
+	 * @return Length in bytes of a catalogue containing the given number of
+	 *         earthquakes
+	 */
+	public static long getLength(int count)
+	{
+		return HEADER_SIZE + (long) count * RECORD_SIZE;
+	}
+
+	/**
+	 * @return Does the given buffer contain a catalogue in the binary format,
+	 *         starting at its current position?
+	 */
+	public static boolean isCatalogue(ByteBuffer buffer)
+	{
+		return buffer.remaining() >= HEADER_SIZE && buffer.getInt(buffer.position()) == MAGIC;
+	}
+
+	/**
+	 * Open the catalogue in the given file. Files in the binary format are
+	 * memory-mapped; files in the legacy format are read into memory.
+	 * 
+	 * @param file
+	 * @return Catalogue in the file
+	 * @throws IOException
+	 */
+	public static EarthquakeCatalogue open(File file) throws IOException
+	{
+		RandomAccessFile raf = new RandomAccessFile(file, "r");
+		try
+		{
+			FileChannel channel = raf.getChannel();
+			long length = channel.size();
+			if (length >= HEADER_SIZE && length <= Integer.MAX_VALUE)
+			{
+				ByteBuffer mapped = channel.map(MapMode.READ_ONLY, 0, length);
+				if (isCatalogue(mapped))
+				{
+					//the mapping remains valid after the channel is closed
+					return new EarthquakeCatalogue(mapped);
+				}
+			}
+		}
+		finally
+		{
+			raf.close();
+		}
+
+		InputStream is = new FileInputStream(file);
+		try
+		{
+			return read(is);
+		}
+		finally
+		{
+			is.close();
+		}
+	}
+
+	/**
+	 * Read a catalogue, in either the binary or legacy format, from the given
+	 * stream. The stream is not closed.
+	 * 
+	 * @param is
+	 * @return Catalogue read from the stream
+	 * @throws IOException
+	 */
+	public static EarthquakeCatalogue read(InputStream is) throws IOException
+	{
+		ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		byte[] buffer = new byte[8192];
+		int read;
+		while ((read = is.read(buffer)) >= 0)
+		{
+			baos.write(buffer, 0, read);
+		}
+		return fromBuffer(ByteBuffer.wrap(baos.toByteArray()));
+	}
+
+	/**
+	 * Create a catalogue from a buffer containing either the binary or legacy
+	 * format. Binary catalogues are backed by the buffer, rather than copied.
+	 * 
+	 * @param buffer
+	 * @return Catalogue in the buffer
+	 * @throws IOException
+	 */
+	public static EarthquakeCatalogue fromBuffer(ByteBuffer buffer) throws IOException
+	{
+		if (isCatalogue(buffer))
+		{
+			return new EarthquakeCatalogue(buffer);
+		}
+
+		if (buffer.hasArray())
+		{
+			return readLegacy(new ByteArrayInputStream(buffer.array(), buffer.arrayOffset() + buffer.position(),
+					buffer.remaining()));
+		}
+		byte[] bytes = new byte[buffer.remaining()];
+		buffer.duplicate().get(bytes);
+		return readLegacy(new ByteArrayInputStream(bytes));
+	}
+
+	private static EarthquakeCatalogue readLegacy(InputStream is) throws IOException
+	{
+		Builder builder = new Builder();
+		ObjectInputStream ois = new ObjectInputStream(is);
+		try
+		{
+			while (true)
+			{
+				double lat = ois.readDouble();
+				double lon = ois.readDouble();
+				double elevation = ois.readDouble();
+				double magnitude = ois.readDouble();
+				long timeInMillis = ois.readLong();
+				builder.add(lat, lon, elevation, magnitude, timeInMillis);
+			}
+		}
+		catch (EOFException e)
+		{
+			//the legacy format has no record count, so read until there is no data left
+		}
+		return builder.build();
+	}
+
+	/**
+	 * Write this catalogue in the binary format to the given stream. The
+	 * stream is not closed.
+	 * 
+	 * @param os
+	 * @throws IOException
+	 */
+	public void write(OutputStream os) throws IOException
+	{
+		ByteBuffer buffer = data.duplicate();
+		buffer.clear();
+		if (buffer.hasArray())
+		{
+			os.write(buffer.array(), buffer.arrayOffset(), buffer.remaining());
+		}
+		else
+		{
+			WritableByteChannel channel = Channels.newChannel(os);
+			while (buffer.hasRemaining())
+			{
+				channel.write(buffer);
+			}
+		}
+		os.flush();
+	}
+
+	/**
+	 * @return Number of earthquakes in this catalogue
+	 */
+	public int size()
+	{
+		return size;
+	}
+
+	public double getLatitude(int index)
+	{
+		return latitudes.get(index);
+	}
+
+	public double getLongitude(int index)
+	{
+		return longitudes.get(index);
+	}
+
+	public double getElevation(int index)
+	{
+		return elevations.get(index);
+	}
+
+	public double getMagnitude(int index)
+	{
+		return magnitudes.get(index);
+	}
+
+	public long getTimeInMillis(int index)
+	{
+		return times.get(index);
+	}
+
+	/**
+	 * @return Read-only list of the earthquake positions. {@link Position}
+	 *         objects are only created as elements are accessed.
+	 */
+	public List<Position> getPositions()
+	{
+		return new PositionList();
+	}
+
+	private class PositionList extends AbstractList<Position> implements RandomAccess
+	{
+		@Override
+		public Position get(int index)
+		{
+			if (index < 0 || index >= size)
+			{
+				throw new IndexOutOfBoundsException("Index: " + index);
+			}
+			return Position.fromDegrees(latitudes.get(index), longitudes.get(index), elevations.get(index));
+		}
+
+		@Override
+		public int size()
+		{
+			return size;
+		}
+	}
+
+	/**
+	 * Builds {@link EarthquakeCatalogue}s in memory, one earthquake at a
+	 * time.
+	 */
+	public static class Builder
+	{
+		private float[] latitudes = new float[1024];
+		private float[] longitudes = new float[1024];
+		private float[] elevations = new float[1024];
+		private float[] magnitudes = new float[1024];
+		private long[] times = new long[1024];
+		private int size = 0;
+
+		/**
+		 * Add an earthquake to the catalogue.
+		 * 
+		 * @param latitude
+		 *            Latitude in degrees
+		 * @param longitude
+		 *            Longitude in degrees
+		 * @param elevation
+		 *            Elevation in metres (negative indicates subsurface)
+		 * @param magnitude
+		 *            Magnitude
+		 * @param timeInMillis
+		 *            Time in milliseconds since the epoc
+		 * @return this
+		 */
+		public Builder add(double latitude, double longitude, double elevation, double magnitude, long timeInMillis)
+		{
+			if (size == latitudes.length)
+			{
+				int capacity = size * 2;
+				latitudes = Arrays.copyOf(latitudes, capacity);
+				longitudes = Arrays.copyOf(longitudes, capacity);
+				elevations = Arrays.copyOf(elevations, capacity);
+				magnitudes = Arrays.copyOf(magnitudes, capacity);
+				times = Arrays.copyOf(times, capacity);
+			}
+			latitudes[size] = (float) latitude;
+			longitudes[size] = (float) longitude;
+			elevations[size] = (float) elevation;
+			magnitudes[size] = (float) magnitude;
+			times[size] = timeInMillis;
+			size++;
+			return this;
+		}
+
+		/**
+		 * @return Number of earthquakes added
+		 */
+		public int size()
+		{
+			return size;
+		}
+
+		/**
+		 * @return A new catalogue containing the earthquakes added
+		 */
+		public EarthquakeCatalogue build()
+		{
+			long length = getLength(size);
+			if (length > Integer.MAX_VALUE)
+			{
+				throw new IllegalStateException("Too many earthquakes: " + size);
+			}
+			ByteBuffer buffer = ByteBuffer.allocate((int) length);
+			buffer.putInt(MAGIC).putInt(VERSION).putInt(size).putInt(0);
+			buffer.asFloatBuffer().put(latitudes, 0, size);
+			buffer.position(buffer.position() + size * 4);
+			buffer.asFloatBuffer().put(longitudes, 0, size);
+			buffer.position(buffer.position() + size * 4);
+			buffer.asFloatBuffer().put(elevations, 0, size);
+			buffer.position(buffer.position() + size * 4);
+			buffer.asFloatBuffer().put(magnitudes, 0, size);
+			buffer.position(buffer.position() + size * 4);
+			buffer.asLongBuffer().put(times, 0, size);
+			buffer.rewind();
+			try
+			{
+				return new EarthquakeCatalogue(buffer);
+			}
+			catch (IOException e)
+			{
+				//cannot happen, as the buffer was just written
+				throw new IllegalStateException(e);
+			}
+		}
+	}
+}
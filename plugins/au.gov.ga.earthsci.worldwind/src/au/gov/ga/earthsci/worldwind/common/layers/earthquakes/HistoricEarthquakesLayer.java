@@ -25,15 +25,17 @@ import gov.nasa.worldwind.util.Logging;
 import gov.nasa.worldwind.util.WWXML;
 
 import java.awt.Color;
-import java.io.EOFException;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.ObjectInputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.nio.FloatBuffer;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
 import java.util.zip.ZipInputStream;
 
 import javax.media.opengl.GL2;
@@ -47,8 +49,10 @@ import au.gov.ga.earthsci.worldwind.common.downloader.RetrievalHandler;
 import au.gov.ga.earthsci.worldwind.common.downloader.RetrievalResult;
 import au.gov.ga.earthsci.worldwind.common.render.fastshape.FastShape;
 import au.gov.ga.earthsci.worldwind.common.util.AVKeyMore;
+import au.gov.ga.earthsci.worldwind.common.util.DaemonThreadFactory;
 import au.gov.ga.earthsci.worldwind.common.util.HSLColor;
 import au.gov.ga.earthsci.worldwind.common.util.Loader;
+import au.gov.ga.earthsci.worldwind.common.util.URLUtil;
 import au.gov.ga.earthsci.worldwind.common.util.XMLUtil;
 
 /**
@@ -64,8 +68,12 @@ import au.gov.ga.earthsci.worldwind.common.util.XMLUtil;
  * earthquake data outside the rendering thread to ensure the interface remains
  * responsive.
  * <p/>
- * Each record in the data file should have the following format (without line
- * breaks):
+ * The data file should be an {@link EarthquakeCatalogue}, which stores the
+ * latitude, longitude, elevation, magnitude and timestamp of the earthquakes as
+ * primitive columns (see {@link HistoricEarthquakesShapefileConverter}). Local
+ * catalogue files are memory-mapped. The legacy format, where each record in
+ * the data file has the following format (without line breaks), is also
+ * supported:
  * 
  * <pre>
  * double latitude (in degrees)
@@ -75,6 +83,9 @@ import au.gov.ga.earthsci.worldwind.common.util.XMLUtil;
  * long timestamp (in milliseconds since epoc 01 01 1970 00:00:00 UTC)
  * </pre>
  * 
+ * Changing the colouring using {@link #setColoring(String)} only regenerates
+ * the colour buffer.
+ * <p/>
  * To save on bandwidth, it is recommended that the data file be compressed into
  * a .zip file.
  * 
@@ -87,9 +98,14 @@ public class HistoricEarthquakesLayer extends AbstractLayer implements Loader
 	public final static String DEPTH_COLORING = "Depth";
 
 	private final static int MAX_DOWNLOAD_ATTEMPTS = 3;
+	private final static int HUE_STEPS = 1024;
+	private final static float[] hueColors = createHueColors();
+
+	private final static ExecutorService loader = Executors.newSingleThreadExecutor(new DaemonThreadFactory(
+			"Historic earthquakes loader"));
 
 	private final URL url;
-	private final String coloring;
+	private volatile String coloring;
 	private Long coloringMinDate;
 	private Long coloringMaxDate;
 
@@ -101,6 +117,7 @@ public class HistoricEarthquakesLayer extends AbstractLayer implements Loader
 	private boolean loading = false;
 	private final List<LoadingListener> loadingListeners = new ArrayList<LoadingListener>();
 
+	private EarthquakeCatalogue catalogue;
 	private FastShape shape;
 	private final Object shapeLock = new Object();
 
@@ -190,14 +207,28 @@ public class HistoricEarthquakesLayer extends AbstractLayer implements Loader
 
 	protected void downloadData()
 	{
-		//run download in separate thread, so that data loading from download
+		//load in the background, so that data loading from the download
 		//cache doesn't freeze up the render thread
-
-		Thread thread = new Thread(new Runnable()
+		loader.execute(new Runnable()
 		{
 			@Override
 			public void run()
 			{
+				//local catalogues are memory-mapped, rather than read through the downloader
+				File file = URLUtil.urlToFile(url);
+				if (file != null && file.isFile() && !isZipFile())
+				{
+					try
+					{
+						loadCatalogue(EarthquakeCatalogue.open(file));
+					}
+					catch (IOException e)
+					{
+						Logging.logger().log(Level.SEVERE, "Error loading earthquakes from " + file, e);
+					}
+					return;
+				}
+
 				RetrievalHandler handler = new RetrievalHandler()
 				{
 					@Override
@@ -217,52 +248,35 @@ public class HistoricEarthquakesLayer extends AbstractLayer implements Loader
 				Downloader.downloadIfModified(url, handler, handler, true);
 			}
 		});
-		thread.setDaemon(true);
-		thread.start();
+	}
+
+	protected boolean isZipFile()
+	{
+		return url.toExternalForm().toLowerCase().endsWith(".zip");
 	}
 
 	protected void loadData(InputStream is)
 	{
 		try
 		{
-			boolean isZipFile = url.toExternalForm().toLowerCase().endsWith(".zip");
-			if (isZipFile)
+			if (isZipFile())
 			{
-				@SuppressWarnings("resource") //closed by the ObjectInputStream below
 				ZipInputStream zis = new ZipInputStream(is);
 				zis.getNextEntry(); //move to first entry
 				is = zis;
 			}
 
-			List<Earthquake> quakes = new ArrayList<Earthquake>();
-			ObjectInputStream ois = new ObjectInputStream(is);
+			EarthquakeCatalogue catalogue;
 			try
 			{
-				while (is.available() > 0)
-				{
-					double lat = ois.readDouble();
-					double lon = ois.readDouble();
-					double elevation = ois.readDouble();
-					double magnitude = ois.readDouble();
-					long timeInMillis = ois.readLong();
-
-					Position position = Position.fromDegrees(lat, lon, elevation);
-					Earthquake quake = new Earthquake(position, magnitude, timeInMillis);
-					quakes.add(quake);
-				}
-			}
-			catch (EOFException e)
-			{
-				//When reading from a ZipInputStream, the ObjectInputStream.available() method always returns 0,
-				//so just read it anyway. This will throw an EOFException at some stage (when there's no data
-				//left), this means we are at the end of the file. Ignore it.
+				catalogue = EarthquakeCatalogue.read(is);
 			}
 			finally
 			{
-				ois.close();
+				is.close();
 			}
 
-			loadEarthquakes(quakes);
+			loadCatalogue(catalogue);
 		}
 		catch (IOException e)
 		{
@@ -282,67 +296,156 @@ public class HistoricEarthquakesLayer extends AbstractLayer implements Loader
 
 	protected void loadEarthquakes(List<Earthquake> earthquakes)
 	{
-		List<Position> positions = new ArrayList<Position>();
-		for (Earthquake earthquake : earthquakes)
+		loadCatalogue(toCatalogue(earthquakes));
+	}
+
+	/**
+	 * Create the shape used to render the given catalogue, coloured using the
+	 * current coloring.
+	 * 
+	 * @param catalogue
+	 */
+	protected void loadCatalogue(EarthquakeCatalogue catalogue)
+	{
+		String coloring = this.coloring;
+		FastShape shape = new FastShape(catalogue.getPositions(), GL2.GL_POINTS);
+		shape.setColorBuffer(generateColors(catalogue, coloring));
+		shape.setColorBufferElementSize(3);
+
+		synchronized (shapeLock)
 		{
-			positions.add(earthquake.position);
+			this.catalogue = catalogue;
+			this.shape = shape;
 		}
 
-		FloatBuffer colorBuffer = FloatBuffer.allocate(positions.size() * 3);
-		generateColorBuffer(colorBuffer, earthquakes);
+		firePropertyChange(AVKey.LAYER, null, this);
 
-		FastShape shape = new FastShape(positions, GL2.GL_POINTS);
-		shape.setColorBuffer(colorBuffer.array());
-		shape.setColorBufferElementSize(3);
+		//the coloring may have been changed while the shape was being created
+		if (!coloring.equals(this.coloring))
+		{
+			recolor();
+		}
+	}
+
+	/**
+	 * @return The attribute used to colour the earthquakes; one of
+	 *         {@link #DATE_COLORING}, {@link #MAGNITUDE_COLORING} or
+	 *         {@link #DEPTH_COLORING}
+	 */
+	public String getColoring()
+	{
+		return coloring;
+	}
+
+	/**
+	 * Set the attribute used to colour the earthquakes. The earthquakes are
+	 * recoloured in the background; only the shape's colour buffer is
+	 * regenerated.
+	 * 
+	 * @param coloring
+	 *            One of {@link #DATE_COLORING}, {@link #MAGNITUDE_COLORING} or
+	 *            {@link #DEPTH_COLORING}
+	 */
+	public void setColoring(String coloring)
+	{
+		if (coloring == null)
+		{
+			coloring = MAGNITUDE_COLORING;
+		}
+		if (coloring.equals(this.coloring))
+		{
+			return;
+		}
+		this.coloring = coloring;
+
+		loader.execute(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				recolor();
+			}
+		});
+	}
+
+	protected void recolor()
+	{
+		EarthquakeCatalogue catalogue;
+		FastShape shape;
+		synchronized (shapeLock)
+		{
+			catalogue = this.catalogue;
+			shape = this.shape;
+		}
+		if (catalogue == null)
+		{
+			//not loaded yet; it will be coloured using the current coloring when it is
+			return;
+		}
 
+		float[] colors = generateColors(catalogue, coloring);
 		synchronized (shapeLock)
 		{
-			this.shape = shape;
+			if (this.shape != shape)
+			{
+				return;
+			}
+			shape.setColorBuffer(colors);
 		}
 
 		firePropertyChange(AVKey.LAYER, null, this);
 	}
 
-	private void generateColorBuffer(FloatBuffer colorBuffer, List<Earthquake> earthquakes)
+	/**
+	 * Generate a colour buffer for the given catalogue.
+	 * 
+	 * @param catalogue
+	 *            Earthquakes to colour
+	 * @param coloring
+	 *            Attribute to colour by
+	 * @return Colour buffer containing an RGB triple for each earthquake
+	 */
+	protected float[] generateColors(EarthquakeCatalogue catalogue, String coloring)
 	{
+		float[] colors = new float[catalogue.size() * 3];
 		if (DEPTH_COLORING.equalsIgnoreCase(coloring))
 		{
-			generateDepthColoring(colorBuffer, earthquakes);
+			generateDepthColoring(colors, catalogue);
 		}
 		else if (DATE_COLORING.equalsIgnoreCase(coloring))
 		{
-			generateDateColoring(colorBuffer, earthquakes);
+			generateDateColoring(colors, catalogue);
 		}
 		else
 		{
-			generateMagnitudeColoring(colorBuffer, earthquakes);
+			generateMagnitudeColoring(colors, catalogue);
 		}
+		return colors;
 	}
 
 	/**
-	 * Populate the color buffer with colours based on earthquake date.
+	 * Populate the color buffer with colours based on earthquake magnitude.
 	 * <p/>
-	 * Blue (shallow) -> Red (deep)
+	 * Blue (low) -> Red (high)
 	 */
-	protected void generateMagnitudeColoring(FloatBuffer colorBuffer, List<Earthquake> earthquakes)
+	protected void generateMagnitudeColoring(float[] colors, EarthquakeCatalogue catalogue)
 	{
-		//magnitude coloring
+		int size = catalogue.size();
 		double minMagnitude = Double.MAX_VALUE;
 		double maxMagnitude = -Double.MAX_VALUE;
-		for (Earthquake earthquake : earthquakes)
+		for (int i = 0; i < size; i++)
 		{
-			minMagnitude = Math.min(minMagnitude, earthquake.magnitude);
-			maxMagnitude = Math.max(maxMagnitude, earthquake.magnitude);
+			minMagnitude = Math.min(minMagnitude, catalogue.getMagnitude(i));
+			maxMagnitude = Math.max(maxMagnitude, catalogue.getMagnitude(i));
 		}
-		for (Earthquake earthquake : earthquakes)
+		for (int i = 0; i < size; i++)
 		{
-			double percent = (earthquake.magnitude - minMagnitude) / (maxMagnitude - minMagnitude);
+			double percent = (catalogue.getMagnitude(i) - minMagnitude) / (maxMagnitude - minMagnitude);
 
 			//scale the magnitude (VERY crude equalisation)
 			percent = 1 - Math.pow(percent, 0.2);
 
-			Color color = new HSLColor((float) (240d * percent), 100f, 50f).getRGB();
-			colorBuffer.put(color.getRed() / 255f).put(color.getGreen() / 255f).put(color.getBlue() / 255f);
+			putHueColor(colors, i, percent);
 		}
 	}
 
@@ -351,30 +454,30 @@ public class HistoricEarthquakesLayer extends AbstractLayer implements Loader
 	 * <p/>
 	 * Blue (old) -> Red (new)
 	 */
-	protected void generateDateColoring(FloatBuffer colorBuffer, List<Earthquake> earthquakes)
+	protected void generateDateColoring(float[] colors, EarthquakeCatalogue catalogue)
 	{
+		int size = catalogue.size();
 		long minTime = Long.MAX_VALUE;
 		long maxTime = Long.MIN_VALUE;
 
 		//if either of the custom min/max dates are null, calculate from the data
 		if (coloringMinDate == null || coloringMaxDate == null)
 		{
-			for (Earthquake earthquake : earthquakes)
+			for (int i = 0; i < size; i++)
 			{
-				minTime = Math.min(minTime, earthquake.timeInMillis);
-				maxTime = Math.max(maxTime, earthquake.timeInMillis);
+				minTime = Math.min(minTime, catalogue.getTimeInMillis(i));
+				maxTime = Math.max(maxTime, catalogue.getTimeInMillis(i));
 			}
 		}
 
 		minTime = coloringMinDate != null ? coloringMinDate : minTime;
 		maxTime = coloringMaxDate != null ? coloringMaxDate : maxTime;
 
-		for (Earthquake earthquake : earthquakes)
+		for (int i = 0; i < size; i++)
 		{
-			double percent = (earthquake.timeInMillis - minTime) / (double) (maxTime - minTime);
+			double percent = (catalogue.getTimeInMillis(i) - minTime) / (double) (maxTime - minTime);
 			percent = 1 - Math.max(0, Math.min(1, percent));
-			Color color = new HSLColor((float) (240d * percent), 100f, 50f).getRGB();
-			colorBuffer.put(color.getRed() / 255f).put(color.getGreen() / 255f).put(color.getBlue() / 255f);
+			putHueColor(colors, i, percent);
 		}
 	}
 
@@ -383,21 +486,93 @@ public class HistoricEarthquakesLayer extends AbstractLayer implements Loader
 	 * <p/>
 	 * Blue (shallow) -> Red (deep)
 	 */
-	protected void generateDepthColoring(FloatBuffer colorBuffer, List<Earthquake> earthquakes)
+	protected void generateDepthColoring(float[] colors, EarthquakeCatalogue catalogue)
 	{
+		int size = catalogue.size();
 		double minElevation = Double.MAX_VALUE;
 		double maxElevation = -Double.MAX_VALUE;
-		for (Earthquake earthquake : earthquakes)
+		for (int i = 0; i < size; i++)
+		{
+			minElevation = Math.min(minElevation, catalogue.getElevation(i));
+			maxElevation = Math.max(maxElevation, catalogue.getElevation(i));
+		}
+		for (int i = 0; i < size; i++)
 		{
-			minElevation = Math.min(minElevation, earthquake.position.elevation);
-			maxElevation = Math.max(maxElevation, earthquake.position.elevation);
+			double percent = (catalogue.getElevation(i) - minElevation) / (maxElevation - minElevation);
+			putHueColor(colors, i, percent);
 		}
+	}
+
+	/**
+	 * Populate the color buffer with colours based on earthquake magnitude.
+	 * 
+	 * @see #generateMagnitudeColoring(float[], EarthquakeCatalogue)
+	 */
+	protected void generateMagnitudeColoring(FloatBuffer colorBuffer, List<Earthquake> earthquakes)
+	{
+		float[] colors = new float[earthquakes.size() * 3];
+		generateMagnitudeColoring(colors, toCatalogue(earthquakes));
+		colorBuffer.put(colors);
+	}
+
+	/**
+	 * Populate the color buffer with colours based on earthquake date.
+	 * 
+	 * @see #generateDateColoring(float[], EarthquakeCatalogue)
+	 */
+	protected void generateDateColoring(FloatBuffer colorBuffer, List<Earthquake> earthquakes)
+	{
+		float[] colors = new float[earthquakes.size() * 3];
+		generateDateColoring(colors, toCatalogue(earthquakes));
+		colorBuffer.put(colors);
+	}
+
+	/**
+	 * Populate the color buffer with colours based on earthquake depth.
+	 * 
+	 * @see #generateDepthColoring(float[], EarthquakeCatalogue)
+	 */
+	protected void generateDepthColoring(FloatBuffer colorBuffer, List<Earthquake> earthquakes)
+	{
+		float[] colors = new float[earthquakes.size() * 3];
+		generateDepthColoring(colors, toCatalogue(earthquakes));
+		colorBuffer.put(colors);
+	}
+
+	protected static EarthquakeCatalogue toCatalogue(List<Earthquake> earthquakes)
+	{
+		EarthquakeCatalogue.Builder builder = new EarthquakeCatalogue.Builder();
 		for (Earthquake earthquake : earthquakes)
 		{
-			double percent = (earthquake.position.elevation - minElevation) / (maxElevation - minElevation);
-			Color color = new HSLColor((float) (240d * percent), 100f, 50f).getRGB();
-			colorBuffer.put(color.getRed() / 255f).put(color.getGreen() / 255f).put(color.getBlue() / 255f);
+			Position position = earthquake.position;
+			builder.add(position.latitude.degrees, position.longitude.degrees, position.elevation,
+					earthquake.magnitude, earthquake.timeInMillis);
+		}
+		return builder.build();
+	}
+
+	/**
+	 * Put the colour for the given percentage of the hue range from red (0) to
+	 * blue (1) into the colour buffer.
+	 */
+	private static void putHueColor(float[] colors, int index, double percent)
+	{
+		int hue = percent > 0 ? (int) Math.min(HUE_STEPS - 1, percent * (HUE_STEPS - 1) + 0.5) : 0;
+		System.arraycopy(hueColors, hue * 3, colors, index * 3, 3);
+	}
+
+	private static float[] createHueColors()
+	{
+		//HSLColor conversion is slow, so precompute the colours of the hue range
+		float[] colors = new float[HUE_STEPS * 3];
+		for (int i = 0; i < HUE_STEPS; i++)
+		{
+			Color color = new HSLColor((float) (240d * i / (HUE_STEPS - 1)), 100f, 50f).getRGB();
+			colors[i * 3] = color.getRed() / 255f;
+			colors[i * 3 + 1] = color.getGreen() / 255f;
+			colors[i * 3 + 2] = color.getBlue() / 255f;
 		}
+		return colors;
 	}
 
 	protected static class Earthquake
@@ -23,11 +23,11 @@ import gov.nasa.worldwind.geom.LatLon;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.ObjectOutputStream;
+import java.io.OutputStream;
 
 /**
  * Helper class used for converting the large historic earthquakes shapefile
- * into a smaller double array, which is used by the
+ * into a smaller binary {@link EarthquakeCatalogue}, which is used by the
  * {@link HistoricEarthquakesLayer}.
  * 
  * @author Michael de Hoog (michael.dehoog@ga.gov.au)
@@ -52,7 +52,7 @@ public class HistoricEarthquakesShapefileConverter
 			File file = new File(dir, filename + ".shp");
 			File output = new File(dir, filename + ".dat");
 
-			ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(output));
+			EarthquakeCatalogue.Builder builder = new EarthquakeCatalogue.Builder();
 			Shapefile shapefile = new Shapefile(file);
 
 			while (shapefile.hasNext())
@@ -77,17 +77,21 @@ public class HistoricEarthquakesShapefileConverter
 				//double elevation = getDoubleFromObject(attributes.getValue("DEPTH"), 0) * -1000;
 				double elevation = getDoubleFromObject(attributes.getValue("Elevation"), 0) * -1;
 
-				//although we don't particularly need double/long accuracy, once the binary file
-				//is zipped there is not much difference in size between the two (around 15%)
-				oos.writeDouble(latlon.getLatitude().degrees);
-				oos.writeDouble(latlon.getLongitude().degrees);
-				oos.writeDouble(elevation);
-				oos.writeDouble(magnitude);
-				oos.writeLong(timeInMillis);
+				builder.add(latlon.getLatitude().degrees, latlon.getLongitude().degrees, elevation, magnitude,
+						timeInMillis);
 			}
 
 			shapefile.close();
-			oos.close();
+
+			OutputStream os = new FileOutputStream(output);
+			try
+			{
+				builder.build().write(os);
+			}
+			finally
+			{
+				os.close();
+			}
 
 			i++;
 		}
@@ -69,6 +69,7 @@ import au.gov.ga.earthsci.worldwind.common.layers.delegate.IDelegatorTile;
 import au.gov.ga.earthsci.worldwind.common.layers.delegate.ITileRequesterDelegate;
 import au.gov.ga.earthsci.worldwind.common.layers.tiled.image.URLTransformerBasicTiledImageLayer;
 import au.gov.ga.earthsci.worldwind.common.layers.tiled.image.delegate.FileLockSharer;
+import au.gov.ga.earthsci.worldwind.common.layers.tiled.image.delegate.FileLocks;
 import au.gov.ga.earthsci.worldwind.common.util.AVKeyMore;
 import au.gov.ga.earthsci.worldwind.common.util.DDSUncompressor;
 import au.gov.ga.earthsci.worldwind.common.util.XMLUtil;
@@ -92,7 +93,7 @@ import com.jogamp.opengl.util.texture.awt.AWTTextureIO;
 public class DelegatorMercatorTiledImageLayer extends URLTransformerBasicTiledImageLayer implements Bounded,
 		IDelegatorLayer<DelegatorMercatorTextureTile>
 {
-	protected final Object fileLock;
+	protected final FileLocks fileLock;
 	protected final URL context;
 	protected final MercatorImageDelegateKit delegateKit;
 	protected boolean extractZipEntry = false;
@@ -341,7 +342,7 @@ public class DelegatorMercatorTiledImageLayer extends URLTransformerBasicTiledIm
 
 		TextureData textureData;
 
-		synchronized (fileLock)
+		synchronized (fileLock.getLock(tile.getPath()))
 		{
 			textureData = readTexture(tile, textureURL);
 		}
@@ -452,8 +453,8 @@ public class DelegatorMercatorTiledImageLayer extends URLTransformerBasicTiledIm
 	}
 
 	/**
-	 * Extension to superclass' DownloadPostProcessor which returns this class'
-	 * fileLock instead of the superclass'.
+	 * Extension to superclass' DownloadPostProcessor which returns the lock for
+	 * the tile from this class' fileLock instead of the superclass' fileLock.
 	 * 
 	 * @author Michael de Hoog
 	 */
@@ -470,7 +471,7 @@ public class DelegatorMercatorTiledImageLayer extends URLTransformerBasicTiledIm
 		@Override
 		protected Object getFileLock()
 		{
-			return layer.fileLock;
+			return layer.fileLock.getLock(tile.getPath());
 		}
 	}
 
@@ -90,7 +90,7 @@ import com.jogamp.opengl.util.texture.awt.AWTTextureIO;
 public class DelegatorTiledImageLayer extends URLTransformerBasicTiledImageLayer implements Bounded,
 		IDelegatorLayer<DelegatorTextureTile>
 {
-	protected final Object fileLock;
+	protected final FileLocks fileLock;
 	protected final URL context;
 	protected final ImageDelegateKit delegateKit;
 	protected boolean extractZipEntry = false;
@@ -338,7 +338,7 @@ public class DelegatorTiledImageLayer extends URLTransformerBasicTiledImageLayer
 
 		TextureData textureData;
 
-		synchronized (fileLock)
+		synchronized (fileLock.getLock(tile.getPath()))
 		{
 			textureData = readTexture(tile, textureURL);
 		}
@@ -449,8 +449,8 @@ public class DelegatorTiledImageLayer extends URLTransformerBasicTiledImageLayer
 	}
 
 	/**
-	 * Extension to superclass' DownloadPostProcessor which returns this class'
-	 * fileLock instead of the superclass'.
+	 * Extension to superclass' DownloadPostProcessor which returns the lock for
+	 * the tile from this class' fileLock instead of the superclass' fileLock.
 	 * 
 	 * @author Michael de Hoog
 	 */
@@ -467,7 +467,7 @@ public class DelegatorTiledImageLayer extends URLTransformerBasicTiledImageLayer
 		@Override
 		protected Object getFileLock()
 		{
-			return layer.fileLock;
+			return layer.fileLock.getLock(tile.getPath());
 		}
 	}
 
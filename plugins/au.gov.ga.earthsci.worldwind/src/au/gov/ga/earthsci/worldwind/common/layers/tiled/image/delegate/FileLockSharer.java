@@ -15,6 +15,8 @@
  ******************************************************************************/
 package au.gov.ga.earthsci.worldwind.common.layers.tiled.image.delegate;
 
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -23,27 +25,75 @@ import java.util.Map;
  * synchronized before reading from and writing to the cache). This is useful as
  * some layers may share the same imagery but do different post processing on
  * the textures.
+ * <p/>
+ * The shared {@link FileLocks} are only weakly referenced, so they are removed
+ * once no layer using the cache location remains.
  * 
  * @author Michael de Hoog (michael.dehoog@ga.gov.au)
  */
 public class FileLockSharer
 {
-	private static Map<String, Object> locks = new HashMap<String, Object>();
+	private static final Map<String, LocksReference> locks = new HashMap<String, LocksReference>();
+	private static final ReferenceQueue<FileLocks> queue = new ReferenceQueue<FileLocks>();
 
 	/**
-	 * Get an object on which to synchronize for reading/writing to the cache
-	 * location identified by dataCacheName.
+	 * Get the locks on which to synchronize for reading/writing to the cache
+	 * location identified by dataCacheName. The same instance is returned for
+	 * the same cache location while any caller still references it.
 	 * 
 	 * @param dataCacheName
 	 *            Cache location
-	 * @return Object on which to synchronize
+	 * @return Locks for the cache location
 	 */
-	public static Object getLock(String dataCacheName)
+	public static FileLocks getLock(String dataCacheName)
 	{
-		if (!locks.containsKey(dataCacheName))
+		synchronized (locks)
 		{
-			locks.put(dataCacheName, new Object());
+			expungeStaleEntries();
+			LocksReference reference = locks.get(dataCacheName);
+			FileLocks fileLocks = reference != null ? reference.get() : null;
+			if (fileLocks == null)
+			{
+				fileLocks = new FileLocks(dataCacheName);
+				locks.put(dataCacheName, new LocksReference(dataCacheName, fileLocks, queue));
+			}
+			return fileLocks;
+		}
+	}
+
+	/**
+	 * @return Number of cache locations with registered locks (for testing)
+	 */
+	static int size()
+	{
+		synchronized (locks)
+		{
+			expungeStaleEntries();
+			return locks.size();
+		}
+	}
+
+	private static void expungeStaleEntries()
+	{
+		LocksReference reference;
+		while ((reference = (LocksReference) queue.poll()) != null)
+		{
+			//the entry may have already been replaced by a new instance
+			if (locks.get(reference.dataCacheName) == reference)
+			{
+				locks.remove(reference.dataCacheName);
+			}
+		}
+	}
+
+	private static class LocksReference extends WeakReference<FileLocks>
+	{
+		private final String dataCacheName;
+
+		public LocksReference(String dataCacheName, FileLocks referent, ReferenceQueue<FileLocks> queue)
+		{
+			super(referent, queue);
+			this.dataCacheName = dataCacheName;
 		}
-		return locks.get(dataCacheName);
 	}
 }
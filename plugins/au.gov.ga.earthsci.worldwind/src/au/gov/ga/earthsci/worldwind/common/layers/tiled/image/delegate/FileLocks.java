@@ -0,0 +1,134 @@
+/*******************************************************************************
+ * Copyright 2026 Geoscience Australia
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package au.gov.ga.earthsci.worldwind.common.layers.tiled.image.delegate;
+
+/**
+ * Set of objects on which to synchronize before reading from and writing to
+ * the files of a single cache location. Created and shared by the
+ * {@link FileLockSharer}.
+ * <p/>
+ * Synchronizing on this object itself locks the whole cache location, which
+ * is used for cache-wide files such as the configuration file. Tile files are
+ * locked using {@link #getLock(String)}, which returns one of a fixed number of
+ * stripes chosen by the tile's file name, so that different tiles can be read
+ * and written in parallel.
+ * 
+ * @author Michael de Hoog (michael.dehoog@ga.gov.au)
+ */
+public class FileLocks
+{
+	public static final int DEFAULT_STRIPE_COUNT = 64;
+
+	private final String dataCacheName;
+	private final Object[] stripes;
+	private final int mask;
+
+	public FileLocks(String dataCacheName)
+	{
+		this(dataCacheName, DEFAULT_STRIPE_COUNT);
+	}
+
+	/**
+	 * Create a new set of file locks.
+	 * 
+	 * @param dataCacheName
+	 *            Cache location
+	 * @param stripeCount
+	 *            Number of tile lock stripes; rounded up to a power of 2
+	 */
+	public FileLocks(String dataCacheName, int stripeCount)
+	{
+		int size = 1;
+		while (size < stripeCount)
+		{
+			size <<= 1;
+		}
+		this.dataCacheName = dataCacheName;
+		this.stripes = new Object[size];
+		this.mask = size - 1;
+		for (int i = 0; i < size; i++)
+		{
+			stripes[i] = new Object();
+		}
+	}
+
+	/**
+	 * @return Cache location that these locks are for
+	 */
+	public String getDataCacheName()
+	{
+		return dataCacheName;
+	}
+
+	/**
+	 * @return Number of tile lock stripes
+	 */
+	public int getStripeCount()
+	{
+		return stripes.length;
+	}
+
+	/**
+	 * Get an object on which to synchronize for reading/writing the tile file
+	 * at the given path.
+	 * <p/>
+	 * The stripe is chosen by the file name up to its first '.', so a tile's
+	 * cache-relative path (as used when writing a downloaded tile) and the URL
+	 * of the same file in the cache (as used when reading it) return the same
+	 * lock.
+	 * 
+	 * @param path
+	 *            Tile path, file path or URL
+	 * @return Object on which to synchronize
+	 */
+	public Object getLock(String path)
+	{
+		return stripes[indexFor(path)];
+	}
+
+	int indexFor(String path)
+	{
+		if (path == null)
+		{
+			return 0;
+		}
+		int end = path.length();
+		int start = end;
+		while (start > 0)
+		{
+			char c = path.charAt(start - 1);
+			if (c == '/' || c == '\\')
+			{
+				break;
+			}
+			if (c == '.')
+			{
+				end = start - 1;
+			}
+			start--;
+		}
+
+		int h = 0;
+		for (int i = start; i < end; i++)
+		{
+			h = 31 * h + path.charAt(i);
+		}
+		//spread the bits, as tile names are very similar to each other
+		h ^= (h >>> 20) ^ (h >>> 12);
+		h ^= (h >>> 7) ^ (h >>> 4);
+		return h & mask;
+	}
+}
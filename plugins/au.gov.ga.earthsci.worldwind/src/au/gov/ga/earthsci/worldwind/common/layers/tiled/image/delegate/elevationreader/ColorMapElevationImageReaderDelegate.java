@@ -17,9 +17,9 @@ package au.gov.ga.earthsci.worldwind.common.layers.tiled.image.delegate.elevatio
 
 import gov.nasa.worldwind.avlist.AVKey;
 import gov.nasa.worldwind.avlist.AVList;
-import gov.nasa.worldwind.geom.Sector;
 import gov.nasa.worldwind.globes.Globe;
 import gov.nasa.worldwind.util.BufferWrapper;
+import gov.nasa.worldwind.util.Tile;
 import gov.nasa.worldwind.util.WWXML;
 
 import java.awt.image.BufferedImage;
@@ -29,6 +29,8 @@ import java.util.regex.Pattern;
 import org.w3c.dom.Element;
 
 import au.gov.ga.earthsci.worldwind.common.layers.delegate.IDelegate;
+import au.gov.ga.earthsci.worldwind.common.util.ColorLookupTable;
+import au.gov.ga.earthsci.worldwind.common.util.ColorLookupTable.ColorFunction;
 import au.gov.ga.earthsci.worldwind.common.util.ColorMap;
 import au.gov.ga.earthsci.worldwind.common.util.XMLUtil;
 
@@ -78,6 +80,7 @@ public class ColorMapElevationImageReaderDelegate extends ElevationImageReaderDe
 	private final static String DEFINITION_STRING = "ColorMapReader";
 
 	private final ColorMap colorMap;
+	private final ColorLookupTable colorLookupTable;
 
 	@SuppressWarnings("unused")
 	private ColorMapElevationImageReaderDelegate()
@@ -90,6 +93,25 @@ public class ColorMapElevationImageReaderDelegate extends ElevationImageReaderDe
 	{
 		super(pixelType, byteOrder, missingDataSignal);
 		this.colorMap = colorMap;
+
+		this.colorLookupTable = colorMap == null ? null : createLookupTable(colorMap);
+	}
+
+	private static ColorLookupTable createLookupTable(final ColorMap colorMap)
+	{
+		ColorFunction function = new ColorFunction()
+		{
+			@Override
+			public int getColor(double value)
+			{
+				return colorMap.calculateColor(value).getRGB();
+			}
+		};
+
+		//sample the colour map between its first and last entries; outside these, the colours are constant
+		double minimum = colorMap.isEmpty() ? 0 : colorMap.firstKey();
+		double maximum = colorMap.isEmpty() ? 0 : colorMap.lastKey();
+		return new ColorLookupTable(function, minimum, maximum, ColorLookupTable.DEFAULT_SIZE);
 	}
 
 	@Override
@@ -125,27 +147,9 @@ public class ColorMapElevationImageReaderDelegate extends ElevationImageReaderDe
 	}
 
 	@Override
-	protected BufferedImage generateImage(BufferWrapper elevations, int width, int height, Globe globe, Sector sector)
+	protected BufferedImage generateImage(Tile tile, BufferWrapper elevations, Globe globe)
 	{
-		BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
-
-		for (int y = 0, i = 0; y < height; y++)
-		{
-			for (int x = 0; x < width; x++, i++)
-			{
-				double elevation = elevations.getDouble(i);
-				if (elevation == missingDataSignal)
-				{
-					image.setRGB(x, y, 0);
-				}
-				else
-				{
-					int rgba = colorMap.calculateColor(elevation).getRGB();
-					image.setRGB(x, y, rgba);
-				}
-			}
-		}
-
-		return image;
+		ElevationGrid grid = createGrid(tile, elevations, false);
+		return renderImage(grid, new ColorMapKernel(colorLookupTable));
 	}
 }
@@ -0,0 +1,52 @@
+/*******************************************************************************
+ * Copyright 2026 Geoscience Australia
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package au.gov.ga.earthsci.worldwind.common.layers.tiled.image.delegate.elevationreader;
+
+import au.gov.ga.earthsci.worldwind.common.util.ColorLookupTable;
+
+/**
+ * {@link ElevationKernel} that colours each sample using a
+ * {@link ColorLookupTable}. Missing samples are transparent. The halo is not
+ * used.
+ * 
+ * @author Michael de Hoog (michael.dehoog@ga.gov.au)
+ */
+public class ColorMapKernel implements ElevationKernel
+{
+	private final ColorLookupTable colorLookupTable;
+
+	public ColorMapKernel(ColorLookupTable colorLookupTable)
+	{
+		this.colorLookupTable = colorLookupTable;
+	}
+
+	@Override
+	public void apply(ElevationGrid grid, int[] pixels, int startRow, int endRow)
+	{
+		float[] values = grid.getValues();
+		int width = grid.getWidth();
+		for (int y = startRow; y < endRow; y++)
+		{
+			int index = grid.index(0, y);
+			int pixel = y * width;
+			for (int x = 0; x < width; x++, index++, pixel++)
+			{
+				float elevation = values[index];
+				pixels[pixel] = Float.isNaN(elevation) ? 0 : colorLookupTable.getColor(elevation);
+			}
+		}
+	}
+}
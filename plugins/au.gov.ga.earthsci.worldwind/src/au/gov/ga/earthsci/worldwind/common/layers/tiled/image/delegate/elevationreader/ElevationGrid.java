@@ -0,0 +1,248 @@
+/*******************************************************************************
+ * Copyright 2026 Geoscience Australia
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package au.gov.ga.earthsci.worldwind.common.layers.tiled.image.delegate.elevationreader;
+
+import gov.nasa.worldwind.util.BufferWrapper;
+
+import java.util.Arrays;
+
+/**
+ * A grid of the elevations of a single tile, stored in a primitive float array,
+ * surrounded by a one sample wide halo of elevations from the adjacent tiles.
+ * <p/>
+ * Rows run from north (y = 0) to south, and columns from west (x = 0) to east.
+ * The halo is addressed using the row and column indices -1,
+ * <code>height</code> and <code>width</code>. Missing elevations (including
+ * halo samples for which no adjacent tile is available) are stored as NaN.
+ * 
+ * @author Michael de Hoog (michael.dehoog@ga.gov.au)
+ */
+public class ElevationGrid
+{
+	/**
+	 * Edges of a tile, with the row and column offsets of the adjacent tile on
+	 * that edge (tile rows increase to the north).
+	 */
+	public static enum Edge
+	{
+		NORTH(1, 0),
+		SOUTH(-1, 0),
+		EAST(0, 1),
+		WEST(0, -1);
+
+		public final int rowOffset;
+		public final int columnOffset;
+
+		private Edge(int rowOffset, int columnOffset)
+		{
+			this.rowOffset = rowOffset;
+			this.columnOffset = columnOffset;
+		}
+
+		/**
+		 * @return The edge on the opposite side of the tile
+		 */
+		public Edge opposite()
+		{
+			switch (this)
+			{
+			case NORTH:
+				return SOUTH;
+			case SOUTH:
+				return NORTH;
+			case EAST:
+				return WEST;
+			default:
+				return EAST;
+			}
+		}
+	}
+
+	private final int width;
+	private final int height;
+	private final int stride;
+	private final float[] values;
+
+	/**
+	 * Create a grid with every sample (and halo sample) missing.
+	 * 
+	 * @param width
+	 *            Number of columns in the tile
+	 * @param height
+	 *            Number of rows in the tile
+	 */
+	public ElevationGrid(int width, int height)
+	{
+		this.width = width;
+		this.height = height;
+		this.stride = width + 2;
+		this.values = new float[stride * (height + 2)];
+		Arrays.fill(values, Float.NaN);
+	}
+
+	/**
+	 * Create a grid containing the given tile elevations.
+	 * 
+	 * @param elevations
+	 *            Elevations of the tile, row by row from the north
+	 * @param width
+	 *            Number of columns in the tile
+	 * @param height
+	 *            Number of rows in the tile
+	 * @param missingDataSignal
+	 *            Value that represents missing elevations
+	 */
+	public ElevationGrid(BufferWrapper elevations, int width, int height, double missingDataSignal)
+	{
+		this(width, height);
+		for (int y = 0, i = 0; y < height; y++)
+		{
+			int index = index(0, y);
+			for (int x = 0; x < width; x++, i++, index++)
+			{
+				double elevation = elevations.getDouble(i);
+				if (elevation != missingDataSignal)
+				{
+					values[index] = (float) elevation;
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return Number of columns in the tile (excluding the halo)
+	 */
+	public int getWidth()
+	{
+		return width;
+	}
+
+	/**
+	 * @return Number of rows in the tile (excluding the halo)
+	 */
+	public int getHeight()
+	{
+		return height;
+	}
+
+	/**
+	 * @return Distance between the indices of vertically adjacent samples in
+	 *         the {@link #getValues()} array
+	 */
+	public int getStride()
+	{
+		return stride;
+	}
+
+	/**
+	 * @return The array of samples, including the halo; missing samples are
+	 *         NaN
+	 * @see #index(int, int)
+	 */
+	public float[] getValues()
+	{
+		return values;
+	}
+
+	/**
+	 * @param x
+	 *            Column, from -1 to <code>width</code> inclusive
+	 * @param y
+	 *            Row, from -1 to <code>height</code> inclusive
+	 * @return Index of the sample in the {@link #getValues()} array
+	 */
+	public int index(int x, int y)
+	{
+		return (y + 1) * stride + x + 1;
+	}
+
+	/**
+	 * @param x
+	 *            Column, from -1 to <code>width</code> inclusive
+	 * @param y
+	 *            Row, from -1 to <code>height</code> inclusive
+	 * @return Elevation at the given sample, or NaN if it is missing
+	 */
+	public float get(int x, int y)
+	{
+		return values[index(x, y)];
+	}
+
+	/**
+	 * Set the elevation of a sample.
+	 * 
+	 * @param x
+	 *            Column, from -1 to <code>width</code> inclusive
+	 * @param y
+	 *            Row, from -1 to <code>height</code> inclusive
+	 * @param elevation
+	 *            Elevation of the sample, or NaN if it is missing
+	 */
+	public void set(int x, int y, float elevation)
+	{
+		values[index(x, y)] = elevation;
+	}
+
+	/**
+	 * Copy the tile's samples along one edge (not including the halo).
+	 * 
+	 * @param edge
+	 *            Edge to copy
+	 * @return The row (for north and south) or column (for east and west) of
+	 *         samples along the edge
+	 */
+	public float[] getEdge(Edge edge)
+	{
+		boolean horizontal = edge == Edge.NORTH || edge == Edge.SOUTH;
+		int length = horizontal ? width : height;
+		int start = edge == Edge.NORTH || edge == Edge.WEST ? index(0, 0) : edge == Edge.SOUTH ? index(0,
+				height - 1) : index(width - 1, 0);
+		int step = horizontal ? 1 : stride;
+
+		float[] edgeValues = new float[length];
+		for (int i = 0, index = start; i < length; i++, index += step)
+		{
+			edgeValues[i] = values[index];
+		}
+		return edgeValues;
+	}
+
+	/**
+	 * Fill the halo on one edge of this grid with the samples along the
+	 * touching edge of the adjacent tile, as returned by that tile's
+	 * {@link #getEdge(Edge)} for the opposite edge.
+	 * 
+	 * @param edge
+	 *            Edge of this grid whose halo to fill
+	 * @param adjacentEdge
+	 *            Samples along the touching edge of the adjacent tile; if null
+	 *            or of the wrong length, the halo is marked as missing
+	 */
+	public void setHalo(Edge edge, float[] adjacentEdge)
+	{
+		boolean horizontal = edge == Edge.NORTH || edge == Edge.SOUTH;
+		int length = horizontal ? width : height;
+		int start = edge == Edge.NORTH ? index(0, -1) : edge == Edge.SOUTH ? index(0, height) : edge == Edge.WEST
+				? index(-1, 0) : index(width, 0);
+		int step = horizontal ? 1 : stride;
+
+		boolean valid = adjacentEdge != null && adjacentEdge.length == length;
+		for (int i = 0, index = start; i < length; i++, index += step)
+		{
+			values[index] = valid ? adjacentEdge[i] : Float.NaN;
+		}
+	}
+}
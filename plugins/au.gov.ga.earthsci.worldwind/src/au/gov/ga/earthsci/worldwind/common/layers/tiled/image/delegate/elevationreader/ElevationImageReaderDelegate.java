@@ -15,14 +15,27 @@
  ******************************************************************************/
 package au.gov.ga.earthsci.worldwind.common.layers.tiled.image.delegate.elevationreader;
 
+import gov.nasa.worldwind.WorldWind;
 import gov.nasa.worldwind.geom.Sector;
 import gov.nasa.worldwind.globes.Globe;
 import gov.nasa.worldwind.util.BufferWrapper;
+import gov.nasa.worldwind.util.Logging;
 import gov.nasa.worldwind.util.Tile;
 
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
 import java.io.IOException;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 
@@ -32,11 +45,19 @@ import au.gov.ga.earthsci.worldwind.common.layers.delegate.IDelegatorTile;
 import au.gov.ga.earthsci.worldwind.common.layers.delegate.ITileReaderDelegate;
 import au.gov.ga.earthsci.worldwind.common.layers.delegate.reader.MaskHelper;
 import au.gov.ga.earthsci.worldwind.common.layers.delegate.reader.MaskHelper.MaskInsideZipDelegate;
+import au.gov.ga.earthsci.worldwind.common.layers.tiled.image.delegate.elevationreader.ElevationGrid.Edge;
+import au.gov.ga.earthsci.worldwind.common.util.DaemonThreadFactory;
 import au.gov.ga.earthsci.worldwind.common.util.IOUtil;
 
 /**
  * Abstract class that acts as a super class of all {@link ITileReaderDelegate}s
  * that generate an image from elevation tiles.
+ * <p/>
+ * Elevations are read into an {@link ElevationGrid}, optionally with a halo of
+ * elevations from the adjacent tiles in the data file store, and the image is
+ * generated from the grid by an {@link ElevationKernel}, in parallel bands of
+ * rows. The edges of recently read tiles are cached, so generating a tile
+ * doesn't usually require its neighbours to be read again.
  * 
  * @author Michael de Hoog (michael.dehoog@ga.gov.au)
  */
@@ -44,12 +65,38 @@ public abstract class ElevationImageReaderDelegate implements ITileReaderDelegat
 {
 	protected final static String doublePattern = "((?:-?\\d*\\.\\d*)|(?:-?\\d+))";
 
+	private static final int THREAD_COUNT = Runtime.getRuntime().availableProcessors();
+	private static final int BANDS_PER_THREAD = 4;
+	private static final ExecutorService bandExecutor = Executors.newFixedThreadPool(THREAD_COUNT,
+			new DaemonThreadFactory("Elevation image generator"));
+
+	/**
+	 * Maximum number of tiles whose edges are cached for filling the halos of
+	 * adjacent tiles
+	 */
+	protected static final int EDGE_CACHE_SIZE = 256;
+
+	/**
+	 * Tolerance used when comparing tile longitudes, which accumulate rounding
+	 * error from the level's tile delta
+	 */
+	private static final double LONGITUDE_EPSILON = 1e-9;
+
 	protected final String pixelType;
 	protected final String byteOrder;
 	protected final double missingDataSignal;
 
 	protected final boolean checkForMask = true;
 
+	private final Map<String, float[][]> edgeCache = new LinkedHashMap<String, float[][]>(16, 0.75f, true)
+	{
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, float[][]> eldest)
+		{
+			return size() > EDGE_CACHE_SIZE;
+		}
+	};
+
 	public ElevationImageReaderDelegate(String pixelType, String byteOrder, double missingDataSignal)
 	{
 		this.pixelType = pixelType;
@@ -72,72 +119,312 @@ public abstract class ElevationImageReaderDelegate implements ITileReaderDelegat
 	 */
 	public BufferedImage readImage(Tile tile, URL url, Globe globe) throws IOException
 	{
-		if (checkForMask)
+		BufferedImage[] mask = new BufferedImage[1];
+		BufferWrapper byteBuffer = readElevations(url, mask);
+		BufferedImage image = generateImage(tile, byteBuffer, globe);
+		if (mask[0] == null)
+			return image;
+		return MaskHelper.compose(image, mask[0]);
+	}
+
+	/**
+	 * Read the elevation data for a tile. If this delegate checks for masks,
+	 * the elevations are read from inside a zip file containing the mask if
+	 * there is one.
+	 * 
+	 * @param url
+	 *            URL of the tile's elevation data
+	 * @param mask
+	 *            Single element array in which to return the tile's mask if
+	 *            there is one; if null, the mask is not read
+	 * @return Wrapped elevation data of the tile
+	 * @throws IOException
+	 *             If the elevation data could not be read
+	 */
+	protected BufferWrapper readElevations(URL url, final BufferedImage[] mask) throws IOException
+	{
+		if (!checkForMask)
+		{
+			return IOUtil.readByteBuffer(url, pixelType, byteOrder);
+		}
+
+		final BufferWrapper[] byteBuffer = new BufferWrapper[1];
+		MaskInsideZipDelegate delegate = new MaskInsideZipDelegate()
 		{
-			final BufferedImage[] mask = new BufferedImage[1];
-			final BufferWrapper[] byteBuffer = new BufferWrapper[1];
-			MaskInsideZipDelegate delegate = new MaskInsideZipDelegate()
+			@Override
+			public void readEntry(ZipEntry entry, ZipInputStream zis) throws IOException
 			{
-				@Override
-				public void readEntry(ZipEntry entry, ZipInputStream zis) throws IOException
+				String lower = entry.getName().toLowerCase();
+				if (lower.endsWith(".png"))
 				{
-					String lower = entry.getName().toLowerCase();
-					if (lower.endsWith(".png"))
+					if (mask != null)
 					{
 						mask[0] = ImageIO.read(zis);
 					}
-					else
-					{
-						byteBuffer[0] = IOUtil.readByteBuffer(zis, pixelType, byteOrder);
-					}
 				}
-			};
-
-			//perform the mask search:
-			URL maskUrl = MaskHelper.getMaskURL(url, 3, delegate);
-			if (mask[0] == null)
-			{
-				try
-				{
-					mask[0] = ImageIO.read(maskUrl);
-				}
-				catch (Exception e)
+				else
 				{
+					byteBuffer[0] = IOUtil.readByteBuffer(zis, pixelType, byteOrder);
 				}
 			}
-			if (byteBuffer[0] == null)
+		};
+
+		//perform the mask search:
+		URL maskUrl = MaskHelper.getMaskURL(url, 3, delegate);
+		if (mask != null && mask[0] == null)
+		{
+			try
+			{
+				mask[0] = ImageIO.read(maskUrl);
+			}
+			catch (Exception e)
 			{
-				byteBuffer[0] = IOUtil.readByteBuffer(url, pixelType, byteOrder);
 			}
-
-			BufferedImage image =
-					generateImage(byteBuffer[0], tile.getWidth(), tile.getHeight(), globe, tile.getSector());
-			if (mask[0] == null)
-				return image;
-			return MaskHelper.compose(image, mask[0]);
 		}
-		else
+		if (byteBuffer[0] == null)
 		{
-			BufferWrapper byteBuffer = IOUtil.readByteBuffer(url, pixelType, byteOrder);
-			return generateImage(byteBuffer, tile.getWidth(), tile.getHeight(), globe, tile.getSector());
+			byteBuffer[0] = IOUtil.readByteBuffer(url, pixelType, byteOrder);
 		}
+		return byteBuffer[0];
 	}
 
 	/**
 	 * Generate an image from elevation data.
 	 * 
+	 * @param tile
+	 *            Tile for which to generate an image
 	 * @param elevations
-	 *            Wrapped elevation data
-	 * @param width
-	 *            Width of the data tile
-	 * @param height
-	 *            Height of the data tile
+	 *            Wrapped elevation data of the tile
 	 * @param globe
 	 *            Current globe
-	 * @param sector
-	 *            Sector of the data tile
 	 * @return Image generated from the elevation data
 	 */
-	protected abstract BufferedImage generateImage(BufferWrapper elevations, int width, int height, Globe globe,
-			Sector sector);
+	protected abstract BufferedImage generateImage(Tile tile, BufferWrapper elevations, Globe globe);
+
+	/**
+	 * Create an elevation grid for a tile.
+	 * 
+	 * @param tile
+	 *            Tile whose elevations are being read
+	 * @param elevations
+	 *            Wrapped elevation data of the tile
+	 * @param fillHalo
+	 *            Should the grid's halo be filled from the adjacent tiles?
+	 * @return Elevation grid for the tile
+	 */
+	protected ElevationGrid createGrid(Tile tile, BufferWrapper elevations, boolean fillHalo)
+	{
+		ElevationGrid grid = new ElevationGrid(elevations, tile.getWidth(), tile.getHeight(), missingDataSignal);
+		if (fillHalo)
+		{
+			cacheEdges(tile.getPath(), grid);
+			for (Edge edge : Edge.values())
+			{
+				grid.setHalo(edge, getAdjacentEdge(tile, edge));
+			}
+		}
+		return grid;
+	}
+
+	/**
+	 * Generate an image the same size as the given grid, calculating the
+	 * pixels with the given kernel. Large grids are split into bands of rows
+	 * which are calculated in parallel.
+	 * 
+	 * @param grid
+	 *            Elevation grid
+	 * @param kernel
+	 *            Kernel that calculates the pixel colours
+	 * @return Generated image
+	 */
+	protected BufferedImage renderImage(final ElevationGrid grid, final ElevationKernel kernel)
+	{
+		int width = grid.getWidth();
+		int height = grid.getHeight();
+		BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+		final int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+
+		int bandCount = THREAD_COUNT > 1 ? Math.min(height, THREAD_COUNT * BANDS_PER_THREAD) : 1;
+		if (bandCount <= 1)
+		{
+			kernel.apply(grid, pixels, 0, height);
+			return image;
+		}
+
+		List<Callable<Object>> bands = new ArrayList<Callable<Object>>(bandCount);
+		for (int i = 0; i < bandCount; i++)
+		{
+			final int startRow = (int) ((long) height * i / bandCount);
+			final int endRow = (int) ((long) height * (i + 1) / bandCount);
+			bands.add(new Callable<Object>()
+			{
+				@Override
+				public Object call() throws Exception
+				{
+					kernel.apply(grid, pixels, startRow, endRow);
+					return null;
+				}
+			});
+		}
+		try
+		{
+			for (Future<Object> future : bandExecutor.invokeAll(bands))
+			{
+				future.get();
+			}
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+		catch (ExecutionException e)
+		{
+			if (e.getCause() instanceof RuntimeException)
+			{
+				throw (RuntimeException) e.getCause();
+			}
+			throw new IllegalStateException(e.getCause());
+		}
+		return image;
+	}
+
+	/**
+	 * Get the elevations along the edge of the tile adjacent to the given
+	 * tile that touches the given edge. The adjacent tile's edges are read
+	 * from the cache, or else from its file in the data file store.
+	 * 
+	 * @param tile
+	 *            Tile whose neighbour to get the edge of
+	 * @param edge
+	 *            Edge of the tile on which the neighbour lies
+	 * @return Elevations along the touching edge of the adjacent tile, or
+	 *         null if the adjacent tile is not available
+	 */
+	protected float[] getAdjacentEdge(Tile tile, Edge edge)
+	{
+		Tile adjacent = getAdjacentTile(tile, edge);
+		if (adjacent == null)
+		{
+			return null;
+		}
+
+		String path = adjacent.getPath();
+		float[][] edges;
+		synchronized (edgeCache)
+		{
+			edges = edgeCache.get(path);
+		}
+		if (edges == null)
+		{
+			URL url = WorldWind.getDataFileStore().findFile(path, false);
+			if (url == null)
+			{
+				//not downloaded yet; the edge is shaded without the neighbour
+				return null;
+			}
+			try
+			{
+				//read through the same path as the tile itself, so that zipped tiles are supported; the
+				//adjacent tile's mask only affects its image's alpha, so it isn't needed for the edge
+				BufferWrapper elevations = readElevations(url, null);
+				if (elevations == null || elevations.length() < adjacent.getWidth() * adjacent.getHeight())
+				{
+					return null;
+				}
+				edges =
+						cacheEdges(path, new ElevationGrid(elevations, adjacent.getWidth(), adjacent.getHeight(),
+								missingDataSignal));
+			}
+			catch (Exception e)
+			{
+				Logging.logger().log(Level.WARNING, "Error reading adjacent elevation tile: " + url, e);
+				return null;
+			}
+		}
+		return edges[edge.opposite().ordinal()];
+	}
+
+	/**
+	 * Create the tile adjacent to the given tile on the given edge, in the
+	 * same level.
+	 * <p/>
+	 * Tiles on the antimeridian are adjacent to the tiles on the other side of
+	 * it, so the east and west neighbours wrap around the globe.
+	 * 
+	 * @param tile
+	 *            Tile whose neighbour to create
+	 * @param edge
+	 *            Edge of the tile on which the neighbour lies
+	 * @return Adjacent tile, or null if the tile is on the north or south edge
+	 *         of the globe, or if the level's tiles don't wrap evenly around
+	 *         the globe
+	 */
+	protected Tile getAdjacentTile(Tile tile, Edge edge)
+	{
+		Sector sector = tile.getSector();
+		double deltaLat = sector.getDeltaLatDegrees() * edge.rowOffset;
+		double deltaLon = sector.getDeltaLonDegrees() * edge.columnOffset;
+		double minLat = sector.getMinLatitude().degrees + deltaLat;
+		double maxLat = sector.getMaxLatitude().degrees + deltaLat;
+		if (minLat < -90 || maxLat > 90)
+		{
+			return null;
+		}
+		double minLon = sector.getMinLongitude().degrees + deltaLon;
+		double maxLon = sector.getMaxLongitude().degrees + deltaLon;
+		int column = tile.getColumn() + edge.columnOffset;
+		if (minLon >= 180 - LONGITUDE_EPSILON || maxLon <= -180 + LONGITUDE_EPSILON)
+		{
+			int columns = getColumnsAroundGlobe(sector.getDeltaLonDegrees());
+			if (columns <= 0)
+			{
+				return null;
+			}
+			double wrap = minLon > 0 ? -360 : 360;
+			minLon += wrap;
+			maxLon += wrap;
+			column = (column % columns + columns) % columns;
+		}
+		Sector adjacentSector = Sector.fromDegrees(minLat, maxLat, minLon, maxLon);
+		return new Tile(adjacentSector, tile.getLevel(), tile.getRow() + edge.rowOffset, column);
+	}
+
+	/**
+	 * Calculate the number of tiles of the given longitudinal size that fit
+	 * around the globe.
+	 * 
+	 * @param tileDeltaLon
+	 *            Longitudinal size of each tile in degrees
+	 * @return Number of tile columns around the globe, or -1 if the tiles
+	 *         don't fit a whole number of times
+	 */
+	static int getColumnsAroundGlobe(double tileDeltaLon)
+	{
+		if (tileDeltaLon <= 0)
+		{
+			return -1;
+		}
+		double columns = 360 / tileDeltaLon;
+		long rounded = Math.round(columns);
+		if (Math.abs(columns - rounded) > LONGITUDE_EPSILON)
+		{
+			return -1;
+		}
+		return (int) rounded;
+	}
+
+	private float[][] cacheEdges(String path, ElevationGrid grid)
+	{
+		Edge[] values = Edge.values();
+		float[][] edges = new float[values.length][];
+		for (Edge edge : values)
+		{
+			edges[edge.ordinal()] = grid.getEdge(edge);
+		}
+		synchronized (edgeCache)
+		{
+			edgeCache.put(path, edges);
+		}
+		return edges;
+	}
 }
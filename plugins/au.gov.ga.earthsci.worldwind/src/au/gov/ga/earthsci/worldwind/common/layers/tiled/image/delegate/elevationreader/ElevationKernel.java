@@ -0,0 +1,41 @@
+/*******************************************************************************
+ * Copyright 2026 Geoscience Australia
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package au.gov.ga.earthsci.worldwind.common.layers.tiled.image.delegate.elevationreader;
+
+/**
+ * Calculates the pixel colours of an image generated from an
+ * {@link ElevationGrid}. Rows of the image are calculated in parallel bands, so
+ * implementations must not modify any shared state.
+ * 
+ * @author Michael de Hoog (michael.dehoog@ga.gov.au)
+ */
+public interface ElevationKernel
+{
+	/**
+	 * Calculate the packed ARGB colours of a band of image rows. The image is
+	 * the same size as the grid (excluding the halo).
+	 * 
+	 * @param grid
+	 *            Elevations to calculate the colours from
+	 * @param pixels
+	 *            Image pixels, row by row from the north
+	 * @param startRow
+	 *            First row to calculate
+	 * @param endRow
+	 *            Row after the last row to calculate
+	 */
+	void apply(ElevationGrid grid, int[] pixels, int startRow, int endRow);
+}
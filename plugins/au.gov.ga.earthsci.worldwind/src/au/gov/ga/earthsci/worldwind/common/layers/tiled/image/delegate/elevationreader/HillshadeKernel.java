@@ -0,0 +1,143 @@
+/*******************************************************************************
+ * Copyright 2026 Geoscience Australia
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package au.gov.ga.earthsci.worldwind.common.layers.tiled.image.delegate.elevationreader;
+
+/**
+ * {@link ElevationKernel} that shades each sample by the dot product of the
+ * surface normal and a sun vector.
+ * <p/>
+ * Normals are calculated in (latitude, longitude, scaled elevation) space from
+ * the central differences of the adjacent samples, including the halo, so
+ * samples on the tile edges are shaded the same as they would be in the
+ * middle of a tile. Where one of the adjacent samples is missing, a one-sided
+ * difference is used instead; samples that are missing, or that have no
+ * adjacent samples in either the row or the column, are transparent.
+ * 
+ * @author Michael de Hoog (michael.dehoog@ga.gov.au)
+ */
+public class HillshadeKernel implements ElevationKernel
+{
+	private final double deltaLat;
+	private final double deltaLon;
+	private final double elevationScale;
+	private final double sunX;
+	private final double sunY;
+	private final double sunZ;
+	private final float minElevation;
+	private final float maxElevation;
+
+	/**
+	 * @param deltaLat
+	 *            Latitude between sample rows
+	 * @param deltaLon
+	 *            Longitude between sample columns
+	 * @param elevationScale
+	 *            Scale to apply to the elevations (in the same units as the
+	 *            latitude and longitude)
+	 * @param sunX
+	 * @param sunY
+	 * @param sunZ
+	 *            Normalized sun vector, in (latitude, longitude, elevation)
+	 *            space
+	 * @param minElevation
+	 *            Minimum valid elevation; lower samples are treated as missing
+	 * @param maxElevation
+	 *            Maximum valid elevation; higher samples are treated as missing
+	 */
+	public HillshadeKernel(double deltaLat, double deltaLon, double elevationScale, double sunX, double sunY,
+			double sunZ, double minElevation, double maxElevation)
+	{
+		this.deltaLat = deltaLat;
+		this.deltaLon = deltaLon;
+		this.elevationScale = elevationScale;
+		this.sunX = sunX;
+		this.sunY = sunY;
+		this.sunZ = sunZ;
+		this.minElevation = (float) Math.max(-Float.MAX_VALUE, minElevation);
+		this.maxElevation = (float) Math.min(Float.MAX_VALUE, maxElevation);
+	}
+
+	@Override
+	public void apply(ElevationGrid grid, int[] pixels, int startRow, int endRow)
+	{
+		float[] values = grid.getValues();
+		int width = grid.getWidth();
+		int stride = grid.getStride();
+
+		//the normal of the plane through the central differences is (dlon * dzNorth, dlat * dzEast, -dlat * dlon),
+		//where dzNorth and dzEast are the scaled elevation changes over one sample to the north and east
+		double nz = -deltaLat * deltaLon;
+		double nzSquared = nz * nz;
+
+		for (int y = startRow; y < endRow; y++)
+		{
+			int index = grid.index(0, y);
+			int pixel = y * width;
+			for (int x = 0; x < width; x++, index++, pixel++)
+			{
+				float z = values[index];
+				if (!isValid(z))
+				{
+					pixels[pixel] = 0;
+					continue;
+				}
+
+				double dzEast = difference(values[index - 1], z, values[index + 1]);
+				double dzNorth = difference(values[index + stride], z, values[index - stride]);
+				if (Double.isNaN(dzEast) || Double.isNaN(dzNorth))
+				{
+					pixels[pixel] = 0;
+					continue;
+				}
+
+				double nx = deltaLon * dzNorth * elevationScale;
+				double ny = deltaLat * dzEast * elevationScale;
+				double dot = (nx * sunX + ny * sunY + nz * sunZ) / Math.sqrt(nx * nx + ny * ny + nzSquared);
+				int light = dot > 0 ? (int) (255.0 * dot) : 0;
+				pixels[pixel] = 0xff000000 | light << 16 | light << 8 | light;
+			}
+		}
+	}
+
+	private boolean isValid(float elevation)
+	{
+		//NaN fails both comparisons
+		return elevation >= minElevation && elevation <= maxElevation;
+	}
+
+	/**
+	 * @return The change in elevation over one sample from <code>before</code>
+	 *         to <code>after</code>, or NaN if neither neighbour is valid
+	 */
+	private double difference(float before, float centre, float after)
+	{
+		boolean hasBefore = isValid(before);
+		boolean hasAfter = isValid(after);
+		if (hasBefore && hasAfter)
+		{
+			return (after - before) * 0.5;
+		}
+		if (hasAfter)
+		{
+			return after - centre;
+		}
+		if (hasBefore)
+		{
+			return centre - before;
+		}
+		return Double.NaN;
+	}
+}
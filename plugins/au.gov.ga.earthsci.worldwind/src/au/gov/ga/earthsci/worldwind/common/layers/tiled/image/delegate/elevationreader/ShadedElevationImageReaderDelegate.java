@@ -17,11 +17,11 @@ package au.gov.ga.earthsci.worldwind.common.layers.tiled.image.delegate.elevatio
 
 import gov.nasa.worldwind.avlist.AVKey;
 import gov.nasa.worldwind.avlist.AVList;
-import gov.nasa.worldwind.geom.Angle;
 import gov.nasa.worldwind.geom.Sector;
 import gov.nasa.worldwind.geom.Vec4;
 import gov.nasa.worldwind.globes.Globe;
 import gov.nasa.worldwind.util.BufferWrapper;
+import gov.nasa.worldwind.util.Tile;
 import gov.nasa.worldwind.util.WWXML;
 
 import java.awt.image.BufferedImage;
@@ -60,7 +60,7 @@ import au.gov.ga.earthsci.worldwind.common.layers.delegate.IDelegate;
  * when calculating shading (in metres as doubles)
  * </ul>
  * Shading is calculated as a simple dot product between the calculated normals
- * of the elevation model and the sun vector.
+ * of the elevation model and the sun vector, using the {@link HillshadeKernel}.
  * 
  * @author Michael de Hoog (michael.dehoog@ga.gov.au)
  */
@@ -137,103 +137,17 @@ public class ShadedElevationImageReaderDelegate extends ElevationImageReaderDele
 	}
 
 	@Override
-	protected BufferedImage generateImage(BufferWrapper elevations, int width, int height, Globe globe, Sector sector)
+	protected BufferedImage generateImage(Tile tile, BufferWrapper elevations, Globe globe)
 	{
-		//image has one less in width and height than verts array, because normals are calculated using neighbors
-		//it would be optimal to read the neighboring tiles for normals on tile edges; this would fix visible tile edges
-
-		BufferedImage image = new BufferedImage(width - 1, height - 1, BufferedImage.TYPE_INT_ARGB);
-
-		Vec4[] verts =
-				calculateTileVerts(width, height, sector, elevations, missingDataSignal, exaggeration * 0.000005);
-		Vec4[] normals = calculateNormals(width, height, verts);
-
-		for (int y = 0, i = 0; y < height - 1; y++)
-		{
-			for (int x = 0; x < width - 1; x++, i++)
-			{
-				int argb = 0;
-				Vec4 normal = normals[i];
-				if (normal != null)
-				{
-					double light = Math.max(0d, normal.dot3(sunPosition));
-
-					int r = (int) (255.0 * light);
-					int g = (int) (255.0 * light);
-					int b = (int) (255.0 * light);
-
-					argb = (0xff) << 24 | (r & 0xff) << 16 | (g & 0xff) << 8 | (b & 0xff);
-				}
-				image.setRGB(x, y, argb);
-			}
-		}
-
-		return image;
-	}
-
-	protected Vec4[] calculateTileVerts(int width, int height, Sector sector, BufferWrapper elevations,
-			double missingDataSignal, double exaggeration)
-	{
-		Vec4[] verts = new Vec4[width * height];
-		double dlon = sector.getDeltaLonDegrees() / width;
-		double dlat = sector.getDeltaLatDegrees() / height;
-
-		for (int y = 0, i = 0; y < height; y++)
-		{
-			Angle lat = sector.getMaxLatitude().subtractDegrees(dlat * y);
-			for (int x = 0; x < width; x++, i++)
-			{
-				Angle lon = sector.getMinLongitude().addDegrees(dlon * x);
-				double elevation = elevations.getDouble(i);
-				if (elevation != missingDataSignal && minElevation <= elevation && elevation <= maxElevation)
-				{
-					verts[i] = new Vec4(lat.degrees, lon.degrees, elevation * exaggeration);
-				}
-			}
-		}
-
-		return verts;
-	}
-
-	protected Vec4[] calculateNormals(int width, int height, Vec4[] verts)
-	{
-		Vec4[] norms = new Vec4[(width - 1) * (height - 1)];
-		for (int y = 0, i = 0; y < height - 1; y++)
-		{
-			for (int x = 0; x < width - 1; x++, i++)
-			{
-				//v0-v1
-				//|
-				//v2
-
-				int vertIndex = width * y + x;
-				Vec4 v0 = verts[vertIndex];
-				if (v0 != null)
-				{
-					Vec4 v1 = verts[vertIndex + 1];
-					Vec4 v2 = verts[vertIndex + width];
-
-					norms[i] = v1 != null && v2 != null ? v1.subtract3(v0).cross3(v0.subtract3(v2)).normalize3() : null;
-				}
-			}
-		}
-		return norms;
-	}
-
-	protected double[] getMinMax(BufferWrapper elevations, double missingDataSignal)
-	{
-		double min = Double.MAX_VALUE;
-		double max = -Double.MAX_VALUE;
-		for (int i = 0; i < elevations.length(); i++)
-		{
-			double value = elevations.getDouble(i);
-			if (value != missingDataSignal)
-			{
-				min = Math.min(min, value);
-				max = Math.max(max, value);
-			}
-		}
-
-		return new double[] { min, max };
+		//the halo of elevations from the adjacent tiles lets the normals on the tile edges be calculated with
+		//the same central differences as the rest of the tile, so there are no visible seams between tiles
+		ElevationGrid grid = createGrid(tile, elevations, true);
+		Sector sector = tile.getSector();
+		double dlat = sector.getDeltaLatDegrees() / tile.getHeight();
+		double dlon = sector.getDeltaLonDegrees() / tile.getWidth();
+		HillshadeKernel kernel =
+				new HillshadeKernel(dlat, dlon, exaggeration * 0.000005, sunPosition.x, sunPosition.y,
+						sunPosition.z, minElevation, maxElevation);
+		return renderImage(grid, kernel);
 	}
 }
@@ -54,6 +54,7 @@ import org.gdal.osr.CoordinateTransformation;
 import au.gov.ga.earthsci.worldwind.common.WorldWindowRegistry;
 import au.gov.ga.earthsci.worldwind.common.layers.Bounds;
 import au.gov.ga.earthsci.worldwind.common.layers.Wireframeable;
+import au.gov.ga.earthsci.worldwind.common.layers.volume.VolumeSliceRenderer.Slice;
 import au.gov.ga.earthsci.worldwind.common.render.fastshape.FastShape;
 import au.gov.ga.earthsci.worldwind.common.render.fastshape.FastShapeRenderListener;
 import au.gov.ga.earthsci.worldwind.common.util.AVKeyMore;
@@ -88,6 +89,7 @@ public class BasicVolumeLayer extends AbstractLayer implements VolumeLayer, Wire
 
 	protected final Object dataLock = new Object();
 	protected boolean dataAvailable = false;
+	protected VolumeSliceRenderer sliceRenderer;
 	protected FastShape topSurface, bottomSurface;
 	protected TopBottomFastShape minXCurtain, maxXCurtain, minYCurtain, maxYCurtain;
 	protected FastShape boundingBoxShape;
@@ -251,6 +253,17 @@ public class BasicVolumeLayer extends AbstractLayer implements VolumeLayer, Wire
 	 */
 	protected void calculateSurfaces()
 	{
+		sliceRenderer = new VolumeSliceRenderer(dataProvider, colorMap, noDataColor);
+		sliceRenderer.setListener(new VolumeSliceRenderer.Listener()
+		{
+			@Override
+			public void sliceRendered(VolumeSliceRenderer renderer, Object key)
+			{
+				//redraw so that the new slice texture is applied
+				firePropertyChange(AVKey.LAYER, null, BasicVolumeLayer.this);
+			}
+		});
+
 		double topElevation = 0;
 		double bottomElevation = -dataProvider.getDepth();
 
@@ -343,94 +356,123 @@ public class BasicVolumeLayer extends AbstractLayer implements VolumeLayer, Wire
 		int maxYSlice = ySize - 1 - maxYOffset;
 		int bottomSlice = zSize - 1 - bottomOffset;
 
-		//only recalculate those that have changed
-		boolean recalculateMinX = lastMinXOffset != minXOffset;
-		boolean recalculateMaxX = lastMaxXOffset != maxXOffset;
-		boolean recalculateMinY = lastMinYOffset != minYOffset;
-		boolean recalculateMaxY = lastMaxYOffset != maxYOffset;
-		boolean recalculateTop = lastTopOffset != topOffset;
-		boolean recalculateBottom = lastBottomOffset != bottomOffset;
-
 		Dimension xTextureSize = new Dimension(ySize, zSize);
 		Dimension yTextureSize = new Dimension(xSize, zSize);
 		Dimension zTextureSize = new Dimension(xSize, ySize);
-		double topPercent = dataProvider.getSliceElevationPercent(topOffset);
-		double bottomPercent = dataProvider.getSliceElevationPercent(bottomSlice);
 
-		if (recalculateMinX)
+		//request textures for the slices that have moved; these are rendered in the background, and each
+		//surface is moved when its texture is ready (slices never rendered before are rendered immediately)
+		Slice minX = updateSlice(minXTexture, 0, minXOffset, lastMinXOffset < 0, xTextureSize);
+		Slice maxX = updateSlice(maxXTexture, 0, maxXSlice, lastMaxXOffset < 0, xTextureSize);
+		Slice minY = updateSlice(minYTexture, 1, minYOffset, lastMinYOffset < 0, yTextureSize);
+		Slice maxY = updateSlice(maxYTexture, 1, maxYSlice, lastMaxYOffset < 0, yTextureSize);
+		Slice top = updateSlice(topTexture, 2, topOffset, lastTopOffset < 0, zTextureSize);
+		Slice bottom = updateSlice(bottomTexture, 2, bottomSlice, lastBottomOffset < 0, zTextureSize);
+
+		if (minX != null)
 		{
 			minXClipDirty = true;
 
-			TopBottomFastShape newMinXCurtain = dataProvider.createXCurtain(minXOffset);
+			TopBottomFastShape newMinXCurtain = dataProvider.createXCurtain(minX.getPosition());
 			minXCurtain.setPositions(newMinXCurtain.getPositions());
 
-			updateTexture(generateTexture(0, minXOffset, xTextureSize), minXTexture, minXCurtain);
-			lastMinXOffset = minXOffset;
+			updateTexture(minX.getImage(), minXTexture, minXCurtain);
+			lastMinXOffset = minX.getPosition();
 		}
-		if (recalculateMaxX)
+		if (maxX != null)
 		{
 			maxXClipDirty = true;
 
-			TopBottomFastShape newMaxXCurtain = dataProvider.createXCurtain(xSize - 1 - maxXOffset);
+			TopBottomFastShape newMaxXCurtain = dataProvider.createXCurtain(maxX.getPosition());
 			maxXCurtain.setPositions(newMaxXCurtain.getPositions());
 
-			updateTexture(generateTexture(0, maxXSlice, xTextureSize), maxXTexture, maxXCurtain);
-			lastMaxXOffset = maxXOffset;
+			updateTexture(maxX.getImage(), maxXTexture, maxXCurtain);
+			lastMaxXOffset = xSize - 1 - maxX.getPosition();
 		}
-		if (recalculateMinY)
+		if (minY != null)
 		{
 			minYClipDirty = true;
 
-			TopBottomFastShape newMinYCurtain = dataProvider.createYCurtain(minYOffset);
+			TopBottomFastShape newMinYCurtain = dataProvider.createYCurtain(minY.getPosition());
 			minYCurtain.setPositions(newMinYCurtain.getPositions());
 
-			updateTexture(generateTexture(1, minYOffset, yTextureSize), minYTexture, minYCurtain);
-			lastMinYOffset = minYOffset;
+			updateTexture(minY.getImage(), minYTexture, minYCurtain);
+			lastMinYOffset = minY.getPosition();
 		}
-		if (recalculateMaxY)
+		if (maxY != null)
 		{
 			maxYClipDirty = true;
 
-			TopBottomFastShape newMaxYCurtain = dataProvider.createYCurtain(ySize - 1 - maxYOffset);
+			TopBottomFastShape newMaxYCurtain = dataProvider.createYCurtain(maxY.getPosition());
 			maxYCurtain.setPositions(newMaxYCurtain.getPositions());
 
-			updateTexture(generateTexture(1, maxYSlice, yTextureSize), maxYTexture, maxYCurtain);
-			lastMaxYOffset = maxYOffset;
+			updateTexture(maxY.getImage(), maxYTexture, maxYCurtain);
+			lastMaxYOffset = ySize - 1 - maxY.getPosition();
 		}
-		if (recalculateTop)
+		if (top != null)
 		{
 			topClipDirty = true;
-			double elevation = -dataProvider.getDepth() * topPercent;
+			double elevation = -dataProvider.getDepth() * dataProvider.getSliceElevationPercent(top.getPosition());
 
-			updateTexture(generateTexture(2, topOffset, zTextureSize), topTexture, topSurface);
-			lastTopOffset = topOffset;
+			updateTexture(top.getImage(), topTexture, topSurface);
+			lastTopOffset = top.getPosition();
 
 			topSurface.setElevation(elevation);
 			minXCurtain.setTopElevationOffset(elevation);
 			maxXCurtain.setTopElevationOffset(elevation);
 			minYCurtain.setTopElevationOffset(elevation);
 			maxYCurtain.setTopElevationOffset(elevation);
-
-			recalculateTextureMatrix(topPercent, bottomPercent);
 		}
-		if (recalculateBottom)
+		if (bottom != null)
 		{
 			bottomClipDirty = true;
-			double elevation = -dataProvider.getDepth() * bottomPercent;
+			double elevation = -dataProvider.getDepth() * dataProvider.getSliceElevationPercent(bottom.getPosition());
 
-			updateTexture(generateTexture(2, bottomSlice, zTextureSize), bottomTexture, bottomSurface);
-			lastBottomOffset = bottomOffset;
+			updateTexture(bottom.getImage(), bottomTexture, bottomSurface);
+			lastBottomOffset = zSize - 1 - bottom.getPosition();
 
 			bottomSurface.setElevation(elevation);
 			minXCurtain.setBottomElevationOffset(elevation);
 			maxXCurtain.setBottomElevationOffset(elevation);
 			minYCurtain.setBottomElevationOffset(elevation);
 			maxYCurtain.setBottomElevationOffset(elevation);
-
+		}
+		if (top != null || bottom != null)
+		{
+			double topPercent = dataProvider.getSliceElevationPercent(lastTopOffset);
+			double bottomPercent = dataProvider.getSliceElevationPercent(zSize - 1 - lastBottomOffset);
 			recalculateTextureMatrix(topPercent, bottomPercent);
 		}
 	}
 
+	/**
+	 * Request the texture for a slice surface, returning the latest slice
+	 * texture that has been rendered for the surface, if any.
+	 * 
+	 * @param texture
+	 *            Texture of the slice surface
+	 * @param axis
+	 *            Slicing axis
+	 * @param position
+	 *            Position at which to slice
+	 * @param immediate
+	 *            Should the slice be rendered immediately, rather than in the
+	 *            background?
+	 * @param size
+	 *            Size of the texture
+	 * @return Latest slice rendered for the surface, or null if there is none
+	 *         that hasn't already been applied
+	 */
+	protected Slice updateSlice(TextureRenderer texture, int axis, int position, boolean immediate, Dimension size)
+	{
+		if (immediate)
+		{
+			return sliceRenderer.renderNow(texture, axis, position, size);
+		}
+		sliceRenderer.request(texture, axis, position, size);
+		return sliceRenderer.poll(texture);
+	}
+
 	/**
 	 * Recalculate the curtain texture matrix. When the top and bottom surface
 	 * offsets aren't 0, the OpenGL texture matrix is used to offset the curtain
@@ -484,21 +526,21 @@ public class BasicVolumeLayer extends AbstractLayer implements VolumeLayer, Wire
 			return;
 		}
 
-		int maxXSlice = dataProvider.getXSize() - 1 - maxXOffset;
-		int maxYSlice = dataProvider.getYSize() - 1 - maxYOffset;
-		int bottomSlice = dataProvider.getZSize() - 1 - bottomOffset;
+		int maxXSlice = dataProvider.getXSize() - 1 - lastMaxXOffset;
+		int maxYSlice = dataProvider.getYSize() - 1 - lastMaxYOffset;
+		int bottomSlice = dataProvider.getZSize() - 1 - lastBottomOffset;
 
 		double top = dataProvider.getTop();
 		double depth = dataProvider.getDepth();
 
-		double topPercent = dataProvider.getSliceElevationPercent(topOffset);
+		double topPercent = dataProvider.getSliceElevationPercent(lastTopOffset);
 		double bottomPercent = dataProvider.getSliceElevationPercent(bottomSlice);
 		double topElevation = top - topPercent * depth;
 		double bottomElevation = top - bottomPercent * depth;
 
-		Position swPosTop = dataProvider.getPosition(minXOffset, minYOffset);
-		Position nwPosTop = dataProvider.getPosition(minXOffset, maxYSlice);
-		Position sePosTop = dataProvider.getPosition(maxXSlice, minYOffset);
+		Position swPosTop = dataProvider.getPosition(lastMinXOffset, lastMinYOffset);
+		Position nwPosTop = dataProvider.getPosition(lastMinXOffset, maxYSlice);
+		Position sePosTop = dataProvider.getPosition(maxXSlice, lastMinYOffset);
 		Position nePosTop = dataProvider.getPosition(maxXSlice, maxYSlice);
 
 		if (depth != 0 && dc.getVerticalExaggeration() > 0)
@@ -541,28 +583,28 @@ public class BasicVolumeLayer extends AbstractLayer implements VolumeLayer, Wire
 
 		if (minX)
 		{
-			Position middlePos = dataProvider.getPosition(minXOffset, (maxYSlice + minYOffset) / 2);
+			Position middlePos = dataProvider.getPosition(lastMinXOffset, (maxYSlice + lastMinYOffset) / 2);
 			middlePos = midpointPositionIfEqual(middlePos, nwPosTop, swPosTop);
 			insertClippingPlaneForLatLons(dc, topClippingPlanes, 0, middlePos, nwPosTop, swPosTop, topElevation);
 			insertClippingPlaneForLatLons(dc, bottomClippingPlanes, 0, middlePos, nwPosTop, swPosTop, bottomElevation);
 		}
 		if (maxX)
 		{
-			Position middlePos = dataProvider.getPosition(maxXSlice, (maxYSlice + minYOffset) / 2);
+			Position middlePos = dataProvider.getPosition(maxXSlice, (maxYSlice + lastMinYOffset) / 2);
 			middlePos = midpointPositionIfEqual(middlePos, sePosTop, nePosTop);
 			insertClippingPlaneForLatLons(dc, topClippingPlanes, 4, middlePos, sePosTop, nePosTop, topElevation);
 			insertClippingPlaneForLatLons(dc, bottomClippingPlanes, 4, middlePos, sePosTop, nePosTop, bottomElevation);
 		}
 		if (minY)
 		{
-			Position middlePos = dataProvider.getPosition((maxXSlice + minXOffset) / 2, minYOffset);
+			Position middlePos = dataProvider.getPosition((maxXSlice + lastMinXOffset) / 2, lastMinYOffset);
 			middlePos = midpointPositionIfEqual(middlePos, swPosTop, sePosTop);
 			insertClippingPlaneForLatLons(dc, topClippingPlanes, 8, middlePos, swPosTop, sePosTop, topElevation);
 			insertClippingPlaneForLatLons(dc, bottomClippingPlanes, 8, middlePos, swPosTop, sePosTop, bottomElevation);
 		}
 		if (maxY)
 		{
-			Position middlePos = dataProvider.getPosition((maxXSlice + minXOffset) / 2, maxYSlice);
+			Position middlePos = dataProvider.getPosition((maxXSlice + lastMinXOffset) / 2, maxYSlice);
 			middlePos = midpointPositionIfEqual(middlePos, nePosTop, nwPosTop);
 			insertClippingPlaneForLatLons(dc, topClippingPlanes, 12, middlePos, nePosTop, nwPosTop, topElevation);
 			insertClippingPlaneForLatLons(dc, bottomClippingPlanes, 12, middlePos, nePosTop, nwPosTop, bottomElevation);
@@ -681,6 +723,9 @@ public class BasicVolumeLayer extends AbstractLayer implements VolumeLayer, Wire
 	 * Generate a texture slice through the volume at the given position. Uses a
 	 * {@link ColorMap} to map values to colors (or simply interpolates the hue
 	 * if no colormap is provided - assumes values between 0 and 1).
+	 * <p/>
+	 * Blocks until the slice is generated; see {@link VolumeSliceRenderer} for
+	 * generating slices in the background.
 	 * 
 	 * @param axis
 	 *            Slicing axis (0 for a longitude slice, 1 for a latitude slice,
@@ -694,56 +739,7 @@ public class BasicVolumeLayer extends AbstractLayer implements VolumeLayer, Wire
 	 */
 	protected BufferedImage generateTexture(int axis, int position, Dimension size)
 	{
-		int zSubsamples = dataProvider.getZSubsamples();
-		boolean subsample = axis != 2 && zSubsamples > 1;
-		int height = size.height;
-		if (subsample)
-		{
-			height *= zSubsamples;
-		}
-
-		BufferedImage image = new BufferedImage(size.width, height, BufferedImage.TYPE_INT_ARGB);
-		float minimum = dataProvider.getMinValue();
-		float maximum = dataProvider.getMaxValue();
-		for (int y = 0; y < height; y++)
-		{
-			for (int x = 0; x < size.width; x++)
-			{
-				int vx = axis == 2 ? x : axis == 1 ? x : position;
-				int vy = axis == 2 ? y : axis == 1 ? position : x;
-				int vz = axis == 2 ? position : y;
-				float value;
-				if (subsample)
-				{
-					double percent = y / (double) (height - 1);
-					double z = dataProvider.getElevationPercentSlice(percent);
-					int z1 = (int) Math.floor(z);
-					int z2 = (int) Math.ceil(z);
-					float value1 = dataProvider.getValue(vx, vy, z1);
-					float value2 = dataProvider.getValue(vx, vy, z2);
-					float zp = (float) (z % 1.0);
-					value = value1 * (1f - zp) + value2 * zp;
-				}
-				else
-				{
-					value = dataProvider.getValue(vx, vy, vz);
-				}
-				int rgb = noDataColor != null ? noDataColor.getRGB() : 0;
-				if (value != dataProvider.getNoDataValue())
-				{
-					if (colorMap != null)
-					{
-						rgb = colorMap.calculateColorNotingIsValuesPercentages(value, minimum, maximum).getRGB();
-					}
-					else
-					{
-						rgb = Color.HSBtoRGB(-0.3f - value * 0.7f, 1.0f, 1.0f);
-					}
-				}
-				image.setRGB(x, y, rgb);
-			}
-		}
-		return image;
+		return sliceRenderer.render(axis, position, size);
 	}
 
 	/**
@@ -834,9 +830,9 @@ public class BasicVolumeLayer extends AbstractLayer implements VolumeLayer, Wire
 			recalculateClippingPlanes(dc);
 
 			//when only one slice is shown in any given direction, only one of the curtains needs to be rendered
-			boolean singleXSlice = dataProvider.getXSize() - minXOffset - maxXOffset <= 1;
-			boolean singleYSlice = dataProvider.getYSize() - minYOffset - maxYOffset <= 1;
-			boolean singleZSlice = dataProvider.getZSize() - topOffset - bottomOffset <= 1;
+			boolean singleXSlice = dataProvider.getXSize() - lastMinXOffset - lastMaxXOffset <= 1;
+			boolean singleYSlice = dataProvider.getYSize() - lastMinYOffset - lastMaxYOffset <= 1;
+			boolean singleZSlice = dataProvider.getZSize() - lastTopOffset - lastBottomOffset <= 1;
 			boolean anySingleSlice = singleXSlice || singleYSlice || singleZSlice;
 			FastShape[] shapes =
 					anySingleSlice ? new FastShape[] { singleXSlice ? maxXCurtain : singleYSlice ? minYCurtain
@@ -908,10 +904,10 @@ public class BasicVolumeLayer extends AbstractLayer implements VolumeLayer, Wire
 
 	protected void setupClippingPlanes(DrawContext dc, boolean top, boolean bottom)
 	{
-		boolean minX = minXOffset > 0;
-		boolean maxX = maxXOffset > 0;
-		boolean minY = minYOffset > 0;
-		boolean maxY = maxYOffset > 0;
+		boolean minX = lastMinXOffset > 0;
+		boolean maxX = lastMaxXOffset > 0;
+		boolean minY = lastMinYOffset > 0;
+		boolean maxY = lastMaxYOffset > 0;
 
 		boolean[] enabled;
 		double[] array;
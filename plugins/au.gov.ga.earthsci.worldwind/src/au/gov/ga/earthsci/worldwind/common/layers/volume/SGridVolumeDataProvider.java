@@ -24,8 +24,12 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.FloatBuffer;
+import java.nio.channels.FileChannel.MapMode;
 import java.util.ArrayList;
 import java.util.Enumeration;
 import java.util.List;
@@ -162,6 +166,7 @@ public class SGridVolumeDataProvider extends AbstractVolumeDataProvider
 	{
 		//this method assumes that the z values are the last axis to change in the data
 
+		data = FloatBuffer.allocate(totalNumberDataPoints());
 		InputStream dataInputStream = null;
 		try
 		{
@@ -297,37 +302,36 @@ public class SGridVolumeDataProvider extends AbstractVolumeDataProvider
 
 	/**
 	 * Load SGrid data from binary points and flags files
+	 * <p/>
+	 * If the source is a local file, the files are memory-mapped rather than
+	 * decoded value by value. Only the points required to calculate the
+	 * volume's positions are read, and the painted property values are exposed
+	 * as a read-only view of the mapped property file. The property values are
+	 * only copied onto the heap if they require conversion (i.e. the property
+	 * isn't in IEEE format), or if the source is within a zip file.
 	 */
 	private void readBinaryDataFile(Object source) throws IOException
 	{
-		InputStream pointsInputStream = null;
-		InputStream propertiesInputStream = null;
+		PointReader pointReader = null;
 		try
 		{
-			pointsInputStream = openSGridDataStream(source, pointsDataFile);
-			FloatReader pointsReader = FloatReader.Builder.newFloatReaderForStream(pointsInputStream)
-					.withGroupSize(3)
-					.withOffset(pointsOffset)
-					.build();
+			pointReader = openPointReader(source);
 
 			CoordinateTransformation transformation = layer.getCoordinateTransformation();
 			double firstXValue = 0, firstYValue = 0, firstZValue = 0;
 			double[] transformed = new double[3];
 			float[] coords = new float[3];
 			int zSlice = 0;
-			for (int positionIndex = 0; positionIndex < totalNumberOfPositions(); positionIndex++)
-			{
-				boolean newZValue = positionIndex % (xSize * ySize) == 0;
+			int sliceSize = xSize * ySize;
 
-				// We only care about a specific subset of points (bottom slice and first point on the top slice).
-				// All other points can be ignored
-				if ((positionIndex >= xSize * ySize) && (positionIndex != xSize * ySize * (zSize - 1)) && !newZValue)
-				{
-					pointsReader.skipToNextGroup();
-					continue;
-				}
+			// We only care about a specific subset of points (the first slice, and the first point on each
+			// subsequent slice, which includes the bottom slice). All other points can be ignored
+			for (int positionIndex = 0; positionIndex < totalNumberOfPositions(); positionIndex +=
+					positionIndex < sliceSize ? 1 : sliceSize)
+			{
+				boolean newZValue = positionIndex % sliceSize == 0;
 
-				pointsReader.readNextValues(coords);
+				pointReader.readPoint(positionIndex, coords);
 
 				//transform the point;
 				if (transformation != null)
@@ -339,11 +343,11 @@ public class SGridVolumeDataProvider extends AbstractVolumeDataProvider
 				}
 
 				//only store the first width*height positions (the rest are evenly spaced at different depths)
-				if (positionIndex < xSize * ySize)
+				if (positionIndex < sliceSize)
 				{
 					Position position = Position.fromDegrees(coords[1], coords[0], coords[2]);
 					positions.add(position);
-					top += coords[2] / (xSize * ySize);
+					top += coords[2] / sliceSize;
 
 					//update the sector to include this latitude/longitude
 					updateSectorToIncludePosition(position);
@@ -365,7 +369,7 @@ public class SGridVolumeDataProvider extends AbstractVolumeDataProvider
 					//second y value
 					reverseY = coords[1] < firstYValue;
 				}
-				else if (positionIndex == xSize * ySize * (zSize - 1))
+				else if (positionIndex == sliceSize * (zSize - 1))
 				{
 					//positionIndex is the same x/y as 0, but at the bottom elevation instead of top,
 					//so we can calculate the depth as the difference between the two elevations
@@ -379,38 +383,135 @@ public class SGridVolumeDataProvider extends AbstractVolumeDataProvider
 					zValues[zSlice++] = coords[2];
 				}
 			}
+		}
+		finally
+		{
+			if (pointReader != null)
+			{
+				pointReader.close();
+			}
+		}
+
+		// Read the painted property from the nominated property file
+		GocadPropertyDefinition paintedProperty = getPaintedProperty();
+		data = mapPropertyData(source, paintedProperty);
+		if (data == null)
+		{
+			data = readPropertyData(source, paintedProperty);
+		}
 
-			// Read the painted property from the nominated property file
-			GocadPropertyDefinition paintedProperty = getPaintedProperty();
-			propertiesInputStream = openSGridDataStream(source, paintedProperty.getFile());
+		for (int i = 0; i < data.limit(); i++)
+		{
+			float value = data.get(i);
+			minValue = Math.min(minValue, value);
+			maxValue = Math.max(maxValue, value);
+		}
+	}
+
+	/**
+	 * Memory-map the painted property values from a local property file.
+	 * 
+	 * @return A read-only view of the property values, or <code>null</code>
+	 *         if the property file cannot be mapped
+	 */
+	private FloatBuffer mapPropertyData(Object source, GocadPropertyDefinition property) throws IOException
+	{
+		if (!(source instanceof File) || FloatFormat.valueOf(property.getType()) != FloatFormat.IEEE)
+		{
+			return null;
+		}
+
+		long length = (long) totalNumberDataPoints() * 4;
+		ByteBuffer mapped = mapDataFile((File) source, property.getFile(), property.getOffset(), length);
+		return mapped == null ? null : mapped.asFloatBuffer();
+	}
+
+	/**
+	 * Read the painted property values from the property file into a heap
+	 * buffer, converting them to IEEE floats if required.
+	 */
+	private FloatBuffer readPropertyData(Object source, GocadPropertyDefinition property) throws IOException
+	{
+		InputStream propertiesInputStream = openSGridDataStream(source, property.getFile());
+		try
+		{
 			FloatReader propertiesReader = FloatReader.Builder.newFloatReaderForStream(propertiesInputStream)
 					.withGroupSize(1)
-					.withOffset(paintedProperty.getOffset())
-					.withFormat(FloatFormat.valueOf(paintedProperty.getType()))
+					.withOffset(property.getOffset())
+					.withFormat(FloatFormat.valueOf(property.getType()))
 					.build();
 
+			FloatBuffer result = FloatBuffer.allocate(totalNumberDataPoints());
 			float[] value = new float[1];
 			for (int positionIndex = 0; positionIndex < totalNumberDataPoints(); positionIndex++)
 			{
 				propertiesReader.readNextValues(value);
-
-				data.put(value[0]);
-
-				minValue = Math.min(minValue, value[0]);
-				maxValue = Math.max(maxValue, value[0]);
+				result.put(value[0]);
 			}
+			return result;
 		}
 		finally
 		{
-			if (pointsInputStream != null)
-			{
-				pointsInputStream.close();
-			}
-			if (propertiesInputStream != null)
+			propertiesInputStream.close();
+		}
+	}
+
+	/**
+	 * Open a reader for the points in the points data file, using a memory
+	 * mapping if possible.
+	 */
+	private PointReader openPointReader(Object source) throws IOException
+	{
+		if (source instanceof File)
+		{
+			long length = (long) totalNumberOfPositions() * 3 * 4;
+			ByteBuffer mapped = mapDataFile((File) source, pointsDataFile, pointsOffset, length);
+			if (mapped != null)
 			{
-				propertiesInputStream.close();
+				return new MappedPointReader(mapped.asFloatBuffer());
 			}
 		}
+
+		InputStream pointsInputStream = openSGridDataStream(source, pointsDataFile);
+		FloatReader pointsReader = FloatReader.Builder.newFloatReaderForStream(pointsInputStream)
+				.withGroupSize(3)
+				.withOffset(pointsOffset)
+				.build();
+		return new StreamPointReader(pointsInputStream, pointsReader);
+	}
+
+	/**
+	 * Map a region of the named data file (in the same directory as the SGrid
+	 * header file) into memory as a read-only, big-endian buffer (the byte
+	 * order of SGrid binary data files).
+	 * 
+	 * @return The mapped buffer, or <code>null</code> if the region is too
+	 *         large to map or extends past the end of the file
+	 */
+	private static ByteBuffer mapDataFile(File source, String file, long offset, long length) throws IOException
+	{
+		File data = new File(source.getParent(), file);
+		if (!data.exists())
+		{
+			throw new IOException("Data file '" + file + "' not found");
+		}
+		if (length > Integer.MAX_VALUE || offset + length > data.length())
+		{
+			return null;
+		}
+
+		RandomAccessFile raf = new RandomAccessFile(data, "r");
+		try
+		{
+			//the mapping remains valid after the channel is closed
+			ByteBuffer mapped = raf.getChannel().map(MapMode.READ_ONLY, offset, length);
+			mapped.order(ByteOrder.BIG_ENDIAN);
+			return mapped;
+		}
+		finally
+		{
+			raf.close();
+		}
 	}
 
 	/**
@@ -441,7 +542,7 @@ public class SGridVolumeDataProvider extends AbstractVolumeDataProvider
 	{
 		bounds = null;
 		positions = new ArrayList<Position>(xSize * ySize);
-		data = FloatBuffer.allocate(totalNumberDataPoints());
+		data = null;
 		top = 0;
 		minValue = Float.MAX_VALUE;
 		maxValue = -Float.MAX_VALUE;
@@ -893,4 +994,76 @@ public class SGridVolumeDataProvider extends AbstractVolumeDataProvider
 		}
 		return super.getZSubsamples();
 	}
+
+	/**
+	 * Reads the points from an SGrid points data file. Points must be read in
+	 * ascending position order.
+	 */
+	private static interface PointReader
+	{
+		void readPoint(int positionIndex, float[] coords) throws IOException;
+
+		void close() throws IOException;
+	}
+
+	/**
+	 * {@link PointReader} that reads points from a memory-mapped points file.
+	 */
+	private static class MappedPointReader implements PointReader
+	{
+		private final FloatBuffer points;
+
+		public MappedPointReader(FloatBuffer points)
+		{
+			this.points = points;
+		}
+
+		@Override
+		public void readPoint(int positionIndex, float[] coords)
+		{
+			int index = positionIndex * 3;
+			coords[0] = points.get(index);
+			coords[1] = points.get(index + 1);
+			coords[2] = points.get(index + 2);
+		}
+
+		@Override
+		public void close()
+		{
+		}
+	}
+
+	/**
+	 * {@link PointReader} that reads points from a points file stream,
+	 * skipping over any points that aren't required.
+	 */
+	private static class StreamPointReader implements PointReader
+	{
+		private final InputStream stream;
+		private final FloatReader reader;
+		private int nextPositionIndex = 0;
+
+		public StreamPointReader(InputStream stream, FloatReader reader)
+		{
+			this.stream = stream;
+			this.reader = reader;
+		}
+
+		@Override
+		public void readPoint(int positionIndex, float[] coords) throws IOException
+		{
+			for (; nextPositionIndex < positionIndex; nextPositionIndex++)
+			{
+				reader.skipToNextGroup();
+			}
+			reader.readNextValues(coords);
+			nextPositionIndex++;
+		}
+
+		@Override
+		public void close() throws IOException
+		{
+			stream.close();
+		}
+	}
 }
@@ -0,0 +1,497 @@
+/*******************************************************************************
+ * Copyright 2026 Geoscience Australia
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package au.gov.ga.earthsci.worldwind.common.layers.volume;
+
+import gov.nasa.worldwind.util.Logging;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+
+import au.gov.ga.earthsci.worldwind.common.util.ColorLookupTable;
+import au.gov.ga.earthsci.worldwind.common.util.ColorMap;
+import au.gov.ga.earthsci.worldwind.common.util.DaemonThreadFactory;
+
+/**
+ * Generates the textures for slices through a {@link VolumeDataProvider}'s
+ * data.
+ * <p/>
+ * Pixels are written directly into the image's int raster, with the rows of
+ * each slice split into bands that are rendered in parallel. Values are mapped
+ * to colours using a lookup table precomputed from the {@link ColorMap}.
+ * <p/>
+ * Slices can be rendered synchronously using
+ * {@link #render(int, int, Dimension)}, or asynchronously using
+ * {@link #request(Object, int, int, Dimension)} and
+ * {@link #poll(Object)}. Asynchronous requests are keyed (one key per slice
+ * surface); if a newer request is made for a key before an older request has
+ * started rendering, the older request is dropped. This means that when a
+ * slice is dragged through the volume, only the latest slice position is
+ * rendered, instead of every intermediate position.
+ * 
+ * @author Michael de Hoog (michael.dehoog@ga.gov.au)
+ */
+public class VolumeSliceRenderer
+{
+	private static final int THREAD_COUNT = Runtime.getRuntime().availableProcessors();
+	private static final int BANDS_PER_THREAD = 4;
+	private static final ExecutorService rowExecutor = Executors.newFixedThreadPool(THREAD_COUNT,
+			new DaemonThreadFactory("Volume slice renderer")); //$NON-NLS-1$
+	private static final ExecutorService requestExecutor = Executors
+			.newSingleThreadExecutor(new DaemonThreadFactory("Volume slice requests")); //$NON-NLS-1$
+
+	private final VolumeDataProvider dataProvider;
+	private final int noDataRGB;
+	private final ColorLookupTable colorLookupTable;
+
+	private final Object lock = new Object();
+	private final Map<Object, Request> pending = new LinkedHashMap<Object, Request>();
+	private final Map<Object, Request> lastRequested = new HashMap<Object, Request>();
+	private final Map<Object, Slice> completed = new HashMap<Object, Slice>();
+	private boolean draining = false;
+	private Request rendering;
+	private boolean renderingSuperseded;
+	private Listener listener;
+
+	private final Runnable drainer = new Runnable()
+	{
+		@Override
+		public void run()
+		{
+			drain();
+		}
+	};
+
+	/**
+	 * Create a new slice renderer.
+	 * 
+	 * @param dataProvider
+	 *            Provider of the volume data; its data must be available
+	 * @param colorMap
+	 *            Color map used to map values to colors; if null, the hue is
+	 *            interpolated (assumes values between 0 and 1)
+	 * @param noDataColor
+	 *            Color used for values equal to the no data value; if null,
+	 *            these values are transparent
+	 */
+	public VolumeSliceRenderer(VolumeDataProvider dataProvider, ColorMap colorMap, Color noDataColor)
+	{
+		this.dataProvider = dataProvider;
+		this.noDataRGB = noDataColor != null ? noDataColor.getRGB() : 0;
+
+		if (colorMap != null)
+		{
+			colorLookupTable =
+					ColorLookupTable.fromColorMap(colorMap, dataProvider.getMinValue(), dataProvider.getMaxValue());
+		}
+		else
+		{
+			colorLookupTable = null;
+		}
+	}
+
+	/**
+	 * Set the listener to notify when an asynchronously requested slice has
+	 * been rendered. The listener is notified on the rendering thread.
+	 * 
+	 * @param listener
+	 */
+	public void setListener(Listener listener)
+	{
+		this.listener = listener;
+	}
+
+	/**
+	 * Generate a texture slice through the volume at the given position,
+	 * blocking until it is complete.
+	 * 
+	 * @param axis
+	 *            Slicing axis (0 for a longitude slice, 1 for a latitude slice,
+	 *            2 for an elevation slice).
+	 * @param position
+	 *            Longitude, latitude, or elevation at which to slice.
+	 * @param size
+	 *            Size of the texture to generate.
+	 * @return A {@link BufferedImage} containing a representation of the volume
+	 *         slice.
+	 */
+	public BufferedImage render(int axis, int position, Dimension size)
+	{
+		int zSubsamples = dataProvider.getZSubsamples();
+		boolean subsample = axis != 2 && zSubsamples > 1;
+		int height = size.height;
+		if (subsample)
+		{
+			height *= zSubsamples;
+		}
+
+		final BufferedImage image = new BufferedImage(size.width, height, BufferedImage.TYPE_INT_ARGB);
+		final int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+		final SliceParameters parameters = new SliceParameters(axis, position, size.width, height, subsample);
+
+		int bandCount = THREAD_COUNT > 1 ? Math.min(height, THREAD_COUNT * BANDS_PER_THREAD) : 1;
+		if (bandCount <= 1)
+		{
+			renderRows(parameters, pixels, 0, height);
+			return image;
+		}
+
+		List<Callable<Object>> bands = new ArrayList<Callable<Object>>(bandCount);
+		for (int i = 0; i < bandCount; i++)
+		{
+			final int startRow = (int) ((long) height * i / bandCount);
+			final int endRow = (int) ((long) height * (i + 1) / bandCount);
+			bands.add(new Callable<Object>()
+			{
+				@Override
+				public Object call() throws Exception
+				{
+					renderRows(parameters, pixels, startRow, endRow);
+					return null;
+				}
+			});
+		}
+		try
+		{
+			for (Future<Object> future : rowExecutor.invokeAll(bands))
+			{
+				future.get();
+			}
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+		catch (ExecutionException e)
+		{
+			if (e.getCause() instanceof RuntimeException)
+			{
+				throw (RuntimeException) e.getCause();
+			}
+			throw new IllegalStateException(e.getCause());
+		}
+		return image;
+	}
+
+	/**
+	 * Generate a texture slice through the volume at the given position for
+	 * the given key, blocking until it is complete. Any pending asynchronous
+	 * request for the key is dropped.
+	 * 
+	 * @param key
+	 *            Key identifying the slice surface
+	 * @param axis
+	 *            Slicing axis
+	 * @param position
+	 *            Position at which to slice
+	 * @param size
+	 *            Size of the texture to generate
+	 * @return Rendered slice
+	 * @see #render(int, int, Dimension)
+	 */
+	public Slice renderNow(Object key, int axis, int position, Dimension size)
+	{
+		Request request = new Request(key, axis, position, size);
+		synchronized (lock)
+		{
+			pending.remove(key);
+			completed.remove(key);
+			lastRequested.put(key, request);
+			if (rendering != null && rendering.key == key)
+			{
+				renderingSuperseded = true;
+			}
+		}
+		return new Slice(axis, position, render(axis, position, size));
+	}
+
+	/**
+	 * Request a texture slice through the volume at the given position for
+	 * the given key, to be rendered in the background. The result can be
+	 * retrieved using {@link #poll(Object)}.
+	 * <p/>
+	 * Does nothing if this is the same as the last request for the key. If an
+	 * earlier request for the key has not started rendering, it is replaced by
+	 * this request.
+	 * 
+	 * @param key
+	 *            Key identifying the slice surface
+	 * @param axis
+	 *            Slicing axis
+	 * @param position
+	 *            Position at which to slice
+	 * @param size
+	 *            Size of the texture to generate
+	 */
+	public void request(Object key, int axis, int position, Dimension size)
+	{
+		Request request = new Request(key, axis, position, size);
+		synchronized (lock)
+		{
+			if (request.equals(lastRequested.get(key)))
+			{
+				return;
+			}
+			lastRequested.put(key, request);
+			pending.put(key, request);
+			if (!draining)
+			{
+				draining = true;
+				requestExecutor.execute(drainer);
+			}
+		}
+	}
+
+	/**
+	 * Retrieve and remove the most recently completed slice for the given key.
+	 * 
+	 * @param key
+	 *            Key identifying the slice surface
+	 * @return Most recently completed slice for the key, or null if no slice
+	 *         has completed since the last call
+	 */
+	public Slice poll(Object key)
+	{
+		synchronized (lock)
+		{
+			return completed.remove(key);
+		}
+	}
+
+	private void drain()
+	{
+		while (true)
+		{
+			Request request;
+			synchronized (lock)
+			{
+				Iterator<Request> iterator = pending.values().iterator();
+				if (!iterator.hasNext())
+				{
+					draining = false;
+					return;
+				}
+				request = iterator.next();
+				iterator.remove();
+				rendering = request;
+				renderingSuperseded = false;
+			}
+
+			Slice slice = null;
+			try
+			{
+				slice = new Slice(request.axis, request.position, render(request.axis, request.position, request.size));
+			}
+			catch (RuntimeException e)
+			{
+				Logging.logger().log(Level.SEVERE, "Error rendering volume slice", e); //$NON-NLS-1$
+			}
+
+			synchronized (lock)
+			{
+				//a synchronous render may have superseded this request while it was rendering
+				boolean superseded = renderingSuperseded;
+				rendering = null;
+				if (slice == null || superseded)
+				{
+					continue;
+				}
+				completed.put(request.key, slice);
+			}
+
+			Listener listener = this.listener;
+			if (listener != null)
+			{
+				listener.sliceRendered(this, request.key);
+			}
+		}
+	}
+
+	private void renderRows(SliceParameters parameters, int[] pixels, int startRow, int endRow)
+	{
+		int axis = parameters.axis;
+		int position = parameters.position;
+		int width = parameters.width;
+		int height = parameters.height;
+		float noDataValue = dataProvider.getNoDataValue();
+
+		for (int y = startRow; y < endRow; y++)
+		{
+			int z1 = 0, z2 = 0;
+			float zp = 0;
+			if (parameters.subsample)
+			{
+				double percent = y / (double) (height - 1);
+				double z = dataProvider.getElevationPercentSlice(percent);
+				z1 = (int) Math.floor(z);
+				z2 = (int) Math.ceil(z);
+				zp = (float) (z % 1.0);
+			}
+
+			int offset = y * width;
+			for (int x = 0; x < width; x++)
+			{
+				int vx = axis == 2 ? x : axis == 1 ? x : position;
+				int vy = axis == 2 ? y : axis == 1 ? position : x;
+				float value;
+				if (parameters.subsample)
+				{
+					float value1 = dataProvider.getValue(vx, vy, z1);
+					float value2 = dataProvider.getValue(vx, vy, z2);
+					value = value1 * (1f - zp) + value2 * zp;
+				}
+				else
+				{
+					int vz = axis == 2 ? position : y;
+					value = dataProvider.getValue(vx, vy, vz);
+				}
+				pixels[offset + x] = value == noDataValue ? noDataRGB : colorFor(value);
+			}
+		}
+	}
+
+	private int colorFor(float value)
+	{
+		if (colorLookupTable == null)
+		{
+			return Color.HSBtoRGB(-0.3f - value * 0.7f, 1.0f, 1.0f);
+		}
+		return colorLookupTable.getColor(value);
+	}
+
+	/**
+	 * A rendered slice texture.
+	 */
+	public static class Slice
+	{
+		private final int axis;
+		private final int position;
+		private final BufferedImage image;
+
+		public Slice(int axis, int position, BufferedImage image)
+		{
+			this.axis = axis;
+			this.position = position;
+			this.image = image;
+		}
+
+		/**
+		 * @return Slicing axis of this slice
+		 */
+		public int getAxis()
+		{
+			return axis;
+		}
+
+		/**
+		 * @return Position along the axis of this slice
+		 */
+		public int getPosition()
+		{
+			return position;
+		}
+
+		/**
+		 * @return Texture image of this slice
+		 */
+		public BufferedImage getImage()
+		{
+			return image;
+		}
+	}
+
+	/**
+	 * Listener notified when an asynchronously requested slice has been
+	 * rendered.
+	 */
+	public static interface Listener
+	{
+		/**
+		 * Called when a slice requested for the given key has been rendered,
+		 * and is available from {@link VolumeSliceRenderer#poll(Object)}.
+		 * 
+		 * @param renderer
+		 *            Renderer that rendered the slice
+		 * @param key
+		 *            Key of the slice
+		 */
+		void sliceRendered(VolumeSliceRenderer renderer, Object key);
+	}
+
+	private static class SliceParameters
+	{
+		private final int axis;
+		private final int position;
+		private final int width;
+		private final int height;
+		private final boolean subsample;
+
+		private SliceParameters(int axis, int position, int width, int height, boolean subsample)
+		{
+			this.axis = axis;
+			this.position = position;
+			this.width = width;
+			this.height = height;
+			this.subsample = subsample;
+		}
+	}
+
+	private static class Request
+	{
+		private final Object key;
+		private final int axis;
+		private final int position;
+		private final Dimension size;
+
+		private Request(Object key, int axis, int position, Dimension size)
+		{
+			this.key = key;
+			this.axis = axis;
+			this.position = position;
+			this.size = new Dimension(size);
+		}
+
+		@Override
+		public boolean equals(Object obj)
+		{
+			if (!(obj instanceof Request))
+			{
+				return false;
+			}
+			Request other = (Request) obj;
+			return other.key == key && other.axis == axis && other.position == position && other.size.equals(size);
+		}
+
+		@Override
+		public int hashCode()
+		{
+			return (key.hashCode() * 31 + axis) * 31 + position;
+		}
+	}
+}
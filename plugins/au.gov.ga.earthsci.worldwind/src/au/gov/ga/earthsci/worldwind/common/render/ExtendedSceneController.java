@@ -409,7 +409,9 @@ public class ExtendedSceneController extends BasicSceneController implements Dra
 	}
 
 	/**
-	 * Add a task to be executed on the render thread prior to painting
+	 * Add a task to be executed on the render thread prior to painting. The
+	 * task is run once; tasks that should run every frame can add themselves
+	 * again when run.
 	 */
 	public void addPrePaintTask(PaintTask r)
 	{
@@ -430,33 +432,39 @@ public class ExtendedSceneController extends BasicSceneController implements Dra
 
 	protected void doPrePaintTasks(DrawContext dc)
 	{
-		prePaintTasksLock.lock();
-		try
-		{
-			while (!prePaintTasks.isEmpty())
-			{
-				prePaintTasks.remove().run(dc);
-			}
-		}
-		finally
-		{
-			prePaintTasksLock.unlock();
-		}
+		runPaintTasks(prePaintTasks, prePaintTasksLock, dc);
 	}
 
 	protected void doPostPaintTasks(DrawContext dc)
 	{
-		postPaintTasksLock.lock();
+		runPaintTasks(postPaintTasks, postPaintTasksLock, dc);
+	}
+
+	/**
+	 * Run the tasks that were queued before this call. Tasks added while
+	 * running (for example, a task that requeues itself to run once per frame)
+	 * are run on the next call.
+	 */
+	private static void runPaintTasks(Queue<PaintTask> tasks, Lock lock, DrawContext dc)
+	{
+		List<PaintTask> toRun;
+		lock.lock();
 		try
 		{
-			while (!postPaintTasks.isEmpty())
+			if (tasks.isEmpty())
 			{
-				postPaintTasks.remove().run(dc);
+				return;
 			}
+			toRun = new ArrayList<PaintTask>(tasks);
+			tasks.clear();
 		}
 		finally
 		{
-			postPaintTasksLock.unlock();
+			lock.unlock();
+		}
+		for (PaintTask task : toRun)
+		{
+			task.run(dc);
 		}
 	}
 }
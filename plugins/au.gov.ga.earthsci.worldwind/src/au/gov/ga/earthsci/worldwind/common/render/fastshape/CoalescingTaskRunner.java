@@ -0,0 +1,321 @@
+/*******************************************************************************
+ * Copyright 2026 Geoscience Australia
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package au.gov.ga.earthsci.worldwind.common.render.fastshape;
+
+import gov.nasa.worldwind.util.Logging;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.logging.Level;
+
+/**
+ * Helper class for running tasks. Contains a number of threads (by default,
+ * one per processor) that accept runnables and their owner.
+ * <p/>
+ * Only the latest runnable from each owner is kept: submitting a runnable
+ * replaces any runnable from the same owner that hasn't started yet. Runnables
+ * from the same owner never run concurrently; if a runnable is submitted while
+ * the owner's previous runnable is running, it is run once the previous one
+ * completes.
+ * <p/>
+ * Runnables are run in order of priority (lowest value first), and in order of
+ * submission for equal priorities. All threads take from the one queue, so an
+ * idle thread always picks up the next runnable.
+ * <p/>
+ * The queue depth and the latency (time from submission to starting) of the
+ * runnables can be queried for monitoring.
+ * 
+ * @author Michael de Hoog (michael.dehoog@ga.gov.au)
+ */
+public class CoalescingTaskRunner
+{
+	private final PriorityQueue<Task> queue = new PriorityQueue<Task>();
+	private final Map<Object, Task> pending = new HashMap<Object, Task>();
+	private final Set<Object> running = new HashSet<Object>();
+	private final Object lock = new Object();
+
+	private long sequence;
+	private long submittedCount;
+	private long coalescedCount;
+	private long completedCount;
+	private long totalLatency;
+	private long maximumLatency;
+
+	/**
+	 * Create a runner with one thread per available processor.
+	 * 
+	 * @param threadName
+	 *            Name prefix of the runner's threads
+	 */
+	public CoalescingTaskRunner(String threadName)
+	{
+		this(threadName, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Create a runner with the given number of threads.
+	 * 
+	 * @param threadName
+	 *            Name prefix of the runner's threads
+	 * @param threadCount
+	 *            Number of threads
+	 */
+	public CoalescingTaskRunner(String threadName, int threadCount)
+	{
+		if (threadCount < 1)
+		{
+			throw new IllegalArgumentException("Thread count must be positive"); //$NON-NLS-1$
+		}
+
+		for (int i = 0; i < threadCount; i++)
+		{
+			Thread thread = new Thread(new Runnable()
+			{
+				@Override
+				public void run()
+				{
+					try
+					{
+						while (true)
+						{
+							runNext();
+						}
+					}
+					catch (InterruptedException e)
+					{
+						//thread interrupted, finish
+					}
+				}
+			});
+			thread.setName(threadName + " " + i); //$NON-NLS-1$
+			thread.setDaemon(true);
+			thread.start();
+		}
+	}
+
+	/**
+	 * Run the given runnable with priority 0.
+	 * 
+	 * @see #run(Object, Runnable, double)
+	 */
+	public void run(Object owner, Runnable runnable)
+	{
+		run(owner, runnable, 0);
+	}
+
+	/**
+	 * Run the given runnable on one of this runner's threads. Replaces any
+	 * runnable from the same owner that hasn't started yet.
+	 * 
+	 * @param owner
+	 *            Owner of the runnable
+	 * @param runnable
+	 *            Runnable to run
+	 * @param priority
+	 *            Priority of the runnable; runnables with lower values are run
+	 *            first
+	 */
+	public void run(Object owner, Runnable runnable, double priority)
+	{
+		synchronized (lock)
+		{
+			submittedCount++;
+			Task task = pending.get(owner);
+			boolean queued = !running.contains(owner);
+			if (task != null)
+			{
+				//replace the pending runnable, keeping the original submission time
+				coalescedCount++;
+				if (queued)
+				{
+					queue.remove(task);
+				}
+				task.runnable = runnable;
+				task.priority = priority;
+				task.sequence = sequence++;
+			}
+			else
+			{
+				task = new Task(owner, runnable, priority, sequence++);
+				pending.put(owner, task);
+			}
+
+			//tasks for running owners are queued when the running task completes
+			if (queued)
+			{
+				queue.add(task);
+				lock.notify();
+			}
+		}
+	}
+
+	private void runNext() throws InterruptedException
+	{
+		Task task;
+		synchronized (lock)
+		{
+			while (queue.isEmpty())
+			{
+				lock.wait();
+			}
+			task = queue.poll();
+			pending.remove(task.owner);
+			running.add(task.owner);
+
+			long latency = System.nanoTime() - task.submitTime;
+			totalLatency += latency;
+			maximumLatency = Math.max(maximumLatency, latency);
+		}
+
+		try
+		{
+			task.runnable.run();
+		}
+		catch (Throwable t)
+		{
+			Logging.logger().log(Level.SEVERE, "Error running task", t); //$NON-NLS-1$
+		}
+		finally
+		{
+			synchronized (lock)
+			{
+				completedCount++;
+				running.remove(task.owner);
+				Task next = pending.get(task.owner);
+				if (next != null)
+				{
+					queue.add(next);
+					lock.notify();
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return The number of runnables waiting to be run
+	 */
+	public int getQueueDepth()
+	{
+		synchronized (lock)
+		{
+			return pending.size();
+		}
+	}
+
+	/**
+	 * @return The number of runnables that are currently running
+	 */
+	public int getRunningCount()
+	{
+		synchronized (lock)
+		{
+			return running.size();
+		}
+	}
+
+	/**
+	 * @return The number of runnables submitted to this runner
+	 */
+	public long getSubmittedCount()
+	{
+		synchronized (lock)
+		{
+			return submittedCount;
+		}
+	}
+
+	/**
+	 * @return The number of submitted runnables that replaced a pending
+	 *         runnable from the same owner
+	 */
+	public long getCoalescedCount()
+	{
+		synchronized (lock)
+		{
+			return coalescedCount;
+		}
+	}
+
+	/**
+	 * @return The number of runnables that have completed
+	 */
+	public long getCompletedCount()
+	{
+		synchronized (lock)
+		{
+			return completedCount;
+		}
+	}
+
+	/**
+	 * @return The average time (in milliseconds) between an owner's runnable
+	 *         being submitted and starting to run
+	 */
+	public double getAverageLatency()
+	{
+		synchronized (lock)
+		{
+			long started = completedCount + running.size();
+			return started == 0 ? 0 : totalLatency / 1e6 / started;
+		}
+	}
+
+	/**
+	 * @return The maximum time (in milliseconds) between an owner's runnable
+	 *         being submitted and starting to run
+	 */
+	public double getMaximumLatency()
+	{
+		synchronized (lock)
+		{
+			return maximumLatency / 1e6;
+		}
+	}
+
+	/**
+	 * A runnable waiting to be run, with its owner and priority.
+	 */
+	private static class Task implements Comparable<Task>
+	{
+		public final Object owner;
+		public final long submitTime = System.nanoTime();
+		public Runnable runnable;
+		public double priority;
+		public long sequence;
+
+		public Task(Object owner, Runnable runnable, double priority, long sequence)
+		{
+			this.owner = owner;
+			this.runnable = runnable;
+			this.priority = priority;
+			this.sequence = sequence;
+		}
+
+		@Override
+		public int compareTo(Task o)
+		{
+			int c = Double.compare(priority, o.priority);
+			if (c != 0)
+			{
+				return c;
+			}
+			return sequence < o.sequence ? -1 : sequence == o.sequence ? 0 : 1;
+		}
+	}
+}
@@ -0,0 +1,251 @@
+/*******************************************************************************
+ * Copyright 2026 Geoscience Australia
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package au.gov.ga.earthsci.worldwind.common.render.fastshape;
+
+/**
+ * Sorts primitives (triangles or points) back-to-front from an eye point, for
+ * rendering transparent geometry.
+ * <p/>
+ * Each primitive's sort key is the sum of the squared distances of its vertices
+ * from the eye. Keys are stored as ints (the bits of the float key, which order
+ * the same as the float for non-negative values) alongside the primitive
+ * indices, and sorted with a radix sort. All arrays are reused between sorts,
+ * so sorting doesn't allocate unless the number of primitives changes.
+ * <p/>
+ * Each sort starts from the order of the previous sort. When the eye has only
+ * moved slightly, that order is nearly correct, and an insertion sort finishes
+ * it in close to linear time; if the insertion sort has to move too many keys,
+ * it is abandoned for the radix sort.
+ * <p/>
+ * Instances are not thread-safe.
+ * 
+ * @author Michael de Hoog (michael.dehoog@ga.gov.au)
+ */
+public class DepthSorter
+{
+	/**
+	 * Maximum number of key moves per primitive that an incremental
+	 * (insertion) sort can make before falling back to a full radix sort.
+	 */
+	protected static final int INCREMENTAL_MOVES_PER_PRIMITIVE = 16;
+
+	private int primitiveCount = -1;
+	private int[] order;
+	private int[] keys;
+	private int[] scratchOrder;
+	private int[] scratchKeys;
+	private final int[] histogram = new int[256];
+
+	private boolean lastSortIncremental;
+
+	/**
+	 * Sort the primitives back-to-front (furthest primitive first).
+	 * 
+	 * @param vertices
+	 *            Vertex coordinates (x, y, z for each vertex)
+	 * @param indices
+	 *            Vertex indices of each primitive; if null, primitives use
+	 *            consecutive vertices
+	 * @param verticesPerPrimitive
+	 *            Number of vertices in each primitive (3 for triangles, 1 for
+	 *            points)
+	 * @param eyeX
+	 * @param eyeY
+	 * @param eyeZ
+	 *            Eye point, in the same coordinate system as the vertices
+	 * @param sortedIndices
+	 *            Array to write the sorted vertex indices into; must be at
+	 *            least as long as the indices array (or the number of vertices
+	 *            if indices is null)
+	 * @return Index of the first vertex of the closest primitive, or -1 if
+	 *         there are no primitives
+	 */
+	public int sort(float[] vertices, int[] indices, int verticesPerPrimitive, double eyeX, double eyeY,
+			double eyeZ, int[] sortedIndices)
+	{
+		int vertexCount = indices != null ? indices.length : vertices.length / 3;
+		int count = vertexCount / verticesPerPrimitive;
+		if (count == 0)
+		{
+			return -1;
+		}
+
+		boolean incremental = count == primitiveCount;
+		if (!incremental)
+		{
+			allocate(count);
+		}
+
+		//calculate the keys in primitive order (sequential vertex access), into the scratch array
+		int[] primitiveKeys = scratchKeys;
+		for (int i = 0; i < count; i++)
+		{
+			int first = i * verticesPerPrimitive;
+			double distance = 0;
+			for (int k = 0; k < verticesPerPrimitive; k++)
+			{
+				int v = (indices != null ? indices[first + k] : first + k) * 3;
+				double dx = vertices[v] - eyeX;
+				double dy = vertices[v + 1] - eyeY;
+				double dz = vertices[v + 2] - eyeZ;
+				distance += dx * dx + dy * dy + dz * dz;
+			}
+			//invert the key, so that an ascending sort gives a furthest-first order
+			primitiveKeys[i] = Integer.MAX_VALUE - Float.floatToIntBits((float) distance);
+		}
+
+		if (incremental)
+		{
+			//arrange the keys in the order of the previous sort
+			for (int i = 0; i < count; i++)
+			{
+				keys[i] = primitiveKeys[order[i]];
+			}
+		}
+		else
+		{
+			scratchKeys = keys;
+			keys = primitiveKeys;
+		}
+
+		lastSortIncremental = incremental && insertionSort(count, count * INCREMENTAL_MOVES_PER_PRIMITIVE);
+		if (!lastSortIncremental)
+		{
+			radixSort(count);
+		}
+
+		for (int i = 0, j = 0; i < count; i++)
+		{
+			int first = order[i] * verticesPerPrimitive;
+			for (int k = 0; k < verticesPerPrimitive; k++, j++)
+			{
+				sortedIndices[j] = indices != null ? indices[first + k] : first + k;
+			}
+		}
+		int closest = order[count - 1] * verticesPerPrimitive;
+		return indices != null ? indices[closest] : closest;
+	}
+
+	/**
+	 * @return Was the last sort completed incrementally from the previous
+	 *         order (rather than with a full radix sort)?
+	 */
+	public boolean isLastSortIncremental()
+	{
+		return lastSortIncremental;
+	}
+
+	private void allocate(int count)
+	{
+		if (order == null || order.length < count || order.length > count * 2)
+		{
+			order = new int[count];
+			keys = new int[count];
+			scratchOrder = new int[count];
+			scratchKeys = new int[count];
+		}
+		for (int i = 0; i < count; i++)
+		{
+			order[i] = i;
+		}
+		primitiveCount = count;
+	}
+
+	/**
+	 * Insertion sort the keys, giving up if more than the given number of
+	 * keys have to be moved. The keys and order are left consistent (but
+	 * possibly unsorted) if the sort gives up.
+	 * 
+	 * @return True if the sort completed
+	 */
+	private boolean insertionSort(int count, long maximumMoves)
+	{
+		long moves = 0;
+		for (int i = 1; i < count; i++)
+		{
+			int key = keys[i];
+			if (key >= keys[i - 1])
+			{
+				continue;
+			}
+			int index = order[i];
+			int j = i - 1;
+			do
+			{
+				keys[j + 1] = keys[j];
+				order[j + 1] = order[j];
+				j--;
+				moves++;
+			}
+			while (j >= 0 && keys[j] > key);
+			keys[j + 1] = key;
+			order[j + 1] = index;
+
+			if (moves > maximumMoves)
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Stable least-significant-digit radix sort of the (non-negative) keys,
+	 * one byte per pass. Passes in which every key has the same byte are
+	 * skipped.
+	 */
+	private void radixSort(int count)
+	{
+		for (int shift = 0; shift < 32; shift += 8)
+		{
+			int[] histogram = this.histogram;
+			for (int i = 0; i < 256; i++)
+			{
+				histogram[i] = 0;
+			}
+			for (int i = 0; i < count; i++)
+			{
+				histogram[(keys[i] >>> shift) & 0xff]++;
+			}
+			if (histogram[(keys[0] >>> shift) & 0xff] == count)
+			{
+				continue;
+			}
+
+			int total = 0;
+			for (int i = 0; i < 256; i++)
+			{
+				int c = histogram[i];
+				histogram[i] = total;
+				total += c;
+			}
+			for (int i = 0; i < count; i++)
+			{
+				int key = keys[i];
+				int destination = histogram[(key >>> shift) & 0xff]++;
+				scratchKeys[destination] = key;
+				scratchOrder[destination] = order[i];
+			}
+
+			int[] swap = keys;
+			keys = scratchKeys;
+			scratchKeys = swap;
+			swap = order;
+			order = scratchOrder;
+			scratchOrder = swap;
+		}
+	}
+}
@@ -40,7 +40,6 @@ import java.io.IOException;
 import java.net.URL;
 import java.nio.FloatBuffer;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -65,11 +64,17 @@ import com.jogamp.opengl.util.texture.Texture;
  */
 public class FastShape implements OrderedRenderable, Cacheable, Bounded, Wireframeable
 {
-	protected final static SingleTaskRunner VertexUpdater = new SingleTaskRunner(FastShape.class.getName()
+	protected final static CoalescingTaskRunner VertexUpdater = new CoalescingTaskRunner(FastShape.class.getName()
 			+ " VertexUpdater"); //$NON-NLS-1$
-	protected final static SingleTaskRunner IndexUpdater = new SingleTaskRunner(FastShape.class.getName()
+	protected final static CoalescingTaskRunner IndexUpdater = new CoalescingTaskRunner(FastShape.class.getName()
 			+ " IndexUpdater"); //$NON-NLS-1$
 
+	/**
+	 * Priority added to the updates of shapes that aren't on screen, so that
+	 * they are run after the updates of all shapes that are.
+	 */
+	protected final static double OFF_SCREEN_UPDATE_PRIORITY = 1e12;
+
 	protected final ReadWriteLock positionLock = new ReentrantReadWriteLock();
 	protected final PickSupport pickSupport = new PickSupport();
 	protected Layer pickLayer = null;
@@ -83,6 +88,7 @@ public class FastShape implements OrderedRenderable, Cacheable, Bounded, Wirefra
 	protected final FloatVBO vertexVBO = new FloatVBO(3);
 	protected final FloatVBO normalVBO = new FloatVBO(3);
 	protected final IntIndexVBO sortedIndexVBO = new IntIndexVBO();
+	protected final DepthSorter depthSorter = new DepthSorter();
 
 	//set:
 	protected final IntIndexVBO indexVBO = new IntIndexVBO();
@@ -660,8 +666,28 @@ public class FastShape implements OrderedRenderable, Cacheable, Bounded, Wirefra
 		}
 		else
 		{
-			return VertexUpdater.run(this, runnable);
+			VertexUpdater.run(this, runnable, getUpdatePriority(dc));
+			return true;
+		}
+	}
+
+	/**
+	 * Calculate the priority of this shape's vertex and index updates. Updates
+	 * of shapes on screen are run first, closest to the eye first.
+	 * 
+	 * @see CoalescingTaskRunner#run(Object, Runnable, double)
+	 */
+	protected double getUpdatePriority(DrawContext dc)
+	{
+		Sphere sphere = boundingSphere;
+		if (sphere == null || dc.getView() == null)
+		{
+			return 0;
 		}
+		double distance =
+				Math.max(0, dc.getView().getEyePoint().distanceTo3(sphere.getCenter()) - sphere.getRadius());
+		boolean onScreen = dc.getView().getFrustumInModelCoordinates().intersects(sphere);
+		return onScreen ? distance : distance + OFF_SCREEN_UPDATE_PRIORITY;
 	}
 
 	protected synchronized void calculateVertices(DrawContext dc, float[] vertices)
@@ -826,17 +852,23 @@ public class FastShape implements OrderedRenderable, Cacheable, Bounded, Wirefra
 			}
 		};
 
-		IndexUpdater.run(this, runnable);
+		IndexUpdater.run(this, runnable, getUpdatePriority(dc));
 	}
 
 	protected void sortIndices(DrawContext dc, Vec4 eyePoint, float[] vertices, int[] indices, int[] sortedIndices)
 	{
-		int size = vertices.length / 3;
-		Vec4[] verts = new Vec4[size];
-
-		for (int i = 0, j = 0; i < vertices.length; i += 3, j++)
+		int verticesPerPrimitive;
+		if (mode == GL2.GL_TRIANGLES)
 		{
-			verts[j] = new Vec4(vertices[i + 0], vertices[i + 1], vertices[i + 2]);
+			verticesPerPrimitive = 3;
+		}
+		else if (mode == GL2.GL_POINTS)
+		{
+			verticesPerPrimitive = 1;
+		}
+		else
+		{
+			return;
 		}
 
 		if (boundingSphere != null)
@@ -844,57 +876,15 @@ public class FastShape implements OrderedRenderable, Cacheable, Bounded, Wirefra
 			eyePoint = eyePoint.subtract3(boundingSphere.getCenter());
 		}
 
-		if (mode == GL2.GL_TRIANGLES)
-		{
-			boolean hasIndices = indices != null;
-			int triangleCountBy3 = hasIndices ? indices.length : size;
-			IndexAndDistance[] distances = new IndexAndDistance[triangleCountBy3 / 3];
-
-			for (int i = 0, j = 0; i < triangleCountBy3; i += 3, j++)
-			{
-				int index0 = hasIndices ? indices[i + 0] : i + 0;
-				int index1 = hasIndices ? indices[i + 1] : i + 1;
-				int index2 = hasIndices ? indices[i + 2] : i + 2;
-				Vec4 v0 = verts[index0];
-				Vec4 v1 = verts[index1];
-				Vec4 v2 = verts[index2];
-				double distance =
-						v0.distanceToSquared3(eyePoint) + v1.distanceToSquared3(eyePoint)
-								+ v2.distanceToSquared3(eyePoint);
-				distances[j] = new IndexAndDistance(distance, i);
-			}
-
-			Arrays.sort(distances);
-			IndexAndDistance closest = distances[distances.length - 1];
-			Vec4 closestPoint = verts[hasIndices ? indices[closest.index] : closest.index];
-			distanceFromEye = closestPoint.distanceTo3(eyePoint);
-
-			for (int i = 0, j = 0; i < triangleCountBy3; i += 3, j++)
-			{
-				IndexAndDistance distance = distances[j];
-				sortedIndices[i + 0] = hasIndices ? indices[distance.index + 0] : distance.index + 0;
-				sortedIndices[i + 1] = hasIndices ? indices[distance.index + 1] : distance.index + 1;
-				sortedIndices[i + 2] = hasIndices ? indices[distance.index + 2] : distance.index + 2;
-			}
-		}
-		else if (mode == GL2.GL_POINTS)
+		int closest =
+				depthSorter.sort(vertices, indices, verticesPerPrimitive, eyePoint.x, eyePoint.y, eyePoint.z,
+						sortedIndices);
+		if (closest >= 0)
 		{
-			IndexAndDistance[] distances = new IndexAndDistance[size];
-			for (int i = 0; i < size; i++)
-			{
-				double distance = verts[i].distanceToSquared3(eyePoint);
-				distances[i] = new IndexAndDistance(distance, i);
-			}
-
-			Arrays.sort(distances);
-			IndexAndDistance closest = distances[distances.length - 1];
-			Vec4 closestPoint = verts[closest.index];
-			distanceFromEye = closestPoint.distanceTo3(eyePoint);
-
-			for (int i = 0; i < size; i++)
-			{
-				sortedIndices[i] = distances[i].index;
-			}
+			double dx = vertices[closest * 3 + 0] - eyePoint.x;
+			double dy = vertices[closest * 3 + 1] - eyePoint.y;
+			double dz = vertices[closest * 3 + 2] - eyePoint.z;
+			distanceFromEye = Math.sqrt(dx * dx + dy * dy + dz * dz);
 		}
 	}
 
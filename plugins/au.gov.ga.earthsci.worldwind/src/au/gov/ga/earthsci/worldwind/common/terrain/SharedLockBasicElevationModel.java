@@ -36,6 +36,7 @@ import javax.xml.xpath.XPath;
 import org.w3c.dom.Element;
 
 import au.gov.ga.earthsci.worldwind.common.layers.tiled.image.delegate.FileLockSharer;
+import au.gov.ga.earthsci.worldwind.common.layers.tiled.image.delegate.FileLocks;
 import au.gov.ga.earthsci.worldwind.common.util.AVKeyMore;
 import au.gov.ga.earthsci.worldwind.common.util.IOUtil;
 
@@ -50,7 +51,7 @@ import au.gov.ga.earthsci.worldwind.common.util.IOUtil;
  */
 public class SharedLockBasicElevationModel extends URLTransformerBasicElevationModel
 {
-	protected final Object fileLock;
+	protected final FileLocks fileLock;
 	protected boolean extractZipEntry = false;
 
 	public SharedLockBasicElevationModel(Element domElement, AVList params)
@@ -100,8 +101,8 @@ public class SharedLockBasicElevationModel extends URLTransformerBasicElevationM
 	}
 
 	/**
-	 * Extension to superclass' DownloadPostProcessor which returns this class'
-	 * fileLock instead of the superclass'.
+	 * Extension to superclass' DownloadPostProcessor which returns the lock for
+	 * the tile from this class' fileLock instead of the superclass' fileLock.
 	 * 
 	 * @author Michael de Hoog
 	 */
@@ -118,7 +119,7 @@ public class SharedLockBasicElevationModel extends URLTransformerBasicElevationM
 		@Override
 		protected Object getFileLock()
 		{
-			return em.fileLock;
+			return em.fileLock.getLock(tile.getPath());
 		}
 	}
 
@@ -131,7 +132,7 @@ public class SharedLockBasicElevationModel extends URLTransformerBasicElevationM
 	{
 		try
 		{
-			synchronized (this.fileLock)
+			synchronized (this.fileLock.getLock(url.getPath()))
 			{
 				return IOUtil.readByteBuffer(url, getElevationDataType(), getElevationDataByteOrder());
 			}
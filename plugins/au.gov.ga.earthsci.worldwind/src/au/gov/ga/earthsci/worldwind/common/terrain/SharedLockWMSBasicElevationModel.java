@@ -36,6 +36,7 @@ import javax.xml.xpath.XPath;
 import org.w3c.dom.Element;
 
 import au.gov.ga.earthsci.worldwind.common.layers.tiled.image.delegate.FileLockSharer;
+import au.gov.ga.earthsci.worldwind.common.layers.tiled.image.delegate.FileLocks;
 import au.gov.ga.earthsci.worldwind.common.util.AVKeyMore;
 import au.gov.ga.earthsci.worldwind.common.util.IOUtil;
 
@@ -50,7 +51,7 @@ import au.gov.ga.earthsci.worldwind.common.util.IOUtil;
  */
 public class SharedLockWMSBasicElevationModel extends BoundedWMSBasicElevationModel
 {
-	protected final Object fileLock;
+	protected final FileLocks fileLock;
 	protected boolean extractZipEntry = false;
 
 	public SharedLockWMSBasicElevationModel(Element domElement, AVList params)
@@ -99,8 +100,8 @@ public class SharedLockWMSBasicElevationModel extends BoundedWMSBasicElevationMo
 	}
 
 	/**
-	 * Extension to superclass' DownloadPostProcessor which returns this class'
-	 * fileLock instead of the superclass'.
+	 * Extension to superclass' DownloadPostProcessor which returns the lock for
+	 * the tile from this class' fileLock instead of the superclass' fileLock.
 	 * 
 	 * @author Michael de Hoog
 	 */
@@ -117,7 +118,7 @@ public class SharedLockWMSBasicElevationModel extends BoundedWMSBasicElevationMo
 		@Override
 		protected Object getFileLock()
 		{
-			return em.fileLock;
+			return em.fileLock.getLock(tile.getPath());
 		}
 	}
 
@@ -130,7 +131,7 @@ public class SharedLockWMSBasicElevationModel extends BoundedWMSBasicElevationMo
 	{
 		try
 		{
-			synchronized (this.fileLock)
+			synchronized (this.fileLock.getLock(url.getPath()))
 			{
 				return IOUtil.readByteBuffer(url, getElevationDataType(), getElevationDataByteOrder());
 			}
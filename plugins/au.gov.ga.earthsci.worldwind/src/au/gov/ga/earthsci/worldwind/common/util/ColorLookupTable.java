@@ -0,0 +1,219 @@
+/*******************************************************************************
+ * Copyright 2026 Geoscience Australia
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ ******************************************************************************/
+package au.gov.ga.earthsci.worldwind.common.util;
+
+/**
+ * An immutable, precomputed table of packed ARGB colours for a colour mapping
+ * function, sampled at evenly spaced values between a minimum and maximum.
+ * <p/>
+ * Values within the range are mapped to the colour of the nearest sample,
+ * without any allocation or boxing, so the table is suitable for colouring
+ * every pixel or vertex of large datasets. Values outside the range (and NaN)
+ * are passed to the colour function itself.
+ * <p/>
+ * A table with a size of 0 passes every value to the colour function; this is
+ * used for mappings that can't be sampled, such as exact matches.
+ * 
+ * @author Michael de Hoog (michael.dehoog@ga.gov.au)
+ */
+public class ColorLookupTable
+{
+	/**
+	 * Default number of samples in a lookup table
+	 */
+	public static final int DEFAULT_SIZE = 4096;
+
+	/**
+	 * Function that maps a value to a packed ARGB colour.
+	 */
+	public static interface ColorFunction
+	{
+		/**
+		 * @param value
+		 *            Value to map
+		 * @return Packed ARGB colour for the value
+		 */
+		int getColor(double value);
+	}
+
+	private final ColorFunction function;
+	private final double minimum;
+	private final double maximum;
+	private final double scale;
+	private final int[] table;
+
+	/**
+	 * Create a lookup table by sampling the given colour function.
+	 * 
+	 * @param function
+	 *            Colour function to sample
+	 * @param minimum
+	 *            Value of the first sample
+	 * @param maximum
+	 *            Value of the last sample
+	 * @param size
+	 *            Number of samples; if 0, every value is passed to the colour
+	 *            function
+	 */
+	public ColorLookupTable(ColorFunction function, double minimum, double maximum, int size)
+	{
+		Validate.notNull(function, "A color function is required"); //$NON-NLS-1$
+		Validate.isTrue(size >= 0, "Size must not be negative"); //$NON-NLS-1$
+
+		this.function = function;
+		this.minimum = Math.min(minimum, maximum);
+		this.maximum = Math.max(minimum, maximum);
+		this.table = new int[size];
+
+		double range = this.maximum - this.minimum;
+		this.scale = size > 1 && range > 0 ? (size - 1) / range : 0;
+		for (int i = 0; i < size; i++)
+		{
+			double value = size > 1 ? this.minimum + range * i / (size - 1) : this.minimum;
+			table[i] = function.getColor(value);
+		}
+	}
+
+	/**
+	 * Create a lookup table of the default size for the given colour map,
+	 * between the given minimum and maximum. If the colour map's values are
+	 * percentages, they are relative to the minimum and maximum.
+	 * 
+	 * @param colorMap
+	 *            Colour map to sample
+	 * @param minimum
+	 *            Minimum value
+	 * @param maximum
+	 *            Maximum value
+	 * @return Lookup table for the colour map
+	 * @see ColorMap#calculateColorNotingIsValuesPercentages(double, double,
+	 *      double)
+	 */
+	public static ColorLookupTable fromColorMap(ColorMap colorMap, final double minimum, final double maximum)
+	{
+		Validate.notNull(colorMap, "A color map is required"); //$NON-NLS-1$
+
+		//copy the map, so that later changes to it don't affect the out-of-range colours
+		final ColorMap copy = new ColorMap();
+		copy.putAll(colorMap);
+		copy.setInterpolateHue(colorMap.isInterpolateHue());
+		copy.setValuesPercentages(colorMap.isValuesPercentages());
+
+		ColorFunction function = new ColorFunction()
+		{
+			@Override
+			public int getColor(double value)
+			{
+				return copy.calculateColorNotingIsValuesPercentages(value, minimum, maximum).getRGB();
+			}
+		};
+		return new ColorLookupTable(function, minimum, maximum, DEFAULT_SIZE);
+	}
+
+	/**
+	 * @param value
+	 *            Value to map
+	 * @return Packed ARGB colour for the value
+	 */
+	public int getColor(double value)
+	{
+		if (value >= minimum && value <= maximum && table.length > 0)
+		{
+			return table[(int) ((value - minimum) * scale + 0.5)];
+		}
+		return function.getColor(value);
+	}
+
+	/**
+	 * Map every value in the input array to a packed ARGB colour in the output
+	 * array.
+	 * 
+	 * @param in
+	 *            Values to map
+	 * @param out
+	 *            Array to store the colours in; must be at least as long as the
+	 *            input array
+	 */
+	public void map(float[] in, int[] out)
+	{
+		map(in, 0, out, 0, in.length);
+	}
+
+	/**
+	 * Map <code>count</code> values from the input array to packed ARGB
+	 * colours in the output array.
+	 * 
+	 * @param in
+	 *            Values to map
+	 * @param inOffset
+	 *            Index of the first value to map
+	 * @param out
+	 *            Array to store the colours in
+	 * @param outOffset
+	 *            Index at which to store the first colour
+	 * @param count
+	 *            Number of values to map
+	 */
+	public void map(float[] in, int inOffset, int[] out, int outOffset, int count)
+	{
+		if (count > in.length - inOffset || count > out.length - outOffset)
+		{
+			throw new IndexOutOfBoundsException();
+		}
+
+		int[] table = this.table;
+		double minimum = this.minimum;
+		double maximum = this.maximum;
+		double scale = this.scale;
+		boolean hasTable = table.length > 0;
+		for (int i = 0; i < count; i++)
+		{
+			double value = in[inOffset + i];
+			if (hasTable && value >= minimum && value <= maximum)
+			{
+				out[outOffset + i] = table[(int) ((value - minimum) * scale + 0.5)];
+			}
+			else
+			{
+				out[outOffset + i] = function.getColor(value);
+			}
+		}
+	}
+
+	/**
+	 * @return Value of the first sample in the table
+	 */
+	public double getMinimum()
+	{
+		return minimum;
+	}
+
+	/**
+	 * @return Value of the last sample in the table
+	 */
+	public double getMaximum()
+	{
+		return maximum;
+	}
+
+	/**
+	 * @return Number of samples in the table
+	 */
+	public int getSize()
+	{
+		return table.length;
+	}
+}